@@ -0,0 +1,91 @@
+package net.fit.cobblemonmerchants.ledger;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.UUID;
+
+/**
+ * Synthetic trades for the ledger benchmarks: a fixed population of players trading with a
+ * handful of merchants, alternating between buying items for relic coins and selling items for
+ * them, so both the record indexes and the coin statistics fill up.
+ */
+final class LedgerBenchmarkData {
+    static final int MERCHANTS = 8;
+    static final int ITEMS = 32;
+
+    private LedgerBenchmarkData() {
+    }
+
+    static UUID player(int index) {
+        return new UUID(0x436F62626C656D6FL, index);
+    }
+
+    static String playerName(int index) {
+        return "Player" + index;
+    }
+
+    static String merchantId(int index) {
+        return "cobblemoncustommerchants:merchant_" + (index % MERCHANTS);
+    }
+
+    static String itemId(int index) {
+        return "cobblemon:item_" + (index % ITEMS);
+    }
+
+    /**
+     * Record the {@code index}-th synthetic trade. Consecutive trades by the same player use
+     * different items, so each one finalizes the player's previous bundle.
+     */
+    static void recordTrade(TransactionLedger ledger, int index, int players) {
+        int player = index % players;
+        int round = index / players;
+        String item = itemId(round);
+        String merchant = merchantId(player + round);
+        if ((round & 1) == 0) {
+            ledger.recordTransaction(player(player), playerName(player), merchant, "Merchant",
+                    TransactionRecord.RELIC_COIN_ID, 1 + (player + round) % 5, item, 1, 1);
+        } else {
+            ledger.recordTransaction(player(player), playerName(player), merchant, "Merchant",
+                    item, 1, TransactionRecord.RELIC_COIN_ID, 1 + (player * 7 + round) % 9, 1);
+        }
+    }
+
+    /**
+     * A ledger (not attached to any storage) holding exactly {@code records} finalized entries
+     */
+    static TransactionLedger populate(int records, int players) {
+        TransactionLedger ledger = new TransactionLedger();
+        populate(ledger, records, players);
+        return ledger;
+    }
+
+    static void populate(TransactionLedger ledger, int records, int players) {
+        for (int i = 0; i < records; i++) {
+            recordTrade(ledger, i, players);
+        }
+        ledger.finalizeAllPending();
+    }
+
+    static void deleteRecursively(Path directory) throws IOException {
+        if (directory == null || !Files.exists(directory)) {
+            return;
+        }
+        Files.walkFileTree(directory, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException error) throws IOException {
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+}
@@ -0,0 +1,98 @@
+package net.fit.cobblemonmerchants.ledger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TransactionLedger#finalizeExpiredPending()} with many players holding an open bundle:
+ * the periodic check when nothing is due yet (what almost every server tick pays), and the pass
+ * that finalizes every bundle at once.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+public class LedgerExpireBenchmark {
+
+    @State(Scope.Thread)
+    public static class Idle {
+        @Param({"1000", "10000", "100000"})
+        public int pendingPlayers;
+
+        TransactionLedger ledger;
+        private long previousWindow;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            // A window longer than the run, so no bundle comes due while measuring
+            previousWindow = LedgerConfig.BUNDLE_WINDOW_MS;
+            LedgerConfig.BUNDLE_WINDOW_MS = TimeUnit.DAYS.toMillis(1);
+            ledger = new TransactionLedger();
+            for (int i = 0; i < pendingPlayers; i++) {
+                LedgerBenchmarkData.recordTrade(ledger, i, pendingPlayers);
+            }
+            ledger.processEvents();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            LedgerConfig.BUNDLE_WINDOW_MS = previousWindow;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Due {
+        @Param({"1000", "10000", "100000"})
+        public int pendingPlayers;
+
+        TransactionLedger ledger;
+        private long previousWindow;
+
+        @Setup(Level.Invocation)
+        public void setup() throws InterruptedException {
+            previousWindow = LedgerConfig.BUNDLE_WINDOW_MS;
+            LedgerConfig.BUNDLE_WINDOW_MS = 0;
+            ledger = new TransactionLedger();
+            for (int i = 0; i < pendingPlayers; i++) {
+                LedgerBenchmarkData.recordTrade(ledger, i, pendingPlayers);
+            }
+            ledger.processEvents();
+            // Deadlines are exclusive, so let the clock move past them
+            Thread.sleep(2);
+        }
+
+        @TearDown(Level.Invocation)
+        public void tearDown() {
+            LedgerConfig.BUNDLE_WINDOW_MS = previousWindow;
+        }
+    }
+
+    @Benchmark
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public int nothingDue(Idle state) {
+        state.ledger.finalizeExpiredPending();
+        return state.ledger.getPendingCount();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 20)
+    public int allDue(Due state) {
+        state.ledger.finalizeExpiredPending();
+        return state.ledger.getRecordCount();
+    }
+}
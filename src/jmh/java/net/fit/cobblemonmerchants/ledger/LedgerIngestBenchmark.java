@@ -0,0 +1,68 @@
+package net.fit.cobblemonmerchants.ledger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link TransactionLedger#recordTransaction} followed by the server thread's
+ * {@link TransactionLedger#processEvents()}: repeated identical trades that bundle into the
+ * player's pending entry, and distinct trades that finalize the previous entry every time.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LedgerIngestBenchmark {
+    private static final int BATCH = 1000;
+
+    @Param({"1", "100", "10000"})
+    public int players;
+
+    private TransactionLedger ledger;
+    private int next;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        // A fresh ledger per iteration keeps the store from growing across the whole run
+        ledger = new TransactionLedger();
+        next = 0;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int bundledTrades() {
+        for (int i = 0; i < BATCH; i++) {
+            int player = next++ % players;
+            ledger.recordTransaction(LedgerBenchmarkData.player(player), LedgerBenchmarkData.playerName(player),
+                    LedgerBenchmarkData.merchantId(0), "Merchant",
+                    TransactionRecord.RELIC_COIN_ID, 2, LedgerBenchmarkData.itemId(0), 1, 1);
+        }
+        ledger.processEvents();
+        return ledger.getPendingCount();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int distinctTrades() {
+        for (int i = 0; i < BATCH; i++) {
+            LedgerBenchmarkData.recordTrade(ledger, next++, players);
+        }
+        ledger.processEvents();
+        return ledger.getRecordCount();
+    }
+}
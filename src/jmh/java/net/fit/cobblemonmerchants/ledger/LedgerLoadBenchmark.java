@@ -0,0 +1,83 @@
+package net.fit.cobblemonmerchants.ledger;
+
+import net.minecraft.nbt.CompoundTag;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading a saved ledger from disk: {@link TransactionLedger#load} followed by attaching its
+ * storage, which restores the snapshot (or replays every segment when {@code snapshot} is false).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class LedgerLoadBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int records;
+
+    @Param({"true", "false"})
+    public boolean snapshot;
+
+    private Path directory;
+    private Path storageDir;
+    private Path csvPath;
+    private CompoundTag savedTag;
+    private TransactionLedger loaded;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("ledger-load-bench");
+        storageDir = directory.resolve("merchant_ledger");
+        csvPath = directory.resolve("merchant_transactions.csv");
+
+        TransactionLedger ledger = new TransactionLedger();
+        ledger.attachStorage(storageDir, csvPath);
+        LedgerBenchmarkData.populate(ledger, records, 1000);
+        savedTag = ledger.save(new CompoundTag(), null);
+        ledger.shutdown();
+
+        if (!snapshot) {
+            Files.deleteIfExists(storageDir.resolve("snapshot.dat"));
+        }
+    }
+
+    @Benchmark
+    public int load() {
+        loaded = TransactionLedger.load(savedTag, null);
+        loaded.attachStorage(storageDir, csvPath);
+        return loaded.getRecordCount();
+    }
+
+    @TearDown(Level.Invocation)
+    public void closeLoaded() {
+        if (loaded != null) {
+            loaded.shutdown();
+            loaded = null;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        LedgerBenchmarkData.deleteRecursively(directory);
+    }
+}
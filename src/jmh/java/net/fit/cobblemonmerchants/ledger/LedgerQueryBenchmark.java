@@ -0,0 +1,55 @@
+package net.fit.cobblemonmerchants.ledger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read paths over a populated in-memory ledger: one player's full history (records are spread
+ * evenly over {@link #PLAYERS} players) and the top coin earners leaderboard.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class LedgerQueryBenchmark {
+    private static final int PLAYERS = 1000;
+
+    @Param({"10000", "100000", "1000000"})
+    public int records;
+
+    private TransactionLedger ledger;
+    private int nextPlayer;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        ledger = LedgerBenchmarkData.populate(records, PLAYERS);
+    }
+
+    @Benchmark
+    public List<TransactionRecord> getTransactionsForPlayer() {
+        UUID player = LedgerBenchmarkData.player(nextPlayer++ % PLAYERS);
+        return ledger.getTransactionsForPlayer(player);
+    }
+
+    @Benchmark
+    public List<Map.Entry<UUID, Integer>> getTopCoinEarners() {
+        return ledger.getTopCoinEarners(10);
+    }
+}
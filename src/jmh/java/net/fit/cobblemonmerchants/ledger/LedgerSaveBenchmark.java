@@ -0,0 +1,59 @@
+package net.fit.cobblemonmerchants.ledger;
+
+import net.minecraft.nbt.CompoundTag;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The first {@link TransactionLedger#save} of a freshly populated ledger: every record goes to the
+ * segment log, and the rollups, sketches and snapshot are written.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class LedgerSaveBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int records;
+
+    private Path directory;
+    private TransactionLedger ledger;
+
+    @Setup(Level.Invocation)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("ledger-save-bench");
+        ledger = new TransactionLedger();
+        ledger.attachStorage(directory.resolve("merchant_ledger"), directory.resolve("merchant_transactions.csv"));
+        LedgerBenchmarkData.populate(ledger, records, 1000);
+    }
+
+    @Benchmark
+    public CompoundTag save() {
+        return ledger.save(new CompoundTag(), null);
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() throws IOException {
+        ledger.shutdown();
+        LedgerBenchmarkData.deleteRecursively(directory);
+    }
+}
@@ -53,6 +53,16 @@ public class CobblemonMerchants {
 
     @SubscribeEvent
     public void onServerStarting(ServerStartingEvent event) {
+        // Load ledger settings before the ledger is first used
+        net.fit.cobblemonmerchants.ledger.LedgerConfig.load(
+            net.neoforged.fml.loading.FMLPaths.CONFIGDIR.get().resolve(net.fit.cobblemonmerchants.ledger.LedgerConfig.FILE_NAME));
+        net.fit.cobblemonmerchants.metrics.MetricsConfig.load(
+            net.neoforged.fml.loading.FMLPaths.CONFIGDIR.get().resolve(net.fit.cobblemonmerchants.metrics.MetricsConfig.FILE_NAME));
+        net.fit.cobblemonmerchants.metrics.MetricsServer.start();
+        net.fit.cobblemonmerchants.network.RateLimitConfig.load(
+            net.neoforged.fml.loading.FMLPaths.CONFIGDIR.get().resolve(net.fit.cobblemonmerchants.network.RateLimitConfig.FILE_NAME));
+        net.fit.cobblemonmerchants.network.PacketRateLimiter.reset();
+
         LOGGER.info("===== SERVER STARTING - BLACK MARKET INITIALIZATION =====");
         // Initialize the Black Market drop registry when server starts
         // This parses all Cobblemon species and builds the drop data
@@ -73,6 +83,18 @@ public class CobblemonMerchants {
         LOGGER.info("Registered merchant config reload listener");
     }
 
+    @SubscribeEvent
+    public void onPlayerLoggedOut(net.neoforged.neoforge.event.entity.player.PlayerEvent.PlayerLoggedOutEvent event) {
+        // Drop the player's rate limit buckets; their rejection counts stay for /merchantratelimit
+        net.fit.cobblemonmerchants.network.PacketRateLimiter.forget(event.getEntity().getUUID());
+    }
+
+    @SubscribeEvent
+    public void onTagsUpdated(net.neoforged.neoforge.event.TagsUpdatedEvent event) {
+        // Trade requirements resolve tag contents lazily; make them re-resolve against the new tags
+        net.fit.cobblemonmerchants.merchant.config.ItemRequirement.onTagsUpdated();
+    }
+
     @SubscribeEvent
     public void onDatapackReload(net.neoforged.neoforge.event.OnDatapackSyncEvent event) {
         // Update all merchant trades after datapack reload
@@ -106,6 +128,7 @@ public class CobblemonMerchants {
         net.fit.cobblemonmerchants.command.RefreshBlackMarketCommand.register(event.getDispatcher());
         net.fit.cobblemonmerchants.command.ResetDailyRewardsCommand.register(event.getDispatcher());
         net.fit.cobblemonmerchants.ledger.LedgerCommand.register(event.getDispatcher());
+        net.fit.cobblemonmerchants.command.RateLimitCommand.register(event.getDispatcher());
         LOGGER.info("Registered /spawnmerchant, /refreshblackmarket, /resetdailyrewards, and /ledger commands");
     }
 
@@ -117,20 +140,24 @@ public class CobblemonMerchants {
             net.fit.cobblemonmerchants.ledger.TransactionLedger ledger =
                 net.fit.cobblemonmerchants.ledger.TransactionLedger.get(overworld);
             ledger.finalizeAllPending();
+            ledger.shutdown();
             LOGGER.info("Finalized pending transactions on server shutdown");
         } catch (Exception e) {
             LOGGER.error("Failed to finalize pending transactions", e);
         }
+        net.fit.cobblemonmerchants.metrics.MetricsServer.stop();
     }
 
-    // Counter for tick-based checks (check expired transactions every 20 ticks = 1 second)
+    // Counter for tick-based checks (check expired transactions every 5 ticks = 250ms, one bundle wheel tick)
     private int tickCounter = 0;
+    // Counter for sampling metrics gauges (every MetricsConfig.SAMPLE_INTERVAL_TICKS while the endpoint runs)
+    private int metricsTickCounter = 0;
 
     @SubscribeEvent
     public void onServerTick(net.neoforged.neoforge.event.tick.ServerTickEvent.Post event) {
-        // Check every 20 ticks (1 second) for expired pending transactions
+        // Check every 5 ticks for expired pending transactions (only bundles that are due are touched)
         tickCounter++;
-        if (tickCounter >= 20) {
+        if (tickCounter >= 5) {
             tickCounter = 0;
             try {
                 net.minecraft.server.level.ServerLevel overworld = event.getServer().overworld();
@@ -141,6 +168,20 @@ public class CobblemonMerchants {
                 // Silently ignore - ledger might not be ready yet
             }
         }
+
+        // Sample queue depths on the server thread; the metrics endpoint only reads the copies
+        metricsTickCounter++;
+        if (metricsTickCounter >= net.fit.cobblemonmerchants.metrics.MetricsConfig.SAMPLE_INTERVAL_TICKS) {
+            metricsTickCounter = 0;
+            if (net.fit.cobblemonmerchants.metrics.MetricsServer.isRunning()) {
+                try {
+                    net.fit.cobblemonmerchants.metrics.MerchantMetrics.sample(
+                        net.fit.cobblemonmerchants.ledger.TransactionLedger.get(event.getServer().overworld()));
+                } catch (Exception e) {
+                    // Silently ignore - ledger might not be ready yet
+                }
+            }
+        }
     }
 
     private void registerEntityAttributes(EntityAttributeCreationEvent event) {
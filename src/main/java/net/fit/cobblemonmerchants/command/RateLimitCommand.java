@@ -0,0 +1,82 @@
+package net.fit.cobblemonmerchants.command;
+
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.context.CommandContext;
+import net.fit.cobblemonmerchants.network.PacketRateLimiter;
+import net.fit.cobblemonmerchants.network.RateLimitConfig;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.network.chat.Component;
+
+import java.util.List;
+
+/**
+ * Command to inspect the merchant packet rate limiter: /merchantratelimit [stats|reset]
+ * stats (default): shows the configured limits, packets dropped per type and the most throttled players
+ * reset: clears the per-player rejection counts
+ */
+public class RateLimitCommand {
+    private static final int TOP_PLAYERS = 10;
+
+    public static void register(CommandDispatcher<CommandSourceStack> dispatcher) {
+        dispatcher.register(
+            Commands.literal("merchantratelimit")
+                .requires(source -> source.hasPermission(2)) // OP level 2
+                .executes(RateLimitCommand::showStats)
+                .then(Commands.literal("stats")
+                    .executes(RateLimitCommand::showStats)
+                )
+                .then(Commands.literal("reset")
+                    .executes(RateLimitCommand::resetStats)
+                )
+        );
+    }
+
+    /**
+     * Shows the limits, rejections per packet type and the players rejected most often
+     */
+    private static int showStats(CommandContext<CommandSourceStack> context) {
+        CommandSourceStack source = context.getSource();
+
+        source.sendSuccess(() -> Component.literal("§6=== Merchant Packet Rate Limits ==="), false);
+        if (!RateLimitConfig.ENABLED) {
+            source.sendSuccess(() -> Component.literal("§cRate limiting is disabled in " + RateLimitConfig.FILE_NAME), false);
+        }
+        source.sendSuccess(() -> Component.literal(String.format("§7Trade clicks: §f%d §7burst, §f%.1f§7/s — §c%d §7dropped",
+            RateLimitConfig.TRADE_CLICK_BURST, RateLimitConfig.TRADE_CLICKS_PER_SECOND,
+            PacketRateLimiter.getRejected(PacketRateLimiter.Kind.TRADE_CLICK))), false);
+        source.sendSuccess(() -> Component.literal(String.format("§7Daily claims: §f%d §7burst, §f%.1f§7/s — §c%d §7dropped",
+            RateLimitConfig.DAILY_CLAIM_BURST, RateLimitConfig.DAILY_CLAIMS_PER_SECOND,
+            PacketRateLimiter.getRejected(PacketRateLimiter.Kind.CLAIM_DAILY_REWARD))), false);
+        source.sendSuccess(() -> Component.literal(String.format("§7Offer list requests: §f%d §7burst, §f%.1f§7/s — §c%d §7dropped",
+            RateLimitConfig.OFFER_REQUEST_BURST, RateLimitConfig.OFFER_REQUESTS_PER_SECOND,
+            PacketRateLimiter.getRejected(PacketRateLimiter.Kind.REQUEST_MERCHANT_OFFERS))), false);
+
+        List<PacketRateLimiter.PlayerRejections> offenders = PacketRateLimiter.getTopOffenders(TOP_PLAYERS);
+        if (offenders.isEmpty()) {
+            source.sendSuccess(() -> Component.literal("§aNo players have been rate limited."), false);
+            return 1;
+        }
+
+        source.sendSuccess(() -> Component.literal("§eMost rate limited players:"), false);
+        int rank = 1;
+        for (PacketRateLimiter.PlayerRejections player : offenders) {
+            int position = rank++;
+            source.sendSuccess(() -> Component.literal(String.format("§7%d. §f%s §7— §c%d §7trade clicks, §c%d §7daily claims, §c%d §7offer requests",
+                position, player.playerName(),
+                player.get(PacketRateLimiter.Kind.TRADE_CLICK),
+                player.get(PacketRateLimiter.Kind.CLAIM_DAILY_REWARD),
+                player.get(PacketRateLimiter.Kind.REQUEST_MERCHANT_OFFERS))), false);
+        }
+        return offenders.size();
+    }
+
+    /**
+     * Clears the per-player rejection counts (the per-type totals keep counting for metrics)
+     */
+    private static int resetStats(CommandContext<CommandSourceStack> context) {
+        PacketRateLimiter.resetStats();
+        context.getSource().sendSuccess(() -> Component.literal("§aCleared per-player rate limit statistics."), true);
+        return 1;
+    }
+}
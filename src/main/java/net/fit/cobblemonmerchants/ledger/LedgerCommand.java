@@ -1,26 +1,35 @@
 package net.fit.cobblemonmerchants.ledger;
 
 import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.arguments.StringArgumentType;
 import com.mojang.brigadier.context.CommandContext;
 import com.mojang.brigadier.suggestion.SuggestionProvider;
+import net.fit.cobblemonmerchants.ledger.storage.LedgerArchive;
+import net.fit.cobblemonmerchants.ledger.storage.LedgerRollups;
 import net.minecraft.ChatFormatting;
 import net.minecraft.commands.CommandSourceStack;
 import net.minecraft.commands.Commands;
 import net.minecraft.commands.SharedSuggestionProvider;
 import net.minecraft.commands.arguments.EntityArgument;
+import net.minecraft.network.chat.ClickEvent;
 import net.minecraft.network.chat.Component;
+import net.minecraft.network.chat.HoverEvent;
 import net.minecraft.network.chat.MutableComponent;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
 
 import java.io.IOException;
 import java.nio.file.Path;
 import java.time.Instant;
+import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -29,14 +38,20 @@ import java.util.stream.Collectors;
  * Commands for managing the transaction ledger
  *
  * /ledger summary - Show transaction summary with coin statistics
- * /ledger export - Export all transactions to CSV
+ * /ledger export [gzip] [from=..] [to=..] [merchant=..] [player=..] - Export transactions to CSV in the background
+ * /ledger status - Show ledger storage and CSV writer diagnostics
  * /ledger player <player> history - Show transactions for a player with coin stats
  * /ledger player <player> summary - Show summary for a player (player can view own)
  * /ledger me - View your own summary (no OP required)
  * /ledger merchant <id> - Show transactions for a merchant with coin stats
- * /ledger top merchants - Show busiest merchants with coin stats
- * /ledger top items - Show most popular items
- * /ledger top players - Show most active traders with coin stats
+ * /ledger query [filters] [before=<seq>|after=<seq>] [limit=<n>] - Page through matching transactions
+ * /ledger top merchants [window] - Show busiest merchants with coin stats
+ * /ledger top items [window] - Show most popular items
+ * /ledger top players [window] - Show most active traders with coin stats
+ *   (window: hour, 24h, today, week, month - answered from pre-aggregated rollups)
+ * /ledger analytics traders [merchantId] - Estimated unique traders per merchant
+ * /ledger analytics items [days] - Estimated distinct items sold per day
+ * /ledger analytics spend - Approximate median/p95 coins spent per trade
  * /ledger webhook set <url> - Set webhook URL for syncing
  * /ledger webhook sync - Sync unsynced transactions to webhook
  * /ledger webhook sync reset - Clear webhook sync tracking for full re-sync
@@ -46,6 +61,9 @@ import java.util.stream.Collectors;
  */
 public class LedgerCommand {
 
+    private static final int PAGE_SIZE = 10;
+    private static final int MAX_PAGE_SIZE = 50;
+
     private static final DateTimeFormatter SHORT_TIMESTAMP = DateTimeFormatter.ofPattern("HH:mm-MM/dd/yy")
             .withZone(ZoneId.systemDefault());
 
@@ -61,6 +79,12 @@ public class LedgerCommand {
         return SharedSuggestionProvider.suggest(merchantIds, builder);
     };
 
+    /**
+     * Suggestion provider for rollup windows (hour, 24h, today, week, month)
+     */
+    private static final SuggestionProvider<CommandSourceStack> WINDOW_SUGGESTIONS = (ctx, builder) ->
+            SharedSuggestionProvider.suggest(RollupWindow.ids(), builder);
+
     public static void register(CommandDispatcher<CommandSourceStack> dispatcher) {
         // Main ledger commands (require OP level 2)
         dispatcher.register(
@@ -69,7 +93,11 @@ public class LedgerCommand {
                 .then(Commands.literal("summary")
                     .executes(LedgerCommand::showSummary))
                 .then(Commands.literal("export")
-                    .executes(LedgerCommand::exportCsv))
+                    .executes(ctx -> exportCsv(ctx, ""))
+                    .then(Commands.argument("options", StringArgumentType.greedyString())
+                        .executes(ctx -> exportCsv(ctx, StringArgumentType.getString(ctx, "options")))))
+                .then(Commands.literal("status")
+                    .executes(LedgerCommand::showStatus))
                 .then(Commands.literal("player")
                     .then(Commands.argument("player", EntityArgument.player())
                         .then(Commands.literal("history")
@@ -80,13 +108,38 @@ public class LedgerCommand {
                     .then(Commands.argument("merchantId", StringArgumentType.greedyString())
                         .suggests(MERCHANT_SUGGESTIONS)
                         .executes(LedgerCommand::showMerchantTransactions)))
+                .then(Commands.literal("query")
+                    .executes(ctx -> runQuery(ctx, ""))
+                    .then(Commands.argument("query", StringArgumentType.greedyString())
+                        .executes(ctx -> runQuery(ctx, StringArgumentType.getString(ctx, "query")))))
                 .then(Commands.literal("top")
                     .then(Commands.literal("merchants")
-                        .executes(LedgerCommand::showTopMerchants))
+                        .executes(LedgerCommand::showTopMerchants)
+                        .then(Commands.argument("window", StringArgumentType.word())
+                            .suggests(WINDOW_SUGGESTIONS)
+                            .executes(ctx -> showTopInWindow(ctx, LedgerRollups.Dimension.MERCHANT))))
                     .then(Commands.literal("items")
-                        .executes(LedgerCommand::showTopItems))
+                        .executes(LedgerCommand::showTopItems)
+                        .then(Commands.argument("window", StringArgumentType.word())
+                            .suggests(WINDOW_SUGGESTIONS)
+                            .executes(ctx -> showTopInWindow(ctx, LedgerRollups.Dimension.ITEM))))
                     .then(Commands.literal("players")
-                        .executes(LedgerCommand::showTopPlayers)))
+                        .executes(LedgerCommand::showTopPlayers)
+                        .then(Commands.argument("window", StringArgumentType.word())
+                            .suggests(WINDOW_SUGGESTIONS)
+                            .executes(ctx -> showTopInWindow(ctx, LedgerRollups.Dimension.PLAYER)))))
+                .then(Commands.literal("analytics")
+                    .then(Commands.literal("traders")
+                        .executes(ctx -> showUniqueTraders(ctx, null))
+                        .then(Commands.argument("merchantId", StringArgumentType.greedyString())
+                            .suggests(MERCHANT_SUGGESTIONS)
+                            .executes(ctx -> showUniqueTraders(ctx, StringArgumentType.getString(ctx, "merchantId")))))
+                    .then(Commands.literal("items")
+                        .executes(ctx -> showDistinctItems(ctx, 7))
+                        .then(Commands.argument("days", IntegerArgumentType.integer(1, 400))
+                            .executes(ctx -> showDistinctItems(ctx, IntegerArgumentType.getInteger(ctx, "days")))))
+                    .then(Commands.literal("spend")
+                        .executes(LedgerCommand::showCoinSpend)))
                 .then(Commands.literal("webhook")
                     .then(Commands.literal("set")
                         .then(Commands.argument("url", StringArgumentType.string())
@@ -114,7 +167,10 @@ public class LedgerCommand {
 
     private static TransactionLedger getLedger(CommandContext<CommandSourceStack> ctx) {
         ServerLevel level = ctx.getSource().getLevel();
-        return TransactionLedger.get(level);
+        TransactionLedger ledger = TransactionLedger.get(level);
+        // Commands run on the server thread, so apply queued trades before reading
+        ledger.processEvents();
+        return ledger;
     }
 
     /**
@@ -253,95 +309,203 @@ public class LedgerCommand {
 
     private static int showSummary(CommandContext<CommandSourceStack> ctx) {
         TransactionLedger ledger = getLedger(ctx);
+        LedgerReportExecutor.submit(ctx.getSource(), "summary", () -> {
+            TransactionLedger.SummarySnapshot summary = ledger.snapshotSummary(5);
+            return () -> renderSummary(ctx, summary);
+        });
+        return 1;
+    }
+
+    private static List<Component> renderSummary(CommandContext<CommandSourceStack> ctx, TransactionLedger.SummarySnapshot summary) {
+        List<Component> lines = new ArrayList<>();
 
         // Header
-        ctx.getSource().sendSuccess(() -> Component.literal("=== Merchant Transaction Summary ===")
-                .withStyle(ChatFormatting.GOLD), false);
+        lines.add(Component.literal("=== Merchant Transaction Summary ===")
+                .withStyle(ChatFormatting.GOLD));
 
         // Overview stats
-        int totalTrades = ledger.getTotalTradeCount();
-        int totalCoinCirculation = ledger.getTotalCoinCirculation();
-
         MutableComponent overviewLine = Component.literal("Total Trades: ").withStyle(ChatFormatting.WHITE);
-        overviewLine.append(Component.literal(String.valueOf(totalTrades)).withStyle(ChatFormatting.YELLOW));
+        overviewLine.append(Component.literal(String.valueOf(summary.totalTrades())).withStyle(ChatFormatting.YELLOW));
         overviewLine.append(Component.literal(" | Net Coin Flow: ").withStyle(ChatFormatting.WHITE));
-        overviewLine.append(coloredCoinChange(totalCoinCirculation));
-        ctx.getSource().sendSuccess(() -> overviewLine, false);
+        overviewLine.append(coloredCoinChange(summary.totalCoinCirculation()));
+        lines.add(overviewLine);
 
         // Top 5 Merchants
-        ctx.getSource().sendSuccess(() -> Component.literal("--- Top 5 Merchants ---")
-                .withStyle(ChatFormatting.GOLD), false);
+        lines.add(Component.literal("--- Top 5 Merchants ---")
+                .withStyle(ChatFormatting.GOLD));
 
         int rank = 1;
-        for (Map.Entry<String, Integer> entry : ledger.getBusiestMerchants(5)) {
-            int r = rank++;
+        for (Map.Entry<String, Integer> entry : summary.topMerchants()) {
             String merchantName = shortName(entry.getKey());
-            int coinChange = ledger.getMerchantCoinChange(entry.getKey());
+            int coinChange = summary.merchantCoinChange().getOrDefault(entry.getKey(), 0);
 
-            MutableComponent line = Component.literal(r + ". ").withStyle(ChatFormatting.WHITE);
+            MutableComponent line = Component.literal(rank++ + ". ").withStyle(ChatFormatting.WHITE);
             line.append(Component.literal(merchantName).withStyle(ChatFormatting.DARK_GRAY));
             line.append(Component.literal(" | ").withStyle(ChatFormatting.DARK_GRAY));
             line.append(Component.literal(entry.getValue() + " trades").withStyle(ChatFormatting.YELLOW));
             line.append(Component.literal(" | ").withStyle(ChatFormatting.DARK_GRAY));
             line.append(coloredCoinChange(-coinChange)); // Invert for merchant perspective
 
-            ctx.getSource().sendSuccess(() -> line, false);
+            lines.add(line);
         }
 
         // Top 5 Items
-        ctx.getSource().sendSuccess(() -> Component.literal("--- Top 5 Items ---")
-                .withStyle(ChatFormatting.GOLD), false);
+        lines.add(Component.literal("--- Top 5 Items ---")
+                .withStyle(ChatFormatting.GOLD));
 
         rank = 1;
-        for (Map.Entry<String, Integer> entry : ledger.getMostPopularItems(5)) {
-            int r = rank++;
+        for (Map.Entry<String, Integer> entry : summary.topItems()) {
             String itemName = shortName(entry.getKey());
 
-            MutableComponent line = Component.literal(r + ". ").withStyle(ChatFormatting.WHITE);
+            MutableComponent line = Component.literal(rank++ + ". ").withStyle(ChatFormatting.WHITE);
             line.append(Component.literal(itemName).withStyle(ChatFormatting.YELLOW));
             line.append(Component.literal(" | ").withStyle(ChatFormatting.DARK_GRAY));
             line.append(Component.literal(entry.getValue() + " purchased").withStyle(ChatFormatting.WHITE));
 
-            ctx.getSource().sendSuccess(() -> line, false);
+            lines.add(line);
         }
 
         // Top 5 Traders
-        ctx.getSource().sendSuccess(() -> Component.literal("--- Top 5 Traders ---")
-                .withStyle(ChatFormatting.GOLD), false);
+        lines.add(Component.literal("--- Top 5 Traders ---")
+                .withStyle(ChatFormatting.GOLD));
 
         rank = 1;
-        for (Map.Entry<UUID, Integer> entry : ledger.getMostActiveTraders(5)) {
-            int r = rank++;
+        for (Map.Entry<UUID, Integer> entry : summary.topTraders()) {
             String name = getPlayerName(ctx, entry.getKey());
-            int coinChange = ledger.getPlayerCoinChange(entry.getKey());
+            int coinChange = summary.traderCoinChange().getOrDefault(entry.getKey(), 0);
 
-            MutableComponent line = Component.literal(r + ". ").withStyle(ChatFormatting.WHITE);
+            MutableComponent line = Component.literal(rank++ + ". ").withStyle(ChatFormatting.WHITE);
             line.append(Component.literal(name).withStyle(ChatFormatting.WHITE));
             line.append(Component.literal(" | ").withStyle(ChatFormatting.DARK_GRAY));
             line.append(Component.literal(entry.getValue() + " trades").withStyle(ChatFormatting.YELLOW));
             line.append(Component.literal(" | ").withStyle(ChatFormatting.DARK_GRAY));
             line.append(coloredCoinChange(coinChange));
 
-            ctx.getSource().sendSuccess(() -> line, false);
+            lines.add(line);
         }
 
-        return 1;
+        return lines;
     }
 
-    private static int exportCsv(CommandContext<CommandSourceStack> ctx) {
+    private static int exportCsv(CommandContext<CommandSourceStack> ctx, String options) {
         TransactionLedger ledger = getLedger(ctx);
+        CommandSourceStack source = ctx.getSource();
+        MinecraftServer server = source.getServer();
+
+        boolean gzip = false;
+        List<String> filterTokens = new ArrayList<>();
+        for (String token : options.trim().split("\\s+")) {
+            if (token.isEmpty()) {
+                continue;
+            }
+            if (token.equalsIgnoreCase("gzip")) {
+                gzip = true;
+            } else {
+                filterTokens.add(token);
+            }
+        }
+
+        LedgerFilter filter;
+        try {
+            filter = LedgerFilter.parse(filterTokens, name -> resolvePlayer(server, name));
+        } catch (IllegalArgumentException e) {
+            source.sendFailure(Component.literal(e.getMessage()));
+            return 0;
+        }
 
         ledger.finalizeAllPending();
 
-        try {
-            Path exportPath = ledger.exportFullCsv();
-            ctx.getSource().sendSuccess(() -> Component.literal("Exported transactions to: " + exportPath)
-                    .withStyle(ChatFormatting.GREEN), true);
-            return 1;
-        } catch (IOException e) {
-            ctx.getSource().sendFailure(Component.literal("Failed to export: " + e.getMessage()));
+        Path exportPath = ledger.startExport(filter, gzip, new LedgerExporter.Listener() {
+            @Override
+            public void onProgress(long written, long total) {
+                String text = total > 0
+                        ? String.format("Export: %d / %d transactions (%d%%)", written, total, written * 100 / total)
+                        : String.format("Export: %d transactions written", written);
+                server.execute(() -> source.sendSuccess(() -> Component.literal(text)
+                        .withStyle(ChatFormatting.GRAY), false));
+            }
+
+            @Override
+            public void onComplete(Path file, long written, long bytes) {
+                server.execute(() -> source.sendSuccess(() -> Component.literal(String.format(
+                        "Exported %d transactions (%d KiB) to: %s", written, bytes / 1024, file))
+                        .withStyle(ChatFormatting.GREEN), true));
+            }
+
+            @Override
+            public void onFailed(Path file, String reason) {
+                server.execute(() -> source.sendFailure(Component.literal("Failed to export: " + reason)));
+            }
+
+            @Override
+            public void onCancelled(Path file) {
+                server.execute(() -> source.sendFailure(Component.literal("Export cancelled: " + file.getFileName())));
+            }
+        });
+
+        if (exportPath == null) {
+            source.sendFailure(Component.literal("An export is already running - wait for it to finish"));
             return 0;
         }
+        LedgerFilter started = filter;
+        source.sendSuccess(() -> Component.literal("Exporting " + started.describe() + " in the background to "
+                + exportPath.getFileName()).withStyle(ChatFormatting.YELLOW), false);
+        return 1;
+    }
+
+    /**
+     * Resolve a player name for filters: online players first, then the server's profile cache
+     */
+    private static UUID resolvePlayer(MinecraftServer server, String name) {
+        ServerPlayer online = server.getPlayerList().getPlayerByName(name);
+        if (online != null) {
+            return online.getUUID();
+        }
+        return server.getProfileCache() != null
+                ? server.getProfileCache().get(name).map(profile -> profile.getId()).orElse(null)
+                : null;
+    }
+
+    private static int showStatus(CommandContext<CommandSourceStack> ctx) {
+        TransactionLedger ledger = getLedger(ctx);
+
+        ctx.getSource().sendSuccess(() -> Component.literal("=== Ledger Status ===")
+                .withStyle(ChatFormatting.GOLD), false);
+        ctx.getSource().sendSuccess(() -> Component.literal("Records: " + ledger.getRecordCount()
+                + " | Pending bundles: " + ledger.getPendingCount()).withStyle(ChatFormatting.WHITE), false);
+        ctx.getSource().sendSuccess(() -> Component.literal(String.format(
+                "Events: %d queued | %d applied | %d dropped",
+                ledger.getEventQueueDepth(), ledger.getEventsApplied(), ledger.getEventsDropped()
+        )).withStyle(ChatFormatting.GRAY), false);
+
+        LedgerArchive archive = ledger.getArchive();
+        if (archive != null) {
+            ctx.getSource().sendSuccess(() -> Component.literal(String.format(
+                    "Archive: %d records in %d monthly files (%.1f KiB)",
+                    archive.getArchivedRecords(), archive.getFileCount(), archive.getTotalBytes() / 1024.0
+            )).withStyle(ChatFormatting.GRAY), false);
+        }
+
+        LedgerCsvWriter csvWriter = ledger.getCsvWriter();
+        if (csvWriter == null) {
+            ctx.getSource().sendSuccess(() -> Component.literal("CSV writer: STOPPED").withStyle(ChatFormatting.GRAY), false);
+        } else {
+            int depth = csvWriter.getQueueDepth();
+            MutableComponent csvLine = Component.literal("CSV queue: ").withStyle(ChatFormatting.WHITE);
+            csvLine.append(Component.literal(String.valueOf(depth))
+                    .withStyle(depth > LedgerConfig.CSV_MAX_BATCH ? ChatFormatting.RED : ChatFormatting.GREEN));
+            csvLine.append(Component.literal(" | Written: " + csvWriter.getRecordsWritten()
+                    + " in " + csvWriter.getFlushCount() + " flushes").withStyle(ChatFormatting.WHITE));
+            ctx.getSource().sendSuccess(() -> csvLine, false);
+
+            ctx.getSource().sendSuccess(() -> Component.literal(String.format(
+                    "CSV flush: last %.2fms (%d rows) | avg %.2fms | max %.2fms",
+                    csvWriter.getLastFlushMillis(), csvWriter.getLastBatchSize(),
+                    csvWriter.getAverageFlushMillis(), csvWriter.getMaxFlushMillis()
+            )).withStyle(ChatFormatting.GRAY), false);
+        }
+
+        return 1;
     }
 
     private static int showPlayerHistory(CommandContext<CommandSourceStack> ctx) {
@@ -350,7 +514,9 @@ public class LedgerCommand {
         try {
             ServerPlayer player = EntityArgument.getPlayer(ctx, "player");
             UUID playerUuid = player.getUUID();
-            List<TransactionRecord> transactions = ledger.getTransactionsForPlayer(playerUuid);
+            LedgerFilter filter = new LedgerFilter(null, null, null, playerUuid, player.getName().getString(), null);
+            TransactionLedger.QueryPage page = ledger.queryPage(filter, Long.MAX_VALUE, true, PAGE_SIZE);
+            List<TransactionRecord> transactions = page.records();
 
             ctx.getSource().sendSuccess(() -> Component.literal("=== Transaction History for " + player.getName().getString() + " ===")
                     .withStyle(ChatFormatting.GOLD), false);
@@ -358,7 +524,7 @@ public class LedgerCommand {
             if (transactions.isEmpty()) {
                 ctx.getSource().sendSuccess(() -> Component.literal("No transactions found.").withStyle(ChatFormatting.GRAY), false);
             } else {
-                int total = transactions.stream().mapToInt(TransactionRecord::getQuantity).sum();
+                int total = ledger.getPlayerTradeCount(playerUuid);
                 int coinsGained = ledger.getPlayerCoinsGained(playerUuid);
                 int coinsSpent = ledger.getPlayerCoinsSpent(playerUuid);
                 int netCoins = ledger.getPlayerCoinChange(playerUuid);
@@ -374,12 +540,12 @@ public class LedgerCommand {
 
                 ctx.getSource().sendSuccess(() -> summaryLine, false);
 
-                // Show last 10 transactions
-                int start = Math.max(0, transactions.size() - 10);
-                for (int i = start; i < transactions.size(); i++) {
+                // Show last 10 transactions, oldest first
+                for (int i = transactions.size() - 1; i >= 0; i--) {
                     TransactionRecord t = transactions.get(i);
                     ctx.getSource().sendSuccess(() -> formatTransactionLine(t), false);
                 }
+                sendPageLinks(ctx, "player=" + playerUuid, page);
             }
 
             return 1;
@@ -413,56 +579,64 @@ public class LedgerCommand {
     }
 
     /**
-     * Display a summary for a specific player (shared logic)
+     * Display a summary for a specific player (shared logic). The player's history is scanned and
+     * aggregated on the report pool, not the server thread.
      */
     private static int displayPlayerSummary(CommandContext<CommandSourceStack> ctx, TransactionLedger ledger, UUID playerUuid, String playerName) {
-        List<TransactionRecord> transactions = ledger.getTransactionsForPlayer(playerUuid);
-
-        ctx.getSource().sendSuccess(() -> Component.literal("=== Summary for " + playerName + " ===")
-                .withStyle(ChatFormatting.GOLD), false);
-
-        if (transactions.isEmpty()) {
-            ctx.getSource().sendSuccess(() -> Component.literal("No transactions found.").withStyle(ChatFormatting.GRAY), false);
-            return 1;
-        }
-
-        int totalTrades = transactions.stream().mapToInt(TransactionRecord::getQuantity).sum();
-        int coinsGained = ledger.getPlayerCoinsGained(playerUuid);
-        int coinsSpent = ledger.getPlayerCoinsSpent(playerUuid);
-        int netCoins = ledger.getPlayerCoinChange(playerUuid);
+        LedgerReportExecutor.submit(ctx.getSource(), "player-summary:" + playerUuid, () -> {
+            TransactionLedger.PlayerSnapshot snapshot = ledger.snapshotPlayer(playerUuid);
+            return () -> renderPlayerSummary(snapshot, playerName);
+        });
+        return 1;
+    }
 
-        // Overview stats
-        MutableComponent overviewLine = Component.literal("Total Trades: ").withStyle(ChatFormatting.WHITE);
-        overviewLine.append(Component.literal(String.valueOf(totalTrades)).withStyle(ChatFormatting.YELLOW));
-        ctx.getSource().sendSuccess(() -> overviewLine, false);
+    private static List<Component> renderPlayerSummary(TransactionLedger.PlayerSnapshot snapshot, String playerName) throws IOException {
+        List<Component> lines = new ArrayList<>();
+        lines.add(Component.literal("=== Summary for " + playerName + " ===")
+                .withStyle(ChatFormatting.GOLD));
 
-        // Coin stats
-        MutableComponent coinLine = Component.literal("Coins Earned: ").withStyle(ChatFormatting.WHITE);
-        coinLine.append(Component.literal(String.valueOf(coinsGained)).withStyle(ChatFormatting.GREEN));
-        coinLine.append(Component.literal(" | Spent: ").withStyle(ChatFormatting.WHITE));
-        coinLine.append(Component.literal(String.valueOf(coinsSpent)).withStyle(ChatFormatting.RED));
-        coinLine.append(Component.literal(" | Net: ").withStyle(ChatFormatting.WHITE));
-        coinLine.append(coloredCoinChange(netCoins));
-        ctx.getSource().sendSuccess(() -> coinLine, false);
-
-        // Top items purchased by this player (excluding relic coins)
-        // Track both item counts and coin changes per item
+        // Item and merchant totals with their coin changes, in one pass over the history
+        // (relic coins are left out of the items list)
+        int[] totalTrades = new int[1];
         Map<String, Integer> itemCounts = new HashMap<>();
         Map<String, Integer> itemCoinChanges = new HashMap<>();
+        Map<String, Integer> merchantCounts = new HashMap<>();
+        Map<String, Integer> merchantCoinChanges = new HashMap<>();
         String relicCoinId = "cobblemon:relic_coin";
 
-        for (TransactionRecord t : transactions) {
+        snapshot.forEach(t -> {
+            totalTrades[0] += t.getQuantity();
             String outputItem = t.getOutputItem();
-            // Skip relic coins in the items list
             if (!relicCoinId.equals(outputItem)) {
                 itemCounts.merge(outputItem, t.getQuantity() * t.getOutputCount(), Integer::sum);
                 itemCoinChanges.merge(outputItem, t.getCoinChange(), Integer::sum);
             }
+            merchantCounts.merge(t.getMerchantId(), t.getQuantity(), Integer::sum);
+            merchantCoinChanges.merge(t.getMerchantId(), t.getCoinChange(), Integer::sum);
+        });
+
+        if (merchantCounts.isEmpty()) {
+            lines.add(Component.literal("No transactions found.").withStyle(ChatFormatting.GRAY));
+            return lines;
         }
 
+        // Overview stats
+        MutableComponent overviewLine = Component.literal("Total Trades: ").withStyle(ChatFormatting.WHITE);
+        overviewLine.append(Component.literal(String.valueOf(totalTrades[0])).withStyle(ChatFormatting.YELLOW));
+        lines.add(overviewLine);
+
+        // Coin stats
+        MutableComponent coinLine = Component.literal("Coins Earned: ").withStyle(ChatFormatting.WHITE);
+        coinLine.append(Component.literal(String.valueOf(snapshot.coinsGained())).withStyle(ChatFormatting.GREEN));
+        coinLine.append(Component.literal(" | Spent: ").withStyle(ChatFormatting.WHITE));
+        coinLine.append(Component.literal(String.valueOf(snapshot.coinsSpent())).withStyle(ChatFormatting.RED));
+        coinLine.append(Component.literal(" | Net: ").withStyle(ChatFormatting.WHITE));
+        coinLine.append(coloredCoinChange(snapshot.netCoins()));
+        lines.add(coinLine);
+
         if (!itemCounts.isEmpty()) {
-            ctx.getSource().sendSuccess(() -> Component.literal("--- Top 5 Items Purchased ---")
-                    .withStyle(ChatFormatting.GOLD), false);
+            lines.add(Component.literal("--- Top 5 Items Purchased ---")
+                    .withStyle(ChatFormatting.GOLD));
 
             int rank = 1;
             List<Map.Entry<String, Integer>> topItems = itemCounts.entrySet().stream()
@@ -471,56 +645,46 @@ public class LedgerCommand {
                     .collect(Collectors.toList());
 
             for (Map.Entry<String, Integer> entry : topItems) {
-                int r = rank++;
                 int coinChange = itemCoinChanges.getOrDefault(entry.getKey(), 0);
-                MutableComponent line = Component.literal(r + ". ").withStyle(ChatFormatting.WHITE);
+                MutableComponent line = Component.literal(rank++ + ". ").withStyle(ChatFormatting.WHITE);
                 line.append(Component.literal(shortName(entry.getKey())).withStyle(ChatFormatting.YELLOW));
                 line.append(Component.literal(" | ").withStyle(ChatFormatting.DARK_GRAY));
                 line.append(Component.literal(entry.getValue() + " received").withStyle(ChatFormatting.WHITE));
                 line.append(Component.literal(" | ").withStyle(ChatFormatting.DARK_GRAY));
                 line.append(coloredCoinChange(coinChange));
-                ctx.getSource().sendSuccess(() -> line, false);
+                lines.add(line);
             }
         }
 
-        // Top merchants used by this player with coin changes
-        Map<String, Integer> merchantCounts = new HashMap<>();
-        Map<String, Integer> merchantCoinChanges = new HashMap<>();
-        for (TransactionRecord t : transactions) {
-            merchantCounts.merge(t.getMerchantId(), t.getQuantity(), Integer::sum);
-            merchantCoinChanges.merge(t.getMerchantId(), t.getCoinChange(), Integer::sum);
-        }
+        lines.add(Component.literal("--- Top 5 Merchants Used ---")
+                .withStyle(ChatFormatting.GOLD));
 
-        if (!merchantCounts.isEmpty()) {
-            ctx.getSource().sendSuccess(() -> Component.literal("--- Top 5 Merchants Used ---")
-                    .withStyle(ChatFormatting.GOLD), false);
-
-            int rank = 1;
-            List<Map.Entry<String, Integer>> topMerchants = merchantCounts.entrySet().stream()
-                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
-                    .limit(5)
-                    .collect(Collectors.toList());
+        int rank = 1;
+        List<Map.Entry<String, Integer>> topMerchants = merchantCounts.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .limit(5)
+                .collect(Collectors.toList());
 
-            for (Map.Entry<String, Integer> entry : topMerchants) {
-                int r = rank++;
-                int coinChange = merchantCoinChanges.getOrDefault(entry.getKey(), 0);
-                MutableComponent line = Component.literal(r + ". ").withStyle(ChatFormatting.WHITE);
-                line.append(Component.literal(shortName(entry.getKey())).withStyle(ChatFormatting.DARK_GRAY));
-                line.append(Component.literal(" | ").withStyle(ChatFormatting.DARK_GRAY));
-                line.append(Component.literal(entry.getValue() + " trades").withStyle(ChatFormatting.YELLOW));
-                line.append(Component.literal(" | ").withStyle(ChatFormatting.DARK_GRAY));
-                line.append(coloredCoinChange(coinChange));
-                ctx.getSource().sendSuccess(() -> line, false);
-            }
+        for (Map.Entry<String, Integer> entry : topMerchants) {
+            int coinChange = merchantCoinChanges.getOrDefault(entry.getKey(), 0);
+            MutableComponent line = Component.literal(rank++ + ". ").withStyle(ChatFormatting.WHITE);
+            line.append(Component.literal(shortName(entry.getKey())).withStyle(ChatFormatting.DARK_GRAY));
+            line.append(Component.literal(" | ").withStyle(ChatFormatting.DARK_GRAY));
+            line.append(Component.literal(entry.getValue() + " trades").withStyle(ChatFormatting.YELLOW));
+            line.append(Component.literal(" | ").withStyle(ChatFormatting.DARK_GRAY));
+            line.append(coloredCoinChange(coinChange));
+            lines.add(line);
         }
 
-        return 1;
+        return lines;
     }
 
     private static int showMerchantTransactions(CommandContext<CommandSourceStack> ctx) {
         TransactionLedger ledger = getLedger(ctx);
         String merchantId = StringArgumentType.getString(ctx, "merchantId").trim();
-        List<TransactionRecord> transactions = ledger.getTransactionsForMerchant(merchantId);
+        LedgerFilter filter = new LedgerFilter(null, null, merchantId, null, null, null);
+        TransactionLedger.QueryPage page = ledger.queryPage(filter, Long.MAX_VALUE, true, PAGE_SIZE);
+        List<TransactionRecord> transactions = page.records();
 
         ctx.getSource().sendSuccess(() -> Component.literal("=== Transactions for " + shortName(merchantId) + " ===")
                 .withStyle(ChatFormatting.GOLD), false);
@@ -528,7 +692,7 @@ public class LedgerCommand {
         if (transactions.isEmpty()) {
             ctx.getSource().sendSuccess(() -> Component.literal("No transactions found.").withStyle(ChatFormatting.GRAY), false);
         } else {
-            int total = transactions.stream().mapToInt(TransactionRecord::getQuantity).sum();
+            int total = ledger.getMerchantTradeCount(merchantId);
             int coinsGiven = ledger.getMerchantCoinsGiven(merchantId);
             int coinsCollected = ledger.getMerchantCoinsCollected(merchantId);
             int netCoins = ledger.getMerchantCoinChange(merchantId);
@@ -544,17 +708,114 @@ public class LedgerCommand {
 
             ctx.getSource().sendSuccess(() -> summaryLine, false);
 
-            // Show last 10 transactions
-            int start = Math.max(0, transactions.size() - 10);
-            for (int i = start; i < transactions.size(); i++) {
+            // Show last 10 transactions, oldest first
+            for (int i = transactions.size() - 1; i >= 0; i--) {
                 TransactionRecord t = transactions.get(i);
                 ctx.getSource().sendSuccess(() -> formatTransactionLineForMerchant(t), false);
             }
+            sendPageLinks(ctx, "merchant=" + merchantId, page);
+        }
+
+        return 1;
+    }
+
+    /**
+     * Run a filtered query and show one page, newest first, with links to the neighbouring pages.
+     * Cursors are sequence numbers, so pages stay stable while new trades are recorded.
+     */
+    private static int runQuery(CommandContext<CommandSourceStack> ctx, String query) {
+        TransactionLedger ledger = getLedger(ctx);
+        MinecraftServer server = ctx.getSource().getServer();
+
+        long cursor = Long.MAX_VALUE;
+        boolean older = true;
+        int limit = PAGE_SIZE;
+        List<String> filterTokens = new ArrayList<>();
+        // Everything except the cursor, carried over into the page links
+        List<String> linkTokens = new ArrayList<>();
+        try {
+            for (String token : query.trim().split("\\s+")) {
+                if (token.isEmpty()) {
+                    continue;
+                }
+                String lower = token.toLowerCase(Locale.ROOT);
+                if (lower.startsWith("before=")) {
+                    cursor = Long.parseLong(token.substring("before=".length()));
+                    older = true;
+                } else if (lower.startsWith("after=")) {
+                    cursor = Long.parseLong(token.substring("after=".length()));
+                    older = false;
+                } else if (lower.startsWith("limit=")) {
+                    limit = Math.max(1, Math.min(MAX_PAGE_SIZE, Integer.parseInt(token.substring("limit=".length()))));
+                    linkTokens.add("limit=" + limit);
+                } else {
+                    filterTokens.add(token);
+                    linkTokens.add(token);
+                }
+            }
+        } catch (NumberFormatException e) {
+            ctx.getSource().sendFailure(Component.literal("Invalid number in query: " + e.getMessage()));
+            return 0;
         }
 
+        LedgerFilter filter;
+        try {
+            filter = LedgerFilter.parse(filterTokens, name -> resolvePlayer(server, name));
+        } catch (IllegalArgumentException e) {
+            ctx.getSource().sendFailure(Component.literal(e.getMessage()));
+            return 0;
+        }
+
+        TransactionLedger.QueryPage page = ledger.queryPage(filter, cursor, older, limit);
+        String title = filter.describe();
+        ctx.getSource().sendSuccess(() -> Component.literal("=== Query: " + title + " ===")
+                .withStyle(ChatFormatting.GOLD), false);
+        if (page.records().isEmpty()) {
+            ctx.getSource().sendSuccess(() -> Component.literal("No transactions found.").withStyle(ChatFormatting.GRAY), false);
+        }
+        for (int i = page.records().size() - 1; i >= 0; i--) {
+            TransactionRecord t = page.records().get(i);
+            MutableComponent line = Component.literal(t.getPlayerName()).withStyle(ChatFormatting.WHITE);
+            line.append(Component.literal(" | ").withStyle(ChatFormatting.DARK_GRAY));
+            line.append(formatTransactionLine(t));
+            ctx.getSource().sendSuccess(() -> line, false);
+        }
+        sendPageLinks(ctx, String.join(" ", linkTokens), page);
         return 1;
     }
 
+    /**
+     * Clickable [Older] / [Newer] links that re-run /ledger query from the page's first/last record
+     */
+    private static void sendPageLinks(CommandContext<CommandSourceStack> ctx, String queryArgs,
+                                      TransactionLedger.QueryPage page) {
+        List<TransactionRecord> records = page.records();
+        if (records.isEmpty() || (!page.hasOlder() && !page.hasNewer())) {
+            return;
+        }
+        String prefix = "/ledger query " + (queryArgs.isEmpty() ? "" : queryArgs + " ");
+        MutableComponent links = Component.empty();
+        if (page.hasOlder()) {
+            long oldest = records.get(records.size() - 1).getSequence();
+            links.append(pageLink("[< Older]", prefix + "before=" + oldest));
+        }
+        if (page.hasNewer()) {
+            if (page.hasOlder()) {
+                links.append(Component.literal("  "));
+            }
+            long newest = records.get(0).getSequence();
+            links.append(pageLink("[Newer >]", prefix + "after=" + newest));
+        }
+        ctx.getSource().sendSuccess(() -> links, false);
+    }
+
+    private static Component pageLink(String label, String command) {
+        return Component.literal(label).withStyle(style -> style
+                .withColor(ChatFormatting.AQUA)
+                .withClickEvent(new ClickEvent(ClickEvent.Action.RUN_COMMAND, command))
+                .withHoverEvent(new HoverEvent(HoverEvent.Action.SHOW_TEXT, Component.literal(command))));
+    }
+
     private static int showTopMerchants(CommandContext<CommandSourceStack> ctx) {
         TransactionLedger ledger = getLedger(ctx);
         List<Map.Entry<String, Integer>> top = ledger.getBusiestMerchants(10);
@@ -630,6 +891,162 @@ public class LedgerCommand {
         return 1;
     }
 
+    /**
+     * Estimated distinct traders for one merchant, or the top 10 merchants by distinct traders
+     */
+    private static int showUniqueTraders(CommandContext<CommandSourceStack> ctx, String merchantId) {
+        TransactionLedger ledger = getLedger(ctx);
+
+        if (merchantId != null) {
+            long traders = ledger.getUniqueTraders(merchantId);
+            ctx.getSource().sendSuccess(() -> Component.literal(shortName(merchantId) + ": ~" + traders + " unique traders")
+                    .withStyle(ChatFormatting.WHITE), false);
+            return 1;
+        }
+
+        ctx.getSource().sendSuccess(() -> Component.literal("=== Unique Traders per Merchant (approx.) ===")
+                .withStyle(ChatFormatting.GOLD), false);
+        List<Map.Entry<String, Long>> top = ledger.getUniqueTradersByMerchant(10);
+        if (top.isEmpty()) {
+            ctx.getSource().sendSuccess(() -> Component.literal("No transactions recorded.").withStyle(ChatFormatting.GRAY), false);
+            return 1;
+        }
+
+        int rank = 1;
+        for (Map.Entry<String, Long> entry : top) {
+            int r = rank++;
+            MutableComponent line = Component.literal(r + ". ").withStyle(ChatFormatting.WHITE);
+            line.append(Component.literal(shortName(entry.getKey())).withStyle(ChatFormatting.DARK_GRAY));
+            line.append(Component.literal(" | ").withStyle(ChatFormatting.DARK_GRAY));
+            line.append(Component.literal("~" + entry.getValue() + " traders").withStyle(ChatFormatting.YELLOW));
+            ctx.getSource().sendSuccess(() -> line, false);
+        }
+        return 1;
+    }
+
+    /**
+     * Estimated distinct output items sold on each of the last N days
+     */
+    private static int showDistinctItems(CommandContext<CommandSourceStack> ctx, int days) {
+        TransactionLedger ledger = getLedger(ctx);
+
+        ctx.getSource().sendSuccess(() -> Component.literal("=== Distinct Items Sold (last " + days + " days, approx.) ===")
+                .withStyle(ChatFormatting.GOLD), false);
+        Map<LocalDate, Long> perDay = ledger.getDistinctItemsPerDay(days);
+        if (perDay.isEmpty()) {
+            ctx.getSource().sendSuccess(() -> Component.literal("No transactions in this window.").withStyle(ChatFormatting.GRAY), false);
+            return 1;
+        }
+
+        for (Map.Entry<LocalDate, Long> entry : perDay.entrySet()) {
+            MutableComponent line = Component.literal(entry.getKey().toString()).withStyle(ChatFormatting.WHITE);
+            line.append(Component.literal(" | ").withStyle(ChatFormatting.DARK_GRAY));
+            line.append(Component.literal("~" + entry.getValue() + " items").withStyle(ChatFormatting.YELLOW));
+            ctx.getSource().sendSuccess(() -> line, false);
+        }
+        return 1;
+    }
+
+    /**
+     * Approximate distribution of relic coins spent per trade
+     */
+    private static int showCoinSpend(CommandContext<CommandSourceStack> ctx) {
+        TransactionLedger ledger = getLedger(ctx);
+
+        ctx.getSource().sendSuccess(() -> Component.literal("=== Coins Spent per Trade (approx.) ===")
+                .withStyle(ChatFormatting.GOLD), false);
+        long purchases = ledger.getCoinPurchaseCount();
+        if (purchases == 0) {
+            ctx.getSource().sendSuccess(() -> Component.literal("No coin purchases recorded.").withStyle(ChatFormatting.GRAY), false);
+            return 1;
+        }
+
+        ctx.getSource().sendSuccess(() -> Component.literal("Trades paid with coins: " + purchases)
+                .withStyle(ChatFormatting.WHITE), false);
+        MutableComponent line = Component.literal("Median: ").withStyle(ChatFormatting.WHITE);
+        line.append(Component.literal(formatCoins(ledger.getCoinsSpentPerTradeQuantile(0.5))).withStyle(ChatFormatting.YELLOW));
+        line.append(Component.literal(" | p95: ").withStyle(ChatFormatting.WHITE));
+        line.append(Component.literal(formatCoins(ledger.getCoinsSpentPerTradeQuantile(0.95))).withStyle(ChatFormatting.YELLOW));
+        line.append(Component.literal(" | Max: ").withStyle(ChatFormatting.WHITE));
+        line.append(Component.literal(formatCoins(ledger.getCoinsSpentPerTradeQuantile(1.0))).withStyle(ChatFormatting.RED));
+        ctx.getSource().sendSuccess(() -> line, false);
+        return 1;
+    }
+
+    private static String formatCoins(double coins) {
+        return coins == Math.rint(coins) ? String.valueOf((long) coins) : String.format("%.1f", coins);
+    }
+
+    /**
+     * Show the top 10 merchants/items/players for a time window, from the rollup buckets
+     */
+    private static int showTopInWindow(CommandContext<CommandSourceStack> ctx, LedgerRollups.Dimension dimension) {
+        TransactionLedger ledger = getLedger(ctx);
+        String windowId = StringArgumentType.getString(ctx, "window");
+        RollupWindow window = RollupWindow.fromId(windowId);
+        if (window == null) {
+            ctx.getSource().sendFailure(Component.literal("Unknown window '" + windowId + "'. Use one of: "
+                    + String.join(", ", RollupWindow.ids())));
+            return 0;
+        }
+
+        String title = switch (dimension) {
+            case MERCHANT -> "Merchants";
+            case ITEM -> "Items";
+            case PLAYER -> "Traders";
+        };
+        ctx.getSource().sendSuccess(() -> Component.literal("=== Top 10 " + title + " (" + window.getDisplayName() + ") ===")
+                .withStyle(ChatFormatting.GOLD), false);
+
+        LedgerRollups.Rollup totals = ledger.getWindowTotals(window);
+        MutableComponent overviewLine = Component.literal("Trades: ").withStyle(ChatFormatting.WHITE);
+        overviewLine.append(Component.literal(String.valueOf(totals.getTrades())).withStyle(ChatFormatting.YELLOW));
+        overviewLine.append(Component.literal(" | Spent: ").withStyle(ChatFormatting.WHITE));
+        overviewLine.append(Component.literal(String.valueOf(totals.getCoinsIn())).withStyle(ChatFormatting.RED));
+        overviewLine.append(Component.literal(" | Earned: ").withStyle(ChatFormatting.WHITE));
+        overviewLine.append(Component.literal(String.valueOf(totals.getCoinsOut())).withStyle(ChatFormatting.GREEN));
+        ctx.getSource().sendSuccess(() -> overviewLine, false);
+
+        List<Map.Entry<String, LedgerRollups.Rollup>> top = ledger.getTopInWindow(dimension, window, 10);
+        if (top.isEmpty()) {
+            ctx.getSource().sendSuccess(() -> Component.literal("No transactions in this window.").withStyle(ChatFormatting.GRAY), false);
+            return 1;
+        }
+
+        int rank = 1;
+        for (Map.Entry<String, LedgerRollups.Rollup> entry : top) {
+            int r = rank++;
+            LedgerRollups.Rollup rollup = entry.getValue();
+
+            MutableComponent line = Component.literal(r + ". ").withStyle(ChatFormatting.WHITE);
+            switch (dimension) {
+                case MERCHANT -> {
+                    line.append(Component.literal(shortName(entry.getKey())).withStyle(ChatFormatting.DARK_GRAY));
+                    line.append(Component.literal(" | ").withStyle(ChatFormatting.DARK_GRAY));
+                    line.append(Component.literal(rollup.getTrades() + " trades").withStyle(ChatFormatting.YELLOW));
+                    line.append(Component.literal(" | ").withStyle(ChatFormatting.DARK_GRAY));
+                    line.append(coloredCoinChange((int) -rollup.getNetCoinChange())); // Invert for merchant perspective
+                }
+                case ITEM -> {
+                    line.append(Component.literal(shortName(entry.getKey())).withStyle(ChatFormatting.YELLOW));
+                    line.append(Component.literal(" | ").withStyle(ChatFormatting.DARK_GRAY));
+                    line.append(Component.literal(rollup.getTrades() + " purchased").withStyle(ChatFormatting.WHITE));
+                }
+                case PLAYER -> {
+                    line.append(Component.literal(getPlayerName(ctx, UUID.fromString(entry.getKey()))).withStyle(ChatFormatting.WHITE));
+                    line.append(Component.literal(" | ").withStyle(ChatFormatting.DARK_GRAY));
+                    line.append(Component.literal(rollup.getTrades() + " trades").withStyle(ChatFormatting.YELLOW));
+                    line.append(Component.literal(" | ").withStyle(ChatFormatting.DARK_GRAY));
+                    line.append(coloredCoinChange((int) rollup.getNetCoinChange()));
+                }
+            }
+
+            ctx.getSource().sendSuccess(() -> line, false);
+        }
+
+        return 1;
+    }
+
     private static int clearData(CommandContext<CommandSourceStack> ctx) {
         TransactionLedger ledger = getLedger(ctx);
         ledger.clearAllData();
@@ -669,6 +1086,12 @@ public class LedgerCommand {
             return 0;
         }
 
+        if (ledger.isWebhookSyncRunning()) {
+            ctx.getSource().sendFailure(Component.literal(
+                    "A webhook sync is already running - check /ledger webhook status for progress"));
+            return 0;
+        }
+
         int[] stats = ledger.syncAllToWebhook();
         int total = stats[0];
         int alreadySynced = stats[1];
@@ -682,7 +1105,7 @@ public class LedgerCommand {
                     "Syncing %d new transactions (%d already synced, %d total)",
                     toSync, alreadySynced, total
             )).withStyle(ChatFormatting.YELLOW), false);
-            ctx.getSource().sendSuccess(() -> Component.literal("Check logs for progress...")
+            ctx.getSource().sendSuccess(() -> Component.literal("Sending in batches - check /ledger webhook status for progress")
                     .withStyle(ChatFormatting.GRAY), false);
         }
 
@@ -701,7 +1124,7 @@ public class LedgerCommand {
         int total = ledger.getTotalTradeCount();
 
         ctx.getSource().sendSuccess(() -> Component.literal(String.format(
-                "Reset webhook sync tracking! Cleared %d synced IDs.", cleared
+                "Reset webhook sync tracking! Cleared %d synced transactions.", cleared
         )).withStyle(ChatFormatting.GREEN), true);
         ctx.getSource().sendSuccess(() -> Component.literal(String.format(
                 "%d transactions are now ready for re-sync. Use /ledger webhook sync to send them.", total
@@ -741,6 +1164,19 @@ public class LedgerCommand {
                         "Sync: %d unsynced transactions (use /ledger webhook sync)", unsynced
                 )).withStyle(ChatFormatting.YELLOW), false);
             }
+
+            LedgerWebhookDispatcher dispatcher = ledger.getWebhookDispatcher();
+            if (dispatcher != null) {
+                ctx.getSource().sendSuccess(() -> Component.literal(String.format(
+                        "Queue: %d live, %d backlog, %d in flight",
+                        dispatcher.getQueueDepth(), dispatcher.getBacklogDepth(), dispatcher.getInFlight()
+                )).withStyle(ChatFormatting.GRAY), false);
+                ctx.getSource().sendSuccess(() -> Component.literal(String.format(
+                        "Delivered: %d in %d requests | Retries: %d | Failed: %d | Dropped: %d",
+                        dispatcher.getDelivered(), dispatcher.getRequests(), dispatcher.getRetries(),
+                        dispatcher.getFailed(), dispatcher.getDropped()
+                )).withStyle(ChatFormatting.GRAY), false);
+            }
         } else {
             ctx.getSource().sendSuccess(() -> Component.literal("Webhook: DISABLED")
                     .withStyle(ChatFormatting.GRAY), false);
@@ -0,0 +1,184 @@
+package net.fit.cobblemonmerchants.ledger;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import net.fit.cobblemonmerchants.CobblemonMerchants;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Configuration for the transaction ledger.
+ * Values are loaded from config/cobblemoncustommerchants-ledger.json when the server starts;
+ * missing keys keep their defaults, and the file is created with defaults if it does not exist.
+ * This class provides static access to the loaded configuration.
+ */
+public class LedgerConfig {
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    public static final String FILE_NAME = "cobblemoncustommerchants-ledger.json";
+
+    // ===== CSV SETTINGS =====
+    /**
+     * How often the background CSV writer flushes queued transactions, in milliseconds (default: 1000)
+     */
+    public static long CSV_FLUSH_INTERVAL_MS = 1000;
+
+    /**
+     * Maximum number of transactions written per CSV flush (default: 512)
+     */
+    public static int CSV_MAX_BATCH = 512;
+
+    // ===== RETENTION SETTINGS =====
+    /**
+     * Days a transaction stays in memory before its segment is compressed into the monthly archive;
+     * 0 keeps everything in memory (default: 30)
+     */
+    public static int HOT_RETENTION_DAYS = 30;
+
+    // ===== BUNDLING SETTINGS =====
+    /**
+     * How long after a trade an identical trade is still bundled into the same ledger entry, in milliseconds (default: 10000)
+     */
+    public static long BUNDLE_WINDOW_MS = 10000;
+
+    // ===== REPORT SETTINGS =====
+    /**
+     * Worker threads that render heavy /ledger reports off the server thread (default: 2)
+     */
+    public static int REPORT_THREADS = 2;
+
+    /**
+     * How long an identical /ledger report is served from cache, in seconds; 0 disables caching (default: 5)
+     */
+    public static int REPORT_CACHE_SECONDS = 5;
+
+    // ===== WEBHOOK SETTINGS =====
+    /**
+     * Maximum number of live transactions waiting for webhook delivery (default: 10000)
+     */
+    public static int WEBHOOK_QUEUE_CAPACITY = 10000;
+
+    /**
+     * Maximum number of transactions sent per webhook request; batches are sent as a JSON array (default: 25)
+     */
+    public static int WEBHOOK_BATCH_SIZE = 25;
+
+    /**
+     * Maximum number of webhook requests in flight at once (default: 2)
+     */
+    public static int WEBHOOK_MAX_CONCURRENCY = 2;
+
+    /**
+     * Attempts per batch before it is left unsynced for a later manual sync (default: 5)
+     */
+    public static int WEBHOOK_MAX_ATTEMPTS = 5;
+
+    /**
+     * Delay before the first retry, doubled on each further attempt, in milliseconds (default: 500)
+     */
+    public static long WEBHOOK_INITIAL_BACKOFF_MS = 500;
+
+    /**
+     * Upper bound for the retry delay, in milliseconds (default: 30000)
+     */
+    public static long WEBHOOK_MAX_BACKOFF_MS = 30000;
+
+    /**
+     * Timeout for a single webhook request, in milliseconds (default: 10000)
+     */
+    public static long WEBHOOK_REQUEST_TIMEOUT_MS = 10000;
+
+    /**
+     * What to drop when the webhook queue is full: "drop_newest" or "drop_oldest" (default: drop_newest)
+     */
+    public static LedgerWebhookDispatcher.BackpressurePolicy WEBHOOK_BACKPRESSURE_POLICY =
+            LedgerWebhookDispatcher.BackpressurePolicy.DROP_NEWEST;
+
+    /**
+     * Loads configuration from a JSON file, writing a default file if none exists
+     * @param file Path to the JSON config file
+     */
+    public static void load(Path file) {
+        if (!Files.exists(file)) {
+            save(file);
+            return;
+        }
+
+        try {
+            JsonObject json = JsonParser.parseString(Files.readString(file)).getAsJsonObject();
+            CSV_FLUSH_INTERVAL_MS = Math.max(50, getLong(json, "csvFlushIntervalMs", CSV_FLUSH_INTERVAL_MS));
+            CSV_MAX_BATCH = Math.max(1, getInt(json, "csvMaxBatch", CSV_MAX_BATCH));
+            HOT_RETENTION_DAYS = Math.max(0, getInt(json, "hotRetentionDays", HOT_RETENTION_DAYS));
+            BUNDLE_WINDOW_MS = Math.max(0, getLong(json, "bundleWindowMs", BUNDLE_WINDOW_MS));
+            REPORT_THREADS = Math.max(1, getInt(json, "reportThreads", REPORT_THREADS));
+            REPORT_CACHE_SECONDS = Math.max(0, getInt(json, "reportCacheSeconds", REPORT_CACHE_SECONDS));
+            WEBHOOK_QUEUE_CAPACITY = Math.max(1, getInt(json, "webhookQueueCapacity", WEBHOOK_QUEUE_CAPACITY));
+            WEBHOOK_BATCH_SIZE = Math.max(1, getInt(json, "webhookBatchSize", WEBHOOK_BATCH_SIZE));
+            WEBHOOK_MAX_CONCURRENCY = Math.max(1, getInt(json, "webhookMaxConcurrency", WEBHOOK_MAX_CONCURRENCY));
+            WEBHOOK_MAX_ATTEMPTS = Math.max(1, getInt(json, "webhookMaxAttempts", WEBHOOK_MAX_ATTEMPTS));
+            WEBHOOK_INITIAL_BACKOFF_MS = Math.max(10, getLong(json, "webhookInitialBackoffMs", WEBHOOK_INITIAL_BACKOFF_MS));
+            WEBHOOK_MAX_BACKOFF_MS = Math.max(WEBHOOK_INITIAL_BACKOFF_MS, getLong(json, "webhookMaxBackoffMs", WEBHOOK_MAX_BACKOFF_MS));
+            WEBHOOK_REQUEST_TIMEOUT_MS = Math.max(1000, getLong(json, "webhookRequestTimeoutMs", WEBHOOK_REQUEST_TIMEOUT_MS));
+            String policy = getString(json, "webhookBackpressurePolicy", WEBHOOK_BACKPRESSURE_POLICY.getId());
+            LedgerWebhookDispatcher.BackpressurePolicy parsedPolicy = LedgerWebhookDispatcher.BackpressurePolicy.fromId(policy);
+            if (parsedPolicy != null) {
+                WEBHOOK_BACKPRESSURE_POLICY = parsedPolicy;
+            } else {
+                CobblemonMerchants.LOGGER.warn("Unknown webhookBackpressurePolicy '{}' - using {}", policy,
+                        WEBHOOK_BACKPRESSURE_POLICY.getId());
+            }
+            CobblemonMerchants.LOGGER.info("Loaded ledger configuration from {}", file);
+        } catch (Exception e) {
+            CobblemonMerchants.LOGGER.error("Failed to load ledger configuration from {} - using defaults", file, e);
+        }
+    }
+
+    /**
+     * Writes the current values to a JSON file
+     */
+    public static void save(Path file) {
+        JsonObject json = new JsonObject();
+        json.addProperty("csvFlushIntervalMs", CSV_FLUSH_INTERVAL_MS);
+        json.addProperty("csvMaxBatch", CSV_MAX_BATCH);
+        json.addProperty("hotRetentionDays", HOT_RETENTION_DAYS);
+        json.addProperty("bundleWindowMs", BUNDLE_WINDOW_MS);
+        json.addProperty("reportThreads", REPORT_THREADS);
+        json.addProperty("reportCacheSeconds", REPORT_CACHE_SECONDS);
+        json.addProperty("webhookQueueCapacity", WEBHOOK_QUEUE_CAPACITY);
+        json.addProperty("webhookBatchSize", WEBHOOK_BATCH_SIZE);
+        json.addProperty("webhookMaxConcurrency", WEBHOOK_MAX_CONCURRENCY);
+        json.addProperty("webhookMaxAttempts", WEBHOOK_MAX_ATTEMPTS);
+        json.addProperty("webhookInitialBackoffMs", WEBHOOK_INITIAL_BACKOFF_MS);
+        json.addProperty("webhookMaxBackoffMs", WEBHOOK_MAX_BACKOFF_MS);
+        json.addProperty("webhookRequestTimeoutMs", WEBHOOK_REQUEST_TIMEOUT_MS);
+        json.addProperty("webhookBackpressurePolicy", WEBHOOK_BACKPRESSURE_POLICY.getId());
+
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Files.writeString(file, GSON.toJson(json));
+        } catch (IOException e) {
+            CobblemonMerchants.LOGGER.error("Failed to write ledger configuration to {}", file, e);
+        }
+    }
+
+    private static long getLong(JsonObject json, String key, long fallback) {
+        JsonElement element = json.get(key);
+        return element != null && element.isJsonPrimitive() ? element.getAsLong() : fallback;
+    }
+
+    private static String getString(JsonObject json, String key, String fallback) {
+        JsonElement element = json.get(key);
+        return element != null && element.isJsonPrimitive() ? element.getAsString() : fallback;
+    }
+
+    private static int getInt(JsonObject json, String key, int fallback) {
+        JsonElement element = json.get(key);
+        return element != null && element.isJsonPrimitive() ? element.getAsInt() : fallback;
+    }
+}
@@ -0,0 +1,205 @@
+package net.fit.cobblemonmerchants.ledger;
+
+import net.fit.cobblemonmerchants.CobblemonMerchants;
+import net.fit.cobblemonmerchants.metrics.MerchantMetrics;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background writer for the auto-append transaction CSV.
+ *
+ * The server thread only enqueues finalized records. A single daemon thread keeps the CSV open,
+ * waits up to {@link LedgerConfig#CSV_FLUSH_INTERVAL_MS} for records to accumulate, then writes
+ * and flushes them as one batch (group commit).
+ *
+ * The thread is stopped with a marker record queued behind everything else, never with an
+ * interrupt: the CSV's channel is interruptible, so an interrupt mid-write would close it and lose
+ * the batch and every row still queued.
+ */
+public class LedgerCsvWriter {
+    // Queued by close(); the writer stops once it reaches it
+    private static final TransactionRecord STOP = new TransactionRecord(new java.util.UUID(0, 0), "", "", "", "", 0, "", 0);
+
+    private final Path csvPath;
+    private final long flushIntervalMs;
+    private final int maxBatch;
+    private final LinkedBlockingQueue<TransactionRecord> queue = new LinkedBlockingQueue<>();
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    private BufferedWriter writer;
+
+    // Statistics (read from the server thread)
+    private final AtomicLong recordsWritten = new AtomicLong();
+    private final AtomicLong flushCount = new AtomicLong();
+    private final AtomicLong totalFlushNanos = new AtomicLong();
+    private volatile long lastFlushNanos = 0;
+    private volatile long maxFlushNanos = 0;
+    private volatile int lastBatchSize = 0;
+
+    public LedgerCsvWriter(Path csvPath, long flushIntervalMs, int maxBatch) {
+        this.csvPath = csvPath;
+        this.flushIntervalMs = flushIntervalMs;
+        this.maxBatch = maxBatch;
+        this.thread = new Thread(this::run, "Ledger-CSV-Writer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Queue a finalized record for writing (non-blocking)
+     */
+    public void submit(TransactionRecord record) {
+        queue.add(record);
+    }
+
+    /**
+     * Drop any records that have not been written yet
+     */
+    public void discardPending() {
+        queue.removeIf(record -> record != STOP);
+    }
+
+    /**
+     * Stop the writer thread after it has written everything still queued
+     */
+    public void close() {
+        running = false;
+        queue.add(STOP);
+        try {
+            thread.join(5000 + flushIntervalMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        List<TransactionRecord> batch = new ArrayList<>(maxBatch);
+        boolean stopping = false;
+        while (!stopping) {
+            TransactionRecord first;
+            try {
+                first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                continue;
+            }
+            if (first == null) {
+                continue;
+            }
+            batch.add(first);
+
+            // Let a burst accumulate for one flush interval so it is committed as a single write
+            if (running && first != STOP) {
+                try {
+                    Thread.sleep(flushIntervalMs);
+                } catch (InterruptedException e) {
+                    // Write what we have now
+                }
+            }
+
+            queue.drainTo(batch, maxBatch - batch.size());
+            stopping = batch.removeIf(record -> record == STOP);
+            if (!batch.isEmpty()) {
+                writeBatch(batch);
+            }
+            batch.clear();
+        }
+
+        // Anything submitted after close() still gets written
+        while (queue.drainTo(batch, maxBatch) > 0) {
+            writeBatch(batch);
+            batch.clear();
+        }
+        closeWriter();
+    }
+
+    private void writeBatch(List<TransactionRecord> batch) {
+        long start = System.nanoTime();
+        try {
+            BufferedWriter out = openWriter();
+            for (TransactionRecord record : batch) {
+                out.write(record.toCsvRow());
+                out.newLine();
+            }
+            out.flush();
+            recordsWritten.addAndGet(batch.size());
+        } catch (IOException e) {
+            CobblemonMerchants.LOGGER.error("Failed to write {} transactions to CSV: {}", batch.size(), e.getMessage());
+            closeWriter();
+        }
+
+        long elapsed = System.nanoTime() - start;
+        MerchantMetrics.CSV_FLUSH_SECONDS.observeNanos(elapsed);
+        lastFlushNanos = elapsed;
+        maxFlushNanos = Math.max(maxFlushNanos, elapsed);
+        totalFlushNanos.addAndGet(elapsed);
+        flushCount.incrementAndGet();
+        lastBatchSize = batch.size();
+    }
+
+    private BufferedWriter openWriter() throws IOException {
+        if (writer == null) {
+            if (csvPath.getParent() != null) {
+                Files.createDirectories(csvPath.getParent());
+            }
+            boolean needsHeader = !Files.exists(csvPath) || Files.size(csvPath) == 0;
+            writer = Files.newBufferedWriter(csvPath, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            if (needsHeader) {
+                writer.write(TransactionRecord.getCsvHeader());
+                writer.newLine();
+            }
+        }
+        return writer;
+    }
+
+    private void closeWriter() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                CobblemonMerchants.LOGGER.error("Failed to close transaction CSV: {}", e.getMessage());
+            }
+            writer = null;
+        }
+    }
+
+    // ==================== Statistics ====================
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public long getRecordsWritten() {
+        return recordsWritten.get();
+    }
+
+    public long getFlushCount() {
+        return flushCount.get();
+    }
+
+    public int getLastBatchSize() {
+        return lastBatchSize;
+    }
+
+    public double getLastFlushMillis() {
+        return lastFlushNanos / 1_000_000.0;
+    }
+
+    public double getMaxFlushMillis() {
+        return maxFlushNanos / 1_000_000.0;
+    }
+
+    public double getAverageFlushMillis() {
+        long flushes = flushCount.get();
+        return flushes == 0 ? 0 : totalFlushNanos.get() / 1_000_000.0 / flushes;
+    }
+}
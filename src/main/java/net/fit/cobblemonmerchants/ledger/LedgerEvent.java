@@ -0,0 +1,20 @@
+package net.fit.cobblemonmerchants.ledger;
+
+/**
+ * A change to the ledger, published by any thread and applied by the ledger's single consumer
+ * (the server thread). See {@link TransactionLedger#processEvents()}.
+ */
+public sealed interface LedgerEvent {
+    /**
+     * {@code record.getQuantity()} identical trades were completed at {@code timeMs} (epoch millis);
+     * bundled or started as a new pending entry
+     */
+    record Trade(TransactionRecord record, long timeMs) implements LedgerEvent {
+    }
+
+    /**
+     * The webhook acknowledged delivery of these ledger sequence numbers
+     */
+    record WebhookAck(long[] sequences) implements LedgerEvent {
+    }
+}
@@ -0,0 +1,204 @@
+package net.fit.cobblemonmerchants.ledger;
+
+import net.fit.cobblemonmerchants.CobblemonMerchants;
+import net.fit.cobblemonmerchants.ledger.storage.LedgerArchive;
+import net.fit.cobblemonmerchants.ledger.storage.LedgerColumnStore;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes full CSV exports on a background thread.
+ *
+ * The server thread hands over a snapshot: the matching in-memory records (for an unfiltered
+ * export, a column copy whose records are built here) and an {@link LedgerArchive.Snapshot} of the archive. The worker streams the archive (month by month,
+ * in ledger order within each month) and then the in-memory records into a temporary file,
+ * optionally gzip-compressed, and renames it into place when done. Trades keep being recorded
+ * while it runs; they are simply not part of this export.
+ *
+ * One export runs at a time.
+ */
+public class LedgerExporter {
+    private static final long PROGRESS_INTERVAL_MS = 5000;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Export outcomes. Called from the export thread, not the server thread.
+     */
+    public interface Listener {
+        /**
+         * Periodic update; total is -1 when a filter makes the final count unknown
+         */
+        void onProgress(long written, long total);
+
+        void onComplete(Path file, long written, long bytes);
+
+        void onFailed(Path file, String reason);
+
+        /**
+         * The export was stopped by {@link #cancel()} (e.g. the ledger was cleared or the server is stopping)
+         */
+        default void onCancelled(Path file) {
+            onFailed(file, "cancelled");
+        }
+    }
+
+    private final AtomicBoolean busy = new AtomicBoolean();
+    private volatile Thread thread;
+    // Set by cancel(); checked before each row is written
+    private volatile boolean cancelled;
+
+    public boolean isBusy() {
+        return busy.get();
+    }
+
+    /**
+     * Start an export (archive may be null if there is none). Returns false (and does nothing) if
+     * another export is still running.
+     */
+    public boolean start(Path file, boolean gzip, LedgerFilter filter, LedgerArchive.Snapshot archive,
+                         List<TransactionRecord> hotRecords, Listener listener) {
+        if (!busy.compareAndSet(false, true)) {
+            return false;
+        }
+        cancelled = false;
+        Thread worker = new Thread(() -> {
+            try {
+                run(file, gzip, filter, archive, hotRecords, listener);
+            } finally {
+                thread = null;
+                busy.set(false);
+            }
+        }, "Ledger-Export");
+        worker.setDaemon(true);
+        thread = worker;
+        worker.start();
+        return true;
+    }
+
+    /**
+     * Abort a running export; its temporary file is deleted and it is reported as cancelled.
+     * The thread is not interrupted, so the file channel is never closed under the writer.
+     */
+    public void cancel() {
+        Thread worker = thread;
+        if (worker != null) {
+            cancelled = true;
+            try {
+                worker.join(2000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void run(Path file, boolean gzip, LedgerFilter filter, LedgerArchive.Snapshot archive,
+                     List<TransactionRecord> hotRecords, Listener listener) {
+        Path temp = file.resolveSibling(file.getFileName() + ".partial");
+        long archived = archive != null ? archive.getArchivedRecords() : 0;
+        long total = filter.isEmpty() ? archived + hotRecords.size() : -1;
+        Progress progress = new Progress(total, listener);
+
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            OutputStream out = Files.newOutputStream(temp);
+            if (gzip) {
+                out = new GZIPOutputStream(out, BUFFER_SIZE);
+            }
+            try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE)) {
+                writer.write(TransactionRecord.getCsvHeader());
+                writer.newLine();
+
+                try {
+                    if (archive != null && !archive.isEmpty()) {
+                        long fromNanos = filter.getFrom() != null ? LedgerColumnStore.toEpochNanos(filter.getFrom()) : Long.MIN_VALUE;
+                        long toNanos = filter.getTo() != null ? LedgerColumnStore.toEpochNanos(filter.getTo()) : Long.MAX_VALUE;
+                        UUID player = filter.getPlayerUuid();
+                        archive.scan(fromNanos, toNanos, player, record -> {
+                            if (filter.matches(record)) {
+                                writeRow(writer, record, progress);
+                            }
+                        });
+                    }
+                    for (TransactionRecord record : hotRecords) {
+                        writeRow(writer, record, progress);
+                    }
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+            }
+
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            long bytes = Files.size(file);
+            CobblemonMerchants.LOGGER.info("Exported {} transactions ({}) to {}", progress.written, filter.describe(), file);
+            listener.onComplete(file, progress.written, bytes);
+        } catch (IOException | CancellationException e) {
+            deleteQuietly(temp);
+            if (cancelled) {
+                CobblemonMerchants.LOGGER.info("Cancelled export to {}", file);
+                listener.onCancelled(file);
+                return;
+            }
+            CobblemonMerchants.LOGGER.error("Failed to export transactions to {}: {}", file, e.getMessage());
+            listener.onFailed(file, String.valueOf(e.getMessage()));
+        }
+    }
+
+    private void writeRow(BufferedWriter writer, TransactionRecord record, Progress progress) {
+        if (cancelled) {
+            throw new CancellationException("Export cancelled");
+        }
+        try {
+            writer.write(record.toCsvRow());
+            writer.newLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        progress.increment();
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // Leftover .partial files are harmless
+        }
+    }
+
+    private static final class Progress {
+        final long total;
+        final Listener listener;
+        long written = 0;
+        long lastReportMs = System.currentTimeMillis();
+
+        Progress(long total, Listener listener) {
+            this.total = total;
+            this.listener = listener;
+        }
+
+        void increment() {
+            written++;
+            if ((written & 1023) == 0) {
+                long now = System.currentTimeMillis();
+                if (now - lastReportMs >= PROGRESS_INTERVAL_MS) {
+                    lastReportMs = now;
+                    listener.onProgress(written, total);
+                }
+            }
+        }
+    }
+}
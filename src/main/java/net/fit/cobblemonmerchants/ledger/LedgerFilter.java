@@ -0,0 +1,196 @@
+package net.fit.cobblemonmerchants.ledger;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Which transactions a ledger query or export covers: an optional time range, merchant, player
+ * and output item.
+ *
+ * Parsed from {@code key=value} tokens:
+ * <pre>
+ *   from=2026-10-01        start of that day (server time zone)
+ *   from=2026-10-01T18:30  a local date and time
+ *   from=7d                relative to now (m, h, d or w)
+ *   to=2026-10-15          end of that day (inclusive)
+ *   merchant=cobblemoncustommerchants:basic
+ *   player=Steve           player name (resolved by the caller) or UUID
+ *   item=minecraft:apple   output item id
+ * </pre>
+ */
+public class LedgerFilter {
+    public static final LedgerFilter ALL = new LedgerFilter(null, null, null, null, null, null);
+
+    private final Instant from;
+    private final Instant to;
+    private final String merchantId;
+    private final UUID playerUuid;
+    private final String playerLabel;
+    private final String itemId;
+
+    public LedgerFilter(Instant from, Instant to, String merchantId, UUID playerUuid, String playerLabel, String itemId) {
+        this.from = from;
+        this.to = to;
+        this.merchantId = merchantId;
+        this.playerUuid = playerUuid;
+        this.playerLabel = playerLabel;
+        this.itemId = itemId;
+    }
+
+    /**
+     * Parse filter tokens. The resolver maps a player name to a UUID (or null if unknown).
+     *
+     * @throws IllegalArgumentException with a message suitable for chat if a token is invalid
+     */
+    public static LedgerFilter parse(List<String> tokens, Function<String, UUID> playerResolver) {
+        Instant from = null;
+        Instant to = null;
+        String merchantId = null;
+        UUID playerUuid = null;
+        String playerLabel = null;
+        String itemId = null;
+
+        for (String token : tokens) {
+            int equals = token.indexOf('=');
+            if (equals <= 0 || equals == token.length() - 1) {
+                throw new IllegalArgumentException("Expected key=value but got '" + token + "'");
+            }
+            String key = token.substring(0, equals).toLowerCase(Locale.ROOT);
+            String value = token.substring(equals + 1);
+            switch (key) {
+                case "from" -> from = parseTime(value, false);
+                case "to" -> to = parseTime(value, true);
+                case "merchant" -> merchantId = value;
+                case "player" -> {
+                    playerUuid = parsePlayer(value, playerResolver);
+                    playerLabel = value;
+                }
+                case "item" -> itemId = value;
+                default -> throw new IllegalArgumentException("Unknown filter '" + key
+                        + "' (use from, to, merchant, player or item)");
+            }
+        }
+
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' is after 'to'");
+        }
+        return new LedgerFilter(from, to, merchantId, playerUuid, playerLabel, itemId);
+    }
+
+    private static Instant parseTime(String value, boolean endOfDay) {
+        char unit = Character.toLowerCase(value.charAt(value.length() - 1));
+        if (value.length() > 1 && Character.isDigit(value.charAt(0)) && "mhdw".indexOf(unit) >= 0
+                && value.chars().limit(value.length() - 1).allMatch(Character::isDigit)) {
+            long amount = Long.parseLong(value.substring(0, value.length() - 1));
+            Duration ago = switch (unit) {
+                case 'm' -> Duration.ofMinutes(amount);
+                case 'h' -> Duration.ofHours(amount);
+                case 'd' -> Duration.ofDays(amount);
+                default -> Duration.ofDays(amount * 7);
+            };
+            return Instant.now().minus(ago);
+        }
+
+        ZoneId zone = ZoneId.systemDefault();
+        try {
+            if (value.indexOf('T') >= 0) {
+                return LocalDateTime.parse(value).atZone(zone).toInstant();
+            }
+            LocalDate date = LocalDate.parse(value);
+            return endOfDay
+                    ? date.plusDays(1).atStartOfDay(zone).toInstant().minusNanos(1)
+                    : date.atStartOfDay(zone).toInstant();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid time '" + value
+                    + "' (use yyyy-MM-dd, yyyy-MM-ddTHH:mm or an age like 7d)");
+        }
+    }
+
+    private static UUID parsePlayer(String value, Function<String, UUID> playerResolver) {
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException ignored) {
+            // Not a UUID, try it as a name
+        }
+        UUID uuid = playerResolver != null ? playerResolver.apply(value) : null;
+        if (uuid == null) {
+            throw new IllegalArgumentException("Unknown player '" + value + "'");
+        }
+        return uuid;
+    }
+
+    public boolean matches(TransactionRecord record) {
+        if (from != null && record.getTimestamp().isBefore(from)) {
+            return false;
+        }
+        if (to != null && record.getTimestamp().isAfter(to)) {
+            return false;
+        }
+        if (merchantId != null && !merchantId.equals(record.getMerchantId())) {
+            return false;
+        }
+        if (itemId != null && !itemId.equals(record.getOutputItem())) {
+            return false;
+        }
+        return playerUuid == null || playerUuid.equals(record.getPlayerUuid());
+    }
+
+    public boolean isEmpty() {
+        return from == null && to == null && merchantId == null && playerUuid == null && itemId == null;
+    }
+
+    public Instant getFrom() {
+        return from;
+    }
+
+    public Instant getTo() {
+        return to;
+    }
+
+    public String getMerchantId() {
+        return merchantId;
+    }
+
+    public UUID getPlayerUuid() {
+        return playerUuid;
+    }
+
+    public String getItemId() {
+        return itemId;
+    }
+
+    /**
+     * Short human-readable form, e.g. "player=Steve, from=2026-10-01T00:00:00Z"
+     */
+    public String describe() {
+        if (isEmpty()) {
+            return "all transactions";
+        }
+        StringBuilder text = new StringBuilder();
+        if (from != null) {
+            text.append("from=").append(from);
+        }
+        if (to != null) {
+            text.append(text.isEmpty() ? "" : ", ").append("to=").append(to);
+        }
+        if (merchantId != null) {
+            text.append(text.isEmpty() ? "" : ", ").append("merchant=").append(merchantId);
+        }
+        if (playerUuid != null) {
+            text.append(text.isEmpty() ? "" : ", ").append("player=")
+                    .append(playerLabel != null ? playerLabel : playerUuid.toString());
+        }
+        if (itemId != null) {
+            text.append(text.isEmpty() ? "" : ", ").append("item=").append(itemId);
+        }
+        return text.toString();
+    }
+}
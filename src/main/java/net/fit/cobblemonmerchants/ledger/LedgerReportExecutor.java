@@ -0,0 +1,116 @@
+package net.fit.cobblemonmerchants.ledger;
+
+import net.fit.cobblemonmerchants.CobblemonMerchants;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.MinecraftServer;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs expensive /ledger reports off the server thread.
+ *
+ * A report is split in two: the snapshot step runs on the server thread and copies what the
+ * report needs (the ledger is only safe to read there), and the returned {@link Report} renders
+ * chat lines from that copy on a small worker pool. The lines are sent back on the server thread.
+ *
+ * Reports are cached by key for {@link LedgerConfig#REPORT_CACHE_SECONDS}; identical requests in
+ * that window (including ones made while the first is still rendering) share one result and skip
+ * the snapshot entirely.
+ */
+public final class LedgerReportExecutor {
+
+    /**
+     * Renders a report from a snapshot. Called on a worker thread.
+     */
+    @FunctionalInterface
+    public interface Report {
+        List<Component> render() throws Exception;
+    }
+
+    private record CachedReport(CompletableFuture<List<Component>> lines, long expiresAtNanos) {
+        boolean isExpired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+    }
+
+    private static final Map<String, CachedReport> CACHE = new ConcurrentHashMap<>();
+    private static volatile ExecutorService pool;
+
+    private LedgerReportExecutor() {
+    }
+
+    /**
+     * Send the report for the key to the source, rendering it on the worker pool unless a fresh
+     * copy is cached. Must be called on the server thread.
+     */
+    public static void submit(CommandSourceStack source, String key, Supplier<Report> snapshot) {
+        long now = System.nanoTime();
+        CACHE.values().removeIf(cached -> cached.isExpired(now));
+
+        CachedReport cached = CACHE.get(key);
+        if (cached == null) {
+            Report report = snapshot.get();
+            long ttl = TimeUnit.SECONDS.toNanos(LedgerConfig.REPORT_CACHE_SECONDS);
+            cached = new CachedReport(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return report.render();
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            }, pool()), now + ttl);
+            CACHE.put(key, cached);
+        }
+
+        CachedReport entry = cached;
+        MinecraftServer server = source.getServer();
+        entry.lines().whenComplete((lines, error) -> server.execute(() -> {
+            if (error != null) {
+                CACHE.remove(key, entry);
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error;
+                CobblemonMerchants.LOGGER.error("Failed to build ledger report '{}'", key, cause);
+                source.sendFailure(Component.literal("Failed to build report: " + cause.getMessage()));
+                return;
+            }
+            for (Component line : lines) {
+                source.sendSuccess(() -> line, false);
+            }
+        }));
+    }
+
+    /**
+     * Drop all cached reports (after the ledger is cleared)
+     */
+    public static void invalidate() {
+        CACHE.clear();
+    }
+
+    private static ExecutorService pool() {
+        ExecutorService current = pool;
+        if (current == null) {
+            synchronized (LedgerReportExecutor.class) {
+                current = pool;
+                if (current == null) {
+                    AtomicInteger threadNumber = new AtomicInteger(1);
+                    current = Executors.newFixedThreadPool(LedgerConfig.REPORT_THREADS, runnable -> {
+                        Thread thread = new Thread(runnable, "Ledger-Report-" + threadNumber.getAndIncrement());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    pool = current;
+                }
+            }
+        }
+        return current;
+    }
+}
@@ -0,0 +1,395 @@
+package net.fit.cobblemonmerchants.ledger;
+
+import net.fit.cobblemonmerchants.CobblemonMerchants;
+import net.fit.cobblemonmerchants.metrics.MerchantMetrics;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers finalized transactions to the configured webhook.
+ *
+ * Live records go into a bounded queue; when it is full the {@link BackpressurePolicy} decides which
+ * record is dropped. Bulk re-syncs go into a separate small backlog that is only drained while the live
+ * queue is empty; the ledger refills it page by page as it drains (see {@link #getBacklogRoom()}). The
+ * sequence numbers of every queued or in-flight record are tracked so a re-sync can skip them. A single dispatcher thread groups records into batches (a JSON array per request, or a
+ * plain object for a batch of one), and at most {@link Settings#maxConcurrency()} requests are in flight
+ * on the shared {@link HttpClient}. Failed requests are retried with exponential backoff.
+ *
+ * Records that are dropped or run out of attempts are simply left unsynced, so a later
+ * {@code /ledger webhook sync} picks them up again.
+ */
+public class LedgerWebhookDispatcher {
+    public enum BackpressurePolicy {
+        DROP_NEWEST, // reject the record being submitted
+        DROP_OLDEST; // evict the oldest queued record to make room
+
+        public static BackpressurePolicy fromId(String id) {
+            for (BackpressurePolicy policy : values()) {
+                if (policy.name().equalsIgnoreCase(id)) {
+                    return policy;
+                }
+            }
+            return null;
+        }
+
+        public String getId() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Tuning knobs, normally taken from {@link LedgerConfig}
+     */
+    public record Settings(int queueCapacity, int batchSize, int maxConcurrency, int maxAttempts,
+                           long initialBackoffMs, long maxBackoffMs, long requestTimeoutMs,
+                           BackpressurePolicy backpressurePolicy) {
+        public static Settings fromConfig() {
+            return new Settings(
+                    LedgerConfig.WEBHOOK_QUEUE_CAPACITY,
+                    LedgerConfig.WEBHOOK_BATCH_SIZE,
+                    LedgerConfig.WEBHOOK_MAX_CONCURRENCY,
+                    LedgerConfig.WEBHOOK_MAX_ATTEMPTS,
+                    LedgerConfig.WEBHOOK_INITIAL_BACKOFF_MS,
+                    LedgerConfig.WEBHOOK_MAX_BACKOFF_MS,
+                    LedgerConfig.WEBHOOK_REQUEST_TIMEOUT_MS,
+                    LedgerConfig.WEBHOOK_BACKPRESSURE_POLICY);
+        }
+    }
+
+    /**
+     * Delivery outcomes. Called from HTTP client threads, not the server thread.
+     */
+    public interface Listener {
+        void onDelivered(List<TransactionRecord> batch);
+
+        void onFailed(List<TransactionRecord> batch, String reason);
+    }
+
+    // Backlog batches kept ready per concurrent request
+    private static final int BACKLOG_BATCHES_PER_REQUEST = 8;
+
+    private static HttpClient sharedClient;
+
+    private final URI endpoint;
+    private final HttpClient client;
+    private final Settings settings;
+    private final Listener listener;
+
+    private final ArrayBlockingQueue<TransactionRecord> queue;
+    private final ArrayBlockingQueue<TransactionRecord> backlog;
+    // Sequence numbers of records queued, in the backlog or in flight
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    private final Semaphore permits;
+    private final ScheduledExecutorService retryScheduler;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    // Statistics
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong requests = new AtomicLong();
+
+    public LedgerWebhookDispatcher(URI endpoint, Settings settings, Listener listener) {
+        this(endpoint, getSharedClient(), settings, listener);
+    }
+
+    public LedgerWebhookDispatcher(URI endpoint, HttpClient client, Settings settings, Listener listener) {
+        this.endpoint = endpoint;
+        this.client = client;
+        this.settings = settings;
+        this.listener = listener;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, settings.queueCapacity()));
+        this.backlog = new ArrayBlockingQueue<>(
+                Math.max(1, settings.batchSize()) * Math.max(1, settings.maxConcurrency()) * BACKLOG_BATCHES_PER_REQUEST);
+        this.permits = new Semaphore(Math.max(1, settings.maxConcurrency()));
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread retryThread = new Thread(runnable, "Ledger-Webhook-Retry");
+            retryThread.setDaemon(true);
+            return retryThread;
+        });
+        this.thread = new Thread(this::run, "Ledger-Webhook-Dispatcher");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * One HTTP client for every dispatcher, so connections are pooled across webhook reconfigurations
+     */
+    public static synchronized HttpClient getSharedClient() {
+        if (sharedClient == null) {
+            sharedClient = HttpClient.newBuilder()
+                    .connectTimeout(Duration.ofSeconds(5))
+                    // Apps Script web apps answer POSTs with a redirect to the result page
+                    .followRedirects(HttpClient.Redirect.NORMAL)
+                    .build();
+        }
+        return sharedClient;
+    }
+
+    /**
+     * Queue a live record (non-blocking). Returns false if the record itself was dropped.
+     */
+    public boolean submit(TransactionRecord record) {
+        pending.add(record.getSequence());
+        if (queue.offer(record)) {
+            return true;
+        }
+        if (settings.backpressurePolicy() == BackpressurePolicy.DROP_OLDEST) {
+            while (!queue.offer(record)) {
+                TransactionRecord evicted = queue.poll();
+                if (evicted != null) {
+                    pending.remove(evicted.getSequence());
+                    dropped.incrementAndGet();
+                }
+            }
+            return true;
+        }
+        pending.remove(record.getSequence());
+        dropped.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Queue records for a bulk re-sync, as many as fit in the backlog (see {@link #getBacklogRoom()}).
+     * They are sent only while no live records are waiting. Returns the number accepted.
+     */
+    public int submitBacklog(List<TransactionRecord> records) {
+        int accepted = 0;
+        for (TransactionRecord record : records) {
+            pending.add(record.getSequence());
+            if (!backlog.offer(record)) {
+                pending.remove(record.getSequence());
+                break;
+            }
+            accepted++;
+        }
+        return accepted;
+    }
+
+    /**
+     * Records the backlog can take right now
+     */
+    public int getBacklogRoom() {
+        return backlog.remainingCapacity();
+    }
+
+    /**
+     * Whether a record is queued or in flight. A delivered record stops being pending only after its
+     * acknowledgement has been handed to the listener.
+     */
+    public boolean isPending(long sequence) {
+        return pending.contains(sequence);
+    }
+
+    /**
+     * Stop dispatching. Anything not yet delivered stays unsynced.
+     */
+    public void close() {
+        running = false;
+        thread.interrupt();
+        retryScheduler.shutdownNow();
+        try {
+            thread.join(2000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        queue.clear();
+        backlog.clear();
+        pending.clear();
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                continue;
+            }
+
+            List<TransactionRecord> batch;
+            try {
+                batch = nextBatch();
+            } catch (InterruptedException e) {
+                permits.release();
+                continue;
+            }
+            if (batch.isEmpty()) {
+                permits.release();
+                continue;
+            }
+
+            inFlight.incrementAndGet();
+            send(batch, buildPayload(batch), 1);
+        }
+    }
+
+    private List<TransactionRecord> nextBatch() throws InterruptedException {
+        int batchSize = Math.max(1, settings.batchSize());
+        List<TransactionRecord> batch = new ArrayList<>(batchSize);
+
+        TransactionRecord first = queue.poll();
+        if (first == null) {
+            first = backlog.poll();
+        }
+        if (first == null) {
+            first = queue.poll(500, TimeUnit.MILLISECONDS);
+        }
+        if (first == null) {
+            return batch;
+        }
+        batch.add(first);
+
+        queue.drainTo(batch, batchSize - batch.size());
+        while (batch.size() < batchSize) {
+            TransactionRecord record = backlog.poll();
+            if (record == null) {
+                break;
+            }
+            batch.add(record);
+        }
+        return batch;
+    }
+
+    private void send(List<TransactionRecord> batch, String payload, int attempt) {
+        if (!running) {
+            finish(batch);
+            return;
+        }
+
+        HttpRequest request = HttpRequest.newBuilder(endpoint)
+                .timeout(Duration.ofMillis(settings.requestTimeoutMs()))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(payload))
+                .build();
+        requests.incrementAndGet();
+        long start = System.nanoTime();
+
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+            MerchantMetrics.WEBHOOK_REQUEST_SECONDS.observeSince(start);
+            if (error == null && response.statusCode() / 100 == 2) {
+                delivered.addAndGet(batch.size());
+                MerchantMetrics.recordWebhookDelivery(batch);
+                // After close the ledger may have been cleared; unacknowledged records are simply re-sent later
+                if (running) {
+                    listener.onDelivered(batch);
+                }
+                finish(batch);
+                return;
+            }
+
+            String reason = error != null ? String.valueOf(error.getMessage()) : "HTTP " + response.statusCode();
+            if (attempt < settings.maxAttempts() && running) {
+                retries.incrementAndGet();
+                long delay = backoffMillis(attempt);
+                CobblemonMerchants.LOGGER.debug("Webhook batch of {} failed ({}), retrying in {}ms",
+                        batch.size(), reason, delay);
+                try {
+                    retryScheduler.schedule(() -> send(batch, payload, attempt + 1), delay, TimeUnit.MILLISECONDS);
+                    return;
+                } catch (RuntimeException rejected) {
+                    // Scheduler shut down while closing
+                }
+            }
+
+            failed.addAndGet(batch.size());
+            MerchantMetrics.WEBHOOK_FAILED.add(batch.size());
+            finish(batch);
+            listener.onFailed(batch, reason);
+        });
+    }
+
+    private void finish(List<TransactionRecord> batch) {
+        for (TransactionRecord record : batch) {
+            pending.remove(record.getSequence());
+        }
+        inFlight.decrementAndGet();
+        permits.release();
+    }
+
+    /**
+     * initialBackoff * 2^(attempt-1), capped, with up to 20% jitter so retries do not line up
+     */
+    private long backoffMillis(int attempt) {
+        long base = settings.initialBackoffMs() << Math.min(attempt - 1, 20);
+        long capped = Math.min(settings.maxBackoffMs(), base);
+        long jitter = capped / 5 > 0 ? ThreadLocalRandom.current().nextLong(capped / 5 + 1) : 0;
+        return capped - jitter;
+    }
+
+    /**
+     * A single record is sent as an object, anything larger as a JSON array of objects
+     */
+    static String buildPayload(List<TransactionRecord> batch) {
+        if (batch.size() == 1) {
+            return batch.get(0).toJson();
+        }
+        StringBuilder json = new StringBuilder(batch.size() * 320);
+        json.append('[');
+        for (int i = 0; i < batch.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(batch.get(i).toJson());
+        }
+        json.append(']');
+        return json.toString();
+    }
+
+    // ==================== Statistics ====================
+
+    public URI getEndpoint() {
+        return endpoint;
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public int getBacklogDepth() {
+        return backlog.size();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getDelivered() {
+        return delivered.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public long getRetries() {
+        return retries.get();
+    }
+
+    public long getRequests() {
+        return requests.get();
+    }
+}
@@ -0,0 +1,190 @@
+package net.fit.cobblemonmerchants.ledger;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Pending (not yet finalized) transaction bundles, at most one per player, scheduled on a hashed
+ * timing wheel by the time their bundle window closes.
+ *
+ * Each bundle sits in the wheel slot for its deadline tick, linked into that slot's list, so
+ * extending a bundle moves it in O(1) and {@link #expire(long, Consumer)} only visits the slots
+ * whose ticks have passed since the last call. Deadlines further away than one revolution stay in
+ * their slot until the wheel comes round to the right tick.
+ */
+public class PendingBundleWheel {
+    private static final class Bundle {
+        final UUID playerUuid;
+        final TransactionRecord record;
+        long deadlineMs;
+        long deadlineTick;
+        int slot = -1;
+        Bundle previous;
+        Bundle next;
+
+        Bundle(UUID playerUuid, TransactionRecord record) {
+            this.playerUuid = playerUuid;
+            this.record = record;
+        }
+    }
+
+    private final long tickMs;
+    private final Bundle[] slots;
+    private final Map<UUID, Bundle> byPlayer = new HashMap<>();
+
+    // Last wheel tick whose slot has been processed
+    private long currentTick = Long.MIN_VALUE;
+
+    public PendingBundleWheel(long tickMs, int wheelSize) {
+        this.tickMs = Math.max(1, tickMs);
+        this.slots = new Bundle[Math.max(1, wheelSize)];
+    }
+
+    /**
+     * The player's pending bundle, or null
+     */
+    public TransactionRecord get(UUID playerUuid) {
+        Bundle bundle = byPlayer.get(playerUuid);
+        return bundle != null ? bundle.record : null;
+    }
+
+    /**
+     * When the player's pending bundle window closes (epoch millis), or -1 if there is none
+     */
+    public long getDeadline(UUID playerUuid) {
+        Bundle bundle = byPlayer.get(playerUuid);
+        return bundle != null ? bundle.deadlineMs : -1;
+    }
+
+    /**
+     * Make a record the player's pending bundle, replacing (and returning) any previous one
+     */
+    public TransactionRecord put(UUID playerUuid, TransactionRecord record, long deadlineMs) {
+        TransactionRecord previous = remove(playerUuid);
+        Bundle bundle = new Bundle(playerUuid, record);
+        byPlayer.put(playerUuid, bundle);
+        schedule(bundle, deadlineMs);
+        return previous;
+    }
+
+    /**
+     * Move the player's pending bundle to a new deadline
+     */
+    public void reschedule(UUID playerUuid, long deadlineMs) {
+        Bundle bundle = byPlayer.get(playerUuid);
+        if (bundle != null) {
+            unlink(bundle);
+            schedule(bundle, deadlineMs);
+        }
+    }
+
+    /**
+     * Remove and return the player's pending bundle, or null
+     */
+    public TransactionRecord remove(UUID playerUuid) {
+        Bundle bundle = byPlayer.remove(playerUuid);
+        if (bundle == null) {
+            return null;
+        }
+        unlink(bundle);
+        return bundle.record;
+    }
+
+    /**
+     * Remove every bundle whose deadline is before {@code nowMs} and pass it to the consumer.
+     * Returns the number of bundles expired.
+     */
+    public int expire(long nowMs, Consumer<TransactionRecord> onExpired) {
+        long nowTick = Math.floorDiv(nowMs, tickMs);
+        if (byPlayer.isEmpty()) {
+            currentTick = nowTick;
+            return 0;
+        }
+
+        // Visit each slot at most once, even after a long pause (or on the first call)
+        long oldestTick = nowTick - slots.length + 1;
+        long fromTick = currentTick == Long.MIN_VALUE ? oldestTick : Math.max(currentTick, oldestTick);
+        int expired = 0;
+        for (long tick = fromTick; tick <= nowTick; tick++) {
+            Bundle bundle = slots[slotOf(tick)];
+            while (bundle != null) {
+                Bundle next = bundle.next;
+                if (bundle.deadlineMs < nowMs) {
+                    byPlayer.remove(bundle.playerUuid);
+                    unlink(bundle);
+                    onExpired.accept(bundle.record);
+                    expired++;
+                }
+                bundle = next;
+            }
+        }
+        currentTick = nowTick;
+        return expired;
+    }
+
+    /**
+     * Remove every bundle regardless of deadline, in no particular order
+     */
+    public void drainAll(Consumer<TransactionRecord> consumer) {
+        for (Bundle bundle : byPlayer.values()) {
+            bundle.previous = null;
+            bundle.next = null;
+            consumer.accept(bundle.record);
+        }
+        byPlayer.clear();
+        Arrays.fill(slots, null);
+    }
+
+    public int size() {
+        return byPlayer.size();
+    }
+
+    public boolean isEmpty() {
+        return byPlayer.isEmpty();
+    }
+
+    public void clear() {
+        drainAll(record -> { });
+    }
+
+    private void schedule(Bundle bundle, long deadlineMs) {
+        bundle.deadlineMs = deadlineMs;
+        bundle.deadlineTick = Math.floorDiv(deadlineMs, tickMs);
+        int slot = slotOf(bundle.deadlineTick);
+        if (currentTick != Long.MIN_VALUE && bundle.deadlineTick < currentTick) {
+            // Already overdue: place it where the next expire() call will look
+            slot = slotOf(currentTick);
+        }
+        bundle.slot = slot;
+        bundle.previous = null;
+        bundle.next = slots[slot];
+        if (slots[slot] != null) {
+            slots[slot].previous = bundle;
+        }
+        slots[slot] = bundle;
+    }
+
+    private void unlink(Bundle bundle) {
+        if (bundle.slot < 0) {
+            return;
+        }
+        if (bundle.previous != null) {
+            bundle.previous.next = bundle.next;
+        } else {
+            slots[bundle.slot] = bundle.next;
+        }
+        if (bundle.next != null) {
+            bundle.next.previous = bundle.previous;
+        }
+        bundle.previous = null;
+        bundle.next = null;
+        bundle.slot = -1;
+    }
+
+    private int slotOf(long tick) {
+        return (int) Math.floorMod(tick, (long) slots.length);
+    }
+}
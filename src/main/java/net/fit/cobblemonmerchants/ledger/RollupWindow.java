@@ -0,0 +1,72 @@
+package net.fit.cobblemonmerchants.ledger;
+
+import net.fit.cobblemonmerchants.ledger.storage.LedgerRollups;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Time windows that can be answered from the pre-aggregated ledger rollups.
+ */
+public enum RollupWindow {
+    HOUR("hour", "This Hour", LedgerRollups.Granularity.HOUR, 1),
+    LAST_24H("24h", "Last 24 Hours", LedgerRollups.Granularity.HOUR, 24),
+    TODAY("today", "Today", LedgerRollups.Granularity.DAY, 1),
+    WEEK("week", "Last 7 Days", LedgerRollups.Granularity.DAY, 7),
+    MONTH("month", "Last 30 Days", LedgerRollups.Granularity.DAY, 30);
+
+    private final String id;
+    private final String displayName;
+    private final LedgerRollups.Granularity granularity;
+    private final int buckets;
+
+    RollupWindow(String id, String displayName, LedgerRollups.Granularity granularity, int buckets) {
+        this.id = id;
+        this.displayName = displayName;
+        this.granularity = granularity;
+        this.buckets = buckets;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public LedgerRollups.Granularity getGranularity() {
+        return granularity;
+    }
+
+    /**
+     * Last bucket of the window (the bucket containing now)
+     */
+    public long toBucket(Instant now) {
+        return granularity.bucketOf(now);
+    }
+
+    /**
+     * First bucket of the window
+     */
+    public long fromBucket(Instant now) {
+        return toBucket(now) - buckets + 1;
+    }
+
+    /**
+     * Parse a window id (e.g. "today", "week"); returns null if unknown
+     */
+    public static RollupWindow fromId(String id) {
+        for (RollupWindow window : values()) {
+            if (window.id.equalsIgnoreCase(id)) {
+                return window;
+            }
+        }
+        return null;
+    }
+
+    public static List<String> ids() {
+        return Arrays.stream(values()).map(RollupWindow::getId).toList();
+    }
+}
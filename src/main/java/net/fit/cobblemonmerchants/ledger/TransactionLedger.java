@@ -1,6 +1,18 @@
 package net.fit.cobblemonmerchants.ledger;
 
 import net.fit.cobblemonmerchants.CobblemonMerchants;
+import net.fit.cobblemonmerchants.ledger.storage.IntList;
+import net.fit.cobblemonmerchants.ledger.storage.LedgerArchive;
+import net.fit.cobblemonmerchants.ledger.storage.LedgerColumnStore;
+import net.fit.cobblemonmerchants.ledger.storage.LedgerIndex;
+import net.fit.cobblemonmerchants.ledger.storage.LedgerRollups;
+import net.fit.cobblemonmerchants.ledger.storage.LedgerSegmentLog;
+import net.fit.cobblemonmerchants.ledger.storage.LedgerSketches;
+import net.fit.cobblemonmerchants.ledger.storage.LedgerSnapshot;
+import net.fit.cobblemonmerchants.ledger.storage.MpscRingBuffer;
+import net.fit.cobblemonmerchants.ledger.storage.RankedCounter;
+import net.fit.cobblemonmerchants.ledger.storage.SequenceWatermark;
+import net.fit.cobblemonmerchants.metrics.MerchantMetrics;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.ListTag;
 import net.minecraft.nbt.Tag;
@@ -9,59 +21,139 @@ import net.minecraft.world.level.saveddata.SavedData;
 import net.minecraft.world.level.storage.LevelResource;
 import org.jetbrains.annotations.NotNull;
 
-import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
-import java.io.OutputStream;
-import java.net.HttpURLConnection;
 import java.net.URI;
-import java.net.URL;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardOpenOption;
 import java.time.Instant;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 /**
  * Manages the transaction ledger for all merchant trades.
  * Handles bundling, CSV export, and diagnostics.
+ *
+ * Finalized records are persisted to an append-only segment log under the world directory
+ * (see {@link LedgerSegmentLog}); the SavedData NBT only holds configuration and sync state.
+ * In memory they are kept in a dictionary-encoded {@link LedgerColumnStore}, with
+ * per-player, per-merchant and time indexes ({@link LedgerIndex}) for queries.
+ * Hourly/daily totals are kept in {@link LedgerRollups} for windowed statistics, and
+ * approximate distinct counts and quantiles in {@link LedgerSketches}.
+ *
+ * All of that state is owned by the server thread. Other threads (and trade handlers) only
+ * publish {@link LedgerEvent}s into a ring buffer, which the server thread applies in
+ * {@link #processEvents()}.
  */
 public class TransactionLedger extends SavedData {
     private static final String DATA_NAME = "cobblemon_merchant_ledger";
-    private static final long BUNDLE_WINDOW_MS = 10_000; // 10 seconds
+    private static final String STORAGE_DIR = "merchant_ledger";
+    private static final String ROLLUPS_FILE = "rollups.dat";
+    private static final String SKETCHES_FILE = "sketches.dat";
+    private static final String SNAPSHOT_FILE = "snapshot.dat";
+    private static final String ARCHIVE_DIR = "archive";
+    // Pending bundle wheel resolution: 250ms ticks, 64 slots (one revolution = 16 seconds)
+    private static final long BUNDLE_WHEEL_TICK_MS = 250;
+    private static final int BUNDLE_WHEEL_SLOTS = 64;
+    private static final int EVENT_RING_CAPACITY = 1 << 16;
+    // Records a webhook sync looks at per refill of the dispatcher's backlog
+    private static final int WEBHOOK_RESYNC_SCAN_LIMIT = 16384;
+    // Closed segments compressed per archive pass (bounds the records a pass holds in memory)
+    private static final int ARCHIVE_SEGMENTS_PER_PASS = 8;
+
+    // Single thread that compresses expired segments into the archive (created on first use)
+    private static volatile ExecutorService archiveExecutor;
 
     // Server level reference for world save path
     private ServerLevel serverLevel;
 
-    // Recent transactions for bundling (per player)
-    private final Map<UUID, TransactionRecord> pendingTransactions = new HashMap<>();
-    private final Map<UUID, Long> lastTransactionTime = new HashMap<>();
+    // Binary segment log holding all finalized transactions (null until attached to a world)
+    private LedgerSegmentLog segmentLog;
 
-    // All finalized transactions
-    private final List<TransactionRecord> transactions = new ArrayList<>();
+    // Compressed monthly archive of records that aged out of memory (null until attached to a world)
+    private LedgerArchive archive;
 
-    // Queue for async CSV writing
-    private final ConcurrentLinkedQueue<TransactionRecord> csvWriteQueue = new ConcurrentLinkedQueue<>();
+    // Archive pass writing on the archive thread (null when none is running); only touched on the server thread
+    private CompletableFuture<LedgerArchive.Append> archiveTask;
+
+    // Number of leading rows in the store that are already in the segment log
+    private int persistedCount = 0;
+
+    // Whether the store, indexes or statistics changed since the snapshot was last written
+    private boolean snapshotStale = true;
+
+    // Records read from the legacy NBT list; migrated into the segment log on first attach
+    private final List<TransactionRecord> legacyTransactions = new ArrayList<>();
+
+    // Changes published by any thread, applied by the server thread in processEvents()
+    private final MpscRingBuffer<LedgerEvent> events = new MpscRingBuffer<>(EVENT_RING_CAPACITY);
+    private long eventsApplied = 0;
+    private final AtomicLong eventsDropped = new AtomicLong();
+
+    // Recent transactions for bundling (one per player), expired by bundle window deadline
+    private final PendingBundleWheel pendingBundles = new PendingBundleWheel(BUNDLE_WHEEL_TICK_MS, BUNDLE_WHEEL_SLOTS);
+
+    // All finalized transactions (columnar, dictionary-encoded)
+    private final LedgerColumnStore store = new LedgerColumnStore();
+
+    // Posting lists and time index over the store
+    private final LedgerIndex index = new LedgerIndex();
+
+    // Hourly and daily totals per merchant, player and item
+    private final LedgerRollups rollups = new LedgerRollups();
+
+    // Unique traders per merchant, distinct items per day and coin spend quantiles
+    private final LedgerSketches sketches = new LedgerSketches();
+
+    // Background writer for the auto-append CSV (null until attached to a world, or after shutdown)
+    private LedgerCsvWriter csvWriter;
+
+    // Background writer for /ledger export (created on first export)
+    private LedgerExporter exporter;
 
     // Webhook config
     private String webhookUrl = null;
     private boolean webhookEnabled = false;
 
-    // Track which transactions have been synced to webhook (by transaction ID)
-    private final Set<UUID> webhookSyncedTransactions = new HashSet<>();
+    // Delivers records to the webhook in batches (null while the webhook is disabled, or after shutdown)
+    private LedgerWebhookDispatcher webhookDispatcher;
+
+    // Next sequence a running /ledger webhook sync will queue, and the last one it covers (0 = no sync running)
+    private long webhookResyncNext = 0;
+    private long webhookResyncEnd = 0;
+
+    // Which sequence numbers have been delivered to the webhook (watermark + out-of-order acks)
+    private final SequenceWatermark webhookSync = new SequenceWatermark();
+    // Forgotten acknowledgement count already warned about
+    private long loggedForgottenAcks = 0;
+
+    // Synced transaction IDs saved by older versions; converted to sequence numbers on first attach
+    private final Set<UUID> legacySyncedTransactions = new HashSet<>();
 
-    // Statistics cache
-    private final Map<String, Integer> tradeCountByMerchant = new HashMap<>();
-    private final Map<UUID, Integer> tradeCountByPlayer = new HashMap<>();
-    private final Map<String, Integer> tradeCountByOutputItem = new HashMap<>();
+    // Statistics cache (ranked, so leaderboards need no sorting)
+    private final RankedCounter<String> tradeCountByMerchant = new RankedCounter<>();
+    private final RankedCounter<UUID> tradeCountByPlayer = new RankedCounter<>();
+    private final RankedCounter<String> tradeCountByOutputItem = new RankedCounter<>();
 
     // Coin statistics cache
     private final Map<UUID, Integer> coinChangeByPlayer = new HashMap<>();
     private final Map<String, Integer> coinChangeByMerchant = new HashMap<>();
+    private final RankedCounter<UUID> coinsGainedByPlayer = new RankedCounter<>();
+    private final RankedCounter<UUID> coinsSpentByPlayer = new RankedCounter<>();
+    private final Map<String, Integer> coinsGivenByMerchant = new HashMap<>();
+    private final Map<String, Integer> coinsCollectedByMerchant = new HashMap<>();
+    private long totalTradeCount = 0;
+    private long totalCoinCirculation = 0;
 
     public TransactionLedger() {
         super();
@@ -72,10 +164,454 @@ public class TransactionLedger extends SavedData {
                 new Factory<>(TransactionLedger::new, TransactionLedger::load),
                 DATA_NAME
         );
-        ledger.serverLevel = level.getServer().overworld();
+        if (ledger.segmentLog == null) {
+            ledger.attachStorage(level.getServer().overworld());
+        }
         return ledger;
     }
 
+    /**
+     * Bind the ledger to the world directory and load it into memory.
+     * The store, indexes and all-time statistics are restored from the snapshot written on the last
+     * save, and only segment frames written after it are decoded. Without a usable snapshot the
+     * segment log is replayed in full and archived (cold) records are streamed once to rebuild the
+     * statistics. Legacy NBT records are only used if no segments exist yet, and are written out on
+     * the next save.
+     */
+    private void attachStorage(ServerLevel overworld) {
+        this.serverLevel = overworld;
+        attachStorage(overworld.getServer().getWorldPath(LevelResource.ROOT).resolve(STORAGE_DIR), getCsvPath());
+    }
+
+    /**
+     * Bind the ledger to a storage directory without a server (benchmarks load and save through
+     * this). The calling thread is treated as the server thread.
+     */
+    void attachStorage(Path storageDir, Path csvPath) {
+        this.segmentLog = new LedgerSegmentLog(storageDir);
+        this.archive = new LedgerArchive(storageDir.resolve(ARCHIVE_DIR));
+        this.csvWriter = new LedgerCsvWriter(csvPath, LedgerConfig.CSV_FLUSH_INTERVAL_MS, LedgerConfig.CSV_MAX_BATCH);
+
+        try {
+            archive.open();
+            if (archive.getMissingFiles() > 0) {
+                CobblemonMerchants.LOGGER.warn("{} ledger archive file(s) listed in the manifest are missing from {}",
+                        archive.getMissingFiles(), archive.getDirectory());
+            }
+            // Finish an archive pass that was interrupted after writing the archive but before deleting segments
+            int leftover = segmentLog.deleteSegmentsUpTo(archive.getLastArchivedSegment());
+            if (leftover > 0) {
+                CobblemonMerchants.LOGGER.info("Removed {} already-archived ledger segment(s)", leftover);
+            }
+
+            long rollupsCovered = loadRollups();
+            long sketchesCovered = loadSketches();
+            store.setFirstSequence(archive.getLastSequence() + 1);
+            LedgerSnapshot.Header snapshot = restoreSnapshot();
+            int restoredRows = snapshot != null ? snapshot.rows() : 0;
+            int replayed = segmentLog.replay(restoredRows, this::appendToStore);
+            if (snapshot != null && (replayed < restoredRows
+                    || (restoredRows > 0 && segmentLog.getLastSkippedFrameCrc() != snapshot.lastFrameCrc()))) {
+                CobblemonMerchants.LOGGER.warn("Ledger snapshot does not match the segment log, replaying all segments");
+                resetInMemoryState();
+                store.setFirstSequence(archive.getLastSequence() + 1);
+                snapshot = null;
+                replayed = segmentLog.replay(this::appendToStore);
+            }
+            boolean statisticsRestored = snapshot != null;
+            snapshotStale = !statisticsRestored || replayed > restoredRows;
+            persistedCount = store.size();
+
+            if (segmentLog.getCorruptFrames() > 0) {
+                CobblemonMerchants.LOGGER.warn("Skipped {} corrupt ledger frame(s) in {}",
+                        segmentLog.getCorruptFrames(), storageDir);
+            }
+            if (segmentLog.getQuarantinedSegments() > 0) {
+                CobblemonMerchants.LOGGER.error("Renamed {} unreadable ledger segment(s) in {} to *.corrupt; "
+                        + "their transactions are missing from the ledger", segmentLog.getQuarantinedSegments(), storageDir);
+            }
+
+            if (replayed == 0 && archive.isEmpty() && !legacyTransactions.isEmpty()) {
+                for (TransactionRecord record : legacyTransactions) {
+                    appendToStore(record);
+                }
+                CobblemonMerchants.LOGGER.info("Migrating {} legacy NBT transactions to segment log",
+                        legacyTransactions.size());
+                setDirty();
+            } else {
+                legacyTransactions.clear();
+            }
+
+            // Never trust acknowledgements for records the log no longer has
+            webhookSync.truncate(store.getNextSequence() - 1);
+            if (!legacySyncedTransactions.isEmpty()) {
+                migrateLegacySyncState();
+            }
+
+            // Rollups record the last sequence number they include; rebuild if that is ahead of the ledger
+            if (rollupsCovered < 0 || rollupsCovered > store.getNextSequence() - 1) {
+                rollups.clear();
+                rollupsCovered = 0;
+            }
+            // Same for the sketches
+            if (sketchesCovered < 0 || sketchesCovered > store.getNextSequence() - 1) {
+                sketches.clear();
+                sketchesCovered = 0;
+            }
+            // Stream archived records the statistics, rollups or sketches are missing
+            long coldRollupsFrom = rollupsCovered;
+            long coldSketchesFrom = sketchesCovered;
+            long coldFrom = statisticsRestored ? Math.min(rollupsCovered, sketchesCovered) : 0;
+            if (coldFrom < archive.getLastSequence()) {
+                archive.scanFromSequence(coldFrom + 1, record -> {
+                    if (!statisticsRestored) {
+                        updateStatistics(record);
+                    }
+                    if (record.getSequence() > coldRollupsFrom) {
+                        rollups.record(record);
+                    }
+                    if (record.getSequence() > coldSketchesFrom) {
+                        sketches.record(record);
+                    }
+                });
+            }
+            long hotCovered = Math.min(rollupsCovered, sketchesCovered);
+            for (int row = Math.max(0, store.rowOfSequence(hotCovered + 1)); row < store.size(); row++) {
+                long sequence = store.getSequence(row);
+                if (sequence > rollupsCovered) {
+                    rollups.record(store.get(row));
+                }
+                if (sequence > sketchesCovered) {
+                    sketches.record(store.get(row));
+                }
+            }
+
+            CobblemonMerchants.LOGGER.info("Loaded {} transactions from ledger segments in {} ({} archived, {} from snapshot)",
+                    store.size(), storageDir, archive.getArchivedRecords(), statisticsRestored ? restoredRows : 0);
+
+            archiveExpiredNow();
+        } catch (IOException e) {
+            CobblemonMerchants.LOGGER.error("Failed to replay ledger segments from {}", storageDir, e);
+        }
+        // Legacy records still being migrated stay in the NBT until the segment log holds them
+        legacySyncedTransactions.clear();
+    }
+
+    /**
+     * Closed segments picked to be archived: their indexes, and how many leading rows of the store
+     * (starting at sequence {@code firstSequence}) they hold
+     */
+    private record ArchivePlan(List<Integer> segments, long firstSequence, int rows) {
+    }
+
+    /**
+     * Pick the oldest closed segments whose records are all older than the hot retention period
+     * (at most {@link #ARCHIVE_SEGMENTS_PER_PASS}), or return null if there are none.
+     * Only reads timestamps; must be called on the server thread.
+     */
+    private ArchivePlan planArchive() {
+        if (LedgerConfig.HOT_RETENTION_DAYS <= 0 || archive == null || segmentLog == null) {
+            return null;
+        }
+        long cutoffNanos = LedgerColumnStore.toEpochNanos(
+                Instant.now().minus(java.time.Duration.ofDays(LedgerConfig.HOT_RETENTION_DAYS)));
+
+        List<Integer> segments = new ArrayList<>();
+        int rows = 0;
+        for (int segment : segmentLog.getSegmentIndexes()) {
+            if (segment == segmentLog.getCurrentSegment() || segments.size() == ARCHIVE_SEGMENTS_PER_PASS) {
+                break;
+            }
+            int count = segmentLog.getRecordCount(segment);
+            if (rows + count > persistedCount) {
+                break;
+            }
+            for (int row = rows; row < rows + count; row++) {
+                if (store.getTimestampNanos(row) >= cutoffNanos) {
+                    return segments.isEmpty() ? null : new ArchivePlan(segments, store.getFirstSequence(), rows);
+                }
+            }
+            segments.add(segment);
+            rows += count;
+        }
+        return segments.isEmpty() ? null : new ArchivePlan(segments, store.getFirstSequence(), rows);
+    }
+
+    /**
+     * Read the planned segments back from disk and write them to the archive. Touches no in-memory
+     * ledger state, so it can run on the archive thread; the result is applied by {@link #applyArchive}.
+     */
+    private LedgerArchive.Append writeArchive(ArchivePlan plan) throws IOException {
+        List<TransactionRecord> records = new ArrayList<>(plan.rows());
+        for (int segment : plan.segments()) {
+            LedgerSegmentLog.readSegment(segmentLog.getSegmentPath(segment), record -> {
+                record.setSequence(plan.firstSequence() + records.size());
+                records.add(record);
+            });
+        }
+        if (records.size() != plan.rows()) {
+            throw new IOException("Expected " + plan.rows() + " records in ledger segments " + plan.segments()
+                    + " but read " + records.size());
+        }
+        return archive.prepareAppend(records, plan.segments().get(plan.segments().size() - 1));
+    }
+
+    /**
+     * Publish a written archive append, delete its segments and drop its rows from memory.
+     * Statistics are all-time and unaffected.
+     */
+    private void applyArchive(ArchivePlan plan, LedgerArchive.Append append) {
+        archive.commitAppend(append);
+        try {
+            for (int segment : plan.segments()) {
+                segmentLog.deleteSegment(segment);
+            }
+        } catch (IOException e) {
+            // Archived segments left behind are deleted on the next load
+            CobblemonMerchants.LOGGER.error("Failed to delete archived ledger segments: {}", e.getMessage());
+        }
+        store.dropLeadingRows(plan.rows());
+        index.rebuild(store);
+        persistedCount -= plan.rows();
+        snapshotStale = true;
+        CobblemonMerchants.LOGGER.info("Archived {} transactions from {} ledger segment(s) ({} archived in total)",
+                plan.rows(), plan.segments().size(), archive.getArchivedRecords());
+    }
+
+    /**
+     * Archive every expired segment before returning (used while loading)
+     */
+    private void archiveExpiredNow() {
+        try {
+            ArchivePlan plan;
+            while ((plan = planArchive()) != null) {
+                applyArchive(plan, writeArchive(plan));
+            }
+        } catch (IOException e) {
+            CobblemonMerchants.LOGGER.error("Failed to archive ledger segments: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Start archiving expired segments on the archive thread, unless a pass is already running.
+     * Compression and file writes happen there; the result is applied on the server thread.
+     */
+    private void startArchiving() {
+        if (archiveTask != null) {
+            return;
+        }
+        if (serverLevel == null) {
+            archiveExpiredNow();
+            return;
+        }
+        ArchivePlan plan = planArchive();
+        if (plan == null) {
+            return;
+        }
+        net.minecraft.server.MinecraftServer server = serverLevel.getServer();
+        CompletableFuture<LedgerArchive.Append> task = CompletableFuture.supplyAsync(() -> {
+            try {
+                return writeArchive(plan);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, archiveExecutor());
+        archiveTask = task;
+        task.whenComplete((append, error) -> server.execute(() -> {
+            if (archiveTask != task) {
+                // The ledger was cleared or shut down while this pass was running
+                return;
+            }
+            archiveTask = null;
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error;
+                CobblemonMerchants.LOGGER.error("Failed to archive ledger segments: {}", cause.getMessage());
+                return;
+            }
+            applyArchive(plan, append);
+            setDirty();
+        }));
+    }
+
+    /**
+     * Wait for a running archive pass to finish writing and drop its result; the archived segments
+     * it leaves behind are deleted on the next load
+     */
+    private void abandonArchiving() {
+        CompletableFuture<LedgerArchive.Append> task = archiveTask;
+        archiveTask = null;
+        if (task != null) {
+            try {
+                task.get(30, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                CobblemonMerchants.LOGGER.warn("Ledger archive pass did not finish cleanly: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static ExecutorService archiveExecutor() {
+        ExecutorService current = archiveExecutor;
+        if (current == null) {
+            synchronized (TransactionLedger.class) {
+                current = archiveExecutor;
+                if (current == null) {
+                    current = Executors.newSingleThreadExecutor(runnable -> {
+                        Thread thread = new Thread(runnable, "Ledger-Archive");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    archiveExecutor = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private void migrateLegacySyncState() {
+        for (int row = 0; row < store.size(); row++) {
+            if (legacySyncedTransactions.contains(store.getTransactionId(row))) {
+                webhookSync.acknowledge(store.getSequence(row));
+            }
+        }
+        CobblemonMerchants.LOGGER.info("Converted {} synced transaction IDs to webhook sync watermark {}",
+                legacySyncedTransactions.size(), webhookSync.getWatermark());
+        setDirty();
+    }
+
+    /**
+     * Load persisted rollups; returns the number of records they cover, or -1 if unavailable
+     */
+    private long loadRollups() {
+        Path rollupsPath = segmentLog.getDirectory().resolve(ROLLUPS_FILE);
+        try {
+            return rollups.load(rollupsPath);
+        } catch (IOException e) {
+            CobblemonMerchants.LOGGER.warn("Failed to load ledger rollups, rebuilding: {}", e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Load persisted sketches; returns the highest sequence number they cover, or -1 if unavailable
+     */
+    private long loadSketches() {
+        Path sketchesPath = segmentLog.getDirectory().resolve(SKETCHES_FILE);
+        try {
+            return sketches.load(sketchesPath);
+        } catch (IOException e) {
+            CobblemonMerchants.LOGGER.warn("Failed to load ledger sketches, rebuilding: {}", e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Restore the store, indexes and statistics from the snapshot if it continues where the archive
+     * ends. Returns the snapshot's header, or null (leaving everything empty) if there is no usable
+     * snapshot.
+     */
+    private LedgerSnapshot.Header restoreSnapshot() {
+        Path snapshotPath = segmentLog.getDirectory().resolve(SNAPSHOT_FILE);
+        try (DataInputStream in = LedgerSnapshot.read(snapshotPath)) {
+            if (in == null) {
+                return null;
+            }
+            LedgerSnapshot.Header header = LedgerSnapshot.Header.read(in);
+            if (header.firstSequence() != store.getNextSequence()) {
+                CobblemonMerchants.LOGGER.info("Ledger snapshot starts at #{} but the archive ends at #{}, rebuilding",
+                        header.firstSequence(), store.getNextSequence() - 1);
+                return null;
+            }
+            store.read(in);
+            index.read(in);
+            readStatistics(in);
+            if (store.getFirstSequence() != header.firstSequence() || store.size() != header.rows()) {
+                throw new IOException("Snapshot store does not match its header");
+            }
+            return header;
+        } catch (IOException e) {
+            CobblemonMerchants.LOGGER.warn("Failed to load ledger snapshot, rebuilding: {}", e.getMessage());
+            resetInMemoryState();
+            store.setFirstSequence(archive.getLastSequence() + 1);
+            return null;
+        }
+    }
+
+    /**
+     * Write the snapshot if anything changed since the last one. Only written when every row is in
+     * the segment log, so the snapshot never covers records a crash could lose.
+     */
+    private void saveSnapshot() {
+        if (segmentLog == null || !snapshotStale || persistedCount < store.size()) {
+            return;
+        }
+        LedgerSnapshot.Header header = new LedgerSnapshot.Header(store.getFirstSequence(), store.size(),
+                store.isEmpty() ? 0 : segmentLog.getLastFrameCrc());
+        try {
+            long bytes = LedgerSnapshot.write(segmentLog.getDirectory().resolve(SNAPSHOT_FILE), out -> {
+                header.write(out);
+                store.write(out);
+                index.write(out);
+                writeStatistics(out);
+            });
+            MerchantMetrics.recordSaveBytes(DATA_NAME + "_snapshot", bytes);
+            snapshotStale = false;
+        } catch (IOException e) {
+            CobblemonMerchants.LOGGER.error("Failed to save ledger snapshot: {}", e.getMessage());
+        }
+    }
+
+    private void writeStatistics(DataOutputStream out) throws IOException {
+        tradeCountByMerchant.write(out, LedgerSnapshot.STRING_KEYS);
+        tradeCountByPlayer.write(out, LedgerSnapshot.UUID_KEYS);
+        tradeCountByOutputItem.write(out, LedgerSnapshot.STRING_KEYS);
+        LedgerSnapshot.writeMap(out, coinChangeByPlayer, LedgerSnapshot.UUID_KEYS);
+        LedgerSnapshot.writeMap(out, coinChangeByMerchant, LedgerSnapshot.STRING_KEYS);
+        coinsGainedByPlayer.write(out, LedgerSnapshot.UUID_KEYS);
+        coinsSpentByPlayer.write(out, LedgerSnapshot.UUID_KEYS);
+        LedgerSnapshot.writeMap(out, coinsGivenByMerchant, LedgerSnapshot.STRING_KEYS);
+        LedgerSnapshot.writeMap(out, coinsCollectedByMerchant, LedgerSnapshot.STRING_KEYS);
+        out.writeLong(totalTradeCount);
+        out.writeLong(totalCoinCirculation);
+    }
+
+    private void readStatistics(DataInputStream in) throws IOException {
+        tradeCountByMerchant.read(in, LedgerSnapshot.STRING_KEY_READER);
+        tradeCountByPlayer.read(in, LedgerSnapshot.UUID_KEY_READER);
+        tradeCountByOutputItem.read(in, LedgerSnapshot.STRING_KEY_READER);
+        LedgerSnapshot.readMap(in, coinChangeByPlayer, LedgerSnapshot.UUID_KEY_READER);
+        LedgerSnapshot.readMap(in, coinChangeByMerchant, LedgerSnapshot.STRING_KEY_READER);
+        coinsGainedByPlayer.read(in, LedgerSnapshot.UUID_KEY_READER);
+        coinsSpentByPlayer.read(in, LedgerSnapshot.UUID_KEY_READER);
+        LedgerSnapshot.readMap(in, coinsGivenByMerchant, LedgerSnapshot.STRING_KEY_READER);
+        LedgerSnapshot.readMap(in, coinsCollectedByMerchant, LedgerSnapshot.STRING_KEY_READER);
+        totalTradeCount = in.readLong();
+        totalCoinCirculation = in.readLong();
+    }
+
+    /**
+     * Empty the store, indexes and statistics (not the files, rollups or sketches)
+     */
+    private void resetInMemoryState() {
+        store.clear();
+        index.clear();
+        clearStatistics();
+    }
+
+    private void clearStatistics() {
+        tradeCountByMerchant.clear();
+        tradeCountByPlayer.clear();
+        tradeCountByOutputItem.clear();
+        coinChangeByPlayer.clear();
+        coinChangeByMerchant.clear();
+        coinsGainedByPlayer.clear();
+        coinsSpentByPlayer.clear();
+        coinsGivenByMerchant.clear();
+        coinsCollectedByMerchant.clear();
+        totalTradeCount = 0;
+        totalCoinCirculation = 0;
+    }
+
     public static TransactionLedger load(CompoundTag tag, net.minecraft.core.HolderLookup.Provider registries) {
         TransactionLedger ledger = new TransactionLedger();
 
@@ -85,35 +621,53 @@ public class TransactionLedger extends SavedData {
         }
         ledger.webhookEnabled = tag.getBoolean("webhookEnabled");
 
-        // Load synced transaction IDs
+        // Load webhook sync state
+        ledger.webhookSync.restore(tag.getLong("webhookSyncWatermark"), tag.getLongArray("webhookSyncAhead"),
+            tag.getLongArray("webhookSyncMissed"));
+
+        // Synced transaction IDs stored by older versions; converted on attach
         if (tag.contains("webhookSyncedTransactions")) {
             ListTag syncedList = tag.getList("webhookSyncedTransactions", Tag.TAG_STRING);
             for (int i = 0; i < syncedList.size(); i++) {
                 try {
-                    ledger.webhookSyncedTransactions.add(UUID.fromString(syncedList.getString(i)));
+                    ledger.legacySyncedTransactions.add(UUID.fromString(syncedList.getString(i)));
                 } catch (IllegalArgumentException e) {
                     // Skip invalid UUIDs
                 }
             }
         }
 
-        // Load transactions
+        // Load transactions stored by older versions (before the segment log); migrated on attach
         if (tag.contains("transactions")) {
             ListTag transactionsList = tag.getList("transactions", Tag.TAG_COMPOUND);
             for (int i = 0; i < transactionsList.size(); i++) {
                 CompoundTag txTag = transactionsList.getCompound(i);
                 TransactionRecord record = loadTransaction(txTag);
                 if (record != null) {
-                    ledger.transactions.add(record);
-                    ledger.updateStatistics(record);
+                    ledger.legacyTransactions.add(record);
                 }
             }
         }
 
-        CobblemonMerchants.LOGGER.info("Loaded {} transactions from ledger", ledger.transactions.size());
         return ledger;
     }
 
+    private static CompoundTag saveTransaction(TransactionRecord record) {
+        CompoundTag tag = new CompoundTag();
+        tag.putString("transactionId", record.getTransactionId().toString());
+        tag.putString("playerUuid", record.getPlayerUuid().toString());
+        tag.putString("playerName", record.getPlayerName());
+        tag.putString("merchantId", record.getMerchantId());
+        tag.putString("merchantName", record.getMerchantName());
+        tag.putString("inputItem", record.getInputItem());
+        tag.putInt("inputCount", record.getInputCount());
+        tag.putString("outputItem", record.getOutputItem());
+        tag.putInt("outputCount", record.getOutputCount());
+        tag.putString("timestamp", record.getTimestamp().toString());
+        tag.putInt("quantity", record.getQuantity());
+        return tag;
+    }
+
     private static TransactionRecord loadTransaction(CompoundTag tag) {
         try {
             return new TransactionRecord(
@@ -137,53 +691,103 @@ public class TransactionLedger extends SavedData {
 
     @Override
     public @NotNull CompoundTag save(@NotNull CompoundTag tag, net.minecraft.core.HolderLookup.@NotNull Provider registries) {
+        if (isConsumerThread()) {
+            processEvents();
+        }
+
         // Save webhook config
         if (webhookUrl != null) {
             tag.putString("webhookUrl", webhookUrl);
         }
         tag.putBoolean("webhookEnabled", webhookEnabled);
 
-        // Save synced transaction IDs (only keep IDs for transactions we still have)
-        ListTag syncedList = new ListTag();
-        Set<UUID> currentTransactionIds = transactions.stream()
-                .map(TransactionRecord::getTransactionId)
-                .collect(Collectors.toSet());
-        for (UUID syncedId : webhookSyncedTransactions) {
-            if (currentTransactionIds.contains(syncedId)) {
-                syncedList.add(net.minecraft.nbt.StringTag.valueOf(syncedId.toString()));
+        // Append records finalized since the last save to the segment log
+        appendNewRecordsToLog();
+
+        // Keep the legacy list until a successful append has moved it into the segment log
+        if (!legacyTransactions.isEmpty()) {
+            ListTag transactionsList = new ListTag();
+            for (TransactionRecord record : legacyTransactions) {
+                transactionsList.add(saveTransaction(record));
             }
+            tag.put("transactions", transactionsList);
         }
-        tag.put("webhookSyncedTransactions", syncedList);
 
-        // Save transactions (limit to last 10000 to prevent bloat)
-        ListTag transactionsList = new ListTag();
-        int startIndex = Math.max(0, transactions.size() - 10000);
-        for (int i = startIndex; i < transactions.size(); i++) {
-            transactionsList.add(saveTransaction(transactions.get(i)));
+        saveRollups();
+        saveSketches();
+        startArchiving();
+        saveSnapshot();
+
+        // Save webhook sync state
+        tag.putLong("webhookSyncWatermark", webhookSync.getWatermark());
+        tag.putLongArray("webhookSyncAhead", webhookSync.getAhead());
+        tag.putLongArray("webhookSyncMissed", webhookSync.getMissed());
+        long forgotten = webhookSync.getForgottenCount();
+        if (forgotten > loggedForgottenAcks) {
+            CobblemonMerchants.LOGGER.warn("Webhook sync state is full: {} acknowledgements were dropped and those "
+                + "transactions will be sent again on the next sync", forgotten);
+            loggedForgottenAcks = forgotten;
         }
-        tag.put("transactions", transactionsList);
 
+        MerchantMetrics.recordSave(DATA_NAME, tag);
         return tag;
     }
 
-    private CompoundTag saveTransaction(TransactionRecord record) {
-        CompoundTag tag = new CompoundTag();
-        tag.putString("transactionId", record.getTransactionId().toString());
-        tag.putString("playerUuid", record.getPlayerUuid().toString());
-        tag.putString("playerName", record.getPlayerName());
-        tag.putString("merchantId", record.getMerchantId());
-        tag.putString("merchantName", record.getMerchantName());
-        tag.putString("inputItem", record.getInputItem());
-        tag.putInt("inputCount", record.getInputCount());
-        tag.putString("outputItem", record.getOutputItem());
-        tag.putInt("outputCount", record.getOutputCount());
-        tag.putString("timestamp", record.getTimestamp().toString());
-        tag.putInt("quantity", record.getQuantity());
-        return tag;
+    private void saveRollups() {
+        if (segmentLog == null || !rollups.hasChanged()) {
+            return;
+        }
+        try {
+            rollups.save(segmentLog.getDirectory().resolve(ROLLUPS_FILE), store.getNextSequence() - 1);
+        } catch (IOException e) {
+            CobblemonMerchants.LOGGER.error("Failed to save ledger rollups: {}", e.getMessage());
+        }
     }
 
+    private void saveSketches() {
+        if (segmentLog == null || !sketches.hasChanged()) {
+            return;
+        }
+        try {
+            sketches.save(segmentLog.getDirectory().resolve(SKETCHES_FILE), store.getNextSequence() - 1);
+        } catch (IOException e) {
+            CobblemonMerchants.LOGGER.error("Failed to save ledger sketches: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Write the unpersisted tail of the store to the segment log.
+     * On failure the records stay pending and are retried on the next save.
+     */
+    private void appendNewRecordsToLog() {
+        if (segmentLog == null || persistedCount >= store.size()) {
+            return;
+        }
+        List<TransactionRecord> tail = new ArrayList<>(store.size() - persistedCount);
+        for (int row = persistedCount; row < store.size(); row++) {
+            tail.add(store.get(row));
+        }
+        try {
+            segmentLog.append(tail);
+            CobblemonMerchants.LOGGER.debug("Appended {} transactions to ledger segments", tail.size());
+            persistedCount = store.size();
+            // Migrated legacy records are the leading rows; once logged, the NBT copy can go
+            if (!legacyTransactions.isEmpty() && persistedCount >= legacyTransactions.size()) {
+                CobblemonMerchants.LOGGER.info("Migrated {} legacy NBT transactions to the segment log",
+                        legacyTransactions.size());
+                legacyTransactions.clear();
+            }
+        } catch (IOException e) {
+            CobblemonMerchants.LOGGER.error("Failed to append transactions to ledger segments: {}", e.getMessage());
+        }
+    }
+
+    // ==================== Event Ingestion ====================
+
     /**
-     * Record a new transaction, handling bundling automatically
+     * Record a new transaction of {@code quantity} identical trades (input/output counts are per trade).
+     * Only publishes an event; bundling and finalization happen when the server thread next calls
+     * {@link #processEvents()}.
      */
     public void recordTransaction(
             UUID playerUuid,
@@ -193,26 +797,70 @@ public class TransactionLedger extends SavedData {
             String inputItem,
             int inputCount,
             String outputItem,
-            int outputCount
+            int outputCount,
+            int quantity
     ) {
         TransactionRecord newRecord = new TransactionRecord(
-                playerUuid, playerName, merchantId, merchantName,
-                inputItem, inputCount, outputItem, outputCount
+                UUID.randomUUID(), playerUuid, playerName, merchantId, merchantName,
+                inputItem, inputCount, outputItem, outputCount, Instant.now(), Math.max(1, quantity)
         );
+        publish(new LedgerEvent.Trade(newRecord, System.currentTimeMillis()));
+    }
+
+    /**
+     * Apply every published event to the store, indexes and statistics.
+     * Must only be called from the server thread (the single consumer).
+     */
+    public void processEvents() {
+        eventsApplied += events.drain(this::applyEvent, Integer.MAX_VALUE);
+    }
 
-        long now = System.currentTimeMillis();
-        Long lastTime = lastTransactionTime.get(playerUuid);
-        TransactionRecord pending = pendingTransactions.get(playerUuid);
+    private void publish(LedgerEvent event) {
+        while (!events.offer(event)) {
+            if (isConsumerThread()) {
+                // Full: the server thread can make room by applying what is queued
+                processEvents();
+            } else if (event instanceof LedgerEvent.WebhookAck) {
+                // Acks are best-effort; the records are simply sent again on the next sync
+                eventsDropped.incrementAndGet();
+                return;
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    private boolean isConsumerThread() {
+        return serverLevel == null || serverLevel.getServer().isSameThread();
+    }
+
+    private void applyEvent(LedgerEvent event) {
+        if (event instanceof LedgerEvent.Trade trade) {
+            applyTrade(trade.record(), trade.timeMs());
+        } else if (event instanceof LedgerEvent.WebhookAck ack) {
+            for (long sequence : ack.sequences()) {
+                webhookSync.acknowledge(sequence);
+            }
+            setDirty();
+        }
+    }
+
+    /**
+     * Bundle a trade into the player's pending entry, or finalize that entry and start a new one
+     */
+    private void applyTrade(TransactionRecord newRecord, long now) {
+        UUID playerUuid = newRecord.getPlayerUuid();
+        TransactionRecord pending = pendingBundles.get(playerUuid);
 
         // Check if we can bundle with pending transaction
-        if (pending != null && lastTime != null && (now - lastTime) <= BUNDLE_WINDOW_MS) {
+        if (pending != null && now <= pendingBundles.getDeadline(playerUuid)) {
             if (pending.canBundleWith(newRecord)) {
-                // Bundle with existing
-                pending.incrementQuantity();
-                lastTransactionTime.put(playerUuid, now);
+                // Bundle with existing and extend its window
+                pending.addQuantity(newRecord.getQuantity());
+                pendingBundles.reschedule(playerUuid, now + LedgerConfig.BUNDLE_WINDOW_MS);
                 setDirty();
                 CobblemonMerchants.LOGGER.debug("Bundled transaction for {}, quantity now: {}",
-                        playerName, pending.getQuantity());
+                        newRecord.getPlayerName(), pending.getQuantity());
                 return;
             } else {
                 // Different trade - finalize pending and start new
@@ -223,87 +871,96 @@ public class TransactionLedger extends SavedData {
             finalizeTransaction(pending);
         }
 
-        // Start new pending transaction
-        pendingTransactions.put(playerUuid, newRecord);
-        lastTransactionTime.put(playerUuid, now);
+        // Start new pending transaction (replaces the one finalized above)
+        pendingBundles.put(playerUuid, newRecord, now + LedgerConfig.BUNDLE_WINDOW_MS);
         setDirty();
 
         CobblemonMerchants.LOGGER.debug("New pending transaction for {}: {} -> {}",
-                playerName, inputItem, outputItem);
+                newRecord.getPlayerName(), newRecord.getInputItem(), newRecord.getOutputItem());
     }
 
     /**
-     * Finalize a pending transaction (add to list, write to CSV)
+     * Finalize a pending transaction (add to store, queue for CSV)
      */
     private void finalizeTransaction(TransactionRecord record) {
-        transactions.add(record);
-        updateStatistics(record);
-        csvWriteQueue.add(record);
+        long start = System.nanoTime();
+        appendToStore(record);
+        rollups.record(record);
+        sketches.record(record);
         setDirty();
 
         CobblemonMerchants.LOGGER.info("Finalized transaction: {}", record);
 
-        // Trigger async CSV write
-        writePendingToCsv();
+        // Hand off to the background CSV writer
+        if (csvWriter != null) {
+            csvWriter.submit(record);
+        }
 
         // If webhook enabled, send to webhook
-        if (webhookEnabled && webhookUrl != null) {
-            sendToWebhook(record);
+        LedgerWebhookDispatcher dispatcher = getWebhookDispatcher();
+        if (dispatcher != null && !dispatcher.submit(record)) {
+            CobblemonMerchants.LOGGER.debug("Webhook queue full, transaction {} left for a later sync",
+                    record.getTransactionId());
         }
+
+        MerchantMetrics.LEDGER_FINALIZED.inc();
+        MerchantMetrics.LEDGER_FINALIZE_SECONDS.observeSince(start);
     }
 
     /**
      * Force finalize all pending transactions (call on server shutdown/save)
      */
     public void finalizeAllPending() {
-        for (TransactionRecord pending : pendingTransactions.values()) {
-            finalizeTransaction(pending);
-        }
-        pendingTransactions.clear();
-        lastTransactionTime.clear();
+        processEvents();
+        pendingBundles.drainAll(this::finalizeTransaction);
     }
 
     /**
      * Check for and finalize any pending transactions that have expired their bundle window.
-     * Call this periodically (e.g., every second via server tick).
+     * Only the timing wheel slots that came due since the last call are visited, so this is cheap
+     * enough to call every server tick.
      */
     public void finalizeExpiredPending() {
-        if (pendingTransactions.isEmpty()) {
-            return;
-        }
-
-        long now = System.currentTimeMillis();
-        List<UUID> toFinalize = new ArrayList<>();
-
-        for (Map.Entry<UUID, Long> entry : lastTransactionTime.entrySet()) {
-            if ((now - entry.getValue()) > BUNDLE_WINDOW_MS) {
-                toFinalize.add(entry.getKey());
-            }
-        }
+        processEvents();
+        pendingBundles.expire(System.currentTimeMillis(), pending -> {
+            finalizeTransaction(pending);
+            CobblemonMerchants.LOGGER.debug("Auto-finalized expired pending transaction for player {}",
+                    pending.getPlayerName());
+        });
+        pumpWebhookResync();
+    }
 
-        for (UUID playerUuid : toFinalize) {
-            TransactionRecord pending = pendingTransactions.remove(playerUuid);
-            lastTransactionTime.remove(playerUuid);
-            if (pending != null) {
-                finalizeTransaction(pending);
-                CobblemonMerchants.LOGGER.debug("Auto-finalized expired pending transaction for player {}",
-                        pending.getPlayerName());
-            }
-        }
+    /**
+     * Add a finalized record to the store, its indexes and the statistics cache
+     */
+    private void appendToStore(TransactionRecord record) {
+        int row = store.append(record);
+        index.index(store, row);
+        updateStatistics(record);
+        snapshotStale = true;
     }
 
     /**
-     * Update statistics cache
+     * Update statistics cache (all-time, including archived records)
      */
     private void updateStatistics(TransactionRecord record) {
-        tradeCountByMerchant.merge(record.getMerchantId(), record.getQuantity(), Integer::sum);
-        tradeCountByPlayer.merge(record.getPlayerUuid(), record.getQuantity(), Integer::sum);
-        tradeCountByOutputItem.merge(record.getOutputItem(), record.getQuantity(), Integer::sum);
+        tradeCountByMerchant.add(record.getMerchantId(), record.getQuantity());
+        tradeCountByPlayer.add(record.getPlayerUuid(), record.getQuantity());
+        tradeCountByOutputItem.add(record.getOutputItem(), record.getQuantity());
 
         // Update coin statistics
         int coinChange = record.getCoinChange();
         coinChangeByPlayer.merge(record.getPlayerUuid(), coinChange, Integer::sum);
         coinChangeByMerchant.merge(record.getMerchantId(), coinChange, Integer::sum);
+        if (coinChange > 0) {
+            coinsGainedByPlayer.add(record.getPlayerUuid(), coinChange);
+            coinsGivenByMerchant.merge(record.getMerchantId(), coinChange, Integer::sum);
+        } else if (coinChange < 0) {
+            coinsSpentByPlayer.add(record.getPlayerUuid(), -coinChange);
+            coinsCollectedByMerchant.merge(record.getMerchantId(), -coinChange, Integer::sum);
+        }
+        totalTradeCount += record.getQuantity();
+        totalCoinCirculation += coinChange;
     }
 
     // ==================== CSV Export ====================
@@ -321,67 +978,89 @@ public class TransactionLedger extends SavedData {
     }
 
     /**
-     * Write pending transactions to CSV file
+     * Get the background CSV writer (for queue depth and flush latency diagnostics), or null if not running
      */
-    private void writePendingToCsv() {
-        Path csvPath = getCsvPath();
-
-        try {
-            // Create parent directories if needed
-            if (csvPath.getParent() != null) {
-                Files.createDirectories(csvPath.getParent());
-            }
-
-            // Create file with header if it doesn't exist
-            if (!Files.exists(csvPath)) {
-                Files.writeString(csvPath, TransactionRecord.getCsvHeader() + "\n");
-            }
+    public LedgerCsvWriter getCsvWriter() {
+        return csvWriter;
+    }
 
-            // Append all queued transactions
-            try (BufferedWriter writer = Files.newBufferedWriter(csvPath,
-                    StandardOpenOption.APPEND, StandardOpenOption.CREATE)) {
-                TransactionRecord record;
-                while ((record = csvWriteQueue.poll()) != null) {
-                    writer.write(record.toCsvRow());
-                    writer.newLine();
-                }
-            }
-        } catch (IOException e) {
-            CobblemonMerchants.LOGGER.error("Failed to write to CSV: {}", e.getMessage());
+    /**
+     * Stop background workers, writing out anything still queued (call on server shutdown)
+     */
+    public void shutdown() {
+        if (csvWriter != null) {
+            csvWriter.close();
+            csvWriter = null;
+        }
+        if (exporter != null) {
+            exporter.cancel();
         }
+        LedgerReportExecutor.invalidate();
+        closeWebhookDispatcher();
+        abandonArchiving();
     }
 
-    /**
-     * Export all transactions to a new CSV file in world save directory
-     */
-    public Path exportFullCsv() throws IOException {
+    /**
+     * Export matching transactions to a new CSV file (optionally gzip-compressed) in the world save
+     * directory on a background thread. The records are snapshotted here; the listener is called
+     * from the export thread. Returns the file being written, or null if an export is already running.
+     */
+    public Path startExport(LedgerFilter filter, boolean gzip, LedgerExporter.Listener listener) {
+        if (exporter == null) {
+            exporter = new LedgerExporter();
+        }
+        if (exporter.isBusy()) {
+            return null;
+        }
+
         String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+        String fileName = "merchant_transactions_export_" + timestamp + (gzip ? ".csv.gz" : ".csv");
         Path exportPath;
-
         if (serverLevel != null) {
-            Path worldDir = serverLevel.getServer().getWorldPath(LevelResource.ROOT);
-            exportPath = worldDir.resolve("merchant_transactions_export_" + timestamp + ".csv");
+            exportPath = serverLevel.getServer().getWorldPath(LevelResource.ROOT).resolve(fileName);
         } else {
-            exportPath = Path.of("merchant_transactions_export_" + timestamp + ".csv");
+            exportPath = Path.of(fileName);
         }
 
-        // Create parent directories if needed
-        if (exportPath.getParent() != null) {
-            Files.createDirectories(exportPath.getParent());
-        }
+        processEvents();
+        LedgerArchive.Snapshot archived = archive != null ? archive.snapshot() : null;
+        List<TransactionRecord> hot = snapshotHotRecords(filter);
+        return exporter.start(exportPath, gzip, filter, archived, hot, listener) ? exportPath : null;
+    }
 
-        try (BufferedWriter writer = Files.newBufferedWriter(exportPath)) {
-            writer.write(TransactionRecord.getCsvHeader());
-            writer.newLine();
+    public boolean isExportRunning() {
+        return exporter != null && exporter.isBusy();
+    }
 
-            for (TransactionRecord record : transactions) {
-                writer.write(record.toCsvRow());
-                writer.newLine();
-            }
+    /**
+     * In-memory records matching the filter, in ledger order. Uses the narrowest index available;
+     * without a filter the rows are copied column by column and materialized by the reader.
+     */
+    private List<TransactionRecord> snapshotHotRecords(LedgerFilter filter) {
+        IntList rows;
+        if (filter.getPlayerUuid() != null) {
+            rows = rowsForPlayer(filter.getPlayerUuid());
+        } else if (filter.getMerchantId() != null) {
+            rows = rowsForMerchant(filter.getMerchantId());
+        } else if (filter.getItemId() != null) {
+            rows = index.rowsForItem(store.lookupString(filter.getItemId()));
+        } else if (filter.getFrom() != null || filter.getTo() != null) {
+            rows = rowsInTimeRange(
+                    filter.getFrom() != null ? LedgerColumnStore.toEpochNanos(filter.getFrom()) : Long.MIN_VALUE,
+                    filter.getTo() != null ? LedgerColumnStore.toEpochNanos(filter.getTo()) : Long.MAX_VALUE);
+        } else {
+            // Copy the columns; the export thread builds the records
+            return store.snapshotRows();
         }
 
-        CobblemonMerchants.LOGGER.info("Exported {} transactions to {}", transactions.size(), exportPath);
-        return exportPath;
+        List<TransactionRecord> result = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            TransactionRecord record = store.get(rows.get(i));
+            if (filter.matches(record)) {
+                result.add(record);
+            }
+        }
+        return result;
     }
 
     // ==================== Webhook Integration ====================
@@ -389,12 +1068,14 @@ public class TransactionLedger extends SavedData {
     public void configureWebhook(String url) {
         this.webhookUrl = url;
         this.webhookEnabled = true;
+        closeWebhookDispatcher();
         setDirty();
         CobblemonMerchants.LOGGER.info("Webhook configured: {}", url);
     }
 
     public void disableWebhook() {
         this.webhookEnabled = false;
+        closeWebhookDispatcher();
         setDirty();
     }
 
@@ -406,153 +1087,154 @@ public class TransactionLedger extends SavedData {
         return webhookUrl;
     }
 
-    private void sendToWebhook(TransactionRecord record) {
-        Thread webhookThread = new Thread(() -> {
+    /**
+     * Get the webhook dispatcher, starting it if the webhook is enabled.
+     * Returns null if the webhook is disabled, the URL is invalid, or the ledger has been shut down.
+     */
+    public LedgerWebhookDispatcher getWebhookDispatcher() {
+        if (!webhookEnabled || webhookUrl == null || segmentLog == null || csvWriter == null) {
+            return null;
+        }
+        if (webhookDispatcher == null) {
             try {
-                URL url = URI.create(webhookUrl).toURL();
-                HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-                connection.setRequestMethod("POST");
-                connection.setRequestProperty("Content-Type", "application/json");
-                connection.setDoOutput(true);
-                connection.setConnectTimeout(5000);
-                connection.setReadTimeout(5000);
-
-                String json = buildTransactionJson(record);
-
-                try (OutputStream os = connection.getOutputStream()) {
-                    byte[] input = json.getBytes(StandardCharsets.UTF_8);
-                    os.write(input, 0, input.length);
-                }
+                webhookDispatcher = new LedgerWebhookDispatcher(URI.create(webhookUrl),
+                        LedgerWebhookDispatcher.Settings.fromConfig(), new LedgerWebhookDispatcher.Listener() {
+                    @Override
+                    public void onDelivered(List<TransactionRecord> batch) {
+                        long[] sequences = new long[batch.size()];
+                        for (int i = 0; i < sequences.length; i++) {
+                            sequences[i] = batch.get(i).getSequence();
+                        }
+                        publish(new LedgerEvent.WebhookAck(sequences));
+                        CobblemonMerchants.LOGGER.debug("Webhook delivered {} transactions", batch.size());
+                    }
 
-                int responseCode = connection.getResponseCode();
-                if (responseCode == HttpURLConnection.HTTP_OK) {
-                    CobblemonMerchants.LOGGER.debug("Webhook sent successfully for transaction: {}", record.getTransactionId());
-                    // Mark as synced
-                    webhookSyncedTransactions.add(record.getTransactionId());
-                    setDirty();
-                } else {
-                    CobblemonMerchants.LOGGER.warn("Webhook returned status {}: {}", responseCode, record.getTransactionId());
-                }
-            } catch (Exception e) {
-                CobblemonMerchants.LOGGER.error("Failed to send webhook: {}", e.getMessage());
-            }
-        }, "Webhook-Sender");
-        webhookThread.setDaemon(true);
-        webhookThread.start();
-    }
-
-    private String buildTransactionJson(TransactionRecord record) {
-        StringBuilder json = new StringBuilder();
-        json.append("{");
-        json.append("\"transactionId\":\"").append(escapeJson(record.getTransactionId().toString())).append("\",");
-        json.append("\"timestamp\":\"").append(escapeJson(record.getFormattedTimestamp())).append("\",");
-        json.append("\"playerUuid\":\"").append(escapeJson(record.getPlayerUuid().toString())).append("\",");
-        json.append("\"playerName\":\"").append(escapeJson(record.getPlayerName())).append("\",");
-        json.append("\"merchantId\":\"").append(escapeJson(shortName(record.getMerchantId()))).append("\",");
-        json.append("\"merchantName\":\"").append(escapeJson(record.getMerchantName())).append("\",");
-        json.append("\"quantity\":").append(record.getQuantity()).append(",");
-        json.append("\"inputItem\":\"").append(escapeJson(shortName(record.getInputItem()))).append("\",");
-        json.append("\"inputCount\":").append(record.getInputCount()).append(",");
-        json.append("\"outputItem\":\"").append(escapeJson(shortName(record.getOutputItem()))).append("\",");
-        json.append("\"outputCount\":").append(record.getOutputCount()).append(",");
-        json.append("\"coinChange\":\"").append(record.getCoinChangeString()).append("\"");
-        json.append("}");
-        return json.toString();
-    }
-
-    private String escapeJson(String value) {
-        if (value == null) return "";
-        return value
-                .replace("\\", "\\\\")
-                .replace("\"", "\\\"")
-                .replace("\n", "\\n")
-                .replace("\r", "\\r")
-                .replace("\t", "\\t");
-    }
-
-    /**
-     * Sync unsynced transactions to webhook.
+                    @Override
+                    public void onFailed(List<TransactionRecord> batch, String reason) {
+                        CobblemonMerchants.LOGGER.warn("Webhook delivery of {} transactions failed: {}",
+                                batch.size(), reason);
+                    }
+                });
+            } catch (IllegalArgumentException e) {
+                CobblemonMerchants.LOGGER.error("Invalid webhook URL {}: {}", webhookUrl, e.getMessage());
+                return null;
+            }
+        }
+        return webhookDispatcher;
+    }
+
+    private void closeWebhookDispatcher() {
+        webhookResyncNext = 0;
+        if (webhookDispatcher != null) {
+            webhookDispatcher.close();
+            webhookDispatcher = null;
+        }
+    }
+
+    /**
+     * Start syncing unsynced transactions to the webhook. Only a cursor is set here: records are paged
+     * out of the archive and store into the dispatcher's backlog as it drains (see
+     * {@link #pumpWebhookResync()}), skipping ones already delivered, queued or in flight.
+     * Does nothing while a sync is already running.
      * Returns array: [total, alreadySynced, toSync]
      */
     public int[] syncAllToWebhook() {
-        if (!webhookEnabled || webhookUrl == null) {
+        LedgerWebhookDispatcher dispatcher = getWebhookDispatcher();
+        if (dispatcher == null) {
             CobblemonMerchants.LOGGER.warn("Webhook not configured");
             return new int[]{0, 0, 0};
         }
 
-        // Filter to only unsynced transactions
-        List<TransactionRecord> unsyncedTransactions = transactions.stream()
-                .filter(t -> !webhookSyncedTransactions.contains(t.getTransactionId()))
-                .collect(Collectors.toList());
-
-        int total = transactions.size();
-        int alreadySynced = total - unsyncedTransactions.size();
-        int toSync = unsyncedTransactions.size();
-
-        if (unsyncedTransactions.isEmpty()) {
+        processEvents();
+        int total = (int) getTotalRecordCount();
+        int toSync = getUnsyncedCount();
+        int alreadySynced = total - toSync;
+        if (isWebhookSyncRunning()) {
+            return new int[]{total, alreadySynced, toSync};
+        }
+        if (toSync == 0) {
             CobblemonMerchants.LOGGER.info("All {} transactions already synced to webhook", total);
             return new int[]{total, alreadySynced, 0};
         }
 
         CobblemonMerchants.LOGGER.info("Syncing {} unsynced transactions to webhook ({} already synced)...",
                 toSync, alreadySynced);
-
-        Thread syncThread = new Thread(() -> {
-            int sent = 0;
-            int failed = 0;
-            for (TransactionRecord record : unsyncedTransactions) {
-                if (sendToWebhookSync(record)) {
-                    sent++;
-                    webhookSyncedTransactions.add(record.getTransactionId());
-                } else {
-                    failed++;
-                }
-                if ((sent + failed) % 50 == 0) {
-                    CobblemonMerchants.LOGGER.info("Synced {}/{} transactions ({} failed)",
-                            sent, unsyncedTransactions.size(), failed);
-                    try {
-                        Thread.sleep(100);
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                        return;
-                    }
-                }
-            }
-            setDirty();
-            CobblemonMerchants.LOGGER.info("Webhook sync complete: {} sent, {} failed", sent, failed);
-        }, "Webhook-Bulk-Sync");
-        syncThread.setDaemon(true);
-        syncThread.start();
+        webhookResyncNext = webhookSync.getFirstUnacknowledged();
+        webhookResyncEnd = store.getNextSequence() - 1;
+        pumpWebhookResync();
 
         return new int[]{total, alreadySynced, toSync};
     }
 
     /**
-     * Send a transaction to webhook synchronously.
-     * Returns true if successful.
+     * Whether a /ledger webhook sync is still queueing records
      */
-    private boolean sendToWebhookSync(TransactionRecord record) {
-        try {
-            URL url = URI.create(webhookUrl).toURL();
-            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-            connection.setRequestMethod("POST");
-            connection.setRequestProperty("Content-Type", "application/json");
-            connection.setDoOutput(true);
-            connection.setConnectTimeout(5000);
-            connection.setReadTimeout(5000);
+    public boolean isWebhookSyncRunning() {
+        return webhookResyncNext != 0;
+    }
 
-            String json = buildTransactionJson(record);
+    /**
+     * Fill the dispatcher's backlog from the sync cursor (called on the server thread every few ticks).
+     * A record is skipped if it was pending in the dispatcher when checked, or is acknowledged after the
+     * acknowledgements published up to that point are applied; a record stops being pending only after
+     * its acknowledgement is published, so nothing already delivered is queued again.
+     */
+    private void pumpWebhookResync() {
+        if (webhookResyncNext == 0) {
+            return;
+        }
+        LedgerWebhookDispatcher dispatcher = getWebhookDispatcher();
+        if (dispatcher == null) {
+            webhookResyncNext = 0;
+            return;
+        }
+        int room = dispatcher.getBacklogRoom();
+        if (room <= 0) {
+            return;
+        }
 
-            try (OutputStream os = connection.getOutputStream()) {
-                byte[] input = json.getBytes(StandardCharsets.UTF_8);
-                os.write(input, 0, input.length);
+        List<TransactionRecord> page = new ArrayList<>(room);
+        long[] next = {webhookResyncNext};
+        int[] scanned = {0};
+        if (archive != null && next[0] <= archive.getLastSequence()) {
+            try {
+                archive.walkFrom(next[0] - 1, false, Long.MIN_VALUE, Long.MAX_VALUE, null, record -> {
+                    long sequence = record.getSequence();
+                    next[0] = sequence + 1;
+                    if (!webhookSync.isAcknowledged(sequence) && !dispatcher.isPending(sequence)) {
+                        page.add(record);
+                    }
+                    return page.size() < room && ++scanned[0] < WEBHOOK_RESYNC_SCAN_LIMIT;
+                });
+            } catch (IOException e) {
+                CobblemonMerchants.LOGGER.error("Failed to read ledger archive, stopping webhook sync: {}", e.getMessage());
+                webhookResyncNext = 0;
+                return;
+            }
+            if (page.size() < room && scanned[0] < WEBHOOK_RESYNC_SCAN_LIMIT) {
+                next[0] = Math.max(next[0], archive.getLastSequence() + 1);
+            }
+        }
+        if (page.size() < room && scanned[0] < WEBHOOK_RESYNC_SCAN_LIMIT) {
+            next[0] = Math.max(next[0], store.getFirstSequence());
+            while (next[0] <= webhookResyncEnd && page.size() < room && scanned[0]++ < WEBHOOK_RESYNC_SCAN_LIMIT) {
+                long sequence = next[0]++;
+                int row = store.rowOfSequence(sequence);
+                if (row >= 0 && !webhookSync.isAcknowledged(sequence) && !dispatcher.isPending(sequence)) {
+                    page.add(store.get(row));
+                }
             }
+        }
 
-            int responseCode = connection.getResponseCode();
-            return responseCode == HttpURLConnection.HTTP_OK;
-        } catch (Exception e) {
-            CobblemonMerchants.LOGGER.debug("Webhook sync failed for {}: {}", record.getTransactionId(), e.getMessage());
-            return false;
+        // Apply acknowledgements published before the pending checks above
+        processEvents();
+        page.removeIf(record -> webhookSync.isAcknowledged(record.getSequence()));
+        dispatcher.submitBacklog(page);
+
+        webhookResyncNext = next[0];
+        if (webhookResyncNext > webhookResyncEnd) {
+            webhookResyncNext = 0;
+            CobblemonMerchants.LOGGER.info("Webhook sync queued every transaction up to #{}", webhookResyncEnd);
         }
     }
 
@@ -560,57 +1242,99 @@ public class TransactionLedger extends SavedData {
      * Get count of unsynced transactions
      */
     public int getUnsyncedCount() {
-        return (int) transactions.stream()
-                .filter(t -> !webhookSyncedTransactions.contains(t.getTransactionId()))
-                .count();
+        return (int) Math.max(0, getTotalRecordCount() - webhookSync.getAcknowledgedCount());
     }
 
     /**
      * Clear all webhook synced transaction tracking.
      * This allows a full re-sync to the webhook.
-     * Returns the number of synced transaction IDs that were cleared.
+     * Returns the number of synced transactions that were cleared.
      */
     public int clearWebhookSyncedTransactions() {
-        int count = webhookSyncedTransactions.size();
-        webhookSyncedTransactions.clear();
+        int count = (int) webhookSync.getAcknowledgedCount();
+        webhookSync.clear();
+        loggedForgottenAcks = 0;
+        webhookResyncNext = 0;
         setDirty();
-        CobblemonMerchants.LOGGER.info("Cleared {} webhook synced transaction IDs", count);
+        CobblemonMerchants.LOGGER.info("Cleared webhook sync tracking for {} transactions", count);
         return count;
     }
 
     // ==================== Diagnostics ====================
 
+    /**
+     * Number of finalized ledger entries (bundles) held in memory
+     */
+    public int getRecordCount() {
+        return store.size();
+    }
+
+    /**
+     * Number of finalized ledger entries in memory and in the archive
+     */
+    public long getTotalRecordCount() {
+        return store.size() + (archive != null ? archive.getArchivedRecords() : 0);
+    }
+
+    /**
+     * The compressed archive of older records, or null if not attached to a world
+     */
+    public LedgerArchive getArchive() {
+        return archive;
+    }
+
+    /**
+     * Number of players with an open bundle waiting to be finalized
+     */
+    public int getPendingCount() {
+        return pendingBundles.size();
+    }
+
+    /**
+     * Events published but not yet applied by {@link #processEvents()}
+     */
+    public int getEventQueueDepth() {
+        return events.size();
+    }
+
+    public long getEventsApplied() {
+        return eventsApplied;
+    }
+
+    public long getEventsDropped() {
+        return eventsDropped.get();
+    }
+
     public int getTotalTradeCount() {
-        return transactions.stream().mapToInt(TransactionRecord::getQuantity).sum();
+        return (int) totalTradeCount;
     }
 
     public Map<String, Integer> getTradeCountByMerchant() {
-        return new HashMap<>(tradeCountByMerchant);
+        return tradeCountByMerchant.toMap();
     }
 
     public Map<UUID, Integer> getTradeCountByPlayer() {
-        return new HashMap<>(tradeCountByPlayer);
+        return tradeCountByPlayer.toMap();
+    }
+
+    public int getPlayerTradeCount(UUID playerUuid) {
+        return tradeCountByPlayer.get(playerUuid);
+    }
+
+    public int getMerchantTradeCount(String merchantId) {
+        return tradeCountByMerchant.get(merchantId);
     }
 
     public List<Map.Entry<String, Integer>> getMostPopularItems(int limit) {
-        return tradeCountByOutputItem.entrySet().stream()
-                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
-                .limit(limit)
-                .collect(Collectors.toList());
+        return tradeCountByOutputItem.top(limit);
     }
 
     public List<Map.Entry<UUID, Integer>> getMostActiveTraders(int limit) {
-        return tradeCountByPlayer.entrySet().stream()
-                .sorted(Map.Entry.<UUID, Integer>comparingByValue().reversed())
-                .limit(limit)
-                .collect(Collectors.toList());
+        return tradeCountByPlayer.top(limit);
     }
 
     public List<Map.Entry<String, Integer>> getBusiestMerchants(int limit) {
-        return tradeCountByMerchant.entrySet().stream()
-                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
-                .limit(limit)
-                .collect(Collectors.toList());
+        return tradeCountByMerchant.top(limit);
     }
 
     // ==================== Coin Statistics ====================
@@ -633,136 +1357,462 @@ public class TransactionLedger extends SavedData {
      * Get coins gained by player (positive trades only)
      */
     public int getPlayerCoinsGained(UUID playerUuid) {
-        return transactions.stream()
-                .filter(t -> t.getPlayerUuid().equals(playerUuid))
-                .mapToInt(t -> Math.max(0, t.getCoinChange()))
-                .sum();
+        return coinsGainedByPlayer.get(playerUuid);
     }
 
     /**
      * Get coins spent by player (negative trades only, returned as positive)
      */
     public int getPlayerCoinsSpent(UUID playerUuid) {
-        return transactions.stream()
-                .filter(t -> t.getPlayerUuid().equals(playerUuid))
-                .mapToInt(t -> Math.abs(Math.min(0, t.getCoinChange())))
-                .sum();
+        return coinsSpentByPlayer.get(playerUuid);
     }
 
     /**
      * Get coins given out by merchant (to players)
      */
     public int getMerchantCoinsGiven(String merchantId) {
-        return transactions.stream()
-                .filter(t -> t.getMerchantId().equals(merchantId))
-                .mapToInt(t -> Math.max(0, t.getCoinChange()))
-                .sum();
+        return coinsGivenByMerchant.getOrDefault(merchantId, 0);
     }
 
     /**
      * Get coins collected by merchant (from players)
      */
     public int getMerchantCoinsCollected(String merchantId) {
-        return transactions.stream()
-                .filter(t -> t.getMerchantId().equals(merchantId))
-                .mapToInt(t -> Math.abs(Math.min(0, t.getCoinChange())))
-                .sum();
+        return coinsCollectedByMerchant.getOrDefault(merchantId, 0);
     }
 
     /**
      * Get total coins circulating (net change across all transactions)
      */
     public int getTotalCoinCirculation() {
-        return transactions.stream().mapToInt(TransactionRecord::getCoinChange).sum();
+        return (int) totalCoinCirculation;
     }
 
     /**
      * Get top players by coins gained
      */
     public List<Map.Entry<UUID, Integer>> getTopCoinEarners(int limit) {
-        Map<UUID, Integer> coinsGained = new HashMap<>();
-        for (TransactionRecord t : transactions) {
-            int gain = Math.max(0, t.getCoinChange());
-            if (gain > 0) {
-                coinsGained.merge(t.getPlayerUuid(), gain, Integer::sum);
-            }
-        }
-        return coinsGained.entrySet().stream()
-                .sorted(Map.Entry.<UUID, Integer>comparingByValue().reversed())
-                .limit(limit)
-                .collect(Collectors.toList());
+        return coinsGainedByPlayer.top(limit);
     }
 
     /**
      * Get top players by coins spent
      */
     public List<Map.Entry<UUID, Integer>> getTopCoinSpenders(int limit) {
-        Map<UUID, Integer> coinsSpent = new HashMap<>();
-        for (TransactionRecord t : transactions) {
-            int spent = Math.abs(Math.min(0, t.getCoinChange()));
-            if (spent > 0) {
-                coinsSpent.merge(t.getPlayerUuid(), spent, Integer::sum);
-            }
-        }
-        return coinsSpent.entrySet().stream()
-                .sorted(Map.Entry.<UUID, Integer>comparingByValue().reversed())
+        return coinsSpentByPlayer.top(limit);
+    }
+
+    // ==================== Approximate Analytics ====================
+
+    /**
+     * Estimated distinct players per merchant (all-time), highest first
+     */
+    public List<Map.Entry<String, Long>> getUniqueTradersByMerchant(int limit) {
+        return sketches.getUniqueTradersByMerchant().entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
                 .limit(limit)
                 .collect(Collectors.toList());
     }
 
-    public List<TransactionRecord> getTransactionsInRange(Instant start, Instant end) {
-        return transactions.stream()
-                .filter(t -> !t.getTimestamp().isBefore(start) && !t.getTimestamp().isAfter(end))
+    /**
+     * Estimated distinct players who traded with one merchant (all-time)
+     */
+    public long getUniqueTraders(String merchantId) {
+        return sketches.getUniqueTraders(merchantId);
+    }
+
+    /**
+     * Estimated distinct output items sold on each of the last {@code days} days (today included),
+     * keyed by date; days without trades are omitted
+     */
+    public NavigableMap<LocalDate, Long> getDistinctItemsPerDay(int days) {
+        long today = LedgerRollups.Granularity.DAY.bucketOf(Instant.now());
+        NavigableMap<LocalDate, Long> result = new TreeMap<>();
+        sketches.getDistinctItemsByDay(today - days + 1, today)
+                .forEach((day, estimate) -> result.put(LocalDate.ofEpochDay(day), estimate));
+        return result;
+    }
+
+    /**
+     * Approximate relic coins spent per trade at a rank (0.5 = median, 0.95 = p95), NaN if none
+     */
+    public double getCoinsSpentPerTradeQuantile(double rank) {
+        return sketches.getCoinsSpentQuantile(rank);
+    }
+
+    /**
+     * Number of trades paid for with relic coins (all-time)
+     */
+    public long getCoinPurchaseCount() {
+        return sketches.getCoinPurchaseCount();
+    }
+
+    // ==================== Windowed Statistics ====================
+
+    /**
+     * Top keys of a rollup dimension by trade count within a window.
+     * Keys are merchant ids, player UUID strings or output item ids depending on the dimension.
+     */
+    public List<Map.Entry<String, LedgerRollups.Rollup>> getTopInWindow(LedgerRollups.Dimension dimension,
+                                                                       RollupWindow window, int limit) {
+        Instant now = Instant.now();
+        Map<String, LedgerRollups.Rollup> totals = rollups.aggregate(dimension, window.getGranularity(),
+                window.fromBucket(now), window.toBucket(now));
+        return totals.entrySet().stream()
+                .sorted(Comparator.comparingLong(
+                        (Map.Entry<String, LedgerRollups.Rollup> e) -> e.getValue().getTrades()).reversed())
+                .limit(limit)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Trade and coin totals across all merchants within a window
+     */
+    public LedgerRollups.Rollup getWindowTotals(RollupWindow window) {
+        Instant now = Instant.now();
+        return rollups.total(window.getGranularity(), window.fromBucket(now), window.toBucket(now));
+    }
+
+    /**
+     * Transactions with a timestamp in [start, end], oldest first, from both the archive and memory
+     */
+    public List<TransactionRecord> getTransactionsInRange(Instant start, Instant end) {
+        long startNanos = LedgerColumnStore.toEpochNanos(start);
+        long endNanos = LedgerColumnStore.toEpochNanos(end);
+        List<TransactionRecord> result = new ArrayList<>();
+        if (archive != null && !archive.isEmpty()) {
+            try {
+                archive.scan(startNanos, endNanos, null, result::add);
+                result.sort(Comparator.comparing(TransactionRecord::getTimestamp));
+            } catch (IOException e) {
+                CobblemonMerchants.LOGGER.error("Failed to read ledger archive: {}", e.getMessage());
+            }
+        }
+
+        IntList rowsByTime = index.rowsByTime();
+        for (int i = index.lowerBound(store, startNanos); i < rowsByTime.size(); i++) {
+            int row = rowsByTime.get(i);
+            if (store.getTimestampNanos(row) > endNanos) {
+                break;
+            }
+            result.add(store.get(row));
+        }
+        return result;
+    }
+
+    /**
+     * All of a player's transactions in ledger order, from both the archive and memory
+     */
     public List<TransactionRecord> getTransactionsForPlayer(UUID playerUuid) {
-        return transactions.stream()
-                .filter(t -> t.getPlayerUuid().equals(playerUuid))
-                .collect(Collectors.toList());
+        List<TransactionRecord> result = new ArrayList<>();
+        scanArchive(playerUuid, record -> true, result);
+        IntList rows = rowsForPlayer(playerUuid);
+        for (int i = 0; i < rows.size(); i++) {
+            result.add(store.get(rows.get(i)));
+        }
+        return result;
     }
 
+    /**
+     * All of a merchant's transactions in ledger order, from both the archive and memory
+     */
     public List<TransactionRecord> getTransactionsForMerchant(String merchantId) {
-        return transactions.stream()
-                .filter(t -> t.getMerchantId().equals(merchantId))
-                .collect(Collectors.toList());
+        List<TransactionRecord> result = new ArrayList<>();
+        scanArchive(null, record -> record.getMerchantId().equals(merchantId), result);
+        IntList rows = rowsForMerchant(merchantId);
+        for (int i = 0; i < rows.size(); i++) {
+            result.add(store.get(rows.get(i)));
+        }
+        return result;
+    }
+
+    // ==================== Paged Queries ====================
+
+    /**
+     * One page of query results, newest first. The sequence numbers of the first and last record
+     * are the cursors for the neighbouring pages.
+     */
+    public record QueryPage(List<TransactionRecord> records, boolean hasNewer, boolean hasOlder) {
+    }
+
+    /**
+     * Fetch one page of transactions matching the filter, in ledger (sequence) order.
+     *
+     * With {@code older} the page holds the newest matches with a sequence number below the cursor
+     * (use Long.MAX_VALUE for the first page); otherwise the oldest matches above it. In-memory
+     * rows are found through the narrowest posting list (player, merchant or item) or the time
+     * index, filtered on the encoded columns, and only the rows on the page are decoded. The
+     * archive is only read once the in-memory rows run out.
+     */
+    public QueryPage queryPage(LedgerFilter filter, long cursor, boolean older, int pageSize) {
+        int wanted = pageSize + 1;
+        List<TransactionRecord> found = new ArrayList<>(wanted);
+        long archivedUpTo = archive != null ? archive.getLastSequence() : 0;
+
+        if (older) {
+            collectHotRows(filter, cursor, true, wanted, found);
+            if (found.size() < wanted && archivedUpTo > 0) {
+                walkArchive(filter, Math.min(cursor, archivedUpTo + 1), true, wanted, found);
+            }
+        } else {
+            if (cursor < archivedUpTo) {
+                walkArchive(filter, cursor, false, wanted, found);
+            }
+            if (found.size() < wanted) {
+                collectHotRows(filter, Math.max(cursor, archivedUpTo), false, wanted, found);
+            }
+        }
+
+        boolean more = found.size() > pageSize;
+        if (more) {
+            found.remove(found.size() - 1);
+        }
+        if (!older) {
+            Collections.reverse(found);
+        }
+        boolean hasNewer = older ? cursor != Long.MAX_VALUE : more;
+        boolean hasOlder = older ? more : true;
+        return new QueryPage(found, hasNewer, hasOlder);
+    }
+
+    /**
+     * Add in-memory matches beyond the cursor (descending below it, or ascending above it) until
+     * the list holds {@code wanted} records
+     */
+    private void collectHotRows(LedgerFilter filter, long cursor, boolean descending, int wanted,
+                                List<TransactionRecord> found) {
+        // Compile the filter to dictionary codes; a value that was never stored matches nothing
+        int playerCode = -1;
+        int merchantCode = -1;
+        int itemCode = -1;
+        IntList candidates = null;
+        if (filter.getPlayerUuid() != null) {
+            playerCode = store.lookupPlayer(filter.getPlayerUuid());
+            candidates = narrower(candidates, index.rowsForPlayer(playerCode));
+        }
+        if (filter.getMerchantId() != null) {
+            merchantCode = store.lookupString(filter.getMerchantId());
+            candidates = narrower(candidates, index.rowsForMerchant(merchantCode));
+        }
+        if (filter.getItemId() != null) {
+            itemCode = store.lookupString(filter.getItemId());
+            candidates = narrower(candidates, index.rowsForItem(itemCode));
+        }
+        long fromNanos = filter.getFrom() != null ? LedgerColumnStore.toEpochNanos(filter.getFrom()) : Long.MIN_VALUE;
+        long toNanos = filter.getTo() != null ? LedgerColumnStore.toEpochNanos(filter.getTo()) : Long.MAX_VALUE;
+        if (candidates == null && (filter.getFrom() != null || filter.getTo() != null)) {
+            candidates = rowsInTimeRange(fromNanos, toNanos);
+        }
+
+        // Rows are numbered in sequence order, so the cursor maps straight to a row boundary
+        long cursorRow = cursor - (store.getNextSequence() - store.size());
+        int boundary = (int) Math.max(-1, Math.min(store.size(), cursorRow));
+        int size = candidates != null ? candidates.size() : store.size();
+        int position;
+        if (candidates == null) {
+            position = descending ? boundary - 1 : boundary + 1;
+        } else {
+            position = descending ? candidates.lowerBound(boundary) - 1 : candidates.lowerBound(boundary + 1);
+        }
+
+        while (found.size() < wanted && position >= 0 && position < size) {
+            int row = candidates != null ? candidates.get(position) : position;
+            position += descending ? -1 : 1;
+
+            long timestamp = store.getTimestampNanos(row);
+            if (timestamp < fromNanos || timestamp > toNanos
+                    || (filter.getPlayerUuid() != null && store.getPlayerCode(row) != playerCode)
+                    || (filter.getMerchantId() != null && store.getMerchantCode(row) != merchantCode)
+                    || (filter.getItemId() != null && store.getOutputItemCode(row) != itemCode)) {
+                continue;
+            }
+            found.add(store.get(row));
+        }
+    }
+
+    private static IntList narrower(IntList current, IntList candidate) {
+        return current == null || candidate.size() < current.size() ? candidate : current;
+    }
+
+    /**
+     * Rows with a timestamp in [fromNanos, toNanos], in row order
+     */
+    private IntList rowsInTimeRange(long fromNanos, long toNanos) {
+        IntList rowsByTime = index.rowsByTime();
+        IntList rows = new IntList(256);
+        for (int i = index.lowerBound(store, fromNanos); i < rowsByTime.size(); i++) {
+            int row = rowsByTime.get(i);
+            if (store.getTimestampNanos(row) > toNanos) {
+                break;
+            }
+            rows.add(row);
+        }
+        rows.sort();
+        return rows;
+    }
+
+    private void walkArchive(LedgerFilter filter, long cursor, boolean descending, int wanted,
+                             List<TransactionRecord> found) {
+        long fromNanos = filter.getFrom() != null ? LedgerColumnStore.toEpochNanos(filter.getFrom()) : Long.MIN_VALUE;
+        long toNanos = filter.getTo() != null ? LedgerColumnStore.toEpochNanos(filter.getTo()) : Long.MAX_VALUE;
+        try {
+            archive.walkFrom(cursor, descending, fromNanos, toNanos, filter.getPlayerUuid(), record -> {
+                if (filter.matches(record)) {
+                    found.add(record);
+                }
+                return found.size() < wanted;
+            });
+        } catch (IOException e) {
+            CobblemonMerchants.LOGGER.error("Failed to read ledger archive: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Add matching archived records to the result, sorted by sequence number
+     */
+    private void scanArchive(UUID playerUuid, java.util.function.Predicate<TransactionRecord> filter,
+                             List<TransactionRecord> result) {
+        if (archive == null || archive.isEmpty()) {
+            return;
+        }
+        int start = result.size();
+        try {
+            archive.scan(Long.MIN_VALUE, Long.MAX_VALUE, playerUuid, record -> {
+                if (filter.test(record)) {
+                    result.add(record);
+                }
+            });
+        } catch (IOException e) {
+            CobblemonMerchants.LOGGER.error("Failed to read ledger archive: {}", e.getMessage());
+        }
+        result.subList(start, result.size()).sort(Comparator.comparingLong(TransactionRecord::getSequence));
+    }
+
+    private IntList rowsForPlayer(UUID playerUuid) {
+        return index.rowsForPlayer(store.lookupPlayer(playerUuid));
+    }
+
+    private IntList rowsForMerchant(String merchantId) {
+        return index.rowsForMerchant(store.lookupString(merchantId));
+    }
+
+    // ==================== Report Snapshots ====================
+
+    /**
+     * Copy of the figures a summary report shows, taken on the server thread so the report can be
+     * rendered elsewhere. Only the top entries are copied, so taking one costs O(limit log n).
+     */
+    public record SummarySnapshot(int totalTrades, int uniqueEntries, int totalCoinCirculation,
+                                  List<Map.Entry<String, Integer>> topMerchants,
+                                  Map<String, Integer> merchantCoinChange,
+                                  List<Map.Entry<String, Integer>> topItems,
+                                  List<Map.Entry<UUID, Integer>> topTraders,
+                                  Map<UUID, Integer> traderCoinChange,
+                                  Map<RollupWindow, LedgerRollups.Rollup> windowTotals,
+                                  Map<RollupWindow, List<Map.Entry<String, LedgerRollups.Rollup>>> windowTopMerchants) {
+    }
+
+    public SummarySnapshot snapshotSummary(int limit) {
+        processEvents();
+        List<Map.Entry<String, Integer>> topMerchants = getBusiestMerchants(limit);
+        Map<String, Integer> merchantCoinChange = new HashMap<>();
+        for (Map.Entry<String, Integer> entry : topMerchants) {
+            merchantCoinChange.put(entry.getKey(), getMerchantCoinChange(entry.getKey()));
+        }
+        List<Map.Entry<UUID, Integer>> topTraders = getMostActiveTraders(limit);
+        Map<UUID, Integer> traderCoinChange = new HashMap<>();
+        for (Map.Entry<UUID, Integer> entry : topTraders) {
+            traderCoinChange.put(entry.getKey(), getPlayerCoinChange(entry.getKey()));
+        }
+        Map<RollupWindow, LedgerRollups.Rollup> windowTotals = new EnumMap<>(RollupWindow.class);
+        Map<RollupWindow, List<Map.Entry<String, LedgerRollups.Rollup>>> windowTopMerchants = new EnumMap<>(RollupWindow.class);
+        for (RollupWindow window : new RollupWindow[]{RollupWindow.TODAY, RollupWindow.WEEK}) {
+            windowTotals.put(window, getWindowTotals(window));
+            windowTopMerchants.put(window, getTopInWindow(LedgerRollups.Dimension.MERCHANT, window, 1));
+        }
+        return new SummarySnapshot(getTotalTradeCount(), store.size(), getTotalCoinCirculation(),
+                topMerchants, merchantCoinChange, getMostPopularItems(limit), topTraders, traderCoinChange,
+                windowTotals, windowTopMerchants);
+    }
+
+    /**
+     * A player's records as of the moment it was taken: the archive snapshot plus copies of the
+     * in-memory rows, along with their all-time coin totals. Safe to read from any thread.
+     */
+    public record PlayerSnapshot(UUID playerUuid, int coinsGained, int coinsSpent, int netCoins,
+                                 LedgerArchive.Snapshot archived, List<TransactionRecord> hot) {
+        /**
+         * Visit every record, archived ones first. Archive blocks without the player are skipped unread.
+         */
+        public void forEach(java.util.function.Consumer<TransactionRecord> consumer) throws IOException {
+            if (archived != null) {
+                archived.scan(Long.MIN_VALUE, Long.MAX_VALUE, playerUuid, consumer);
+            }
+            hot.forEach(consumer);
+        }
+    }
+
+    public PlayerSnapshot snapshotPlayer(UUID playerUuid) {
+        processEvents();
+        LedgerArchive.Snapshot archived = archive != null && !archive.isEmpty() ? archive.snapshot() : null;
+        List<TransactionRecord> hot = snapshotHotRecords(new LedgerFilter(null, null, null, playerUuid, null, null));
+        return new PlayerSnapshot(playerUuid, getPlayerCoinsGained(playerUuid), getPlayerCoinsSpent(playerUuid),
+                getPlayerCoinChange(playerUuid), archived, hot);
     }
 
     public String generateSummaryReport(java.util.function.Function<UUID, String> playerNameResolver) {
+        return formatSummaryReport(snapshotSummary(5), playerNameResolver);
+    }
+
+    public String generateSummaryReport() {
+        return generateSummaryReport(null);
+    }
+
+    /**
+     * Plain-text summary report. Reads only the snapshot, so it can run off the server thread.
+     */
+    public static String formatSummaryReport(SummarySnapshot summary, java.util.function.Function<UUID, String> playerNameResolver) {
         StringBuilder report = new StringBuilder();
         report.append("=== Merchant Transaction Summary ===\n\n");
 
-        report.append("Total Transactions: ").append(getTotalTradeCount()).append("\n");
-        report.append("Unique Entries: ").append(transactions.size()).append("\n");
-        report.append("Net Coin Circulation: ").append(formatCoinChange(getTotalCoinCirculation())).append("\n\n");
+        report.append("Total Transactions: ").append(summary.totalTrades()).append("\n");
+        report.append("Unique Entries: ").append(summary.uniqueEntries()).append("\n");
+        report.append("Net Coin Circulation: ").append(formatCoinChange(summary.totalCoinCirculation())).append("\n\n");
 
         report.append("--- Top 5 Merchants ---\n");
-        for (Map.Entry<String, Integer> entry : getBusiestMerchants(5)) {
-            int coinChange = getMerchantCoinChange(entry.getKey());
+        for (Map.Entry<String, Integer> entry : summary.topMerchants()) {
+            int coinChange = summary.merchantCoinChange().getOrDefault(entry.getKey(), 0);
             report.append(String.format("  %s: %d trades (coins: %s)\n",
                     shortName(entry.getKey()), entry.getValue(), formatCoinChange(coinChange)));
         }
 
         report.append("\n--- Top 5 Items ---\n");
-        for (Map.Entry<String, Integer> entry : getMostPopularItems(5)) {
+        for (Map.Entry<String, Integer> entry : summary.topItems()) {
             report.append(String.format("  %s: %d purchased\n", shortName(entry.getKey()), entry.getValue()));
         }
 
         report.append("\n--- Top 5 Traders ---\n");
-        for (Map.Entry<UUID, Integer> entry : getMostActiveTraders(5)) {
+        for (Map.Entry<UUID, Integer> entry : summary.topTraders()) {
             String playerName = playerNameResolver != null
                     ? playerNameResolver.apply(entry.getKey())
                     : entry.getKey().toString().substring(0, 8) + "...";
-            int coinChange = getPlayerCoinChange(entry.getKey());
+            int coinChange = summary.traderCoinChange().getOrDefault(entry.getKey(), 0);
             report.append(String.format("  %s: %d trades (coins: %s)\n",
                     playerName, entry.getValue(), formatCoinChange(coinChange)));
         }
 
-        return report.toString();
-    }
+        for (Map.Entry<RollupWindow, LedgerRollups.Rollup> window : summary.windowTotals().entrySet()) {
+            LedgerRollups.Rollup totals = window.getValue();
+            report.append("\n--- ").append(window.getKey().getDisplayName()).append(" ---\n");
+            report.append(String.format("  Trades: %d | Coins spent: %d | Coins earned: %d\n",
+                    totals.getTrades(), totals.getCoinsIn(), totals.getCoinsOut()));
+            for (Map.Entry<String, LedgerRollups.Rollup> entry : summary.windowTopMerchants().get(window.getKey())) {
+                report.append(String.format("  Busiest merchant: %s (%d trades)\n",
+                        shortName(entry.getKey()), entry.getValue().getTrades()));
+            }
+        }
 
-    public String generateSummaryReport() {
-        return generateSummaryReport(null);
+        return report.toString();
     }
 
     private static String shortName(String fullId) {
@@ -781,16 +1831,44 @@ public class TransactionLedger extends SavedData {
     }
 
     public void clearAllData() {
-        transactions.clear();
-        pendingTransactions.clear();
-        lastTransactionTime.clear();
-        tradeCountByMerchant.clear();
-        tradeCountByPlayer.clear();
-        tradeCountByOutputItem.clear();
-        coinChangeByPlayer.clear();
-        coinChangeByMerchant.clear();
-        webhookSyncedTransactions.clear();
-        csvWriteQueue.clear();
+        if (exporter != null) {
+            exporter.cancel();
+        }
+        abandonArchiving();
+        // Anything still queued refers to the data being cleared
+        while (events.poll() != null) {
+            eventsDropped.incrementAndGet();
+        }
+        legacyTransactions.clear();
+        store.clear();
+        index.clear();
+        rollups.clear();
+        sketches.clear();
+        LedgerReportExecutor.invalidate();
+        pendingBundles.clear();
+        clearStatistics();
+        snapshotStale = true;
+        webhookSync.clear();
+        closeWebhookDispatcher();
+        if (csvWriter != null) {
+            csvWriter.discardPending();
+        }
+        persistedCount = 0;
+        if (archive != null) {
+            try {
+                archive.deleteAll();
+            } catch (IOException e) {
+                CobblemonMerchants.LOGGER.error("Failed to delete ledger archive: {}", e.getMessage());
+            }
+        }
+        if (segmentLog != null) {
+            try {
+                Files.deleteIfExists(segmentLog.getDirectory().resolve(SNAPSHOT_FILE));
+                segmentLog.deleteAll();
+            } catch (IOException e) {
+                CobblemonMerchants.LOGGER.error("Failed to delete ledger segments: {}", e.getMessage());
+            }
+        }
         setDirty();
         CobblemonMerchants.LOGGER.warn("All transaction data cleared!");
     }
@@ -1,5 +1,7 @@
 package net.fit.cobblemonmerchants.ledger;
 
+import net.fit.cobblemonmerchants.ledger.storage.LedgerSymbols;
+
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
@@ -7,23 +9,27 @@ import java.util.UUID;
 
 /**
  * Represents a single transaction (or bundled transactions) in the merchant ledger.
+ * Names and ids are held as {@link LedgerSymbols} ids, so records share one copy of each string
+ * and bundling compares ints.
  */
 public class TransactionRecord {
-    private static final String RELIC_COIN_ID = "cobblemon:relic_coin";
+    public static final String RELIC_COIN_ID = "cobblemon:relic_coin";
+    private static final int RELIC_COIN_SYMBOL = LedgerSymbols.intern(RELIC_COIN_ID);
     private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss_MM-dd-yy")
             .withZone(ZoneId.systemDefault());
 
     private final UUID transactionId;
     private final UUID playerUuid;
-    private final String playerName;
-    private final String merchantId;
-    private final String merchantName;
-    private final String inputItem;
+    private final int playerName;
+    private final int merchantId;
+    private final int merchantName;
+    private final int inputItem;
     private final int inputCount;
-    private final String outputItem;
+    private final int outputItem;
     private final int outputCount;
     private final Instant timestamp;
     private int quantity; // Number of identical trades bundled together
+    private long sequence = 0; // Position in the ledger, assigned when finalized (0 = still pending)
 
     public TransactionRecord(
             UUID playerUuid,
@@ -35,17 +41,8 @@ public class TransactionRecord {
             String outputItem,
             int outputCount
     ) {
-        this.transactionId = UUID.randomUUID();
-        this.playerUuid = playerUuid;
-        this.playerName = playerName;
-        this.merchantId = merchantId;
-        this.merchantName = merchantName;
-        this.inputItem = inputItem;
-        this.inputCount = inputCount;
-        this.outputItem = outputItem;
-        this.outputCount = outputCount;
-        this.timestamp = Instant.now();
-        this.quantity = 1;
+        this(UUID.randomUUID(), playerUuid, playerName, merchantId, merchantName,
+                inputItem, inputCount, outputItem, outputCount, Instant.now(), 1);
     }
 
     // Constructor for loading from storage
@@ -61,15 +58,36 @@ public class TransactionRecord {
             int outputCount,
             Instant timestamp,
             int quantity
+    ) {
+        this(transactionId, playerUuid, LedgerSymbols.intern(playerName), LedgerSymbols.intern(merchantId),
+                LedgerSymbols.intern(merchantName), LedgerSymbols.intern(inputItem), inputCount,
+                LedgerSymbols.intern(outputItem), outputCount, timestamp, quantity);
+    }
+
+    /**
+     * Constructor for records whose strings are already interned (e.g. decoded from the column store)
+     */
+    public TransactionRecord(
+            UUID transactionId,
+            UUID playerUuid,
+            int playerNameSymbol,
+            int merchantIdSymbol,
+            int merchantNameSymbol,
+            int inputItemSymbol,
+            int inputCount,
+            int outputItemSymbol,
+            int outputCount,
+            Instant timestamp,
+            int quantity
     ) {
         this.transactionId = transactionId;
         this.playerUuid = playerUuid;
-        this.playerName = playerName;
-        this.merchantId = merchantId;
-        this.merchantName = merchantName;
-        this.inputItem = inputItem;
+        this.playerName = playerNameSymbol;
+        this.merchantId = merchantIdSymbol;
+        this.merchantName = merchantNameSymbol;
+        this.inputItem = inputItemSymbol;
         this.inputCount = inputCount;
-        this.outputItem = outputItem;
+        this.outputItem = outputItemSymbol;
         this.outputCount = outputCount;
         this.timestamp = timestamp;
         this.quantity = quantity;
@@ -79,33 +97,48 @@ public class TransactionRecord {
      * Checks if another transaction is identical (same player, merchant, items) for bundling
      */
     public boolean canBundleWith(TransactionRecord other) {
-        return this.playerUuid.equals(other.playerUuid)
-                && this.merchantId.equals(other.merchantId)
-                && this.inputItem.equals(other.inputItem)
+        return this.merchantId == other.merchantId
+                && this.inputItem == other.inputItem
+                && this.outputItem == other.outputItem
                 && this.inputCount == other.inputCount
-                && this.outputItem.equals(other.outputItem)
-                && this.outputCount == other.outputCount;
+                && this.outputCount == other.outputCount
+                && this.playerUuid.equals(other.playerUuid);
     }
 
     /**
-     * Increment the bundle quantity
+     * Add the trades of a bundled transaction to the bundle quantity
      */
-    public void incrementQuantity() {
-        this.quantity++;
+    public void addQuantity(int trades) {
+        this.quantity += trades;
+    }
+
+    /**
+     * Set the ledger sequence number (done by the store when the record is finalized or loaded)
+     */
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
     }
 
     // Getters
     public UUID getTransactionId() { return transactionId; }
     public UUID getPlayerUuid() { return playerUuid; }
-    public String getPlayerName() { return playerName; }
-    public String getMerchantId() { return merchantId; }
-    public String getMerchantName() { return merchantName; }
-    public String getInputItem() { return inputItem; }
+    public String getPlayerName() { return LedgerSymbols.name(playerName); }
+    public String getMerchantId() { return LedgerSymbols.name(merchantId); }
+    public String getMerchantName() { return LedgerSymbols.name(merchantName); }
+    public String getInputItem() { return LedgerSymbols.name(inputItem); }
     public int getInputCount() { return inputCount; }
-    public String getOutputItem() { return outputItem; }
+    public String getOutputItem() { return LedgerSymbols.name(outputItem); }
     public int getOutputCount() { return outputCount; }
     public Instant getTimestamp() { return timestamp; }
     public int getQuantity() { return quantity; }
+    public long getSequence() { return sequence; }
+
+    // Symbol ids (see LedgerSymbols)
+    public int getPlayerNameSymbol() { return playerName; }
+    public int getMerchantIdSymbol() { return merchantId; }
+    public int getMerchantNameSymbol() { return merchantName; }
+    public int getInputItemSymbol() { return inputItem; }
+    public int getOutputItemSymbol() { return outputItem; }
 
     /**
      * Get formatted timestamp (HH:mm:ss_dd-MM-yy)
@@ -139,12 +172,12 @@ public class TransactionRecord {
         int coinsSpent = 0;
 
         // Check if output is relic coins (player gained coins)
-        if (RELIC_COIN_ID.equals(outputItem)) {
+        if (outputItem == RELIC_COIN_SYMBOL) {
             coinsGained = outputCount * quantity;
         }
 
         // Check if input is relic coins (player spent coins)
-        if (RELIC_COIN_ID.equals(inputItem)) {
+        if (inputItem == RELIC_COIN_SYMBOL) {
             coinsSpent = inputCount * quantity;
         }
 
@@ -173,18 +206,40 @@ public class TransactionRecord {
                 transactionId,
                 getFormattedTimestamp(),
                 playerUuid,
-                escapeCsv(playerName),
-                escapeCsv(shortName(merchantId)),
-                escapeCsv(merchantName),
+                escapeCsv(getPlayerName()),
+                escapeCsv(shortName(getMerchantId())),
+                escapeCsv(getMerchantName()),
                 quantity,
-                escapeCsv(shortName(inputItem)),
+                escapeCsv(shortName(getInputItem())),
                 inputCount,
-                escapeCsv(shortName(outputItem)),
+                escapeCsv(shortName(getOutputItem())),
                 outputCount,
                 getCoinChangeString()
         );
     }
 
+    /**
+     * Convert to a JSON object (webhook payload format)
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder();
+        json.append("{");
+        json.append("\"transactionId\":\"").append(escapeJson(transactionId.toString())).append("\",");
+        json.append("\"timestamp\":\"").append(escapeJson(getFormattedTimestamp())).append("\",");
+        json.append("\"playerUuid\":\"").append(escapeJson(playerUuid.toString())).append("\",");
+        json.append("\"playerName\":\"").append(escapeJson(getPlayerName())).append("\",");
+        json.append("\"merchantId\":\"").append(escapeJson(shortName(getMerchantId()))).append("\",");
+        json.append("\"merchantName\":\"").append(escapeJson(getMerchantName())).append("\",");
+        json.append("\"quantity\":").append(quantity).append(",");
+        json.append("\"inputItem\":\"").append(escapeJson(shortName(getInputItem()))).append("\",");
+        json.append("\"inputCount\":").append(inputCount).append(",");
+        json.append("\"outputItem\":\"").append(escapeJson(shortName(getOutputItem()))).append("\",");
+        json.append("\"outputCount\":").append(outputCount).append(",");
+        json.append("\"coinChange\":\"").append(getCoinChangeString()).append("\"");
+        json.append("}");
+        return json.toString();
+    }
+
     /**
      * CSV header row
      */
@@ -212,15 +267,25 @@ public class TransactionRecord {
         return value;
     }
 
+    private static String escapeJson(String value) {
+        if (value == null) return "";
+        return value
+                .replace("\\", "\\\\")
+                .replace("\"", "\\\"")
+                .replace("\n", "\\n")
+                .replace("\r", "\\r")
+                .replace("\t", "\\t");
+    }
+
     @Override
     public String toString() {
         return String.format("[%s] %s traded %dx (%dx %s -> %dx %s) with %s [coins: %s]",
                 getFormattedTimestamp(),
-                playerName,
+                getPlayerName(),
                 quantity,
-                inputCount, inputItem,
-                outputCount, outputItem,
-                merchantName,
+                inputCount, getInputItem(),
+                outputCount, getOutputItem(),
+                getMerchantName(),
                 getCoinChangeString()
         );
     }
@@ -0,0 +1,709 @@
+package net.fit.cobblemonmerchants.ledger.storage;
+
+import net.fit.cobblemonmerchants.ledger.TransactionRecord;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Cold tier of the ledger: records that aged out of memory, compressed into one archive file per
+ * month (UTC) of their timestamp, e.g. {@code <dir>/ledger-2026-10.cmla}.
+ *
+ * Each file is a header followed by deflate-compressed blocks. A block holds a run of up to 4096 records with
+ * consecutive sequence numbers, and its header lists the block's time range and distinct players so
+ * queries can skip blocks without inflating them. {@link #open()} reads every block header once into
+ * an index ordered by sequence, which paged queries binary-search; files are memory-mapped only while a
+ * query reads them.
+ *
+ * {@code manifest.dat} records the valid length of every file, the number of archived records, the
+ * last archived sequence number and the last ledger segment that was archived. It is replaced
+ * atomically after each append, so a crash mid-append leaves a tail that {@link #open()} truncates.
+ *
+ * An append is written by {@link #prepareAppend} (which may run on a worker thread) and only becomes
+ * visible to readers of this object once the owner calls {@link #commitAppend}.
+ */
+public class LedgerArchive {
+    private static final int FILE_MAGIC = 0x434D4C41; // "CMLA"
+    private static final int MANIFEST_MAGIC = 0x434D414D; // "CMAM"
+    private static final short VERSION = 1;
+    private static final int FILE_HEADER_BYTES = 6;
+    private static final int MAX_BLOCK_RECORDS = 4096;
+    private static final String FILE_PREFIX = "ledger-";
+    private static final String FILE_SUFFIX = ".cmla";
+    private static final String MANIFEST_FILE = "manifest.dat";
+
+    private final Path directory;
+
+    // file name -> valid length in bytes (sorted, so iteration is chronological)
+    private final TreeMap<String, Long> fileLengths = new TreeMap<>();
+    private long archivedRecords = 0;
+    private long lastSequence = 0;
+    private int lastArchivedSegment = -1;
+    private int missingFiles = 0;
+    // Every block header in sequence order; replaced (never modified) on append so readers can keep a copy
+    private volatile List<BlockRef> blockIndex = List.of();
+
+    public LedgerArchive(Path directory) {
+        this.directory = directory;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Read the manifest and repair the files to match it: torn tails are truncated, files the
+     * manifest does not know about are deleted, and files that have gone missing are forgotten
+     * (see {@link #getMissingFiles()}).
+     */
+    public void open() throws IOException {
+        readManifest();
+
+        for (Map.Entry<String, Long> entry : new ArrayList<>(fileLengths.entrySet())) {
+            Path file = directory.resolve(entry.getKey());
+            if (!Files.exists(file)) {
+                fileLengths.remove(entry.getKey());
+                missingFiles++;
+            } else if (Files.size(file) > entry.getValue()) {
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                    channel.truncate(entry.getValue());
+                }
+            }
+        }
+        for (Path file : listFiles()) {
+            if (!fileLengths.containsKey(file.getFileName().toString())) {
+                Files.delete(file);
+            }
+        }
+        loadBlockIndex();
+    }
+
+    /**
+     * Read the manifest without touching the files, for offline analysis of a copy or of a live
+     * server's data. Bytes past a file's manifest length are ignored rather than truncated, and
+     * files that have gone missing are forgotten. The archive must not be appended to afterwards.
+     */
+    public void openReadOnly() throws IOException {
+        readManifest();
+        for (String fileName : new ArrayList<>(fileLengths.keySet())) {
+            if (!Files.exists(directory.resolve(fileName))) {
+                fileLengths.remove(fileName);
+                missingFiles++;
+            }
+        }
+        loadBlockIndex();
+    }
+
+    private void loadBlockIndex() throws IOException {
+        List<BlockRef> blocks = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : fileLengths.entrySet()) {
+            MappedByteBuffer data = map(directory.resolve(entry.getKey()), entry.getValue());
+            while (data.hasRemaining()) {
+                blocks.add(BlockRef.read(entry.getKey(), data));
+            }
+        }
+        // Blocks hold disjoint sequence runs, so ordering them by first sequence orders every record
+        blocks.sort(Comparator.comparingLong(BlockRef::firstSequence));
+        blockIndex = List.copyOf(blocks);
+    }
+
+    private void readManifest() throws IOException {
+        fileLengths.clear();
+        archivedRecords = 0;
+        lastSequence = 0;
+        lastArchivedSegment = -1;
+        missingFiles = 0;
+
+        Path manifest = directory.resolve(MANIFEST_FILE);
+        if (Files.exists(manifest)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(manifest)))) {
+                if (in.readInt() != MANIFEST_MAGIC || in.readShort() != VERSION) {
+                    throw new IOException("Unrecognized archive manifest: " + manifest);
+                }
+                archivedRecords = in.readLong();
+                lastSequence = in.readLong();
+                lastArchivedSegment = in.readInt();
+                int files = in.readInt();
+                for (int i = 0; i < files; i++) {
+                    fileLengths.put(in.readUTF(), in.readLong());
+                }
+            }
+        }
+    }
+
+    /**
+     * Files, block headers and totals after an append that has been written but not yet committed
+     */
+    public static final class Append {
+        private final Map<String, Long> fileLengths;
+        private final List<BlockRef> blocks;
+        private final long records;
+        private final long lastSequence;
+        private final int lastArchivedSegment;
+
+        private Append(Map<String, Long> fileLengths, List<BlockRef> blocks, long records,
+                       long lastSequence, int lastArchivedSegment) {
+            this.fileLengths = fileLengths;
+            this.blocks = blocks;
+            this.records = records;
+            this.lastSequence = lastSequence;
+            this.lastArchivedSegment = lastArchivedSegment;
+        }
+    }
+
+    /**
+     * Compress records into their monthly files and write the manifest, without changing what this
+     * object's readers see. Records must carry sequence numbers and be in sequence order; segment is
+     * the last ledger segment they came from (-1 if none). Safe to call from another thread while the
+     * owner keeps reading, as long as nothing else appends, commits or deletes until
+     * {@link #commitAppend} has been called with the result.
+     */
+    public Append prepareAppend(List<TransactionRecord> records, int segment) throws IOException {
+        Files.createDirectories(directory);
+
+        // Split into runs of consecutive records that fall in the same month (bounded, so a paged
+        // query only inflates a small block)
+        Map<String, List<byte[]>> blocksByFile = new TreeMap<>();
+        Deflater deflater = new Deflater();
+        try {
+            int start = 0;
+            while (start < records.size()) {
+                String fileName = fileNameFor(records.get(start).getTimestamp());
+                int end = start + 1;
+                while (end < records.size() && end - start < MAX_BLOCK_RECORDS
+                        && fileNameFor(records.get(end).getTimestamp()).equals(fileName)
+                        && records.get(end).getSequence() == records.get(end - 1).getSequence() + 1) {
+                    end++;
+                }
+                blocksByFile.computeIfAbsent(fileName, name -> new ArrayList<>())
+                        .add(encodeBlock(records.subList(start, end), deflater));
+                start = end;
+            }
+        } finally {
+            deflater.end();
+        }
+
+        Map<String, Long> newLengths = new TreeMap<>(fileLengths);
+        List<BlockRef> newBlocks = new ArrayList<>(blockIndex);
+        for (Map.Entry<String, List<byte[]>> entry : blocksByFile.entrySet()) {
+            newLengths.put(entry.getKey(), appendBlocks(entry.getKey(), entry.getValue(), newBlocks));
+        }
+        newBlocks.sort(Comparator.comparingLong(BlockRef::firstSequence));
+
+        long newLastSequence = lastSequence;
+        for (TransactionRecord record : records) {
+            newLastSequence = Math.max(newLastSequence, record.getSequence());
+        }
+        Append append = new Append(newLengths, List.copyOf(newBlocks), archivedRecords + records.size(),
+                newLastSequence, Math.max(lastArchivedSegment, segment));
+        writeManifest(append.fileLengths, append.records, append.lastSequence, append.lastArchivedSegment);
+        return append;
+    }
+
+    /**
+     * Make a prepared append visible to readers (call on the thread that owns the archive)
+     */
+    public void commitAppend(Append append) {
+        fileLengths.clear();
+        fileLengths.putAll(append.fileLengths);
+        blockIndex = append.blocks;
+        archivedRecords = append.records;
+        lastSequence = append.lastSequence;
+        lastArchivedSegment = append.lastArchivedSegment;
+    }
+
+    private long appendBlocks(String fileName, List<byte[]> blocks, List<BlockRef> index) throws IOException {
+        Path file = directory.resolve(fileName);
+        boolean isNew = !fileLengths.containsKey(fileName);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            long position = isNew ? 0 : fileLengths.get(fileName);
+            channel.truncate(position);
+            if (isNew) {
+                ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES);
+                header.putInt(FILE_MAGIC);
+                header.putShort(VERSION);
+                header.flip();
+                position += writeFully(channel, header, position);
+            }
+            for (byte[] block : blocks) {
+                index.add(BlockRef.read(fileName, ByteBuffer.wrap(block)).at(position));
+                position += writeFully(channel, ByteBuffer.wrap(block), position);
+            }
+            channel.force(false);
+            return position;
+        }
+    }
+
+    private static int writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        int written = 0;
+        while (buffer.hasRemaining()) {
+            written += channel.write(buffer, position + written);
+        }
+        return written;
+    }
+
+    private static byte[] encodeBlock(List<TransactionRecord> run, Deflater deflater) throws IOException {
+        ByteArrayOutputStream raw = new ByteArrayOutputStream(run.size() * 128);
+        long minTimestamp = Long.MAX_VALUE;
+        long maxTimestamp = Long.MIN_VALUE;
+        Set<UUID> players = new LinkedHashSet<>();
+        for (TransactionRecord record : run) {
+            raw.write(LedgerRecordCodec.encode(record));
+            long timestamp = LedgerColumnStore.toEpochNanos(record.getTimestamp());
+            minTimestamp = Math.min(minTimestamp, timestamp);
+            maxTimestamp = Math.max(maxTimestamp, timestamp);
+            players.add(record.getPlayerUuid());
+        }
+        byte[] rawBytes = raw.toByteArray();
+
+        deflater.reset();
+        deflater.setInput(rawBytes);
+        deflater.finish();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(rawBytes.length / 3 + 64);
+        byte[] chunk = new byte[8192];
+        while (!deflater.finished()) {
+            int length = deflater.deflate(chunk);
+            compressed.write(chunk, 0, length);
+        }
+        byte[] compressedBytes = compressed.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(compressedBytes);
+
+        ByteArrayOutputStream block = new ByteArrayOutputStream(compressedBytes.length + 64 + players.size() * 16);
+        DataOutputStream out = new DataOutputStream(block);
+        out.writeLong(run.get(0).getSequence());
+        out.writeInt(run.size());
+        out.writeLong(minTimestamp);
+        out.writeLong(maxTimestamp);
+        out.writeInt(players.size());
+        for (UUID player : players) {
+            out.writeLong(player.getMostSignificantBits());
+            out.writeLong(player.getLeastSignificantBits());
+        }
+        out.writeInt(rawBytes.length);
+        out.writeInt(compressedBytes.length);
+        out.writeInt((int) crc.getValue());
+        out.write(compressedBytes);
+        out.flush();
+        return block.toByteArray();
+    }
+
+    /**
+     * Pass every archived record with a timestamp in [fromNanos, toNanos] (and, if player is not
+     * null, belonging to that player) to the consumer. Records come out grouped by month file,
+     * in sequence order within each file.
+     */
+    public void scan(long fromNanos, long toNanos, UUID player, Consumer<TransactionRecord> consumer) throws IOException {
+        scanFiles(fileLengths, fromNanos, toNanos, player, consumer);
+    }
+
+    private void scanFiles(Map<String, Long> files, long fromNanos, long toNanos, UUID player,
+                           Consumer<TransactionRecord> consumer) throws IOException {
+        for (Map.Entry<String, Long> entry : files.entrySet()) {
+            YearMonth month = monthOf(entry.getKey());
+            if (month != null) {
+                long monthStart = LedgerColumnStore.toEpochNanos(month.atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC));
+                long monthEnd = LedgerColumnStore.toEpochNanos(month.plusMonths(1).atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC));
+                if (monthEnd <= fromNanos || monthStart > toNanos) {
+                    continue;
+                }
+            }
+            scanFile(directory.resolve(entry.getKey()), entry.getValue(), fromNanos, toNanos, player, 0, consumer);
+        }
+    }
+
+    /**
+     * Freeze the current file list and lengths so another thread can read the archive while the
+     * owner keeps appending. Appends only add bytes past the snapshotted lengths, so the snapshot
+     * stays consistent until the archive is deleted.
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(new TreeMap<>(fileLengths), archivedRecords, lastSequence);
+    }
+
+    /**
+     * Read-only view of the archive as it was when {@link #snapshot()} was called (safe to use from any thread)
+     */
+    public final class Snapshot {
+        private final Map<String, Long> files;
+        private final long archivedRecords;
+        private final long lastSequence;
+
+        private Snapshot(Map<String, Long> files, long archivedRecords, long lastSequence) {
+            this.files = files;
+            this.archivedRecords = archivedRecords;
+            this.lastSequence = lastSequence;
+        }
+
+        /**
+         * Same as {@link LedgerArchive#scan(long, long, UUID, Consumer)}, limited to the snapshotted data
+         */
+        public void scan(long fromNanos, long toNanos, UUID player, Consumer<TransactionRecord> consumer) throws IOException {
+            scanFiles(files, fromNanos, toNanos, player, consumer);
+        }
+
+        public long getArchivedRecords() {
+            return archivedRecords;
+        }
+
+        public long getLastSequence() {
+            return lastSequence;
+        }
+
+        public boolean isEmpty() {
+            return archivedRecords == 0;
+        }
+    }
+
+    /**
+     * Pass every archived record with a sequence number at or above fromSequence to the consumer
+     */
+    public void scanFromSequence(long fromSequence, Consumer<TransactionRecord> consumer) throws IOException {
+        if (fromSequence > lastSequence) {
+            return;
+        }
+        for (Map.Entry<String, Long> entry : fileLengths.entrySet()) {
+            scanFile(directory.resolve(entry.getKey()), entry.getValue(), Long.MIN_VALUE, Long.MAX_VALUE,
+                    null, fromSequence, consumer);
+        }
+    }
+
+    /**
+     * Walk archived records in sequence order away from a cursor: descending from just below
+     * {@code boundary}, or ascending from just above it. Only records in [fromNanos, toNanos] (and of
+     * the player, if not null) are passed on, and the walk stops as soon as the consumer returns
+     * false, so only the blocks needed for one page are inflated.
+     */
+    public void walkFrom(long boundary, boolean descending, long fromNanos, long toNanos, UUID player,
+                         Predicate<TransactionRecord> consumer) throws IOException {
+        List<BlockRef> blocks = blockIndex;
+        // First block past the cursor: the last one starting below it, or the first one ending above it
+        int low = 0;
+        int high = blocks.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            BlockRef block = blocks.get(mid);
+            if (descending ? block.firstSequence < boundary : block.firstSequence + block.count - 1 <= boundary) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        int step = descending ? -1 : 1;
+        int start = descending ? low - 1 : low;
+
+        Map<String, MappedByteBuffer> mapped = new HashMap<>();
+        Inflater inflater = new Inflater();
+        try {
+            for (int b = start; b >= 0 && b < blocks.size(); b += step) {
+                BlockRef block = blocks.get(b);
+                if (block.maxTimestamp < fromNanos || block.minTimestamp > toNanos
+                        || (player != null && !block.hasPlayer(player))) {
+                    continue;
+                }
+                Path file = directory.resolve(block.file);
+                MappedByteBuffer data = mapped.get(block.file);
+                if (data == null) {
+                    Long length = fileLengths.get(block.file);
+                    if (length == null) {
+                        throw new IOException("Not an archive file: " + block.file);
+                    }
+                    data = map(file, length);
+                    mapped.put(block.file, data);
+                }
+                byte[] raw = inflate(file, data, block, inflater);
+                DataInputStream in = new DataInputStream(new ByteArrayInputStream(raw));
+                TransactionRecord[] records = new TransactionRecord[block.count];
+                for (int i = 0; i < block.count; i++) {
+                    records[i] = LedgerRecordCodec.decode(in);
+                    records[i].setSequence(block.firstSequence + i);
+                }
+                for (int n = 0; n < block.count; n++) {
+                    TransactionRecord record = records[descending ? block.count - 1 - n : n];
+                    long sequence = record.getSequence();
+                    if (descending ? sequence >= boundary : sequence <= boundary) {
+                        continue;
+                    }
+                    long timestamp = LedgerColumnStore.toEpochNanos(record.getTimestamp());
+                    if (timestamp < fromNanos || timestamp > toNanos
+                            || (player != null && !player.equals(record.getPlayerUuid()))) {
+                        continue;
+                    }
+                    if (!consumer.test(record)) {
+                        return;
+                    }
+                }
+            }
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Header of one compressed block, read without inflating it
+     */
+    private record BlockRef(String file, long firstSequence, int count, long minTimestamp, long maxTimestamp,
+                            long[] players, int rawLength, int compressedLength, int crc, int payloadStart) {
+        static BlockRef read(String file, ByteBuffer data) {
+            long firstSequence = data.getLong();
+            int count = data.getInt();
+            long minTimestamp = data.getLong();
+            long maxTimestamp = data.getLong();
+            int playerCount = data.getInt();
+            long[] players = new long[playerCount * 2];
+            for (int i = 0; i < players.length; i++) {
+                players[i] = data.getLong();
+            }
+            int rawLength = data.getInt();
+            int compressedLength = data.getInt();
+            int crc = data.getInt();
+            int payloadStart = data.position();
+            data.position(payloadStart + compressedLength);
+            return new BlockRef(file, firstSequence, count, minTimestamp, maxTimestamp, players,
+                    rawLength, compressedLength, crc, payloadStart);
+        }
+
+        /**
+         * The same header for a block written at {@code offset} in its file (read from the block's own bytes)
+         */
+        BlockRef at(long offset) {
+            return new BlockRef(file, firstSequence, count, minTimestamp, maxTimestamp, players,
+                    rawLength, compressedLength, crc, (int) (payloadStart + offset));
+        }
+
+        boolean hasPlayer(UUID player) {
+            for (int i = 0; i < players.length; i += 2) {
+                if (players[i] == player.getMostSignificantBits() && players[i + 1] == player.getLeastSignificantBits()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private MappedByteBuffer map(Path file, long length) throws IOException {
+        MappedByteBuffer data;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            data = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(length, channel.size()));
+        }
+        if (data.remaining() < FILE_HEADER_BYTES || data.getInt() != FILE_MAGIC || data.getShort() != VERSION) {
+            throw new IOException("Not a ledger archive: " + file);
+        }
+        return data;
+    }
+
+    private static byte[] inflate(Path file, ByteBuffer data, BlockRef block, Inflater inflater) throws IOException {
+        byte[] compressed = new byte[block.compressedLength];
+        data.get(block.payloadStart, compressed);
+        CRC32 crc = new CRC32();
+        crc.update(compressed);
+        if ((int) crc.getValue() != block.crc) {
+            throw new IOException("Corrupt archive block at sequence " + block.firstSequence + " in " + file);
+        }
+
+        byte[] raw = new byte[block.rawLength];
+        inflater.reset();
+        inflater.setInput(compressed);
+        try {
+            int inflated = 0;
+            while (inflated < block.rawLength && !inflater.finished()) {
+                inflated += inflater.inflate(raw, inflated, block.rawLength - inflated);
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt archive block at sequence " + block.firstSequence + " in " + file, e);
+        }
+        return raw;
+    }
+
+    /**
+     * Names of the archive files, oldest month first
+     */
+    public List<String> getFileNames() {
+        return new ArrayList<>(fileLengths.keySet());
+    }
+
+    /**
+     * Pass every record in one archive file to the consumer, in sequence order. Each call maps the
+     * file and inflates with its own buffers, so different files can be read in parallel.
+     */
+    public void scanFile(String fileName, Consumer<TransactionRecord> consumer) throws IOException {
+        Long length = fileLengths.get(fileName);
+        if (length == null) {
+            throw new IOException("Not an archive file: " + fileName);
+        }
+        scanFile(directory.resolve(fileName), length, Long.MIN_VALUE, Long.MAX_VALUE, null, 0, consumer);
+    }
+
+    /**
+     * Pass every archived record to the consumer
+     */
+    public void forEach(Consumer<TransactionRecord> consumer) throws IOException {
+        scan(Long.MIN_VALUE, Long.MAX_VALUE, null, consumer);
+    }
+
+    private void scanFile(Path file, long length, long fromNanos, long toNanos, UUID player, long fromSequence,
+                          Consumer<TransactionRecord> consumer) throws IOException {
+        MappedByteBuffer data = map(file, length);
+        Inflater inflater = new Inflater();
+        try {
+            while (data.hasRemaining()) {
+                BlockRef block = BlockRef.read(file.getFileName().toString(), data);
+                if ((player != null && !block.hasPlayer(player)) || block.maxTimestamp < fromNanos
+                        || block.minTimestamp > toNanos || block.firstSequence + block.count <= fromSequence) {
+                    continue;
+                }
+
+                DataInputStream in = new DataInputStream(new ByteArrayInputStream(inflate(file, data, block, inflater)));
+                for (int i = 0; i < block.count; i++) {
+                    TransactionRecord record = LedgerRecordCodec.decode(in);
+                    record.setSequence(block.firstSequence + i);
+                    long timestamp = LedgerColumnStore.toEpochNanos(record.getTimestamp());
+                    if (timestamp < fromNanos || timestamp > toNanos || record.getSequence() < fromSequence) {
+                        continue;
+                    }
+                    if (player != null && !player.equals(record.getPlayerUuid())) {
+                        continue;
+                    }
+                    consumer.accept(record);
+                }
+            }
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private void writeManifest(Map<String, Long> lengths, long records, long sequence, int segment) throws IOException {
+        Path manifest = directory.resolve(MANIFEST_FILE);
+        Path temp = directory.resolve(MANIFEST_FILE + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MANIFEST_MAGIC);
+            out.writeShort(VERSION);
+            out.writeLong(records);
+            out.writeLong(sequence);
+            out.writeInt(segment);
+            out.writeInt(lengths.size());
+            for (Map.Entry<String, Long> entry : lengths.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeLong(entry.getValue());
+            }
+        }
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temp, manifest, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Delete every archive file and the manifest (used when the ledger is cleared)
+     */
+    public void deleteAll() throws IOException {
+        for (Path file : listFiles()) {
+            Files.deleteIfExists(file);
+        }
+        Files.deleteIfExists(directory.resolve(MANIFEST_FILE));
+        fileLengths.clear();
+        blockIndex = List.of();
+        archivedRecords = 0;
+        lastSequence = 0;
+        lastArchivedSegment = -1;
+    }
+
+    public long getArchivedRecords() {
+        return archivedRecords;
+    }
+
+    /**
+     * Highest sequence number in the archive (0 if empty)
+     */
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * Highest ledger segment whose records have all been archived (-1 if none)
+     */
+    public int getLastArchivedSegment() {
+        return lastArchivedSegment;
+    }
+
+    public int getFileCount() {
+        return fileLengths.size();
+    }
+
+    public long getTotalBytes() {
+        long total = 0;
+        for (long length : fileLengths.values()) {
+            total += length;
+        }
+        return total;
+    }
+
+    /**
+     * Files listed in the manifest that were not found by the last {@link #open()}
+     */
+    public int getMissingFiles() {
+        return missingFiles;
+    }
+
+    public boolean isEmpty() {
+        return archivedRecords == 0;
+    }
+
+    private List<Path> listFiles() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(p -> {
+                        String name = p.getFileName().toString();
+                        return name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static String fileNameFor(Instant timestamp) {
+        return FILE_PREFIX + YearMonth.from(timestamp.atZone(ZoneOffset.UTC)) + FILE_SUFFIX;
+    }
+
+    private static YearMonth monthOf(String fileName) {
+        try {
+            return YearMonth.parse(fileName.substring(FILE_PREFIX.length(), fileName.length() - FILE_SUFFIX.length()));
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,494 @@
+package net.fit.cobblemonmerchants.ledger.storage;
+
+import net.fit.cobblemonmerchants.ledger.TransactionRecord;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Columnar in-memory store for finalized transactions.
+ *
+ * Each field lives in its own primitive array indexed by row. Repeated values (player UUIDs,
+ * names, merchant and item ids) are dictionary-encoded into int codes, so a row costs about
+ * 60 bytes instead of a full {@link TransactionRecord} object graph.
+ * Rows are append-only; {@link #get(int)} materializes a record view on demand. Each string code
+ * is linked to its {@link LedgerSymbols} id both ways, so appending and materializing rows needs
+ * no string hashing.
+ * Every row has a sequence number (its 1-based position in the ledger), which never changes
+ * once assigned and is used to track webhook delivery and paginate queries.
+ */
+public class LedgerColumnStore {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    // Whole seconds that fit in a nanosecond timestamp
+    private static final long MAX_EPOCH_SECOND = Long.MAX_VALUE / 1_000_000_000L;
+    private static final long MIN_EPOCH_SECOND = Long.MIN_VALUE / 1_000_000_000L;
+
+    private final SymbolDictionary<UUID> players = new SymbolDictionary<>();
+    private final SymbolDictionary<String> strings = new SymbolDictionary<>();
+
+    // String code -> symbol id, and symbol id -> string code + 1 (0 = not in this store)
+    private int[] symbolByCode = new int[64];
+    private int[] codeBySymbol = new int[64];
+
+    private int size = 0;
+
+    // Sequence number of row 0; rows are numbered consecutively from here
+    private long firstSequence = 1;
+
+    // Cached dictionary code of the relic coin item (ABSENT until it first appears)
+    private int relicCoinCode = SymbolDictionary.ABSENT;
+
+    private long[] transactionIdMsb = new long[INITIAL_CAPACITY];
+    private long[] transactionIdLsb = new long[INITIAL_CAPACITY];
+    private long[] timestampNanos = new long[INITIAL_CAPACITY];
+    private int[] playerCodes = new int[INITIAL_CAPACITY];
+    private int[] playerNameCodes = new int[INITIAL_CAPACITY];
+    private int[] merchantIdCodes = new int[INITIAL_CAPACITY];
+    private int[] merchantNameCodes = new int[INITIAL_CAPACITY];
+    private int[] inputItemCodes = new int[INITIAL_CAPACITY];
+    private int[] outputItemCodes = new int[INITIAL_CAPACITY];
+    private int[] inputCounts = new int[INITIAL_CAPACITY];
+    private int[] outputCounts = new int[INITIAL_CAPACITY];
+    private int[] quantities = new int[INITIAL_CAPACITY];
+
+    /**
+     * Append a finalized record; returns its row index
+     */
+    public int append(TransactionRecord record) {
+        ensureCapacity(size + 1);
+        int row = size;
+
+        transactionIdMsb[row] = record.getTransactionId().getMostSignificantBits();
+        transactionIdLsb[row] = record.getTransactionId().getLeastSignificantBits();
+        timestampNanos[row] = toEpochNanos(record.getTimestamp());
+        playerCodes[row] = players.encode(record.getPlayerUuid());
+        playerNameCodes[row] = encodeSymbol(record.getPlayerNameSymbol());
+        merchantIdCodes[row] = encodeSymbol(record.getMerchantIdSymbol());
+        merchantNameCodes[row] = encodeSymbol(record.getMerchantNameSymbol());
+        inputItemCodes[row] = encodeSymbol(record.getInputItemSymbol());
+        outputItemCodes[row] = encodeSymbol(record.getOutputItemSymbol());
+        inputCounts[row] = record.getInputCount();
+        outputCounts[row] = record.getOutputCount();
+        quantities[row] = record.getQuantity();
+        record.setSequence(firstSequence + row);
+
+        size++;
+        return row;
+    }
+
+    /**
+     * Materialize a row as a {@link TransactionRecord}
+     */
+    public TransactionRecord get(int row) {
+        checkRow(row);
+        TransactionRecord record = new TransactionRecord(
+                getTransactionId(row),
+                players.decode(playerCodes[row]),
+                symbolByCode[playerNameCodes[row]],
+                symbolByCode[merchantIdCodes[row]],
+                symbolByCode[merchantNameCodes[row]],
+                symbolByCode[inputItemCodes[row]],
+                inputCounts[row],
+                symbolByCode[outputItemCodes[row]],
+                outputCounts[row],
+                getTimestamp(row),
+                quantities[row]
+        );
+        record.setSequence(firstSequence + row);
+        return record;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Copy every row's columns (plain array copies) so another thread can materialize the records
+     * while this store keeps changing
+     */
+    public RowSnapshot snapshotRows() {
+        UUID[] playerValues = new UUID[players.size()];
+        for (int code = 0; code < playerValues.length; code++) {
+            playerValues[code] = players.decode(code);
+        }
+        return new RowSnapshot(this, playerValues, Arrays.copyOf(symbolByCode, strings.size()));
+    }
+
+    /**
+     * Rows of a store as they were when {@link #snapshotRows()} was called, read as a list of records
+     * that are built on access (safe to use from any thread)
+     */
+    public static final class RowSnapshot extends AbstractList<TransactionRecord> {
+        private final int size;
+        private final long firstSequence;
+        private final UUID[] players;
+        private final int[] symbolByCode;
+        private final long[] transactionIdMsb;
+        private final long[] transactionIdLsb;
+        private final long[] timestampNanos;
+        private final int[] playerCodes;
+        private final int[] playerNameCodes;
+        private final int[] merchantIdCodes;
+        private final int[] merchantNameCodes;
+        private final int[] inputItemCodes;
+        private final int[] outputItemCodes;
+        private final int[] inputCounts;
+        private final int[] outputCounts;
+        private final int[] quantities;
+
+        private RowSnapshot(LedgerColumnStore store, UUID[] players, int[] symbolByCode) {
+            this.size = store.size;
+            this.firstSequence = store.firstSequence;
+            this.players = players;
+            this.symbolByCode = symbolByCode;
+            this.transactionIdMsb = Arrays.copyOf(store.transactionIdMsb, size);
+            this.transactionIdLsb = Arrays.copyOf(store.transactionIdLsb, size);
+            this.timestampNanos = Arrays.copyOf(store.timestampNanos, size);
+            this.playerCodes = Arrays.copyOf(store.playerCodes, size);
+            this.playerNameCodes = Arrays.copyOf(store.playerNameCodes, size);
+            this.merchantIdCodes = Arrays.copyOf(store.merchantIdCodes, size);
+            this.merchantNameCodes = Arrays.copyOf(store.merchantNameCodes, size);
+            this.inputItemCodes = Arrays.copyOf(store.inputItemCodes, size);
+            this.outputItemCodes = Arrays.copyOf(store.outputItemCodes, size);
+            this.inputCounts = Arrays.copyOf(store.inputCounts, size);
+            this.outputCounts = Arrays.copyOf(store.outputCounts, size);
+            this.quantities = Arrays.copyOf(store.quantities, size);
+        }
+
+        @Override
+        public TransactionRecord get(int row) {
+            if (row < 0 || row >= size) {
+                throw new IndexOutOfBoundsException("Row " + row + " out of bounds for size " + size);
+            }
+            long nanos = timestampNanos[row];
+            TransactionRecord record = new TransactionRecord(
+                    new UUID(transactionIdMsb[row], transactionIdLsb[row]),
+                    players[playerCodes[row]],
+                    symbolByCode[playerNameCodes[row]],
+                    symbolByCode[merchantIdCodes[row]],
+                    symbolByCode[merchantNameCodes[row]],
+                    symbolByCode[inputItemCodes[row]],
+                    inputCounts[row],
+                    symbolByCode[outputItemCodes[row]],
+                    outputCounts[row],
+                    Instant.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L), Math.floorMod(nanos, 1_000_000_000L)),
+                    quantities[row]
+            );
+            record.setSequence(firstSequence + row);
+            return record;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    // ==================== Column Access ====================
+
+    public long getSequence(int row) {
+        checkRow(row);
+        return firstSequence + row;
+    }
+
+    /**
+     * Row holding the given sequence number, or -1 if it is not in the store
+     */
+    public int rowOfSequence(long sequence) {
+        long row = sequence - firstSequence;
+        return row >= 0 && row < size ? (int) row : -1;
+    }
+
+    /**
+     * Sequence number the next appended row will get
+     */
+    public long getNextSequence() {
+        return firstSequence + size;
+    }
+
+    public UUID getTransactionId(int row) {
+        checkRow(row);
+        return new UUID(transactionIdMsb[row], transactionIdLsb[row]);
+    }
+
+    public long getTimestampNanos(int row) {
+        checkRow(row);
+        return timestampNanos[row];
+    }
+
+    public Instant getTimestamp(int row) {
+        long nanos = getTimestampNanos(row);
+        return Instant.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L), Math.floorMod(nanos, 1_000_000_000L));
+    }
+
+    public int getPlayerCode(int row) {
+        checkRow(row);
+        return playerCodes[row];
+    }
+
+    public int getMerchantCode(int row) {
+        checkRow(row);
+        return merchantIdCodes[row];
+    }
+
+    public int getOutputItemCode(int row) {
+        checkRow(row);
+        return outputItemCodes[row];
+    }
+
+    public int getQuantity(int row) {
+        checkRow(row);
+        return quantities[row];
+    }
+
+    /**
+     * Same as {@link TransactionRecord#getCoinChange()}, computed from the columns
+     */
+    public int getCoinChange(int row) {
+        checkRow(row);
+        if (relicCoinCode == SymbolDictionary.ABSENT) {
+            relicCoinCode = strings.lookup(TransactionRecord.RELIC_COIN_ID);
+            if (relicCoinCode == SymbolDictionary.ABSENT) {
+                return 0;
+            }
+        }
+        int relicCoin = relicCoinCode;
+        int change = 0;
+        if (outputItemCodes[row] == relicCoin) {
+            change += outputCounts[row] * quantities[row];
+        }
+        if (inputItemCodes[row] == relicCoin) {
+            change -= inputCounts[row] * quantities[row];
+        }
+        return change;
+    }
+
+    // ==================== Dictionaries ====================
+
+    /**
+     * Code for a player UUID, or {@link SymbolDictionary#ABSENT} if the player has no rows
+     */
+    public int lookupPlayer(UUID playerUuid) {
+        return players.lookup(playerUuid);
+    }
+
+    public UUID decodePlayer(int code) {
+        return players.decode(code);
+    }
+
+    /**
+     * Code for a merchant id / item id / name, or {@link SymbolDictionary#ABSENT} if never stored
+     */
+    public int lookupString(String value) {
+        return strings.lookup(value);
+    }
+
+    public String decodeString(int code) {
+        return strings.decode(code);
+    }
+
+    /**
+     * String code for a symbol id, assigning a new code the first time the symbol is stored
+     */
+    private int encodeSymbol(int symbol) {
+        if (symbol < codeBySymbol.length && codeBySymbol[symbol] != 0) {
+            return codeBySymbol[symbol] - 1;
+        }
+        int code = strings.encode(LedgerSymbols.name(symbol));
+        linkSymbol(code, symbol);
+        return code;
+    }
+
+    private void linkSymbol(int code, int symbol) {
+        if (symbol >= codeBySymbol.length) {
+            codeBySymbol = Arrays.copyOf(codeBySymbol, Math.max(symbol + 1, codeBySymbol.length * 2));
+        }
+        if (code >= symbolByCode.length) {
+            symbolByCode = Arrays.copyOf(symbolByCode, Math.max(code + 1, symbolByCode.length * 2));
+        }
+        codeBySymbol[symbol] = code + 1;
+        symbolByCode[code] = symbol;
+    }
+
+    /**
+     * Set the sequence number of the first row (only while the store is empty), e.g. to continue
+     * numbering after records that were archived
+     */
+    public void setFirstSequence(long firstSequence) {
+        if (size != 0) {
+            throw new IllegalStateException("Cannot renumber a non-empty store");
+        }
+        this.firstSequence = firstSequence;
+    }
+
+    /**
+     * Remove the oldest {@code count} rows (e.g. after they were archived). Remaining rows move down
+     * but keep their sequence numbers; any index built on row numbers must be rebuilt.
+     * Dictionary entries are kept, so codes stay valid.
+     */
+    public void dropLeadingRows(int count) {
+        if (count <= 0) {
+            return;
+        }
+        count = Math.min(count, size);
+        int remaining = size - count;
+        System.arraycopy(transactionIdMsb, count, transactionIdMsb, 0, remaining);
+        System.arraycopy(transactionIdLsb, count, transactionIdLsb, 0, remaining);
+        System.arraycopy(timestampNanos, count, timestampNanos, 0, remaining);
+        System.arraycopy(playerCodes, count, playerCodes, 0, remaining);
+        System.arraycopy(playerNameCodes, count, playerNameCodes, 0, remaining);
+        System.arraycopy(merchantIdCodes, count, merchantIdCodes, 0, remaining);
+        System.arraycopy(merchantNameCodes, count, merchantNameCodes, 0, remaining);
+        System.arraycopy(inputItemCodes, count, inputItemCodes, 0, remaining);
+        System.arraycopy(outputItemCodes, count, outputItemCodes, 0, remaining);
+        System.arraycopy(inputCounts, count, inputCounts, 0, remaining);
+        System.arraycopy(outputCounts, count, outputCounts, 0, remaining);
+        System.arraycopy(quantities, count, quantities, 0, remaining);
+        size = remaining;
+        firstSequence += count;
+    }
+
+    public void clear() {
+        players.clear();
+        strings.clear();
+        Arrays.fill(codeBySymbol, 0);
+        relicCoinCode = SymbolDictionary.ABSENT;
+        size = 0;
+        firstSequence = 1;
+    }
+
+    // ==================== Snapshot ====================
+
+    /**
+     * Write the dictionaries and every column (the rows' sequence numbers follow from firstSequence)
+     */
+    public void write(DataOutputStream out) throws IOException {
+        out.writeLong(firstSequence);
+        out.writeInt(size);
+        out.writeInt(players.size());
+        for (int code = 0; code < players.size(); code++) {
+            UUID player = players.decode(code);
+            out.writeLong(player.getMostSignificantBits());
+            out.writeLong(player.getLeastSignificantBits());
+        }
+        out.writeInt(strings.size());
+        for (int code = 0; code < strings.size(); code++) {
+            out.writeUTF(strings.decode(code));
+        }
+        LedgerSnapshot.writeLongs(out, transactionIdMsb, size);
+        LedgerSnapshot.writeLongs(out, transactionIdLsb, size);
+        LedgerSnapshot.writeLongs(out, timestampNanos, size);
+        LedgerSnapshot.writeInts(out, playerCodes, size);
+        LedgerSnapshot.writeInts(out, playerNameCodes, size);
+        LedgerSnapshot.writeInts(out, merchantIdCodes, size);
+        LedgerSnapshot.writeInts(out, merchantNameCodes, size);
+        LedgerSnapshot.writeInts(out, inputItemCodes, size);
+        LedgerSnapshot.writeInts(out, outputItemCodes, size);
+        LedgerSnapshot.writeInts(out, inputCounts, size);
+        LedgerSnapshot.writeInts(out, outputCounts, size);
+        LedgerSnapshot.writeInts(out, quantities, size);
+    }
+
+    /**
+     * Replace the contents with a store written by {@link #write(DataOutputStream)}. Dictionary
+     * codes are reassigned in the same order, so they match the written columns.
+     */
+    public void read(DataInputStream in) throws IOException {
+        clear();
+        firstSequence = in.readLong();
+        int rows = in.readInt();
+        int playerCount = in.readInt();
+        for (int i = 0; i < playerCount; i++) {
+            players.encode(new UUID(in.readLong(), in.readLong()));
+        }
+        int stringCount = in.readInt();
+        for (int i = 0; i < stringCount; i++) {
+            String value = in.readUTF();
+            linkSymbol(strings.encode(value), LedgerSymbols.intern(value));
+        }
+        transactionIdMsb = LedgerSnapshot.readLongs(in);
+        transactionIdLsb = LedgerSnapshot.readLongs(in);
+        timestampNanos = LedgerSnapshot.readLongs(in);
+        playerCodes = LedgerSnapshot.readInts(in);
+        playerNameCodes = LedgerSnapshot.readInts(in);
+        merchantIdCodes = LedgerSnapshot.readInts(in);
+        merchantNameCodes = LedgerSnapshot.readInts(in);
+        inputItemCodes = LedgerSnapshot.readInts(in);
+        outputItemCodes = LedgerSnapshot.readInts(in);
+        inputCounts = LedgerSnapshot.readInts(in);
+        outputCounts = LedgerSnapshot.readInts(in);
+        quantities = LedgerSnapshot.readInts(in);
+        if (transactionIdMsb.length != rows || quantities.length != rows) {
+            throw new IOException("Column length does not match row count " + rows);
+        }
+        size = rows;
+    }
+
+    public long getFirstSequence() {
+        return firstSequence;
+    }
+
+    /**
+     * Approximate heap used by the column arrays (excludes dictionary entries)
+     */
+    public long estimateColumnBytes() {
+        return (long) transactionIdMsb.length * (8 * 3 + 4 * 9);
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= transactionIdMsb.length) {
+            return;
+        }
+        int newCapacity = Math.max(required, transactionIdMsb.length + (transactionIdMsb.length >> 1));
+        transactionIdMsb = Arrays.copyOf(transactionIdMsb, newCapacity);
+        transactionIdLsb = Arrays.copyOf(transactionIdLsb, newCapacity);
+        timestampNanos = Arrays.copyOf(timestampNanos, newCapacity);
+        playerCodes = Arrays.copyOf(playerCodes, newCapacity);
+        playerNameCodes = Arrays.copyOf(playerNameCodes, newCapacity);
+        merchantIdCodes = Arrays.copyOf(merchantIdCodes, newCapacity);
+        merchantNameCodes = Arrays.copyOf(merchantNameCodes, newCapacity);
+        inputItemCodes = Arrays.copyOf(inputItemCodes, newCapacity);
+        outputItemCodes = Arrays.copyOf(outputItemCodes, newCapacity);
+        inputCounts = Arrays.copyOf(inputCounts, newCapacity);
+        outputCounts = Arrays.copyOf(outputCounts, newCapacity);
+        quantities = Arrays.copyOf(quantities, newCapacity);
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of bounds for size " + size);
+        }
+    }
+
+    /**
+     * Convert an instant to the nanosecond timestamp representation used by the store.
+     * Instants outside the representable range (roughly 1677-2262) saturate to
+     * {@link Long#MIN_VALUE}/{@link Long#MAX_VALUE}, so far-off filter bounds still compare correctly.
+     */
+    public static long toEpochNanos(Instant instant) {
+        long seconds = instant.getEpochSecond();
+        if (seconds > MAX_EPOCH_SECOND) {
+            return Long.MAX_VALUE;
+        }
+        if (seconds < MIN_EPOCH_SECOND) {
+            return Long.MIN_VALUE;
+        }
+        long nanos = seconds * 1_000_000_000L;
+        long sum = nanos + instant.getNano();
+        // Only the last partial second at either end can still overflow
+        if (nanos > 0 && sum < 0) {
+            return Long.MAX_VALUE;
+        }
+        return sum;
+    }
+}
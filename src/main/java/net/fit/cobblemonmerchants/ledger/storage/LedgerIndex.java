@@ -0,0 +1,155 @@
+package net.fit.cobblemonmerchants.ledger.storage;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Secondary indexes over a {@link LedgerColumnStore}.
+ *
+ * - Posting lists of row numbers per player code, merchant code and output item code (ascending row order)
+ * - A time index: row numbers sorted by timestamp, searched with binary search
+ *
+ * Rows must be indexed in the order they are appended to the store. The indexes can be written
+ * with the store's snapshot and read back instead of being rebuilt.
+ */
+public class LedgerIndex {
+    private static final IntList EMPTY = new IntList(1);
+
+    private final List<IntList> rowsByPlayer = new ArrayList<>();
+    private final Map<Integer, IntList> rowsByMerchant = new HashMap<>();
+    private final Map<Integer, IntList> rowsByItem = new HashMap<>();
+    private IntList rowsByTime = new IntList(1024);
+
+    /**
+     * Add a freshly appended row to every index
+     */
+    public void index(LedgerColumnStore store, int row) {
+        int playerCode = store.getPlayerCode(row);
+        while (rowsByPlayer.size() <= playerCode) {
+            rowsByPlayer.add(new IntList());
+        }
+        rowsByPlayer.get(playerCode).add(row);
+
+        rowsByMerchant.computeIfAbsent(store.getMerchantCode(row), code -> new IntList()).add(row);
+        rowsByItem.computeIfAbsent(store.getOutputItemCode(row), code -> new IntList()).add(row);
+
+        // Bundles finalize roughly in timestamp order, so the insert point is almost always the tail
+        long timestamp = store.getTimestampNanos(row);
+        int position = rowsByTime.size();
+        while (position > 0 && store.getTimestampNanos(rowsByTime.get(position - 1)) > timestamp) {
+            position--;
+        }
+        rowsByTime.insert(position, row);
+    }
+
+    /**
+     * Rows for a player code in ascending row order (empty if unknown)
+     */
+    public IntList rowsForPlayer(int playerCode) {
+        if (playerCode < 0 || playerCode >= rowsByPlayer.size()) {
+            return EMPTY;
+        }
+        return rowsByPlayer.get(playerCode);
+    }
+
+    /**
+     * Rows for a merchant code in ascending row order (empty if unknown)
+     */
+    public IntList rowsForMerchant(int merchantCode) {
+        IntList rows = rowsByMerchant.get(merchantCode);
+        return rows != null ? rows : EMPTY;
+    }
+
+    /**
+     * Rows for an output item code in ascending row order (empty if unknown)
+     */
+    public IntList rowsForItem(int itemCode) {
+        IntList rows = rowsByItem.get(itemCode);
+        return rows != null ? rows : EMPTY;
+    }
+
+    /**
+     * Rows sorted by timestamp
+     */
+    public IntList rowsByTime() {
+        return rowsByTime;
+    }
+
+    /**
+     * First position in {@link #rowsByTime()} whose timestamp is at or after the given time
+     */
+    public int lowerBound(LedgerColumnStore store, long timestampNanos) {
+        int low = 0;
+        int high = rowsByTime.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (store.getTimestampNanos(rowsByTime.get(mid)) < timestampNanos) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Re-index every row of the store (after rows were removed from its front)
+     */
+    public void rebuild(LedgerColumnStore store) {
+        clear();
+        for (int row = 0; row < store.size(); row++) {
+            index(store, row);
+        }
+    }
+
+    public void clear() {
+        rowsByPlayer.clear();
+        rowsByMerchant.clear();
+        rowsByItem.clear();
+        rowsByTime.clear();
+    }
+
+    public void write(DataOutputStream out) throws IOException {
+        out.writeInt(rowsByPlayer.size());
+        for (IntList rows : rowsByPlayer) {
+            rows.write(out);
+        }
+        writeCodeMap(out, rowsByMerchant);
+        writeCodeMap(out, rowsByItem);
+        rowsByTime.write(out);
+    }
+
+    /**
+     * Replace the indexes with ones written by {@link #write(DataOutputStream)}
+     */
+    public void read(DataInputStream in) throws IOException {
+        clear();
+        int players = in.readInt();
+        for (int i = 0; i < players; i++) {
+            rowsByPlayer.add(IntList.read(in));
+        }
+        readCodeMap(in, rowsByMerchant);
+        readCodeMap(in, rowsByItem);
+        rowsByTime = IntList.read(in);
+    }
+
+    private static void writeCodeMap(DataOutputStream out, Map<Integer, IntList> map) throws IOException {
+        out.writeInt(map.size());
+        for (Map.Entry<Integer, IntList> entry : map.entrySet()) {
+            out.writeInt(entry.getKey());
+            entry.getValue().write(out);
+        }
+    }
+
+    private static void readCodeMap(DataInputStream in, Map<Integer, IntList> map) throws IOException {
+        int size = in.readInt();
+        for (int i = 0; i < size; i++) {
+            map.put(in.readInt(), IntList.read(in));
+        }
+    }
+}
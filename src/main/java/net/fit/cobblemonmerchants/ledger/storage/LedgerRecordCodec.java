@@ -0,0 +1,69 @@
+package net.fit.cobblemonmerchants.ledger.storage;
+
+import net.fit.cobblemonmerchants.ledger.TransactionRecord;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Binary encoding for a single finalized {@link TransactionRecord}.
+ * Used by the segment log and the archive; kept free of Minecraft classes so the files can be read offline.
+ */
+public final class LedgerRecordCodec {
+    private LedgerRecordCodec() {
+    }
+
+    /**
+     * Encode a record into a standalone byte array
+     */
+    public static byte[] encode(TransactionRecord record) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writeUuid(out, record.getTransactionId());
+            writeUuid(out, record.getPlayerUuid());
+            out.writeUTF(record.getPlayerName());
+            out.writeUTF(record.getMerchantId());
+            out.writeUTF(record.getMerchantName());
+            out.writeUTF(record.getInputItem());
+            out.writeInt(record.getInputCount());
+            out.writeUTF(record.getOutputItem());
+            out.writeInt(record.getOutputCount());
+            out.writeLong(record.getTimestamp().getEpochSecond());
+            out.writeInt(record.getTimestamp().getNano());
+            out.writeInt(record.getQuantity());
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decode a record previously written by {@link #encode(TransactionRecord)}
+     */
+    public static TransactionRecord decode(DataInput in) throws IOException {
+        UUID transactionId = readUuid(in);
+        UUID playerUuid = readUuid(in);
+        String playerName = in.readUTF();
+        String merchantId = in.readUTF();
+        String merchantName = in.readUTF();
+        String inputItem = in.readUTF();
+        int inputCount = in.readInt();
+        String outputItem = in.readUTF();
+        int outputCount = in.readInt();
+        Instant timestamp = Instant.ofEpochSecond(in.readLong(), in.readInt());
+        int quantity = in.readInt();
+        return new TransactionRecord(transactionId, playerUuid, playerName, merchantId, merchantName,
+                inputItem, inputCount, outputItem, outputCount, timestamp, quantity);
+    }
+
+    private static void writeUuid(DataOutputStream out, UUID uuid) throws IOException {
+        out.writeLong(uuid.getMostSignificantBits());
+        out.writeLong(uuid.getLeastSignificantBits());
+    }
+
+    private static UUID readUuid(DataInput in) throws IOException {
+        return new UUID(in.readLong(), in.readLong());
+    }
+}
@@ -0,0 +1,249 @@
+package net.fit.cobblemonmerchants.ledger.storage;
+
+import net.fit.cobblemonmerchants.ledger.TransactionRecord;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Pre-aggregated hourly and daily trade totals per merchant, player and output item.
+ *
+ * Buckets are updated incrementally as records are finalized, so windowed questions
+ * ("coins spent this week", "busiest merchant today") sum a handful of buckets instead of
+ * scanning raw records. Old buckets are pruned according to each granularity's retention.
+ */
+public class LedgerRollups {
+    private static final int MAGIC = 0x434D5255; // "CMRU"
+    private static final int VERSION = 1;
+
+    public enum Dimension {
+        MERCHANT,
+        PLAYER, // keyed by player UUID string
+        ITEM    // keyed by output item id
+    }
+
+    public enum Granularity {
+        HOUR(24 * 7),  // keep one week of hourly buckets
+        DAY(400);      // keep a bit over a year of daily buckets
+
+        private final int retainedBuckets;
+
+        Granularity(int retainedBuckets) {
+            this.retainedBuckets = retainedBuckets;
+        }
+
+        /**
+         * Bucket number containing the given instant (hours since epoch, or local epoch day)
+         */
+        public long bucketOf(Instant instant) {
+            if (this == HOUR) {
+                return Math.floorDiv(instant.getEpochSecond(), 3600L);
+            }
+            return LocalDate.ofInstant(instant, ZoneId.systemDefault()).toEpochDay();
+        }
+    }
+
+    /**
+     * Totals for one key in one bucket (or summed over a window).
+     * coinsIn = relic coins paid by players, coinsOut = relic coins paid out to players.
+     */
+    public static final class Rollup {
+        private long trades;
+        private long coinsIn;
+        private long coinsOut;
+
+        public long getTrades() { return trades; }
+        public long getCoinsIn() { return coinsIn; }
+        public long getCoinsOut() { return coinsOut; }
+
+        /**
+         * Net coin change from the players' perspective (positive = players gained)
+         */
+        public long getNetCoinChange() { return coinsOut - coinsIn; }
+
+        private void add(long trades, long coinsIn, long coinsOut) {
+            this.trades += trades;
+            this.coinsIn += coinsIn;
+            this.coinsOut += coinsOut;
+        }
+
+        private void add(Rollup other) {
+            add(other.trades, other.coinsIn, other.coinsOut);
+        }
+    }
+
+    // granularity -> dimension -> bucket -> key -> totals
+    private final Map<Granularity, Map<Dimension, NavigableMap<Long, Map<String, Rollup>>>> tables =
+            new EnumMap<>(Granularity.class);
+
+    private boolean changed = false;
+
+    public LedgerRollups() {
+        for (Granularity granularity : Granularity.values()) {
+            Map<Dimension, NavigableMap<Long, Map<String, Rollup>>> byDimension = new EnumMap<>(Dimension.class);
+            for (Dimension dimension : Dimension.values()) {
+                byDimension.put(dimension, new TreeMap<>());
+            }
+            tables.put(granularity, byDimension);
+        }
+    }
+
+    /**
+     * Add a finalized record to every bucket it belongs to
+     */
+    public void record(TransactionRecord record) {
+        int coinChange = record.getCoinChange();
+        long coinsOut = Math.max(0, coinChange);
+        long coinsIn = Math.max(0, -coinChange);
+        long trades = record.getQuantity();
+
+        for (Granularity granularity : Granularity.values()) {
+            long bucket = granularity.bucketOf(record.getTimestamp());
+            Map<Dimension, NavigableMap<Long, Map<String, Rollup>>> byDimension = tables.get(granularity);
+            add(byDimension.get(Dimension.MERCHANT), bucket, record.getMerchantId(), trades, coinsIn, coinsOut);
+            add(byDimension.get(Dimension.PLAYER), bucket, record.getPlayerUuid().toString(), trades, coinsIn, coinsOut);
+            add(byDimension.get(Dimension.ITEM), bucket, record.getOutputItem(), trades, coinsIn, coinsOut);
+            prune(granularity);
+        }
+        changed = true;
+    }
+
+    private static void add(NavigableMap<Long, Map<String, Rollup>> table, long bucket, String key,
+                            long trades, long coinsIn, long coinsOut) {
+        table.computeIfAbsent(bucket, b -> new HashMap<>())
+                .computeIfAbsent(key, k -> new Rollup())
+                .add(trades, coinsIn, coinsOut);
+    }
+
+    private void prune(Granularity granularity) {
+        for (NavigableMap<Long, Map<String, Rollup>> table : tables.get(granularity).values()) {
+            if (!table.isEmpty()) {
+                long oldestKept = table.lastKey() - granularity.retainedBuckets + 1;
+                table.headMap(oldestKept, false).clear();
+            }
+        }
+    }
+
+    /**
+     * Sum each key's totals over buckets [fromBucket, toBucket]
+     */
+    public Map<String, Rollup> aggregate(Dimension dimension, Granularity granularity, long fromBucket, long toBucket) {
+        Map<String, Rollup> result = new HashMap<>();
+        NavigableMap<Long, Map<String, Rollup>> table = tables.get(granularity).get(dimension);
+        for (Map<String, Rollup> bucket : table.subMap(fromBucket, true, toBucket, true).values()) {
+            for (Map.Entry<String, Rollup> entry : bucket.entrySet()) {
+                result.computeIfAbsent(entry.getKey(), k -> new Rollup()).add(entry.getValue());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Sum all totals over buckets [fromBucket, toBucket]
+     */
+    public Rollup total(Granularity granularity, long fromBucket, long toBucket) {
+        Rollup total = new Rollup();
+        for (Rollup rollup : aggregate(Dimension.MERCHANT, granularity, fromBucket, toBucket).values()) {
+            total.add(rollup);
+        }
+        return total;
+    }
+
+    public boolean hasChanged() {
+        return changed;
+    }
+
+    public void clear() {
+        for (Map<Dimension, NavigableMap<Long, Map<String, Rollup>>> byDimension : tables.values()) {
+            for (NavigableMap<Long, Map<String, Rollup>> table : byDimension.values()) {
+                table.clear();
+            }
+        }
+        changed = true;
+    }
+
+    // ==================== Persistence ====================
+
+    /**
+     * Write the rollups atomically. coveredSequence is the highest ledger sequence number they include,
+     * used on load to detect whether the file is in step with the segment log.
+     */
+    public void save(Path file, long coveredSequence) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(coveredSequence);
+            for (Granularity granularity : Granularity.values()) {
+                for (Dimension dimension : Dimension.values()) {
+                    NavigableMap<Long, Map<String, Rollup>> table = tables.get(granularity).get(dimension);
+                    out.writeInt(table.size());
+                    for (Map.Entry<Long, Map<String, Rollup>> bucket : table.entrySet()) {
+                        out.writeLong(bucket.getKey());
+                        out.writeInt(bucket.getValue().size());
+                        for (Map.Entry<String, Rollup> entry : bucket.getValue().entrySet()) {
+                            out.writeUTF(entry.getKey());
+                            out.writeLong(entry.getValue().trades);
+                            out.writeLong(entry.getValue().coinsIn);
+                            out.writeLong(entry.getValue().coinsOut);
+                        }
+                    }
+                }
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        changed = false;
+    }
+
+    /**
+     * Replace the current contents with the file's. Returns the highest ledger sequence number the
+     * file covers, or -1 if there is no file.
+     */
+    public long load(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return -1;
+        }
+        clear();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Unrecognized rollup file: " + file);
+            }
+            long coveredRecords = in.readLong();
+            for (Granularity granularity : Granularity.values()) {
+                for (Dimension dimension : Dimension.values()) {
+                    NavigableMap<Long, Map<String, Rollup>> table = tables.get(granularity).get(dimension);
+                    int bucketCount = in.readInt();
+                    for (int b = 0; b < bucketCount; b++) {
+                        long bucket = in.readLong();
+                        int keyCount = in.readInt();
+                        Map<String, Rollup> entries = new HashMap<>(keyCount * 2);
+                        for (int k = 0; k < keyCount; k++) {
+                            String key = in.readUTF();
+                            Rollup rollup = new Rollup();
+                            rollup.add(in.readLong(), in.readLong(), in.readLong());
+                            entries.put(key, rollup);
+                        }
+                        table.put(bucket, entries);
+                    }
+                }
+            }
+            changed = false;
+            return coveredRecords;
+        }
+    }
+}
@@ -0,0 +1,466 @@
+package net.fit.cobblemonmerchants.ledger.storage;
+
+import net.fit.cobblemonmerchants.ledger.TransactionRecord;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of finalized transactions, split into fixed-size binary segment files.
+ *
+ * Layout: {@code <dir>/segment-00000000.dat}, {@code segment-00000001.dat}, ...
+ * Each segment starts with a small header and holds length-prefixed, CRC-checked record frames.
+ * A segment is closed once the next frame would push it past {@link #SEGMENT_MAX_BYTES}.
+ */
+public class LedgerSegmentLog {
+    public static final int SEGMENT_MAX_BYTES = 4 * 1024 * 1024; // 4 MiB per segment
+
+    private static final int MAGIC = 0x434D4C47; // "CMLG"
+    private static final short VERSION = 1;
+    private static final int HEADER_BYTES = 6;
+    private static final int FRAME_HEADER_BYTES = 8; // length + crc
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".dat";
+    private static final String QUARANTINE_SUFFIX = ".corrupt";
+
+    private final Path directory;
+
+    // Index and size of the segment currently receiving appends (-1 = none yet)
+    private int currentSegment = -1;
+    private long currentSegmentBytes = 0;
+
+    // Frames dropped during the last replay because they were truncated or failed their checksum
+    private int corruptFrames = 0;
+
+    // Segments set aside by replays because they could not be read at all
+    private int quarantinedSegments = 0;
+
+    // Records held by each segment (segment index -> count), filled by replay and append
+    private final TreeMap<Integer, Integer> recordCounts = new TreeMap<>();
+
+    // CRC of the newest frame in the log, and of the last frame skipped by the last replay
+    private int lastFrameCrc = 0;
+    private int lastSkippedFrameCrc = 0;
+
+    public LedgerSegmentLog(Path directory) {
+        this.directory = directory;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Replay every record in segment order.
+     * A torn frame at the end of the newest segment (crash mid-write) is truncated away, and a
+     * segment with an unreadable header is renamed to {@code .corrupt} and skipped.
+     * Returns the number of records replayed.
+     */
+    public int replay(Consumer<TransactionRecord> consumer) throws IOException {
+        return replay(0, consumer);
+    }
+
+    /**
+     * Replay records in segment order, skipping the first {@code skip} (e.g. ones already restored
+     * from a snapshot). Skipped frames are checksummed but not decoded; the CRC of the last one is
+     * available from {@link #getLastSkippedFrameCrc()} so the caller can check it is the frame it
+     * expected. Returns the number of records in the log, skipped ones included.
+     */
+    public int replay(int skip, Consumer<TransactionRecord> consumer) throws IOException {
+        corruptFrames = 0;
+        lastFrameCrc = 0;
+        lastSkippedFrameCrc = 0;
+        recordCounts.clear();
+        List<Path> segments = listSegments();
+        int count = 0;
+
+        // Point appends past every existing segment up front, so a failure below can never
+        // leave the log trying to create a segment that is already on disk
+        if (!segments.isEmpty()) {
+            Path newest = segments.get(segments.size() - 1);
+            currentSegment = parseSegmentIndex(newest);
+            currentSegmentBytes = Files.size(newest);
+        }
+
+        for (int i = 0; i < segments.size(); i++) {
+            Path segment = segments.get(i);
+            boolean newest = i == segments.size() - 1;
+            int replayed;
+            try {
+                replayed = replaySegment(segment, newest, Math.max(0, skip - count), consumer);
+            } catch (CorruptSegmentException e) {
+                quarantine(segment);
+                continue;
+            }
+            recordCounts.put(parseSegmentIndex(segment), replayed);
+            count += replayed;
+        }
+        return count;
+    }
+
+    /**
+     * Move an unreadable segment out of the log so later replays and appends skip it, keeping
+     * the file next to the log for inspection
+     */
+    private void quarantine(Path segment) throws IOException {
+        Path target = segment.resolveSibling(segment.getFileName() + QUARANTINE_SUFFIX);
+        Files.move(segment, target, StandardCopyOption.REPLACE_EXISTING);
+        quarantinedSegments++;
+    }
+
+    private int replaySegment(Path segment, boolean newest, int skip, Consumer<TransactionRecord> consumer) throws IOException {
+        if (newest && hasTornHeader(segment)) {
+            // Crash between creating the segment and its first append: rewrite the header so the
+            // segment can keep receiving appends (it holds no records)
+            corruptFrames++;
+            writeHeader(segment, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            return 0;
+        }
+        ByteBuffer data = readSegmentFile(segment);
+        int count = 0;
+        int lastGoodOffset = data.position();
+        CRC32 crc = new CRC32();
+
+        while (data.remaining() >= FRAME_HEADER_BYTES) {
+            int length = data.getInt();
+            int expectedCrc = data.getInt();
+            if (length <= 0 || length > data.remaining()) {
+                break;
+            }
+
+            crc.reset();
+            crc.update(data.array(), data.position(), length);
+            if ((int) crc.getValue() != expectedCrc) {
+                break;
+            }
+
+            if (count < skip) {
+                lastSkippedFrameCrc = expectedCrc;
+            } else {
+                DataInputStream in = new DataInputStream(new ByteArrayInputStream(data.array(), data.position(), length));
+                consumer.accept(LedgerRecordCodec.decode(in));
+            }
+            lastFrameCrc = expectedCrc;
+            data.position(data.position() + length);
+            lastGoodOffset = data.position();
+            count++;
+        }
+
+        if (lastGoodOffset < data.limit()) {
+            corruptFrames++;
+            if (newest) {
+                // Drop the torn tail so future appends start from a clean frame boundary
+                try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+                    channel.truncate(lastGoodOffset);
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Decode every intact record in one segment file, in order, without modifying the file: a torn
+     * or corrupt frame simply ends the segment, and a segment whose header was never completed
+     * holds no records. Safe to call on several segments in parallel, and
+     * on a copy of a live server's log.
+     *
+     * @return the number of records decoded
+     */
+    public static int readSegment(Path segment, Consumer<TransactionRecord> consumer) throws IOException {
+        if (hasTornHeader(segment)) {
+            return 0;
+        }
+        ByteBuffer data = readSegmentFile(segment);
+        CRC32 crc = new CRC32();
+        int count = 0;
+        while (data.remaining() >= FRAME_HEADER_BYTES) {
+            int length = data.getInt();
+            int expectedCrc = data.getInt();
+            if (length <= 0 || length > data.remaining()) {
+                break;
+            }
+            crc.reset();
+            crc.update(data.array(), data.position(), length);
+            if ((int) crc.getValue() != expectedCrc) {
+                break;
+            }
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(data.array(), data.position(), length));
+            consumer.accept(LedgerRecordCodec.decode(in));
+            data.position(data.position() + length);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Whether a segment's header was never completely written: the file is shorter than the header,
+     * or holds nothing but a header that does not match
+     */
+    private static boolean hasTornHeader(Path segment) throws IOException {
+        long size = Files.size(segment);
+        if (size < HEADER_BYTES) {
+            return true;
+        }
+        if (size > HEADER_BYTES) {
+            return false;
+        }
+        ByteBuffer header = ByteBuffer.wrap(Files.readAllBytes(segment));
+        return header.getInt() != MAGIC || header.getShort() != VERSION;
+    }
+
+    /**
+     * Write a segment header and force it to disk
+     */
+    private static void writeHeader(Path segment, StandardOpenOption... options) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC);
+        header.putShort(VERSION);
+        header.flip();
+        try (FileChannel channel = FileChannel.open(segment, options)) {
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Read a segment and check its header, leaving the buffer at the first frame
+     */
+    private static ByteBuffer readSegmentFile(Path segment) throws IOException {
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(segment));
+        if (data.remaining() < HEADER_BYTES || data.getInt() != MAGIC) {
+            throw new CorruptSegmentException("Not a ledger segment: " + segment);
+        }
+        short version = data.getShort();
+        if (version != VERSION) {
+            throw new CorruptSegmentException("Unsupported ledger segment version " + version + ": " + segment);
+        }
+        return data;
+    }
+
+    /**
+     * Append records to the tail of the log, rolling to a new segment when the current one is full.
+     * Data is forced to disk before returning.
+     */
+    public void append(List<TransactionRecord> records) throws IOException {
+        if (records.isEmpty()) {
+            return;
+        }
+        Files.createDirectories(directory);
+
+        List<ByteBuffer> pending = new ArrayList<>();
+        long pendingBytes = 0;
+        CRC32 crc = new CRC32();
+
+        // No segment yet, or the newest one was quarantined by the last replay
+        if (currentSegment < 0 || !Files.exists(segmentPath(currentSegment))) {
+            rollSegment();
+        }
+
+        for (TransactionRecord record : records) {
+            byte[] payload = LedgerRecordCodec.encode(record);
+            int frameBytes = FRAME_HEADER_BYTES + payload.length;
+
+            if (currentSegmentBytes + pendingBytes + frameBytes > SEGMENT_MAX_BYTES
+                    && currentSegmentBytes + pendingBytes > HEADER_BYTES) {
+                writeToCurrent(pending);
+                pending.clear();
+                pendingBytes = 0;
+                rollSegment();
+            }
+
+            crc.reset();
+            crc.update(payload);
+            ByteBuffer frame = ByteBuffer.allocate(frameBytes);
+            frame.putInt(payload.length);
+            frame.putInt((int) crc.getValue());
+            frame.put(payload);
+            frame.flip();
+            pending.add(frame);
+            pendingBytes += frameBytes;
+        }
+
+        writeToCurrent(pending);
+        lastFrameCrc = (int) crc.getValue();
+    }
+
+    private void writeToCurrent(List<ByteBuffer> frames) throws IOException {
+        if (frames.isEmpty()) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(segmentPath(currentSegment),
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer[] buffers = frames.toArray(new ByteBuffer[0]);
+            long remaining = 0;
+            for (ByteBuffer buffer : buffers) {
+                remaining += buffer.remaining();
+            }
+            long written = 0;
+            while (written < remaining) {
+                written += channel.write(buffers);
+            }
+            channel.force(false);
+            currentSegmentBytes += written;
+            recordCounts.merge(currentSegment, frames.size(), Integer::sum);
+        }
+    }
+
+    private void rollSegment() throws IOException {
+        currentSegment++;
+        writeHeader(segmentPath(currentSegment), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        currentSegmentBytes = HEADER_BYTES;
+        recordCounts.put(currentSegment, 0);
+    }
+
+    /**
+     * Indexes of every segment, oldest first
+     */
+    public List<Integer> getSegmentIndexes() {
+        return new ArrayList<>(recordCounts.keySet());
+    }
+
+    /**
+     * Index of the segment receiving appends, or -1 if there is none yet
+     */
+    public int getCurrentSegment() {
+        return currentSegment;
+    }
+
+    /**
+     * Number of records a segment holds (as of the last replay or append)
+     */
+    public int getRecordCount(int segment) {
+        return recordCounts.getOrDefault(segment, 0);
+    }
+
+    /**
+     * File holding a segment (a closed segment can be read from any thread with {@link #readSegment})
+     */
+    public Path getSegmentPath(int segment) {
+        return segmentPath(segment);
+    }
+
+    /**
+     * Delete a closed segment, e.g. after its records were archived. The current segment cannot be deleted.
+     */
+    public void deleteSegment(int segment) throws IOException {
+        if (segment == currentSegment) {
+            throw new IOException("Cannot delete the active ledger segment " + segment);
+        }
+        Files.deleteIfExists(segmentPath(segment));
+        recordCounts.remove(segment);
+    }
+
+    /**
+     * Delete every segment with an index at or below the given one.
+     * Used before {@link #replay(Consumer)} to finish an archive pass that was interrupted.
+     */
+    public int deleteSegmentsUpTo(int segment) throws IOException {
+        int deleted = 0;
+        for (Path path : listSegments()) {
+            int index = parseSegmentIndex(path);
+            if (index <= segment && index != currentSegment) {
+                Files.deleteIfExists(path);
+                recordCounts.remove(index);
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Delete every segment file (used when the ledger is cleared)
+     */
+    public void deleteAll() throws IOException {
+        for (Path segment : listSegments()) {
+            Files.deleteIfExists(segment);
+        }
+        currentSegment = -1;
+        currentSegmentBytes = 0;
+        lastFrameCrc = 0;
+        recordCounts.clear();
+    }
+
+    public boolean isEmpty() throws IOException {
+        return listSegments().isEmpty();
+    }
+
+    public int getSegmentCount() throws IOException {
+        return listSegments().size();
+    }
+
+    /**
+     * CRC of the newest frame in the log (0 if it is empty)
+     */
+    public int getLastFrameCrc() {
+        return lastFrameCrc;
+    }
+
+    /**
+     * CRC of the last frame skipped by {@link #replay(int, Consumer)} (0 if none were skipped)
+     */
+    public int getLastSkippedFrameCrc() {
+        return lastSkippedFrameCrc;
+    }
+
+    public int getCorruptFrames() {
+        return corruptFrames;
+    }
+
+    /**
+     * Segments renamed to {@code .corrupt} by replays since this log was opened
+     */
+    public int getQuarantinedSegments() {
+        return quarantinedSegments;
+    }
+
+    public List<Path> listSegments() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(p -> {
+                        String name = p.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path segmentPath(int index) {
+        return directory.resolve(String.format("%s%08d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+    }
+
+    /**
+     * Index of a segment file returned by {@link #listSegments()}
+     */
+    public static int parseSegmentIndex(Path segment) {
+        String name = segment.getFileName().toString();
+        return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    /**
+     * A segment whose header is missing or from an unknown version, so none of its frames can be trusted
+     */
+    static class CorruptSegmentException extends IOException {
+        CorruptSegmentException(String message) {
+            super(message);
+        }
+    }
+}
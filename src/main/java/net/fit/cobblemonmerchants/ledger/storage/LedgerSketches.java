@@ -0,0 +1,167 @@
+package net.fit.cobblemonmerchants.ledger.storage;
+
+import net.fit.cobblemonmerchants.ledger.TransactionRecord;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Approximate analytics that would otherwise need full record scans: unique traders per merchant,
+ * distinct items sold per day ({@link HyperLogLog}) and coins spent per trade ({@link KllSketch}).
+ *
+ * Sketches are updated as records are finalized and have a fixed size, so answers take
+ * microseconds and memory does not grow with the number of transactions.
+ */
+public class LedgerSketches {
+    private static final int MAGIC = 0x434D534B; // "CMSK"
+    private static final int VERSION = 1;
+    private static final int TRADER_PRECISION = 12; // 4 KiB per merchant, ~1.6% error
+    private static final int ITEM_PRECISION = 10;   // 1 KiB per day, ~3.3% error
+    private static final int RETAINED_DAYS = 400;
+
+    private final Map<String, HyperLogLog> tradersByMerchant = new HashMap<>();
+    private final NavigableMap<Long, HyperLogLog> itemsByDay = new TreeMap<>();
+    private KllSketch coinsSpentPerTrade = new KllSketch();
+
+    private boolean changed = false;
+
+    /**
+     * Add a finalized record to every sketch it belongs to
+     */
+    public void record(TransactionRecord record) {
+        tradersByMerchant.computeIfAbsent(record.getMerchantId(), id -> new HyperLogLog(TRADER_PRECISION))
+                .add(record.getPlayerUuid());
+
+        long day = LedgerRollups.Granularity.DAY.bucketOf(record.getTimestamp());
+        itemsByDay.computeIfAbsent(day, d -> new HyperLogLog(ITEM_PRECISION)).add(record.getOutputItem());
+        itemsByDay.headMap(itemsByDay.lastKey() - RETAINED_DAYS + 1, false).clear();
+
+        // A bundled record is several identical trades; each one cost the same
+        int coinChange = record.getCoinChange();
+        if (coinChange < 0 && record.getQuantity() > 0) {
+            coinsSpentPerTrade.add((double) -coinChange / record.getQuantity(), record.getQuantity());
+        }
+        changed = true;
+    }
+
+    /**
+     * Estimated number of distinct players who traded with the merchant
+     */
+    public long getUniqueTraders(String merchantId) {
+        HyperLogLog sketch = tradersByMerchant.get(merchantId);
+        return sketch != null ? sketch.estimate() : 0;
+    }
+
+    /**
+     * Estimated distinct traders for every merchant
+     */
+    public Map<String, Long> getUniqueTradersByMerchant() {
+        Map<String, Long> result = new HashMap<>();
+        for (Map.Entry<String, HyperLogLog> entry : tradersByMerchant.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().estimate());
+        }
+        return result;
+    }
+
+    /**
+     * Estimated distinct output items per day (local epoch day) for days in [fromDay, toDay] with trades
+     */
+    public NavigableMap<Long, Long> getDistinctItemsByDay(long fromDay, long toDay) {
+        NavigableMap<Long, Long> result = new TreeMap<>();
+        for (Map.Entry<Long, HyperLogLog> entry : itemsByDay.subMap(fromDay, true, toDay, true).entrySet()) {
+            result.put(entry.getKey(), entry.getValue().estimate());
+        }
+        return result;
+    }
+
+    /**
+     * Approximate coins spent per trade at the given rank (0.5 = median), NaN if no coin purchases
+     */
+    public double getCoinsSpentQuantile(double rank) {
+        return coinsSpentPerTrade.quantile(rank);
+    }
+
+    /**
+     * Number of trades paid for with coins
+     */
+    public long getCoinPurchaseCount() {
+        return coinsSpentPerTrade.getCount();
+    }
+
+    public boolean hasChanged() {
+        return changed;
+    }
+
+    public void clear() {
+        tradersByMerchant.clear();
+        itemsByDay.clear();
+        coinsSpentPerTrade.clear();
+        changed = true;
+    }
+
+    // ==================== Persistence ====================
+
+    /**
+     * Write the sketches atomically. coveredSequence is the highest ledger sequence number they include.
+     */
+    public void save(Path file, long coveredSequence) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(coveredSequence);
+            out.writeInt(tradersByMerchant.size());
+            for (Map.Entry<String, HyperLogLog> entry : tradersByMerchant.entrySet()) {
+                out.writeUTF(entry.getKey());
+                entry.getValue().write(out);
+            }
+            out.writeInt(itemsByDay.size());
+            for (Map.Entry<Long, HyperLogLog> entry : itemsByDay.entrySet()) {
+                out.writeLong(entry.getKey());
+                entry.getValue().write(out);
+            }
+            coinsSpentPerTrade.write(out);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        changed = false;
+    }
+
+    /**
+     * Replace the current contents with the file's. Returns the highest ledger sequence number the
+     * file covers, or -1 if there is no file.
+     */
+    public long load(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return -1;
+        }
+        clear();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Unrecognized sketch file: " + file);
+            }
+            long coveredSequence = in.readLong();
+            int merchants = in.readInt();
+            for (int i = 0; i < merchants; i++) {
+                tradersByMerchant.put(in.readUTF(), HyperLogLog.read(in));
+            }
+            int days = in.readInt();
+            for (int i = 0; i < days; i++) {
+                itemsByDay.put(in.readLong(), HyperLogLog.read(in));
+            }
+            coinsSpentPerTrade = KllSketch.read(in);
+            changed = false;
+            return coveredSequence;
+        }
+    }
+}
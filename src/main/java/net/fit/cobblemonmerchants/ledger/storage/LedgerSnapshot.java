@@ -0,0 +1,174 @@
+package net.fit.cobblemonmerchants.ledger.storage;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+/**
+ * File format for the ledger's startup snapshot: the in-memory column store, its indexes and the
+ * all-time statistics, written on save so a load can restore them with bulk reads instead of
+ * decoding every segment frame and streaming the archive.
+ *
+ * Layout: magic, version, payload length, CRC32 of the payload, payload. The payload starts with a
+ * {@link Header} saying which records it covers; the loader only trusts the rest if the archive and
+ * segment log still agree with it.
+ */
+public final class LedgerSnapshot {
+    private static final int MAGIC = 0x434D534E; // "CMSN"
+    private static final int VERSION = 1;
+
+    /**
+     * Which records a snapshot covers: rows {@code firstSequence .. firstSequence + rows - 1} of the
+     * segment log, the last of which had the frame CRC {@code lastFrameCrc}
+     */
+    public record Header(long firstSequence, int rows, int lastFrameCrc) {
+        public void write(DataOutputStream out) throws IOException {
+            out.writeLong(firstSequence);
+            out.writeInt(rows);
+            out.writeInt(lastFrameCrc);
+        }
+
+        public static Header read(DataInputStream in) throws IOException {
+            return new Header(in.readLong(), in.readInt(), in.readInt());
+        }
+    }
+
+    @FunctionalInterface
+    public interface PayloadWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    @FunctionalInterface
+    public interface KeyWriter<K> {
+        void write(DataOutputStream out, K key) throws IOException;
+    }
+
+    @FunctionalInterface
+    public interface KeyReader<K> {
+        K read(DataInputStream in) throws IOException;
+    }
+
+    public static final KeyWriter<String> STRING_KEYS = DataOutputStream::writeUTF;
+    public static final KeyReader<String> STRING_KEY_READER = in -> in.readUTF();
+    public static final KeyWriter<UUID> UUID_KEYS = (out, key) -> {
+        out.writeLong(key.getMostSignificantBits());
+        out.writeLong(key.getLeastSignificantBits());
+    };
+    public static final KeyReader<UUID> UUID_KEY_READER = in -> new UUID(in.readLong(), in.readLong());
+
+    private LedgerSnapshot() {
+    }
+
+    /**
+     * Write a snapshot atomically, returning the size of the file written
+     */
+    public static long write(Path file, PayloadWriter payloadWriter) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(64 * 1024);
+        try (DataOutputStream out = new DataOutputStream(buffer)) {
+            payloadWriter.write(out);
+        }
+        byte[] payload = buffer.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        Files.createDirectories(file.getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(temp))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(payload.length);
+            out.writeInt((int) crc.getValue());
+            out.write(payload);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return 16L + payload.length;
+    }
+
+    /**
+     * Open a snapshot's payload after checking its checksum; null if there is no file
+     *
+     * @throws IOException if the file is not a snapshot, is from another version or is damaged
+     */
+    public static DataInputStream read(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (data.remaining() < 16 || data.getInt() != MAGIC || data.getInt() != VERSION) {
+            throw new IOException("Unrecognized ledger snapshot: " + file);
+        }
+        int length = data.getInt();
+        int expectedCrc = data.getInt();
+        if (length != data.remaining()) {
+            throw new IOException("Truncated ledger snapshot: " + file);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(data.array(), data.position(), length);
+        if ((int) crc.getValue() != expectedCrc) {
+            throw new IOException("Ledger snapshot checksum mismatch: " + file);
+        }
+        return new DataInputStream(new ByteArrayInputStream(data.array(), data.position(), length));
+    }
+
+    // ==================== Helpers ====================
+
+    public static void writeInts(DataOutputStream out, int[] values, int count) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(count * 4);
+        bytes.asIntBuffer().put(values, 0, count);
+        out.writeInt(count);
+        out.write(bytes.array());
+    }
+
+    public static int[] readInts(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        byte[] bytes = new byte[count * 4];
+        in.readFully(bytes);
+        int[] values = new int[count];
+        ByteBuffer.wrap(bytes).asIntBuffer().get(values);
+        return values;
+    }
+
+    public static void writeLongs(DataOutputStream out, long[] values, int count) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(count * 8);
+        bytes.asLongBuffer().put(values, 0, count);
+        out.writeInt(count);
+        out.write(bytes.array());
+    }
+
+    public static long[] readLongs(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        byte[] bytes = new byte[count * 8];
+        in.readFully(bytes);
+        long[] values = new long[count];
+        ByteBuffer.wrap(bytes).asLongBuffer().get(values);
+        return values;
+    }
+
+    public static <K> void writeMap(DataOutputStream out, Map<K, Integer> map, KeyWriter<K> keys) throws IOException {
+        out.writeInt(map.size());
+        for (Map.Entry<K, Integer> entry : map.entrySet()) {
+            keys.write(out, entry.getKey());
+            out.writeInt(entry.getValue());
+        }
+    }
+
+    /**
+     * Replace the map's contents with the ones read
+     */
+    public static <K> void readMap(DataInputStream in, Map<K, Integer> map, KeyReader<K> keys) throws IOException {
+        map.clear();
+        int size = in.readInt();
+        for (int i = 0; i < size; i++) {
+            map.put(keys.read(in), in.readInt());
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package net.fit.cobblemonmerchants.ledger.storage;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide interned symbol table for the strings transaction records repeat: player names,
+ * merchant ids and names, and item ids.
+ *
+ * Each distinct string gets a dense int id on first use, and every record holding it shares the
+ * one canonical copy, so comparing two symbols is an int compare. Ids are not stable across
+ * restarts and must not be persisted; {@link LedgerColumnStore} keeps its own codes for that.
+ * Safe to use from any thread; lookups of known symbols do not lock.
+ */
+public final class LedgerSymbols {
+    private static final ConcurrentHashMap<String, Integer> IDS = new ConcurrentHashMap<>();
+    private static volatile String[] names = new String[256];
+    private static int count = 0; // guarded by LedgerSymbols.class
+
+    private LedgerSymbols() {
+    }
+
+    /**
+     * Id for a string, assigning one if it is new (null is treated as the empty string)
+     */
+    public static int intern(String value) {
+        String key = value != null ? value : "";
+        Integer id = IDS.get(key);
+        if (id != null) {
+            return id;
+        }
+        synchronized (LedgerSymbols.class) {
+            id = IDS.get(key);
+            if (id != null) {
+                return id;
+            }
+            String[] current = names;
+            if (count == current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+            }
+            current[count] = key;
+            // Volatile write publishes the new slot before the id becomes visible
+            names = current;
+            IDS.put(key, count);
+            return count++;
+        }
+    }
+
+    /**
+     * The canonical string for an id returned by {@link #intern(String)}
+     */
+    public static String name(int id) {
+        return names[id];
+    }
+
+    /**
+     * Number of distinct symbols interned so far
+     */
+    public static int size() {
+        return IDS.size();
+    }
+}
@@ -0,0 +1,101 @@
+package net.fit.cobblemonmerchants.ledger.storage;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded lock-free queue for many producer threads and a single consumer thread.
+ *
+ * Each slot carries a sequence number: a producer claims a position by advancing the shared tail
+ * with a CAS, writes its element, then publishes the slot by bumping the slot's sequence. The
+ * consumer only reads a slot once its sequence says it is published, and hands it back to
+ * producers one lap later. {@link #offer(Object)} never blocks; it returns false when full.
+ *
+ * {@link #poll()} and {@link #drain(Consumer, int)} must only be called from the consumer thread.
+ */
+public class MpscRingBuffer<E> {
+    private final int mask;
+    private final Object[] elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head = 0;
+
+    public MpscRingBuffer(int capacity) {
+        // Round up to a power of two so positions map to slots with a mask
+        int size = capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = size - 1;
+        this.elements = new Object[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Publish an element (any thread). Returns false if the buffer is full.
+     */
+    public boolean offer(E element) {
+        long position = tail.get();
+        while (true) {
+            int slot = (int) (position & mask);
+            long difference = sequences.get(slot) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements[slot] = element;
+                    sequences.lazySet(slot, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Take the next published element, or null if none is ready (consumer thread only)
+     */
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        long position = head;
+        int slot = (int) (position & mask);
+        if (sequences.get(slot) != position + 1) {
+            return null;
+        }
+        E element = (E) elements[slot];
+        elements[slot] = null;
+        sequences.lazySet(slot, position + elements.length);
+        head = position + 1;
+        return element;
+    }
+
+    /**
+     * Pass up to {@code limit} elements to the consumer; returns how many were taken (consumer thread only)
+     */
+    public int drain(Consumer<E> consumer, int limit) {
+        int taken = 0;
+        while (taken < limit) {
+            E element = poll();
+            if (element == null) {
+                break;
+            }
+            consumer.accept(element);
+            taken++;
+        }
+        return taken;
+    }
+
+    /**
+     * Approximate number of elements waiting
+     */
+    public int size() {
+        return (int) Math.max(0, Math.min(elements.length, tail.get() - head));
+    }
+
+    public int capacity() {
+        return elements.length;
+    }
+}
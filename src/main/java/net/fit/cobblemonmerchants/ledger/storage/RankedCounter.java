@@ -0,0 +1,121 @@
+package net.fit.cobblemonmerchants.ledger.storage;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Per-key totals kept in rank order as they change.
+ *
+ * Each key's total lives in a hash map for O(1) lookups and in a tree ordered by total (highest
+ * first, ties broken by which key was seen first), so {@link #add(Object, int)} costs O(log n) and
+ * {@link #top(int)} only walks the first {@code limit} entries. Keys iterate in first-seen order,
+ * which is also the order they are written in, so a counter read back ranks ties the same way.
+ */
+public class RankedCounter<K> {
+    private static final class Counter<K> {
+        final K key;
+        final long order;
+        int total;
+
+        Counter(K key, long order) {
+            this.key = key;
+            this.order = order;
+        }
+    }
+
+    private final Map<K, Counter<K>> counters = new LinkedHashMap<>();
+    private final TreeSet<Counter<K>> ranking = new TreeSet<>((a, b) -> {
+        int byTotal = Integer.compare(b.total, a.total);
+        return byTotal != 0 ? byTotal : Long.compare(a.order, b.order);
+    });
+    private long nextOrder = 0;
+
+    /**
+     * Add delta to the key's total (a key is created on first use)
+     */
+    public void add(K key, int delta) {
+        if (delta == 0) {
+            return;
+        }
+        Counter<K> counter = counters.get(key);
+        if (counter == null) {
+            counter = new Counter<>(key, nextOrder++);
+            counters.put(key, counter);
+        } else {
+            ranking.remove(counter);
+        }
+        counter.total += delta;
+        ranking.add(counter);
+    }
+
+    public int get(K key) {
+        Counter<K> counter = counters.get(key);
+        return counter != null ? counter.total : 0;
+    }
+
+    /**
+     * The highest totals, best first
+     */
+    public List<Map.Entry<K, Integer>> top(int limit) {
+        List<Map.Entry<K, Integer>> result = new ArrayList<>(Math.max(0, Math.min(limit, counters.size())));
+        Iterator<Counter<K>> iterator = ranking.iterator();
+        while (result.size() < limit && iterator.hasNext()) {
+            Counter<K> counter = iterator.next();
+            result.add(new AbstractMap.SimpleImmutableEntry<>(counter.key, counter.total));
+        }
+        return result;
+    }
+
+    /**
+     * Copy of every key's total
+     */
+    public Map<K, Integer> toMap() {
+        Map<K, Integer> copy = new HashMap<>(counters.size() * 2);
+        for (Counter<K> counter : counters.values()) {
+            copy.put(counter.key, counter.total);
+        }
+        return copy;
+    }
+
+    public Iterable<K> keys() {
+        return counters.keySet();
+    }
+
+    public int size() {
+        return counters.size();
+    }
+
+    public void clear() {
+        counters.clear();
+        ranking.clear();
+        nextOrder = 0;
+    }
+
+    public void write(DataOutputStream out, LedgerSnapshot.KeyWriter<K> keys) throws IOException {
+        out.writeInt(counters.size());
+        for (Counter<K> counter : counters.values()) {
+            keys.write(out, counter.key);
+            out.writeInt(counter.total);
+        }
+    }
+
+    /**
+     * Replace the contents with a counter written by {@link #write(DataOutputStream, LedgerSnapshot.KeyWriter)}
+     */
+    public void read(DataInputStream in, LedgerSnapshot.KeyReader<K> keys) throws IOException {
+        clear();
+        int size = in.readInt();
+        for (int i = 0; i < size; i++) {
+            add(keys.read(in), in.readInt());
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package net.fit.cobblemonmerchants.ledger.storage;
+
+import java.util.Arrays;
+
+/**
+ * Tracks which ledger sequence numbers have been acknowledged (e.g. delivered to the webhook).
+ *
+ * Every sequence number at or below the watermark is acknowledged. Acknowledgements that arrive
+ * ahead of a gap are kept in a small sorted array and folded into the watermark once the gap
+ * closes, so the state stays tiny no matter how many records the ledger holds.
+ *
+ * A sequence that is never acknowledged (dropped or failed delivery) would hold the gap open
+ * forever, so acknowledgements ahead of it are capped at {@link #MAX_AHEAD}: past that, the watermark
+ * moves up to the oldest one and the sequences it skips are kept in a small retry set of
+ * {@link #MAX_MISSED} entries, which still count as unacknowledged. If the retry set is full too, the
+ * newest acknowledgements over the cap are forgotten instead, so those records are simply sent again
+ * by the next sync. Either way the persisted state stays bounded.
+ *
+ * Methods are synchronized because acknowledgements may arrive from worker threads.
+ */
+public class SequenceWatermark {
+    public static final int MAX_AHEAD = 4096;
+    public static final int MAX_MISSED = 1024;
+
+    private long watermark = 0;
+    private long[] ahead = new long[8];
+    private int aheadSize = 0;
+    // Unacknowledged sequences at or below the watermark, sorted
+    private long[] missed = new long[8];
+    private int missedSize = 0;
+    // Acknowledgements dropped because both the ahead and missed sets were full
+    private long forgotten = 0;
+
+    /**
+     * Mark a sequence number as acknowledged. Returns false if it already was.
+     */
+    public synchronized boolean acknowledge(long sequence) {
+        if (sequence <= watermark) {
+            int missedAt = Arrays.binarySearch(missed, 0, missedSize, sequence);
+            if (missedAt < 0) {
+                return false;
+            }
+            System.arraycopy(missed, missedAt + 1, missed, missedAt, missedSize - missedAt - 1);
+            missedSize--;
+            return true;
+        }
+        int position = Arrays.binarySearch(ahead, 0, aheadSize, sequence);
+        if (position >= 0) {
+            return false;
+        }
+
+        if (sequence == watermark + 1) {
+            watermark = sequence;
+            foldAhead();
+            return true;
+        }
+
+        int insertAt = -position - 1;
+        if (aheadSize == ahead.length) {
+            ahead = Arrays.copyOf(ahead, ahead.length * 2);
+        }
+        System.arraycopy(ahead, insertAt, ahead, insertAt + 1, aheadSize - insertAt);
+        ahead[insertAt] = sequence;
+        aheadSize++;
+        if (aheadSize > MAX_AHEAD) {
+            compact();
+        }
+        return true;
+    }
+
+    /**
+     * Fold acknowledgements that are now contiguous with the watermark into it
+     */
+    private void foldAhead() {
+        int folded = 0;
+        while (folded < aheadSize && ahead[folded] == watermark + 1) {
+            watermark = ahead[folded++];
+        }
+        if (folded > 0) {
+            System.arraycopy(ahead, folded, ahead, 0, aheadSize - folded);
+            aheadSize -= folded;
+        }
+    }
+
+    /**
+     * Bring the ahead set back under {@link #MAX_AHEAD}: skip the watermark over the gap below the
+     * oldest acknowledgement, remembering the skipped sequences as missed, or forget the newest
+     * acknowledgements if the missed set cannot hold the gap
+     */
+    private void compact() {
+        while (aheadSize > MAX_AHEAD) {
+            long gap = ahead[0] - watermark - 1;
+            if (missedSize + gap > MAX_MISSED) {
+                forgotten += aheadSize - MAX_AHEAD;
+                aheadSize = MAX_AHEAD;
+                return;
+            }
+            if (missedSize + gap > missed.length) {
+                missed = Arrays.copyOf(missed, Math.max(missed.length * 2, (int) (missedSize + gap)));
+            }
+            for (long sequence = watermark + 1; sequence < ahead[0]; sequence++) {
+                missed[missedSize++] = sequence;
+            }
+            watermark = ahead[0] - 1;
+            foldAhead();
+        }
+    }
+
+    public synchronized boolean isAcknowledged(long sequence) {
+        if (sequence <= watermark) {
+            return missedSize == 0 || Arrays.binarySearch(missed, 0, missedSize, sequence) < 0;
+        }
+        return Arrays.binarySearch(ahead, 0, aheadSize, sequence) >= 0;
+    }
+
+    /**
+     * Lowest sequence number that is not acknowledged
+     */
+    public synchronized long getFirstUnacknowledged() {
+        return missedSize > 0 ? missed[0] : watermark + 1;
+    }
+
+    /**
+     * Highest sequence number below which everything is acknowledged
+     */
+    public synchronized long getWatermark() {
+        return watermark;
+    }
+
+    /**
+     * Number of acknowledged sequence numbers (assuming sequences start at 1)
+     */
+    public synchronized long getAcknowledgedCount() {
+        return watermark - missedSize + aheadSize;
+    }
+
+    /**
+     * Acknowledgements held above the watermark
+     */
+    public synchronized long[] getAhead() {
+        return Arrays.copyOf(ahead, aheadSize);
+    }
+
+    /**
+     * Unacknowledged sequences the watermark has moved past
+     */
+    public synchronized long[] getMissed() {
+        return Arrays.copyOf(missed, missedSize);
+    }
+
+    /**
+     * Acknowledgements forgotten because the state was full; those records will be sent again
+     */
+    public synchronized long getForgottenCount() {
+        return forgotten;
+    }
+
+    /**
+     * Replace the state, e.g. with values read from disk
+     */
+    public synchronized void restore(long watermark, long[] ahead, long[] missed) {
+        clear();
+        this.watermark = Math.max(0, watermark);
+        long[] sortedMissed = missed.clone();
+        Arrays.sort(sortedMissed);
+        for (long sequence : sortedMissed) {
+            if (sequence > 0 && sequence <= this.watermark && missedSize < MAX_MISSED
+                    && (missedSize == 0 || this.missed[missedSize - 1] != sequence)) {
+                if (missedSize == this.missed.length) {
+                    this.missed = Arrays.copyOf(this.missed, this.missed.length * 2);
+                }
+                this.missed[missedSize++] = sequence;
+            }
+        }
+        for (long sequence : ahead) {
+            acknowledge(sequence);
+        }
+    }
+
+    /**
+     * Drop acknowledgements above the given sequence (e.g. after the ledger was truncated)
+     */
+    public synchronized void truncate(long maxSequence) {
+        watermark = Math.min(watermark, maxSequence);
+        int keep = 0;
+        while (keep < aheadSize && ahead[keep] <= maxSequence) {
+            keep++;
+        }
+        aheadSize = keep;
+        while (missedSize > 0 && missed[missedSize - 1] > watermark) {
+            missedSize--;
+        }
+    }
+
+    public synchronized void clear() {
+        watermark = 0;
+        aheadSize = 0;
+        missedSize = 0;
+        forgotten = 0;
+    }
+}
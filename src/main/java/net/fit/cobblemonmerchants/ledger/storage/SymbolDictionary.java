@@ -0,0 +1,52 @@
+package net.fit.cobblemonmerchants.ledger.storage;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps repeated values (player UUIDs, item/merchant ids, names) to dense int codes.
+ * Codes are assigned in first-seen order starting at 0 and never change.
+ */
+public class SymbolDictionary<T> {
+    public static final int ABSENT = -1;
+
+    private final Map<T, Integer> codes = new HashMap<>();
+    private final List<T> values = new ArrayList<>();
+
+    /**
+     * Get the code for a value, assigning a new one if it has not been seen before
+     */
+    public int encode(T value) {
+        Integer code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+        int newCode = values.size();
+        values.add(value);
+        codes.put(value, newCode);
+        return newCode;
+    }
+
+    /**
+     * Get the code for a value without assigning one; returns {@link #ABSENT} if unknown
+     */
+    public int lookup(T value) {
+        Integer code = codes.get(value);
+        return code != null ? code : ABSENT;
+    }
+
+    public T decode(int code) {
+        return values.get(code);
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    public void clear() {
+        codes.clear();
+        values.clear();
+    }
+}
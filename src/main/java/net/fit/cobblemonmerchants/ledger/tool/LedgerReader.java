@@ -0,0 +1,150 @@
+package net.fit.cobblemonmerchants.ledger.tool;
+
+import net.fit.cobblemonmerchants.ledger.LedgerFilter;
+import net.fit.cobblemonmerchants.ledger.TransactionRecord;
+import net.fit.cobblemonmerchants.ledger.storage.LedgerArchive;
+import net.fit.cobblemonmerchants.ledger.storage.LedgerSegmentLog;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Read-only access to a ledger storage directory ({@code <world>/merchant_ledger}) without a server.
+ *
+ * The data is split into independent sources (one per archive month file and one per segment) and
+ * {@link #aggregate} folds each source into its own partial result on a parallel stream, merging
+ * the partials at the end. Nothing on disk is modified, so it is safe to point at a copy of a
+ * running server's directory (or the live one; anything appended meanwhile is simply not seen).
+ */
+public class LedgerReader {
+    /**
+     * One file's worth of records
+     */
+    public interface Source {
+        String name();
+
+        void read(Consumer<TransactionRecord> consumer) throws IOException;
+    }
+
+    private final Path directory;
+    private final List<Source> sources = new ArrayList<>();
+    private final long archivedRecords;
+
+    private LedgerReader(Path directory, LedgerArchive archive) throws IOException {
+        this.directory = directory;
+        this.archivedRecords = archive.getArchivedRecords();
+        for (String fileName : archive.getFileNames()) {
+            sources.add(new ArchiveSource(archive, fileName));
+        }
+        // Segments already copied into the archive (a crash between archiving and deleting them) are skipped
+        LedgerSegmentLog segmentLog = new LedgerSegmentLog(directory);
+        for (Path segment : segmentLog.listSegments()) {
+            if (LedgerSegmentLog.parseSegmentIndex(segment) > archive.getLastArchivedSegment()) {
+                sources.add(new SegmentSource(segment));
+            }
+        }
+    }
+
+    /**
+     * Open a ledger directory, or a world directory containing {@code merchant_ledger}
+     *
+     * @throws IOException if neither holds ledger data
+     */
+    public static LedgerReader open(Path path) throws IOException {
+        Path directory = Files.isDirectory(path.resolve("merchant_ledger")) ? path.resolve("merchant_ledger") : path;
+        if (!Files.isDirectory(directory)) {
+            throw new IOException("No such directory: " + path);
+        }
+        LedgerArchive archive = new LedgerArchive(directory.resolve("archive"));
+        archive.openReadOnly();
+        LedgerReader reader = new LedgerReader(directory, archive);
+        if (reader.sources.isEmpty()) {
+            throw new IOException("No ledger segments or archive files in " + directory);
+        }
+        return reader;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public List<Source> getSources() {
+        return sources;
+    }
+
+    public long getArchivedRecords() {
+        return archivedRecords;
+    }
+
+    /**
+     * Fold every record matching the filter into a result. Sources are read in parallel, each into
+     * a fresh container from the supplier; the containers are then merged with the combiner.
+     */
+    public <A> A aggregate(LedgerFilter filter, Supplier<A> supplier, BiConsumer<A, TransactionRecord> accumulator,
+                           BinaryOperator<A> combiner) {
+        return sources.parallelStream()
+                .map(source -> {
+                    A partial = supplier.get();
+                    try {
+                        source.read(record -> {
+                            if (filter.matches(record)) {
+                                accumulator.accept(partial, record);
+                            }
+                        });
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("Failed to read " + source.name(), e);
+                    }
+                    return partial;
+                })
+                .reduce(combiner)
+                .orElseGet(supplier);
+    }
+
+    /**
+     * UUID of the player most recently seen under a name (case-insensitive), or null
+     */
+    public UUID findPlayer(String name) {
+        String wanted = name.toLowerCase(Locale.ROOT);
+        TransactionRecord latest = aggregate(LedgerFilter.ALL, () -> new TransactionRecord[1], (holder, record) -> {
+            if (record.getPlayerName().toLowerCase(Locale.ROOT).equals(wanted)
+                    && (holder[0] == null || record.getTimestamp().isAfter(holder[0].getTimestamp()))) {
+                holder[0] = record;
+            }
+        }, (a, b) -> a[0] == null || (b[0] != null && b[0].getTimestamp().isAfter(a[0].getTimestamp())) ? b : a)[0];
+        return latest != null ? latest.getPlayerUuid() : null;
+    }
+
+    private record ArchiveSource(LedgerArchive archive, String fileName) implements Source {
+        @Override
+        public String name() {
+            return "archive/" + fileName;
+        }
+
+        @Override
+        public void read(Consumer<TransactionRecord> consumer) throws IOException {
+            archive.scanFile(fileName, consumer);
+        }
+    }
+
+    private record SegmentSource(Path segment) implements Source {
+        @Override
+        public String name() {
+            return segment.getFileName().toString();
+        }
+
+        @Override
+        public void read(Consumer<TransactionRecord> consumer) throws IOException {
+            LedgerSegmentLog.readSegment(segment, consumer);
+        }
+    }
+}
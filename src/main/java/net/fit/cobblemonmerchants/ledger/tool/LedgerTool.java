@@ -0,0 +1,386 @@
+package net.fit.cobblemonmerchants.ledger.tool;
+
+import net.fit.cobblemonmerchants.ledger.LedgerFilter;
+import net.fit.cobblemonmerchants.ledger.TransactionRecord;
+
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+/**
+ * Command-line analysis of a ledger directory, runnable without the game:
+ * <pre>
+ *   java -jar cobblemoncustommerchants-&lt;version&gt;-ledger-tool.jar &lt;world or ledger dir&gt; &lt;command&gt; [filters] [options]
+ * </pre>
+ * Commands: {@code merchants} (coin flow per merchant), {@code player <name|uuid>} (history),
+ * {@code histogram [hour|day|week|month]} and {@code info}. Filters are the {@code key=value}
+ * tokens of {@code /ledger query}. Only classes from {@code ledger.storage}, {@link TransactionRecord}
+ * and {@link LedgerFilter} are used, so the tool jar carries no Minecraft code.
+ */
+public final class LedgerTool {
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final LedgerReader reader;
+    private final PrintStream out;
+    private final boolean csv;
+
+    private LedgerTool(LedgerReader reader, PrintStream out, boolean csv) {
+        this.reader = reader;
+        this.out = out;
+        this.csv = csv;
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            printUsage(System.err);
+            System.exit(2);
+        }
+        try {
+            System.exit(run(args, System.out));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(2);
+        } catch (Exception e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Run one command; returns the process exit code
+     */
+    static int run(String[] args, PrintStream out) throws Exception {
+        Path path = Path.of(args[0]);
+        String command = args[1].toLowerCase(Locale.ROOT);
+
+        List<String> positional = new ArrayList<>();
+        List<String> filterTokens = new ArrayList<>();
+        boolean csv = false;
+        int limit = 0;
+        int threads = 0;
+        for (int i = 2; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "--csv" -> csv = true;
+                case "--limit" -> limit = parseCount(args, ++i, "--limit");
+                case "--threads" -> threads = parseCount(args, ++i, "--threads");
+                default -> {
+                    if (arg.startsWith("--")) {
+                        throw new IllegalArgumentException("Unknown option " + arg);
+                    }
+                    (arg.indexOf('=') > 0 ? filterTokens : positional).add(arg);
+                }
+            }
+        }
+
+        LedgerReader reader = LedgerReader.open(path);
+        LedgerFilter filter = LedgerFilter.parse(filterTokens, reader::findPlayer);
+        LedgerTool tool = new LedgerTool(reader, out, csv);
+        int historyLimit = limit;
+
+        Runnable action = switch (command) {
+            case "merchants" -> () -> tool.merchants(filter);
+            case "player" -> {
+                if (positional.isEmpty()) {
+                    throw new IllegalArgumentException("Usage: player <name|uuid> [filters] [--limit N]");
+                }
+                UUID player = parsePlayer(reader, positional.get(0));
+                yield () -> tool.player(player, positional.get(0), filter, historyLimit);
+            }
+            case "histogram" -> {
+                Bucket bucket = positional.isEmpty() ? Bucket.DAY : Bucket.fromId(positional.get(0));
+                yield () -> tool.histogram(bucket, filter);
+            }
+            case "info" -> () -> tool.info(filter);
+            default -> throw new IllegalArgumentException("Unknown command '" + command
+                    + "' (use merchants, player, histogram or info)");
+        };
+
+        if (threads > 0) {
+            // Parallel streams run in the pool that invokes them
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                pool.submit(action).get();
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof Exception cause ? cause : e;
+            } finally {
+                pool.shutdown();
+            }
+        } else {
+            action.run();
+        }
+        return 0;
+    }
+
+    private static int parseCount(String[] args, int index, String option) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException(option + " needs a number");
+        }
+        try {
+            return Math.max(1, Integer.parseInt(args[index]));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(option + " needs a number, got '" + args[index] + "'");
+        }
+    }
+
+    private static UUID parsePlayer(LedgerReader reader, String value) {
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException ignored) {
+            // Not a UUID, try it as a name
+        }
+        UUID uuid = reader.findPlayer(value);
+        if (uuid == null) {
+            throw new IllegalArgumentException("No transactions by a player named '" + value + "'");
+        }
+        return uuid;
+    }
+
+    private static void printUsage(PrintStream out) {
+        out.println("Usage: java -jar <ledger-tool.jar> <world or merchant_ledger dir> <command> [filters] [options]");
+        out.println();
+        out.println("Commands:");
+        out.println("  merchants                         coin flow per merchant");
+        out.println("  player <name|uuid>                a player's transactions, oldest first");
+        out.println("  histogram [hour|day|week|month]   transactions and coins per period (default: day)");
+        out.println("  info                              files and record counts");
+        out.println();
+        out.println("Filters (as in /ledger query): from=, to=, merchant=, player=, item=");
+        out.println("Options: --csv  --limit N (newest N history rows)  --threads N");
+    }
+
+    // ==================== Merchants ====================
+
+    /**
+     * Running totals for one merchant (or one histogram bucket)
+     */
+    private static final class Totals {
+        String name = "";
+        long entries;
+        long trades;
+        long coinsToPlayers;
+        long coinsFromPlayers;
+
+        void add(TransactionRecord record) {
+            entries++;
+            trades += record.getQuantity();
+            int coinChange = record.getCoinChange();
+            if (coinChange > 0) {
+                coinsToPlayers += coinChange;
+            } else {
+                coinsFromPlayers -= coinChange;
+            }
+        }
+
+        Totals merge(Totals other) {
+            if (name.isEmpty()) {
+                name = other.name;
+            }
+            entries += other.entries;
+            trades += other.trades;
+            coinsToPlayers += other.coinsToPlayers;
+            coinsFromPlayers += other.coinsFromPlayers;
+            return this;
+        }
+
+        long net() {
+            return coinsFromPlayers - coinsToPlayers;
+        }
+    }
+
+    private static <K> Map<K, Totals> mergeTotals(Map<K, Totals> a, Map<K, Totals> b) {
+        b.forEach((key, totals) -> a.merge(key, totals, Totals::merge));
+        return a;
+    }
+
+    private void merchants(LedgerFilter filter) {
+        Supplier<Map<String, Totals>> supplier = HashMap::new;
+        Map<String, Totals> byMerchant = reader.aggregate(filter, supplier, (map, record) -> {
+            Totals totals = map.computeIfAbsent(record.getMerchantId(), id -> new Totals());
+            totals.name = record.getMerchantName();
+            totals.add(record);
+        }, LedgerTool::mergeTotals);
+
+        List<Map.Entry<String, Totals>> rows = new ArrayList<>(byMerchant.entrySet());
+        rows.sort(Comparator.comparingLong((Map.Entry<String, Totals> e) -> e.getValue().trades).reversed()
+                .thenComparing(Map.Entry::getKey));
+
+        if (csv) {
+            out.println("merchant_id,merchant_name,entries,trades,coins_to_players,coins_from_players,net_coins");
+            for (Map.Entry<String, Totals> row : rows) {
+                Totals t = row.getValue();
+                out.println(String.join(",", csvField(row.getKey()), csvField(t.name), Long.toString(t.entries),
+                        Long.toString(t.trades), Long.toString(t.coinsToPlayers), Long.toString(t.coinsFromPlayers),
+                        Long.toString(t.net())));
+            }
+            return;
+        }
+
+        out.println("Coin flow per merchant (" + filter.describe() + ")");
+        out.printf(Locale.ROOT, "%-40s %10s %14s %16s %12s%n", "Merchant", "Trades", "Coins paid out", "Coins collected", "Net");
+        Totals all = new Totals();
+        for (Map.Entry<String, Totals> row : rows) {
+            Totals t = row.getValue();
+            out.printf(Locale.ROOT, "%-40s %10d %14d %16d %12d%n", truncate(row.getKey(), 40), t.trades,
+                    t.coinsToPlayers, t.coinsFromPlayers, t.net());
+            all.merge(t);
+        }
+        out.printf(Locale.ROOT, "%-40s %10d %14d %16d %12d%n", "TOTAL (" + rows.size() + " merchants)", all.trades,
+                all.coinsToPlayers, all.coinsFromPlayers, all.net());
+    }
+
+    // ==================== Player ====================
+
+    private void player(UUID player, String label, LedgerFilter filter, int limit) {
+        LedgerFilter playerFilter = new LedgerFilter(filter.getFrom(), filter.getTo(), filter.getMerchantId(),
+                player, label, filter.getItemId());
+        List<TransactionRecord> history = reader.aggregate(playerFilter, ArrayList::new, List::add, (a, b) -> {
+            a.addAll(b);
+            return a;
+        });
+        history.sort(Comparator.comparing(TransactionRecord::getTimestamp));
+        List<TransactionRecord> shown = limit > 0 && history.size() > limit
+                ? history.subList(history.size() - limit, history.size()) : history;
+
+        if (csv) {
+            out.println(TransactionRecord.getCsvHeader());
+            for (TransactionRecord record : shown) {
+                out.println(record.toCsvRow());
+            }
+            return;
+        }
+
+        long trades = 0;
+        long gained = 0;
+        long spent = 0;
+        for (TransactionRecord record : history) {
+            trades += record.getQuantity();
+            int coinChange = record.getCoinChange();
+            if (coinChange > 0) {
+                gained += coinChange;
+            } else {
+                spent -= coinChange;
+            }
+        }
+
+        out.println("History for " + label + " (" + player + ")");
+        if (shown.size() < history.size()) {
+            out.println("Showing the newest " + shown.size() + " of " + history.size() + " entries");
+        }
+        ZoneId zone = ZoneId.systemDefault();
+        for (TransactionRecord record : shown) {
+            out.printf(Locale.ROOT, "%s  %-28s %4dx  %d %s -> %d %s  (%s coins)%n",
+                    TIME_FORMAT.format(record.getTimestamp().atZone(zone)), truncate(record.getMerchantName(), 28),
+                    record.getQuantity(), record.getInputCount(), record.getInputItem(),
+                    record.getOutputCount(), record.getOutputItem(), record.getCoinChangeString());
+        }
+        out.printf(Locale.ROOT, "%d entries, %d trades, %d coins gained, %d coins spent, net %+d%n",
+                history.size(), trades, gained, spent, gained - spent);
+    }
+
+    // ==================== Histogram ====================
+
+    private enum Bucket {
+        HOUR, DAY, WEEK, MONTH;
+
+        static Bucket fromId(String id) {
+            for (Bucket bucket : values()) {
+                if (bucket.name().equalsIgnoreCase(id)) {
+                    return bucket;
+                }
+            }
+            throw new IllegalArgumentException("Unknown period '" + id + "' (use hour, day, week or month)");
+        }
+
+        ZonedDateTime start(ZonedDateTime time) {
+            return switch (this) {
+                case HOUR -> time.truncatedTo(ChronoUnit.HOURS);
+                case DAY -> time.truncatedTo(ChronoUnit.DAYS);
+                case WEEK -> time.truncatedTo(ChronoUnit.DAYS).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case MONTH -> time.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+            };
+        }
+
+        String label(ZonedDateTime start) {
+            return switch (this) {
+                case HOUR -> start.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:00"));
+                case DAY, WEEK -> start.toLocalDate().toString();
+                case MONTH -> start.format(DateTimeFormatter.ofPattern("yyyy-MM"));
+            };
+        }
+    }
+
+    private void histogram(Bucket bucket, LedgerFilter filter) {
+        ZoneId zone = ZoneId.systemDefault();
+        Supplier<Map<Long, Totals>> supplier = HashMap::new;
+        Map<Long, Totals> byBucket = reader.aggregate(filter, supplier, (map, record) -> {
+            long start = bucket.start(record.getTimestamp().atZone(zone)).toEpochSecond();
+            map.computeIfAbsent(start, key -> new Totals()).add(record);
+        }, LedgerTool::mergeTotals);
+        TreeMap<Long, Totals> sorted = new TreeMap<>(byBucket);
+
+        if (csv) {
+            out.println("period,entries,trades,coins_to_players,coins_from_players");
+            sorted.forEach((start, t) -> out.println(String.join(",", label(bucket, start, zone),
+                    Long.toString(t.entries), Long.toString(t.trades), Long.toString(t.coinsToPlayers),
+                    Long.toString(t.coinsFromPlayers))));
+            return;
+        }
+
+        out.println("Trades per " + bucket.name().toLowerCase(Locale.ROOT) + " (" + filter.describe() + ")");
+        long peak = sorted.values().stream().mapToLong(t -> t.trades).max().orElse(0);
+        out.printf(Locale.ROOT, "%-16s %10s %12s %12s%n", "Period", "Trades", "Coins out", "Coins in");
+        sorted.forEach((start, t) -> {
+            int width = peak > 0 ? (int) Math.round(30.0 * t.trades / peak) : 0;
+            out.printf(Locale.ROOT, "%-16s %10d %12d %12d  %s%n", label(bucket, start, zone), t.trades,
+                    t.coinsToPlayers, t.coinsFromPlayers, "#".repeat(width));
+        });
+    }
+
+    private static String label(Bucket bucket, long epochSecond, ZoneId zone) {
+        return bucket.label(ZonedDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), zone));
+    }
+
+    // ==================== Info ====================
+
+    private void info(LedgerFilter filter) {
+        Totals totals = reader.aggregate(filter, Totals::new, Totals::add, Totals::merge);
+        out.println("Ledger directory: " + reader.getDirectory());
+        out.println("Sources: " + reader.getSources().size() + " (" + reader.getArchivedRecords() + " archived records)");
+        for (LedgerReader.Source source : reader.getSources()) {
+            out.println("  " + source.name());
+        }
+        out.printf(Locale.ROOT, "Matching (%s): %d entries, %d trades, %d coins paid out, %d coins collected%n",
+                filter.describe(), totals.entries, totals.trades, totals.coinsToPlayers, totals.coinsFromPlayers);
+    }
+
+    // ==================== Helpers ====================
+
+    private static String truncate(String value, int width) {
+        return value.length() <= width ? value : value.substring(0, width - 1) + "~";
+    }
+
+    private static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -79,7 +79,9 @@ public class BlackMarketInventory extends SavedData {
 
         net.fit.cobblemonmerchants.CobblemonMerchants.LOGGER.info("No cache found or rotation changed - generating new offers");
         // Generate new inventory for this rotation
+        long generateStart = System.nanoTime();
         MerchantOffers newOffers = generateOffersForPlayer(playerUUID, currentRotationId, worldTime);
+        net.fit.cobblemonmerchants.metrics.MerchantMetrics.BLACK_MARKET_GENERATE_SECONDS.observeSince(generateStart);
         net.fit.cobblemonmerchants.CobblemonMerchants.LOGGER.info("Generated {} offers", newOffers.size());
         playerInventories.put(playerUUID, new PlayerInventory(currentRotationId, newOffers));
         setDirty();
@@ -485,6 +487,7 @@ public class BlackMarketInventory extends SavedData {
         }
         tag.put("RotationOffsets", offsetList);
 
+        net.fit.cobblemonmerchants.metrics.MerchantMetrics.recordSave(DATA_NAME, tag);
         return tag;
     }
 
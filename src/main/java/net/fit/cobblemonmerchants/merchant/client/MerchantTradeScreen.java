@@ -3,6 +3,7 @@ package net.fit.cobblemonmerchants.merchant.client;
 import com.mojang.blaze3d.systems.RenderSystem;
 import net.fit.cobblemonmerchants.CobblemonMerchants;
 import net.fit.cobblemonmerchants.merchant.menu.MerchantTradeMenu;
+import net.fit.cobblemonmerchants.merchant.menu.TradeInventoryScan;
 import net.fit.cobblemonmerchants.merchant.rewards.DailyRewardManager;
 import net.fit.cobblemonmerchants.network.ClaimDailyRewardPacket;
 import net.fit.cobblemonmerchants.network.TradeClickPacket;
@@ -33,6 +34,7 @@ public class MerchantTradeScreen extends AbstractContainerScreen<MerchantTradeMe
 
     private static final int TRADES_PER_ROW = 9;
     private static final int MAX_VISIBLE_ROWS = 3; // Single chest has 3 rows
+    private static final int CTRL_CLICK_TRADES = 10; // Repetitions requested by a ctrl-click
 
     // Timer for live countdown updates
     private long lastTimerUpdate = 0;
@@ -559,6 +561,8 @@ public class MerchantTradeScreen extends AbstractContainerScreen<MerchantTradeMe
         if (!offer.isOutOfStock()) {
             tooltip.add(Component.empty());
             tooltip.add(Component.literal("§eClick to trade"));
+            tooltip.add(Component.literal("§7Ctrl-click to trade " + CTRL_CLICK_TRADES + " times"));
+            tooltip.add(Component.literal("§7Shift-click to trade as many as you can afford"));
         }
 
         return tooltip;
@@ -595,8 +599,9 @@ public class MerchantTradeScreen extends AbstractContainerScreen<MerchantTradeMe
 
             int tradeIndex = getHoveredTradeIndex((int) mouseX, (int) mouseY);
             if (tradeIndex >= 0) {
-                // Send packet to server to execute trade
-                TradeClickPacket.send(tradeIndex);
+                // Send packet to server to execute trade (shift = as many as affordable, ctrl = several)
+                int times = hasShiftDown() ? MerchantTradeMenu.ALL_AFFORDABLE : hasControlDown() ? CTRL_CLICK_TRADES : 1;
+                TradeClickPacket.send(tradeIndex, times);
 
                 // Play appropriate sound
                 MerchantOffers offers = menu.getOffers();
@@ -659,106 +664,33 @@ public class MerchantTradeScreen extends AbstractContainerScreen<MerchantTradeMe
             menu.getTradeEntries();
 
         if (tradeIndex >= 0 && tradeIndex < tradeEntries.size()) {
-            // Use ItemRequirement-based validation
+            // Use ItemRequirement-based validation (relic coins count the bag too)
             net.fit.cobblemonmerchants.merchant.config.MerchantConfig.TradeEntry tradeEntry = tradeEntries.get(tradeIndex);
             net.fit.cobblemonmerchants.merchant.config.ItemRequirement inputReq = tradeEntry.input();
+            net.fit.cobblemonmerchants.merchant.config.ItemRequirement secondInputReq = tradeEntry.secondInput().orElse(null);
 
-            int countA = 0;
-            // Special handling for relic coins - check bag too
-            if (isRelicCoinRequirement(inputReq)) {
-                countA = countRelicCoinsClient(inventory);
-            } else {
-                for (ItemStack stack : inventory.items) {
-                    if (inputReq.matches(stack)) {
-                        countA += stack.getCount();
-                    }
-                }
-            }
-
-            int countB = 0;
-            if (tradeEntry.secondInput().isPresent()) {
-                net.fit.cobblemonmerchants.merchant.config.ItemRequirement secondInputReq = tradeEntry.secondInput().get();
-                // Special handling for relic coins - check bag too
-                if (isRelicCoinRequirement(secondInputReq)) {
-                    countB = countRelicCoinsClient(inventory);
-                } else {
-                    for (ItemStack stack : inventory.items) {
-                        if (secondInputReq.matches(stack)) {
-                            countB += stack.getCount();
-                        }
-                    }
-                }
-            }
+            TradeInventoryScan scan = TradeInventoryScan.scan(inventory,
+                isRelicCoinRequirement(inputReq) ? TradeInventoryScan.RELIC_COINS : inputReq::matches,
+                secondInputReq == null ? null
+                    : isRelicCoinRequirement(secondInputReq) ? TradeInventoryScan.RELIC_COINS : secondInputReq::matches);
 
-            boolean hasA = countA >= inputReq.getCount();
-            boolean hasB = !tradeEntry.secondInput().isPresent() || countB >= tradeEntry.secondInput().get().getCount();
-
-            return hasA && hasB;
+            return scan.has(TradeInventoryScan.FIRST, inputReq.getCount())
+                && (secondInputReq == null || scan.has(TradeInventoryScan.SECOND, secondInputReq.getCount()));
         } else {
             // Fallback to vanilla validation
             ItemStack costA = offer.getItemCostA().itemStack();
             ItemStack costB = offer.getCostB();
 
-            int countA = 0;
-            int countB = 0;
-
-            // Special handling for relic coins - check bag too
-            if (isRelicCoinStack(costA)) {
-                countA = countRelicCoinsClient(inventory);
-            } else {
-                for (ItemStack stack : inventory.items) {
-                    if (ItemStack.isSameItemSameComponents(stack, costA)) {
-                        countA += stack.getCount();
-                    }
-                }
-            }
-
-            if (!costB.isEmpty()) {
-                if (isRelicCoinStack(costB)) {
-                    countB = countRelicCoinsClient(inventory);
-                } else {
-                    for (ItemStack stack : inventory.items) {
-                        if (ItemStack.isSameItemSameComponents(stack, costB)) {
-                            countB += stack.getCount();
-                        }
-                    }
-                }
-            }
-
-            boolean hasA = countA >= costA.getCount();
-            boolean hasB = costB.isEmpty() || countB >= costB.getCount();
+            TradeInventoryScan scan = TradeInventoryScan.scan(inventory,
+                isRelicCoinStack(costA) ? TradeInventoryScan.RELIC_COINS : stack -> ItemStack.isSameItemSameComponents(stack, costA),
+                costB.isEmpty() ? null
+                    : isRelicCoinStack(costB) ? TradeInventoryScan.RELIC_COINS : stack -> ItemStack.isSameItemSameComponents(stack, costB));
 
-            return hasA && hasB;
+            return scan.has(TradeInventoryScan.FIRST, costA.getCount())
+                && (costB.isEmpty() || scan.has(TradeInventoryScan.SECOND, costB.getCount()));
         }
     }
 
-    /**
-     * Counts total relic coins available to the player (inventory + coin bag) - Client side
-     */
-    private int countRelicCoinsClient(Inventory inventory) {
-        int count = 0;
-        ResourceLocation relicCoinId = ResourceLocation.fromNamespaceAndPath("cobblemon", "relic_coin");
-
-        // Count coins in inventory
-        for (ItemStack stack : inventory.items) {
-            ResourceLocation itemId = net.minecraft.core.registries.BuiltInRegistries.ITEM.getKey(stack.getItem());
-            if (itemId.equals(relicCoinId)) {
-                count += stack.getCount();
-            }
-        }
-
-        // Count coins in bag
-        for (ItemStack stack : inventory.items) {
-            if (stack.getItem() instanceof net.fit.cobblemonmerchants.item.custom.RelicCoinBagItem) {
-                int bagCoins = stack.getOrDefault(net.fit.cobblemonmerchants.item.component.ModDataComponents.RELIC_COIN_COUNT.get(), 0);
-                count += bagCoins;
-                break; // Only one bag should exist
-            }
-        }
-
-        return count;
-    }
-
     /**
      * Check if an ItemStack is a relic coin
      */
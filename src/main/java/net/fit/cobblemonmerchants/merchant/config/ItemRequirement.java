@@ -1,6 +1,7 @@
 package net.fit.cobblemonmerchants.merchant.config;
 
 import com.mojang.serialization.Codec;
+import net.minecraft.core.Holder;
 import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.core.registries.Registries;
 import net.minecraft.resources.ResourceLocation;
@@ -9,19 +10,52 @@ import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.trading.ItemCost;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Represents an item requirement that can match either a specific item or any item in a tag.
  * Supports JSON formats:
  * - Exact item: {"id": "minecraft:stick", "count": 1, "display_name": "Custom Name", "ignore_components": false}
  * - Tag: {"tag": "minecraft:logs", "count": 4, "display_name": "Any Log"}
+ *
+ * Matching is precompiled: exact requirements compare the Item first and only look at components
+ * when the item matches, and tag requirements test a bitset of the tag's item ids that is resolved
+ * once per tag reload (see {@link #onTagsUpdated()}).
  */
 public class ItemRequirement {
+    // Bumped whenever tags are rebound; tag bitsets built for an older generation are rebuilt on use
+    private static final AtomicInteger TAG_GENERATION = new AtomicInteger();
+
     private final ItemStack exactItem;
     private final TagKey<Item> tag;
     private final int count;
     private final String displayName;
     private final boolean ignoreComponents;
 
+    // Compiled matcher
+    private final Item item;
+    private final boolean compareComponents;
+    private volatile TagItems tagItems;
+
+    /**
+     * Registry ids of the items in a tag, as of one tag generation
+     */
+    private record TagItems(int generation, long[] bits) {
+        boolean contains(int id) {
+            int word = id >>> 6;
+            return word < bits.length && (bits[word] & (1L << id)) != 0;
+        }
+
+        int first() {
+            for (int word = 0; word < bits.length; word++) {
+                if (bits[word] != 0) {
+                    return (word << 6) + Long.numberOfTrailingZeros(bits[word]);
+                }
+            }
+            return -1;
+        }
+    }
+
     private ItemRequirement(ItemStack exactItem, TagKey<Item> tag, int count, String displayName, boolean ignoreComponents) {
         if ((exactItem != null) == (tag != null)) {
             throw new IllegalArgumentException("Must specify exactly one of 'id' or 'tag'");
@@ -31,6 +65,15 @@ public class ItemRequirement {
         this.count = count;
         this.displayName = displayName;
         this.ignoreComponents = ignoreComponents;
+        this.item = exactItem != null ? exactItem.getItem() : null;
+        this.compareComponents = exactItem != null && !ignoreComponents;
+    }
+
+    /**
+     * Invalidate the resolved tag contents of every requirement. Called when tags are (re)loaded.
+     */
+    public static void onTagsUpdated() {
+        TAG_GENERATION.incrementAndGet();
     }
 
     public static ItemRequirement fromItem(ItemStack item) {
@@ -195,17 +238,37 @@ public class ItemRequirement {
      * For tags, checks if the item is in the tag.
      */
     public boolean matches(ItemStack stack) {
-        if (exactItem != null) {
-            if (ignoreComponents) {
-                // Only check item type, ignore components
-                return stack.getItem() == exactItem.getItem();
-            } else {
-                // Check both item type and components
-                return ItemStack.isSameItemSameComponents(stack, exactItem);
+        if (item != null) {
+            // Components are only compared once the item itself matches
+            return stack.getItem() == item && (!compareComponents || ItemStack.isSameItemSameComponents(stack, exactItem));
+        }
+        return tagItems().contains(BuiltInRegistries.ITEM.getId(stack.getItem()));
+    }
+
+    /**
+     * The tag's items for the current tag generation, resolving them if tags were reloaded
+     */
+    private TagItems tagItems() {
+        int generation = TAG_GENERATION.get();
+        TagItems items = tagItems;
+        if (items == null || items.generation() != generation) {
+            long[] bits = new long[(BuiltInRegistries.ITEM.size() + 63) >>> 6];
+            for (Holder<Item> holder : BuiltInRegistries.ITEM.getTagOrEmpty(tag)) {
+                int id = BuiltInRegistries.ITEM.getId(holder.value());
+                bits[id >>> 6] |= 1L << id;
             }
-        } else {
-            return stack.is(tag);
+            items = new TagItems(generation, bits);
+            tagItems = items;
         }
+        return items;
+    }
+
+    /**
+     * The first item in the tag by registry order, or null if the tag is empty
+     */
+    private Item firstTagItem() {
+        int id = tagItems().first();
+        return id >= 0 ? BuiltInRegistries.ITEM.byId(id) : null;
     }
 
     public int getCount() {
@@ -241,11 +304,8 @@ public class ItemRequirement {
             return exactItem;
         } else {
             // Find first item in tag for display
-            return BuiltInRegistries.ITEM.stream()
-                .filter(item -> item.builtInRegistryHolder().is(tag))
-                .findFirst()
-                .map(item -> new ItemStack(item, count))
-                .orElse(ItemStack.EMPTY);
+            Item firstItem = firstTagItem();
+            return firstItem != null ? new ItemStack(firstItem, count) : ItemStack.EMPTY;
         }
     }
 
@@ -272,10 +332,7 @@ public class ItemRequirement {
             return new ItemCost(exactItem.getItem(), customCount);
         } else {
             // Use first item from tag
-            Item firstItem = BuiltInRegistries.ITEM.stream()
-                .filter(item -> item.builtInRegistryHolder().is(tag))
-                .findFirst()
-                .orElse(null);
+            Item firstItem = firstTagItem();
             if (firstItem == null) {
                 // Tag is empty - return barrier item as fallback
                 return new ItemCost(net.minecraft.world.item.Items.BARRIER, customCount);
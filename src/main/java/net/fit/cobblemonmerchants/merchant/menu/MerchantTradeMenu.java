@@ -1,6 +1,7 @@
 package net.fit.cobblemonmerchants.merchant.menu;
 
 import net.fit.cobblemonmerchants.merchant.CustomMerchantEntity;
+import net.fit.cobblemonmerchants.network.SyncMerchantOfferUsesPacket;
 import net.fit.cobblemonmerchants.network.SyncMerchantOffersPacket;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.resources.ResourceLocation;
@@ -21,12 +22,27 @@ import org.jetbrains.annotations.NotNull;
  * Clicking on items executes the trade if the player has the required items.
  */
 public class MerchantTradeMenu extends AbstractContainerMenu {
+    /**
+     * Repetition count meaning "as many times as the player can afford"
+     */
+    public static final int ALL_AFFORDABLE = 0;
+
+    /**
+     * Most repetitions a single bulk trade request can make
+     */
+    public static final int MAX_BULK_TRADES = 64;
+
     private final CustomMerchantEntity merchant;
     private MerchantOffers offers;
     private java.util.List<net.fit.cobblemonmerchants.merchant.config.MerchantConfig.TradeEntry> tradeEntries;
     private final int merchantId;
     private int lastOfferCount = -1; // Start at -1 to trigger initial sync
     private boolean needsSync = false; // Flag to force sync after trade
+    private boolean needsFullSync = false; // Client asked for the full offer list (version mismatch)
+    // Offer sync version: bumped by every sync sent; the client only applies a delta on top of the version it holds
+    private int offersVersion = 0;
+    private int[] syncedUses = new int[0]; // uses/maxUses as last sent, to find what changed since
+    private int[] syncedMaxUses = new int[0];
     private final Player menuPlayer; // The player who has this menu open (server-side only)
 
     // Daily reward display info (client-side)
@@ -192,6 +208,55 @@ public class MerchantTradeMenu extends AbstractContainerMenu {
         this.offers = offers;
     }
 
+    /**
+     * Replace the offers with a full sync from the server (client side)
+     */
+    public void setOffers(MerchantOffers offers, int version) {
+        this.offers = offers;
+        this.offersVersion = version;
+    }
+
+    /**
+     * Apply a delta sync from the server (client side): new uses/maxUses for the offers at the given
+     * indices, on top of offer list version {@code baseVersion}.
+     * Returns false, changing nothing, if the delta does not apply to the offers this menu holds.
+     */
+    public boolean applyOfferUses(int baseVersion, int[] indices, int[] uses, int[] maxUses) {
+        if (baseVersion != offersVersion) {
+            return false;
+        }
+        for (int index : indices) {
+            if (index < 0 || index >= offers.size()) {
+                return false;
+            }
+        }
+
+        for (int i = 0; i < indices.length; i++) {
+            // MerchantOffer's max uses is final, so changed offers are rebuilt around the same costs and result
+            MerchantOffer old = offers.get(indices[i]);
+            offers.set(indices[i], new MerchantOffer(
+                old.getItemCostA(),
+                old.getItemCostB(),
+                old.getResult(),
+                uses[i],
+                maxUses[i],
+                old.getXp(),
+                old.getPriceMultiplier(),
+                old.getDemand()
+            ));
+        }
+        offersVersion = baseVersion + 1;
+        return true;
+    }
+
+    /**
+     * Send the full offer list on the next broadcast (server side), after the client reported a
+     * version mismatch. Repeated requests before then share one sync.
+     */
+    public void requestFullSync() {
+        needsFullSync = true;
+    }
+
     public CustomMerchantEntity getMerchant() {
         return merchant;
     }
@@ -256,14 +321,33 @@ public class MerchantTradeMenu extends AbstractContainerMenu {
      * Returns true if the trade was successful
      */
     public boolean executeTrade(int tradeIndex, Player player) {
+        return executeTrade(tradeIndex, 1, player) > 0;
+    }
+
+    /**
+     * Attempt to execute a trade up to {@code times} times in one go; {@link #ALL_AFFORDABLE} trades
+     * as many times as the player can pay for, capped at {@link #MAX_BULK_TRADES}.
+     * The trade is validated once, items are moved in aggregate and one ledger entry covers every
+     * repetition. Returns how many times the trade was made.
+     */
+    public int executeTrade(int tradeIndex, int times, Player player) {
+        long start = System.nanoTime();
+        int limit = times == ALL_AFFORDABLE ? MAX_BULK_TRADES : Math.min(times, MAX_BULK_TRADES);
+        int traded = limit > 0 ? tryExecuteTrade(tradeIndex, limit, player) : 0;
+        net.fit.cobblemonmerchants.metrics.MerchantMetrics.recordTrade(traded > 0, start);
+        return traded;
+    }
+
+    private int tryExecuteTrade(int tradeIndex, int times, Player player) {
         if (merchant == null || tradeIndex < 0 || tradeIndex >= offers.size()) {
-            return false;
+            return 0;
         }
 
         MerchantOffer offer = offers.get(tradeIndex);
         if (offer.isOutOfStock()) {
-            return false;
+            return 0;
         }
+        int limit = Math.min(times, offer.getMaxUses() - offer.getUses());
 
         // Check if this is a broken trade (barrier block in input or output) - prevent trading
         if (offer.getResult().getItem() == net.minecraft.world.item.Items.BARRIER ||
@@ -272,7 +356,7 @@ public class MerchantTradeMenu extends AbstractContainerMenu {
             net.fit.cobblemonmerchants.CobblemonMerchants.LOGGER.warn(
                 "Player {} attempted to complete a broken trade (barrier item) at index {}",
                 player.getName().getString(), tradeIndex);
-            return false;
+            return 0;
         }
 
         // Get the original trade entry for tag-based validation
@@ -281,7 +365,7 @@ public class MerchantTradeMenu extends AbstractContainerMenu {
 
         if (tradeEntry == null) {
             // Fallback to vanilla validation for trades without TradeEntry (e.g., Black Market)
-            return executeTradeLegacy(tradeIndex, player, offer);
+            return executeTradeLegacy(tradeIndex, limit, player, offer);
         }
 
         // Check daily reset limits if enabled
@@ -305,97 +389,39 @@ public class MerchantTradeMenu extends AbstractContainerMenu {
                     net.fit.cobblemonmerchants.CobblemonMerchants.LOGGER.info(
                         "SERVER: Player {} has reached daily limit for trade {} from merchant {}",
                         player.getName().getString(), tradeIndex, merchantId);
-                    return false;
+                    return 0;
                 }
+                limit = Math.min(limit, resetManager.getRemainingUses(player.getUUID(), merchantId, tradeIndex, maxUses));
             }
         }
 
-        // Count how many of each required item the player has
+        // Classify the inventory against both inputs in one pass
         net.fit.cobblemonmerchants.merchant.config.ItemRequirement inputReq = tradeEntry.input();
-        int countA = 0;
+        net.fit.cobblemonmerchants.merchant.config.ItemRequirement secondInputReq = tradeEntry.secondInput().orElse(null);
+        TradeInventoryScan scan = TradeInventoryScan.scan(player.getInventory(),
+            requirementPredicate(inputReq),
+            secondInputReq != null ? requirementPredicate(secondInputReq) : null);
 
-        // Special handling for relic coins - check bag too
-        if (isRelicCoin(inputReq)) {
-            countA = countRelicCoins(player);
-        } else {
-            for (ItemStack stack : player.getInventory().items) {
-                if (inputReq.matches(stack)) {
-                    countA += stack.getCount();
-                }
-            }
-        }
-
-        int countB = 0;
-        if (tradeEntry.secondInput().isPresent()) {
-            net.fit.cobblemonmerchants.merchant.config.ItemRequirement secondInputReq = tradeEntry.secondInput().get();
-
-            // Special handling for relic coins - check bag too
-            if (isRelicCoin(secondInputReq)) {
-                countB = countRelicCoins(player);
-            } else {
-                for (ItemStack stack : player.getInventory().items) {
-                    if (secondInputReq.matches(stack)) {
-                        countB += stack.getCount();
-                    }
-                }
-            }
-        }
-
-        // Check if player has enough items
-        if (countA < inputReq.getCount()) {
-            return false;
-        }
-        if (tradeEntry.secondInput().isPresent() && countB < tradeEntry.secondInput().get().getCount()) {
-            return false;
+        // Check how many times the player can pay (relic coins count the bag too)
+        int secondCount = secondInputReq != null ? secondInputReq.getCount() : 0;
+        int traded = scan.affordable(inputReq.getCount(), secondCount, limit);
+        if (traded == 0) {
+            return 0;
         }
 
         // Remove the cost items from player inventory
-        if (isRelicCoin(inputReq)) {
-            removeRelicCoins(player, inputReq.getCount());
-        } else {
-            removeItemsMatching(player.getInventory(), inputReq, inputReq.getCount());
+        scan.remove(TradeInventoryScan.FIRST, inputReq.getCount() * traded);
+        if (secondInputReq != null) {
+            scan.remove(TradeInventoryScan.SECOND, secondCount * traded);
         }
 
-        if (tradeEntry.secondInput().isPresent()) {
-            net.fit.cobblemonmerchants.merchant.config.ItemRequirement secondInputReq = tradeEntry.secondInput().get();
-            if (isRelicCoin(secondInputReq)) {
-                removeRelicCoins(player, secondInputReq.getCount());
-            } else {
-                removeItemsMatching(player.getInventory(), secondInputReq, secondInputReq.getCount());
-            }
-        }
-
-        // Give the player the result item
-        ItemStack result = offer.getResult().copy();
-
-        // Check if result is relic coins and auto-pickup is enabled
-        if (isRelicCoin(result)) {
-            // Find coin bag with auto-pickup enabled
-            ItemStack coinBag = findCoinBagWithAutoPickup(player);
-            if (coinBag != null) {
-                // Add coins directly to bag
-                int currentCoins = coinBag.getOrDefault(net.fit.cobblemonmerchants.item.component.ModDataComponents.RELIC_COIN_COUNT.get(), 0);
-                coinBag.set(net.fit.cobblemonmerchants.item.component.ModDataComponents.RELIC_COIN_COUNT.get(), currentCoins + result.getCount());
-
-                // Play pickup sound
-                player.playSound(net.minecraft.sounds.SoundEvents.ITEM_PICKUP, 0.5F, 1.0F);
-            } else {
-                // No bag or auto-pickup disabled, add to inventory normally
-                if (!player.getInventory().add(result)) {
-                    // If inventory is full, drop the item
-                    player.drop(result, false);
-                }
-            }
-        } else {
-            // Not relic coins, add to inventory normally
-            if (!player.getInventory().add(result)) {
-                // If inventory is full, drop the item
-                player.drop(result, false);
-            }
-        }
+        // Give the player the result items
+        giveResult(player, offer.getResult(), traded, scan);
 
         // Update the offer usage counter for GUI display
-        offer.increaseUses();
+        for (int i = 0; i < traded; i++) {
+            offer.increaseUses();
+        }
         net.fit.cobblemonmerchants.CobblemonMerchants.LOGGER.info(
             "SERVER: Trade {} uses incremented to {}/{} (dailyReset={})",
             tradeIndex, offer.getUses(), offer.getMaxUses(), tradeEntry.dailyReset());
@@ -406,117 +432,63 @@ public class MerchantTradeMenu extends AbstractContainerMenu {
                 net.fit.cobblemonmerchants.merchant.rewards.DailyTradeResetManager resetManager =
                     net.fit.cobblemonmerchants.merchant.rewards.DailyTradeResetManager.get(serverLevel);
                 String merchantId = merchant.getTraderId() != null ? merchant.getTraderId().toString() : "unknown";
-                resetManager.recordTradeUse(player.getUUID(), merchantId, tradeIndex);
+                resetManager.recordTradeUse(player.getUUID(), merchantId, tradeIndex, traded);
             }
         }
 
         // Record transaction in ledger
         if (player instanceof ServerPlayer serverPlayer) {
-            recordTransactionToLedger(serverPlayer, tradeEntry, offer);
+            recordTransactionToLedger(serverPlayer, tradeEntry, offer, traded);
         }
 
         // Mark for sync on next broadcastChanges
         needsSync = true;
 
-        return true;
+        return traded;
     }
 
     // Legacy validation for trades without TradeEntry (Black Market, etc.)
-    private boolean executeTradeLegacy(int tradeIndex, Player player, MerchantOffer offer) {
+    private int executeTradeLegacy(int tradeIndex, int limit, Player player, MerchantOffer offer) {
         ItemStack costA = offer.getItemCostA().itemStack();
         ItemStack costB = offer.getCostB();
 
-        int countA = 0;
-        int countB = 0;
-
-        // Special handling for relic coins - check bag too
-        if (isRelicCoin(costA)) {
-            countA = countRelicCoins(player);
-        } else {
-            for (ItemStack stack : player.getInventory().items) {
-                if (ItemStack.isSameItemSameComponents(stack, costA)) {
-                    countA += stack.getCount();
-                }
-            }
-        }
-
-        if (!costB.isEmpty()) {
-            if (isRelicCoin(costB)) {
-                countB = countRelicCoins(player);
-            } else {
-                for (ItemStack stack : player.getInventory().items) {
-                    if (ItemStack.isSameItemSameComponents(stack, costB)) {
-                        countB += stack.getCount();
-                    }
-                }
-            }
-        }
+        TradeInventoryScan scan = TradeInventoryScan.scan(player.getInventory(),
+            costPredicate(costA),
+            costB.isEmpty() ? null : costPredicate(costB));
 
-        if (countA < costA.getCount()) {
-            return false;
-        }
-        if (!costB.isEmpty() && countB < costB.getCount()) {
-            return false;
+        int traded = scan.affordable(costA.getCount(), costB.isEmpty() ? 0 : costB.getCount(), limit);
+        if (traded == 0) {
+            return 0;
         }
 
         // Remove items with special handling for relic coins
-        if (isRelicCoin(costA)) {
-            removeRelicCoins(player, costA.getCount());
-        } else {
-            removeItems(player.getInventory(), costA, costA.getCount());
-        }
-
+        scan.remove(TradeInventoryScan.FIRST, costA.getCount() * traded);
         if (!costB.isEmpty()) {
-            if (isRelicCoin(costB)) {
-                removeRelicCoins(player, costB.getCount());
-            } else {
-                removeItems(player.getInventory(), costB, costB.getCount());
-            }
+            scan.remove(TradeInventoryScan.SECOND, costB.getCount() * traded);
         }
 
-        ItemStack result = offer.getResult().copy();
+        giveResult(player, offer.getResult(), traded, scan);
 
-        // Check if result is relic coins and auto-pickup is enabled
-        if (isRelicCoin(result)) {
-            // Find coin bag with auto-pickup enabled
-            ItemStack coinBag = findCoinBagWithAutoPickup(player);
-            if (coinBag != null) {
-                // Add coins directly to bag
-                int currentCoins = coinBag.getOrDefault(net.fit.cobblemonmerchants.item.component.ModDataComponents.RELIC_COIN_COUNT.get(), 0);
-                coinBag.set(net.fit.cobblemonmerchants.item.component.ModDataComponents.RELIC_COIN_COUNT.get(), currentCoins + result.getCount());
-
-                // Play pickup sound
-                player.playSound(net.minecraft.sounds.SoundEvents.ITEM_PICKUP, 0.5F, 1.0F);
-            } else {
-                // No bag or auto-pickup disabled, add to inventory normally
-                if (!player.getInventory().add(result)) {
-                    player.drop(result, false);
-                }
-            }
-        } else {
-            // Not relic coins, add to inventory normally
-            if (!player.getInventory().add(result)) {
-                player.drop(result, false);
-            }
+        for (int i = 0; i < traded; i++) {
+            offer.increaseUses();
         }
 
-        offer.increaseUses();
-
         // Record transaction in ledger for legacy trades
         if (player instanceof ServerPlayer serverPlayer) {
-            recordLegacyTransactionToLedger(serverPlayer, offer);
+            recordLegacyTransactionToLedger(serverPlayer, offer, traded);
         }
 
         // Mark for sync on next broadcastChanges
         needsSync = true;
 
-        return true;
+        return traded;
     }
 
     /**
-     * Records a transaction to the ledger for trades with TradeEntry
+     * Records a transaction to the ledger for trades with TradeEntry; repeated trades are bundled
+     * into one entry
      */
-    private void recordTransactionToLedger(ServerPlayer player, net.fit.cobblemonmerchants.merchant.config.MerchantConfig.TradeEntry tradeEntry, MerchantOffer offer) {
+    private void recordTransactionToLedger(ServerPlayer player, net.fit.cobblemonmerchants.merchant.config.MerchantConfig.TradeEntry tradeEntry, MerchantOffer offer, int times) {
         if (player.level() instanceof net.minecraft.server.level.ServerLevel serverLevel) {
             net.fit.cobblemonmerchants.ledger.TransactionLedger ledger =
                 net.fit.cobblemonmerchants.ledger.TransactionLedger.get(serverLevel);
@@ -540,7 +512,8 @@ public class MerchantTradeMenu extends AbstractContainerMenu {
                 inputItem,
                 inputCount,
                 outputItem,
-                outputCount
+                outputCount,
+                times
             );
         }
     }
@@ -548,7 +521,7 @@ public class MerchantTradeMenu extends AbstractContainerMenu {
     /**
      * Records a transaction to the ledger for legacy trades (Black Market, etc.)
      */
-    private void recordLegacyTransactionToLedger(ServerPlayer player, MerchantOffer offer) {
+    private void recordLegacyTransactionToLedger(ServerPlayer player, MerchantOffer offer, int times) {
         if (player.level() instanceof net.minecraft.server.level.ServerLevel serverLevel) {
             net.fit.cobblemonmerchants.ledger.TransactionLedger ledger =
                 net.fit.cobblemonmerchants.ledger.TransactionLedger.get(serverLevel);
@@ -572,7 +545,8 @@ public class MerchantTradeMenu extends AbstractContainerMenu {
                 inputItem,
                 inputCount,
                 outputItem,
-                outputCount
+                outputCount,
+                times
             );
         }
     }
@@ -590,35 +564,47 @@ public class MerchantTradeMenu extends AbstractContainerMenu {
     }
 
     /**
-     * Removes items matching the ItemRequirement from inventory
+     * Gives the trade result to the player {@code times} times over. Relic coins go straight into
+     * the coin bag when it has auto-pickup enabled; anything that does not fit in the inventory is
+     * dropped, one stack at a time.
      */
-    private void removeItemsMatching(Inventory inventory, net.fit.cobblemonmerchants.merchant.config.ItemRequirement requirement, int count) {
-        int remaining = count;
-
-        for (int i = 0; i < inventory.items.size() && remaining > 0; i++) {
-            ItemStack stack = inventory.items.get(i);
-            if (requirement.matches(stack)) {
-                int removeCount = Math.min(remaining, stack.getCount());
-                stack.shrink(removeCount);
-                remaining -= removeCount;
+    private void giveResult(Player player, ItemStack result, int times, TradeInventoryScan scan) {
+        int total = result.getCount() * times;
+        if (isRelicCoin(result)) {
+            ItemStack coinBag = scan.autoPickupBag();
+            if (coinBag != null) {
+                // Add coins directly to bag
+                int currentCoins = coinBag.getOrDefault(net.fit.cobblemonmerchants.item.component.ModDataComponents.RELIC_COIN_COUNT.get(), 0);
+                coinBag.set(net.fit.cobblemonmerchants.item.component.ModDataComponents.RELIC_COIN_COUNT.get(), currentCoins + total);
+
+                // Play pickup sound
+                player.playSound(net.minecraft.sounds.SoundEvents.ITEM_PICKUP, 0.5F, 1.0F);
+                return;
+            }
+        }
+
+        while (total > 0) {
+            ItemStack stack = result.copyWithCount(Math.min(total, result.getMaxStackSize()));
+            total -= stack.getCount();
+            if (!player.getInventory().add(stack)) {
+                // If inventory is full, drop the item
+                player.drop(stack, false);
             }
         }
     }
 
     /**
-     * Removes a specific number of items matching the given stack from the inventory
+     * Scan predicate for a config requirement
      */
-    private void removeItems(Inventory inventory, ItemStack toRemove, int count) {
-        int remaining = count;
-
-        for (int i = 0; i < inventory.items.size() && remaining > 0; i++) {
-            ItemStack stack = inventory.items.get(i);
-            if (ItemStack.isSameItemSameComponents(stack, toRemove)) {
-                int removeCount = Math.min(remaining, stack.getCount());
-                stack.shrink(removeCount);
-                remaining -= removeCount;
-            }
-        }
+    private java.util.function.Predicate<ItemStack> requirementPredicate(net.fit.cobblemonmerchants.merchant.config.ItemRequirement requirement) {
+        return isRelicCoin(requirement) ? TradeInventoryScan.RELIC_COINS : requirement::matches;
+    }
+
+    /**
+     * Scan predicate for a legacy offer cost
+     */
+    private java.util.function.Predicate<ItemStack> costPredicate(ItemStack cost) {
+        return isRelicCoin(cost) ? TradeInventoryScan.RELIC_COINS : stack -> ItemStack.isSameItemSameComponents(stack, cost);
     }
 
     @Override
@@ -647,15 +633,20 @@ public class MerchantTradeMenu extends AbstractContainerMenu {
     public void broadcastChanges() {
         super.broadcastChanges();
 
-        // Sync offers to client when they change, after trades, or on first broadcast
+        // Sync offers to client on first broadcast, when the list changes or on request (full),
+        // and after trades (only the changed usage counts)
         // Use this.offers (the menu's copy with player-specific usage) not merchant.getOffers()
-        boolean shouldSync = needsSync || this.offers.size() != lastOfferCount;
+        boolean fullSync = needsFullSync || this.offers.size() != lastOfferCount;
 
-        if (shouldSync) {
+        if (fullSync) {
             net.fit.cobblemonmerchants.CobblemonMerchants.LOGGER.info("SERVER: Syncing offers - count: {}, needsSync: {}",
                 this.offers.size(), needsSync);
             sendOffersToPlayer();
             lastOfferCount = this.offers.size();
+            needsFullSync = false;
+            needsSync = false;
+        } else if (needsSync) {
+            sendOfferUsesToPlayer();
             needsSync = false;
         }
     }
@@ -667,68 +658,44 @@ public class MerchantTradeMenu extends AbstractContainerMenu {
         if (menuPlayer instanceof ServerPlayer serverPlayer) {
             net.fit.cobblemonmerchants.CobblemonMerchants.LOGGER.info("SERVER: Syncing {} offers to player {} (containerId: {})",
                 this.offers.size(), serverPlayer.getName().getString(), this.containerId);
+            offersVersion++;
+            syncedUses = new int[this.offers.size()];
+            syncedMaxUses = new int[this.offers.size()];
+            for (int i = 0; i < this.offers.size(); i++) {
+                syncedUses[i] = this.offers.get(i).getUses();
+                syncedMaxUses[i] = this.offers.get(i).getMaxUses();
+            }
             PacketDistributor.sendToPlayer(serverPlayer,
-                new SyncMerchantOffersPacket(this.containerId, this.offers));
+                new SyncMerchantOffersPacket(this.containerId, offersVersion, this.offers));
         }
     }
 
-    /**
-     * Counts total relic coins available to the player (inventory + coin bag)
-     */
-    private int countRelicCoins(Player player) {
-        int count = 0;
-        ResourceLocation relicCoinId = ResourceLocation.fromNamespaceAndPath("cobblemon", "relic_coin");
-
-        // Count coins in inventory
-        for (ItemStack stack : player.getInventory().items) {
-            ResourceLocation itemId = net.minecraft.core.registries.BuiltInRegistries.ITEM.getKey(stack.getItem());
-            if (itemId.equals(relicCoinId)) {
-                count += stack.getCount();
-            }
-        }
-
-        // Count coins in bag
-        for (ItemStack stack : player.getInventory().items) {
-            if (stack.getItem() instanceof net.fit.cobblemonmerchants.item.custom.RelicCoinBagItem) {
-                int bagCoins = stack.getOrDefault(net.fit.cobblemonmerchants.item.component.ModDataComponents.RELIC_COIN_COUNT.get(), 0);
-                count += bagCoins;
-                break; // Only one bag should exist
+    private void sendOfferUsesToPlayer() {
+        // Send only the offers whose usage changed since the last sync
+        if (menuPlayer instanceof ServerPlayer serverPlayer) {
+            int changed = 0;
+            int[] indices = new int[this.offers.size()];
+            for (int i = 0; i < this.offers.size(); i++) {
+                MerchantOffer offer = this.offers.get(i);
+                if (offer.getUses() != syncedUses[i] || offer.getMaxUses() != syncedMaxUses[i]) {
+                    indices[changed++] = i;
+                }
             }
-        }
-
-        return count;
-    }
-
-    /**
-     * Removes relic coins from player inventory and/or coin bag
-     */
-    private void removeRelicCoins(Player player, int amount) {
-        ResourceLocation relicCoinId = ResourceLocation.fromNamespaceAndPath("cobblemon", "relic_coin");
-        int remaining = amount;
-
-        // First, try to remove from inventory
-        for (int i = 0; i < player.getInventory().items.size() && remaining > 0; i++) {
-            ItemStack stack = player.getInventory().items.get(i);
-            ResourceLocation itemId = net.minecraft.core.registries.BuiltInRegistries.ITEM.getKey(stack.getItem());
-            if (itemId.equals(relicCoinId)) {
-                int removeCount = Math.min(remaining, stack.getCount());
-                stack.shrink(removeCount);
-                remaining -= removeCount;
+            if (changed == 0) {
+                return;
             }
-        }
 
-        // If still need more, remove from bag
-        if (remaining > 0) {
-            for (int i = 0; i < player.getInventory().items.size(); i++) {
-                ItemStack stack = player.getInventory().items.get(i);
-                if (stack.getItem() instanceof net.fit.cobblemonmerchants.item.custom.RelicCoinBagItem) {
-                    int bagCoins = stack.getOrDefault(net.fit.cobblemonmerchants.item.component.ModDataComponents.RELIC_COIN_COUNT.get(), 0);
-                    int removeCount = Math.min(remaining, bagCoins);
-                    stack.set(net.fit.cobblemonmerchants.item.component.ModDataComponents.RELIC_COIN_COUNT.get(), bagCoins - removeCount);
-                    remaining -= removeCount;
-                    break; // Only one bag should exist
-                }
+            indices = java.util.Arrays.copyOf(indices, changed);
+            int[] uses = new int[changed];
+            int[] maxUses = new int[changed];
+            for (int i = 0; i < changed; i++) {
+                uses[i] = syncedUses[indices[i]] = this.offers.get(indices[i]).getUses();
+                maxUses[i] = syncedMaxUses[indices[i]] = this.offers.get(indices[i]).getMaxUses();
             }
+            net.fit.cobblemonmerchants.CobblemonMerchants.LOGGER.debug("SERVER: Syncing usage of {} offer(s) to player {} (version {})",
+                changed, serverPlayer.getName().getString(), offersVersion + 1);
+            PacketDistributor.sendToPlayer(serverPlayer,
+                new SyncMerchantOfferUsesPacket(this.containerId, offersVersion++, indices, uses, maxUses));
         }
     }
 
@@ -751,24 +718,4 @@ public class MerchantTradeMenu extends AbstractContainerMenu {
         ResourceLocation itemId = net.minecraft.core.registries.BuiltInRegistries.ITEM.getKey(displayStack.getItem());
         return itemId.equals(relicCoinId);
     }
-
-    /**
-     * Finds the player's coin bag if they have one and auto-pickup is enabled
-     * @return The coin bag ItemStack, or null if not found or auto-pickup disabled
-     */
-    private ItemStack findCoinBagWithAutoPickup(Player player) {
-        for (ItemStack stack : player.getInventory().items) {
-            if (stack.getItem() instanceof net.fit.cobblemonmerchants.item.custom.RelicCoinBagItem) {
-                // Check if auto-pickup is enabled (default is true)
-                boolean autoPickupEnabled = stack.getOrDefault(net.fit.cobblemonmerchants.item.component.ModDataComponents.AUTO_PICKUP_ENABLED.get(), true);
-                if (autoPickupEnabled) {
-                    return stack;
-                }
-                // Found a bag but auto-pickup is disabled
-                return null;
-            }
-        }
-        // No coin bag found
-        return null;
-    }
 }
@@ -0,0 +1,214 @@
+package net.fit.cobblemonmerchants.merchant.menu;
+
+import net.fit.cobblemonmerchants.item.component.ModDataComponents;
+import net.fit.cobblemonmerchants.item.custom.RelicCoinBagItem;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.entity.player.Inventory;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+
+import java.util.function.Predicate;
+
+/**
+ * One pass over a player's main inventory, classifying every slot against both inputs of a trade.
+ *
+ * The scan records which slots match each input, which slots hold loose relic coins and where the
+ * player's coin bag is, so validating the trade, taking the payment and finding the bag for a coin
+ * result never walk the inventory again. An input is either a stack predicate or
+ * {@link #RELIC_COINS}, which is paid from loose coins first and then from the bag.
+ *
+ * Slots are re-read on removal, so taking the first input before the second behaves exactly like
+ * two separate removals. When a slot matches both inputs, removal uses it only after the slots
+ * matching just that input, so a validated payment never leaves the second input short. The scan
+ * is only valid until the inventory changes by other means.
+ */
+public final class TradeInventoryScan {
+    public static final int FIRST = 0;
+    public static final int SECOND = 1;
+
+    /**
+     * Input marker for relic coin costs: counts loose coins plus the coin bag's contents
+     */
+    public static final Predicate<ItemStack> RELIC_COINS = stack -> false;
+
+    private static final ResourceLocation RELIC_COIN_ID = ResourceLocation.fromNamespaceAndPath("cobblemon", "relic_coin");
+
+    private final Inventory inventory;
+    private final Predicate<ItemStack>[] inputs;
+    private final int[][] inputSlots;
+    private final int[] inputSlotCounts = new int[2];
+    private final int[] inputCounts = new int[2];
+    private final boolean[] sharedSlots;
+    private int sharedCount;
+    private final int[] coinSlots;
+    private int coinSlotCount;
+    private int looseCoins;
+    private int bagSlot = -1;
+
+    @SuppressWarnings("unchecked")
+    private TradeInventoryScan(Inventory inventory, Predicate<ItemStack> first, Predicate<ItemStack> second) {
+        int size = inventory.items.size();
+        this.inventory = inventory;
+        this.inputs = new Predicate[]{first, second};
+        this.inputSlots = new int[][]{new int[size], new int[size]};
+        this.sharedSlots = new boolean[size];
+        this.coinSlots = new int[size];
+    }
+
+    /**
+     * Scan the inventory for a trade; {@code second} may be null for single-input trades
+     */
+    public static TradeInventoryScan scan(Inventory inventory, Predicate<ItemStack> first, Predicate<ItemStack> second) {
+        TradeInventoryScan scan = new TradeInventoryScan(inventory, first, second);
+        Item relicCoin = BuiltInRegistries.ITEM.getOptional(RELIC_COIN_ID).orElse(null);
+
+        for (int slot = 0; slot < inventory.items.size(); slot++) {
+            ItemStack stack = inventory.items.get(slot);
+            if (stack.isEmpty()) {
+                continue;
+            }
+
+            if (stack.getItem() == relicCoin) {
+                scan.coinSlots[scan.coinSlotCount++] = slot;
+                scan.looseCoins += stack.getCount();
+            } else if (scan.bagSlot < 0 && stack.getItem() instanceof RelicCoinBagItem) {
+                scan.bagSlot = slot; // Only one bag should exist
+            }
+
+            int matched = 0;
+            for (int input = FIRST; input <= SECOND; input++) {
+                Predicate<ItemStack> predicate = scan.inputs[input];
+                if (predicate != null && predicate != RELIC_COINS && predicate.test(stack)) {
+                    scan.inputSlots[input][scan.inputSlotCounts[input]++] = slot;
+                    scan.inputCounts[input] += stack.getCount();
+                    matched++;
+                }
+            }
+            if (matched == 2) {
+                scan.sharedSlots[slot] = true;
+                scan.sharedCount += stack.getCount();
+            }
+        }
+        return scan;
+    }
+
+    /**
+     * How many of an input the player has; 0 if the trade has no such input
+     */
+    public int count(int input) {
+        Predicate<ItemStack> predicate = inputs[input];
+        if (predicate == null) {
+            return 0;
+        }
+        return predicate == RELIC_COINS ? relicCoins() : inputCounts[input];
+    }
+
+    /**
+     * Whether the player has at least {@code amount} of an input
+     */
+    public boolean has(int input, int amount) {
+        return count(input) >= amount;
+    }
+
+    /**
+     * How many times the player can pay {@code firstAmount} of the first input and
+     * {@code secondAmount} of the second, up to {@code limit}. Items that satisfy both inputs are
+     * only counted once.
+     */
+    public int affordable(int firstAmount, int secondAmount, int limit) {
+        int first = count(FIRST);
+        int second = count(SECOND);
+        int times = limit;
+        if (firstAmount > 0) {
+            times = Math.min(times, first / firstAmount);
+        }
+        if (secondAmount > 0) {
+            times = Math.min(times, second / secondAmount);
+            if (firstAmount > 0) {
+                times = Math.min(times, (first + second - shared()) / (firstAmount + secondAmount));
+            }
+        }
+        return Math.max(times, 0);
+    }
+
+    /**
+     * Items counted towards both inputs
+     */
+    private int shared() {
+        if (inputs[FIRST] == RELIC_COINS && inputs[SECOND] == RELIC_COINS) {
+            return relicCoins();
+        }
+        return sharedCount;
+    }
+
+    /**
+     * Total relic coins available to the player (loose coins + coin bag)
+     */
+    public int relicCoins() {
+        return looseCoins + bagCoins();
+    }
+
+    /**
+     * Take {@code amount} of an input from the slots the scan matched
+     */
+    public void remove(int input, int amount) {
+        Predicate<ItemStack> predicate = inputs[input];
+        if (predicate == null) {
+            return;
+        }
+        if (predicate == RELIC_COINS) {
+            removeRelicCoins(amount);
+        } else {
+            // Slots only this input can use go first
+            int remaining = shrink(inputSlots[input], inputSlotCounts[input], amount, false);
+            shrink(inputSlots[input], inputSlotCounts[input], remaining, true);
+        }
+    }
+
+    /**
+     * Takes relic coins from the inventory first, then from the coin bag
+     */
+    private void removeRelicCoins(int amount) {
+        int remaining = shrink(coinSlots, coinSlotCount, amount, false);
+        remaining = shrink(coinSlots, coinSlotCount, remaining, true);
+        if (remaining > 0 && bagSlot >= 0) {
+            ItemStack bag = inventory.items.get(bagSlot);
+            int bagCoins = bagCoins();
+            bag.set(ModDataComponents.RELIC_COIN_COUNT.get(), bagCoins - Math.min(remaining, bagCoins));
+        }
+    }
+
+    /**
+     * The player's coin bag if they have one and auto-pickup is enabled (default is true), else null
+     */
+    public ItemStack autoPickupBag() {
+        if (bagSlot < 0) {
+            return null;
+        }
+        ItemStack bag = inventory.items.get(bagSlot);
+        return bag.getOrDefault(ModDataComponents.AUTO_PICKUP_ENABLED.get(), true) ? bag : null;
+    }
+
+    private int bagCoins() {
+        return bagSlot < 0 ? 0 : inventory.items.get(bagSlot).getOrDefault(ModDataComponents.RELIC_COIN_COUNT.get(), 0);
+    }
+
+    /**
+     * Shrinks the listed slots that are (or are not) shared between both inputs, in order, until
+     * {@code amount} items are taken; returns what is left
+     */
+    private int shrink(int[] slots, int slotCount, int amount, boolean shared) {
+        int remaining = amount;
+        for (int i = 0; i < slotCount && remaining > 0; i++) {
+            if (sharedSlots[slots[i]] != shared) {
+                continue;
+            }
+            ItemStack stack = inventory.items.get(slots[i]);
+            int removeCount = Math.min(remaining, stack.getCount());
+            stack.shrink(removeCount);
+            remaining -= removeCount;
+        }
+        return remaining;
+    }
+}
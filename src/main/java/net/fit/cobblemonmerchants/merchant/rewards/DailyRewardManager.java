@@ -166,6 +166,7 @@ public class DailyRewardManager extends SavedData {
         }
 
         tag.put("claims", claimsList);
+        net.fit.cobblemonmerchants.metrics.MerchantMetrics.recordSave(DATA_NAME, tag);
         return tag;
     }
 
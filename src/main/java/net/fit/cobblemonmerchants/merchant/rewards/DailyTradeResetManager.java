@@ -92,16 +92,23 @@ public class DailyTradeResetManager extends SavedData {
      * Record that a player has used a trade.
      */
     public void recordTradeUse(UUID playerUUID, String merchantId, int tradeIndex) {
+        recordTradeUse(playerUUID, merchantId, tradeIndex, 1);
+    }
+
+    /**
+     * Record that a player has used a trade {@code uses} times at once.
+     */
+    public void recordTradeUse(UUID playerUUID, String merchantId, int tradeIndex, int uses) {
         String key = createKey(playerUUID, merchantId, tradeIndex);
         long todayEpochDay = LocalDate.now(ZoneId.systemDefault()).toEpochDay();
 
         TradeUsageRecord record = usageRecords.get(key);
         if (record == null || record.lastUseDay != todayEpochDay) {
             // New record or new day - start fresh
-            usageRecords.put(key, new TradeUsageRecord(todayEpochDay, 1));
+            usageRecords.put(key, new TradeUsageRecord(todayEpochDay, uses));
         } else {
             // Same day - increment
-            usageRecords.put(key, new TradeUsageRecord(todayEpochDay, record.usesToday + 1));
+            usageRecords.put(key, new TradeUsageRecord(todayEpochDay, record.usesToday + uses));
         }
         setDirty();
 
@@ -154,6 +161,7 @@ public class DailyTradeResetManager extends SavedData {
         }
 
         tag.put("records", recordsList);
+        net.fit.cobblemonmerchants.metrics.MerchantMetrics.recordSave(DATA_NAME, tag);
         return tag;
     }
 
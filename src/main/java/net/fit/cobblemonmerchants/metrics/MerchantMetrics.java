@@ -0,0 +1,136 @@
+package net.fit.cobblemonmerchants.metrics;
+
+import net.fit.cobblemonmerchants.ledger.LedgerCsvWriter;
+import net.fit.cobblemonmerchants.ledger.LedgerWebhookDispatcher;
+import net.fit.cobblemonmerchants.ledger.TransactionLedger;
+import net.fit.cobblemonmerchants.ledger.TransactionRecord;
+import net.minecraft.nbt.CompoundTag;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The metrics the mod exports. Hot paths update these directly; queue depths are sampled by
+ * {@link #sample(TransactionLedger)} on the server thread, since the ledger may only be read there.
+ */
+public final class MerchantMetrics {
+    // ===== TRADES =====
+    public static final Metrics.Counter TRADES_COMPLETED = Metrics.counter("trades_total",
+            "Trade attempts handled by merchant menus", "result", "completed");
+    public static final Metrics.Counter TRADES_REJECTED = Metrics.counter("trades_total",
+            "Trade attempts handled by merchant menus", "result", "rejected");
+    public static final Metrics.Histogram TRADE_SECONDS = Metrics.histogram("trade_execute_seconds",
+            "Time spent validating and executing a trade", Metrics.SECONDS_BUCKETS);
+
+    // ===== NETWORK =====
+    public static final Metrics.Counter TRADE_CLICKS_RATE_LIMITED = Metrics.counter("packets_rate_limited_total",
+            "Client packets dropped by the per-player rate limiter", "packet", "trade_click");
+    public static final Metrics.Counter DAILY_CLAIMS_RATE_LIMITED = Metrics.counter("packets_rate_limited_total",
+            "Client packets dropped by the per-player rate limiter", "packet", "claim_daily_reward");
+    public static final Metrics.Counter OFFER_REQUESTS_RATE_LIMITED = Metrics.counter("packets_rate_limited_total",
+            "Client packets dropped by the per-player rate limiter", "packet", "request_merchant_offers");
+
+    // ===== LEDGER =====
+    public static final Metrics.Counter LEDGER_FINALIZED = Metrics.counter("ledger_finalized_total",
+            "Ledger entries finalized (one per bundle of identical trades)");
+    public static final Metrics.Histogram LEDGER_FINALIZE_SECONDS = Metrics.histogram("ledger_finalize_seconds",
+            "Time spent finalizing a ledger entry on the server thread", Metrics.SECONDS_BUCKETS);
+    private static final Metrics.Gauge LEDGER_EVENT_QUEUE = Metrics.gauge("ledger_event_queue_depth",
+            "Trade events published but not yet applied to the ledger");
+    private static final Metrics.Gauge LEDGER_PENDING = Metrics.gauge("ledger_pending_bundles",
+            "Players with an open bundle waiting to be finalized");
+    private static final Metrics.Gauge LEDGER_HOT_RECORDS = Metrics.gauge("ledger_hot_records",
+            "Ledger entries held in memory");
+    private static final Metrics.Gauge LEDGER_RECORDS = Metrics.gauge("ledger_records",
+            "Ledger entries in memory and in the archive");
+    private static final Metrics.Gauge LEDGER_EVENTS_DROPPED = Metrics.gauge("ledger_events_dropped",
+            "Trade events dropped because the event ring was full, since startup");
+
+    // ===== CSV =====
+    public static final Metrics.Histogram CSV_FLUSH_SECONDS = Metrics.histogram("csv_flush_seconds",
+            "Time spent writing one batch to the ledger CSV", Metrics.SECONDS_BUCKETS);
+    private static final Metrics.Gauge CSV_QUEUE = Metrics.gauge("csv_queue_depth",
+            "Transactions waiting for the CSV writer");
+
+    // ===== WEBHOOK =====
+    public static final Metrics.Counter WEBHOOK_DELIVERED = Metrics.counter("webhook_records_total",
+            "Transactions sent to the webhook by outcome", "result", "delivered");
+    public static final Metrics.Counter WEBHOOK_FAILED = Metrics.counter("webhook_records_total",
+            "Transactions sent to the webhook by outcome", "result", "failed");
+    public static final Metrics.Histogram WEBHOOK_REQUEST_SECONDS = Metrics.histogram("webhook_request_seconds",
+            "Duration of a single webhook request, including failed attempts", Metrics.SECONDS_BUCKETS);
+    public static final Metrics.Histogram WEBHOOK_LAG_SECONDS = Metrics.histogram("webhook_delivery_lag_seconds",
+            "Time from a transaction being recorded to the webhook acknowledging it",
+            new double[]{0.1, 0.25, 0.5, 1, 2.5, 5, 10, 15, 30, 60, 120, 300, 600});
+    private static final Metrics.Gauge WEBHOOK_QUEUE = Metrics.gauge("webhook_queue_depth",
+            "Live transactions waiting for webhook delivery");
+    private static final Metrics.Gauge WEBHOOK_BACKLOG = Metrics.gauge("webhook_backlog_depth",
+            "Re-synced transactions waiting for webhook delivery");
+    private static final Metrics.Gauge WEBHOOK_IN_FLIGHT = Metrics.gauge("webhook_in_flight",
+            "Webhook requests currently in flight");
+
+    // ===== BLACK MARKET =====
+    public static final Metrics.Histogram BLACK_MARKET_GENERATE_SECONDS = Metrics.histogram(
+            "black_market_generate_seconds", "Time spent generating a player's Black Market offers",
+            Metrics.SECONDS_BUCKETS);
+
+    // ===== SAVED DATA =====
+    private static final Map<String, Metrics.Histogram> SAVE_BYTES = new ConcurrentHashMap<>();
+
+    private MerchantMetrics() {
+    }
+
+    /**
+     * Record the outcome and duration of one trade attempt
+     */
+    public static void recordTrade(boolean completed, long startNanos) {
+        TRADE_SECONDS.observeSince(startNanos);
+        (completed ? TRADES_COMPLETED : TRADES_REJECTED).inc();
+    }
+
+    /**
+     * Record how long after they happened the webhook acknowledged a batch of transactions
+     */
+    public static void recordWebhookDelivery(List<TransactionRecord> batch) {
+        long now = System.currentTimeMillis();
+        for (TransactionRecord record : batch) {
+            WEBHOOK_LAG_SECONDS.observe(Math.max(0, now - record.getTimestamp().toEpochMilli()) / 1000.0);
+        }
+        WEBHOOK_DELIVERED.add(batch.size());
+    }
+
+    /**
+     * Record the encoded size of a SavedData tag (call at the end of its save method)
+     */
+    public static void recordSave(String dataName, CompoundTag tag) {
+        recordSaveBytes(dataName, tag.sizeInBytes());
+    }
+
+    /**
+     * Record the size of data saved outside NBT, such as the ledger snapshot
+     */
+    public static void recordSaveBytes(String dataName, long bytes) {
+        SAVE_BYTES.computeIfAbsent(dataName, name -> Metrics.histogram("saved_data_bytes",
+                "Size of each save, by data file", Metrics.BYTES_BUCKETS, "data", name)).observe(bytes);
+    }
+
+    /**
+     * Copy the ledger's queue depths into gauges. Must be called on the server thread.
+     */
+    public static void sample(TransactionLedger ledger) {
+        LEDGER_EVENT_QUEUE.set(ledger.getEventQueueDepth());
+        LEDGER_PENDING.set(ledger.getPendingCount());
+        LEDGER_HOT_RECORDS.set(ledger.getRecordCount());
+        LEDGER_RECORDS.set(ledger.getTotalRecordCount());
+        LEDGER_EVENTS_DROPPED.set(ledger.getEventsDropped());
+
+        LedgerCsvWriter csvWriter = ledger.getCsvWriter();
+        CSV_QUEUE.set(csvWriter != null ? csvWriter.getQueueDepth() : 0);
+
+        LedgerWebhookDispatcher dispatcher = ledger.getWebhookDispatcher();
+        WEBHOOK_QUEUE.set(dispatcher != null ? dispatcher.getQueueDepth() : 0);
+        WEBHOOK_BACKLOG.set(dispatcher != null ? dispatcher.getBacklogDepth() : 0);
+        WEBHOOK_IN_FLIGHT.set(dispatcher != null ? dispatcher.getInFlight() : 0);
+    }
+}
@@ -0,0 +1,223 @@
+package net.fit.cobblemonmerchants.metrics;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Minimal metrics registry rendered in the Prometheus text exposition format.
+ *
+ * Counters and histograms are updated from whichever thread does the work (LongAdder cells, no
+ * locking); gauges are set by whoever samples them. A metric can carry fixed labels given as
+ * name/value pairs, and metrics registered under the same name are rendered as one family.
+ * All names get the {@link #PREFIX}.
+ */
+public final class Metrics {
+    public static final String PREFIX = "cobblemonmerchants_";
+
+    /**
+     * Latency buckets in seconds, 50us to 5s
+     */
+    public static final double[] SECONDS_BUCKETS = {
+            0.00005, 0.0001, 0.00025, 0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5
+    };
+
+    /**
+     * Size buckets in bytes, 1 KiB to 64 MiB
+     */
+    public static final double[] BYTES_BUCKETS = {
+            1024, 4096, 16384, 65536, 262144, 1048576, 4194304, 16777216, 67108864
+    };
+
+    private static final Map<String, Family> FAMILIES = new LinkedHashMap<>();
+
+    private record Family(String name, String help, String type, List<Metric> metrics) {
+    }
+
+    private Metrics() {
+    }
+
+    /**
+     * A registered time series; {@code labels} is pre-rendered, e.g. {@code result="success"}
+     */
+    public abstract static class Metric {
+        final String labels;
+
+        Metric(String labels) {
+            this.labels = labels;
+        }
+
+        abstract void render(String name, StringBuilder out);
+    }
+
+    public static final class Counter extends Metric {
+        private final LongAdder value = new LongAdder();
+
+        Counter(String labels) {
+            super(labels);
+        }
+
+        public void inc() {
+            value.increment();
+        }
+
+        public void add(long amount) {
+            value.add(amount);
+        }
+
+        public long get() {
+            return value.sum();
+        }
+
+        @Override
+        void render(String name, StringBuilder out) {
+            sample(out, name, labels, value.sum());
+        }
+    }
+
+    public static final class Gauge extends Metric {
+        private volatile double value;
+
+        Gauge(String labels) {
+            super(labels);
+        }
+
+        public void set(double value) {
+            this.value = value;
+        }
+
+        @Override
+        void render(String name, StringBuilder out) {
+            sample(out, name, labels, value);
+        }
+    }
+
+    public static final class Histogram extends Metric {
+        private final double[] bounds;
+        private final LongAdder[] buckets;
+        private final DoubleAdder sum = new DoubleAdder();
+
+        Histogram(String labels, double[] bounds) {
+            super(labels);
+            this.bounds = bounds.clone();
+            this.buckets = new LongAdder[bounds.length + 1];
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        public void observe(double value) {
+            int bucket = 0;
+            while (bucket < bounds.length && value > bounds[bucket]) {
+                bucket++;
+            }
+            buckets[bucket].increment();
+            sum.add(value);
+        }
+
+        /**
+         * Observe a duration measured with {@link System#nanoTime()}, in seconds
+         */
+        public void observeNanos(long nanos) {
+            observe(nanos / 1_000_000_000.0);
+        }
+
+        /**
+         * Observe the time since {@code startNanos}, in seconds
+         */
+        public void observeSince(long startNanos) {
+            observeNanos(System.nanoTime() - startNanos);
+        }
+
+        @Override
+        void render(String name, StringBuilder out) {
+            String separator = labels.isEmpty() ? "" : labels + ",";
+            long cumulative = 0;
+            for (int i = 0; i < bounds.length; i++) {
+                cumulative += buckets[i].sum();
+                sample(out, name + "_bucket", separator + "le=\"" + format(bounds[i]) + "\"", cumulative);
+            }
+            cumulative += buckets[bounds.length].sum();
+            sample(out, name + "_bucket", separator + "le=\"+Inf\"", cumulative);
+            sample(out, name + "_sum", labels, sum.sum());
+            sample(out, name + "_count", labels, cumulative);
+        }
+    }
+
+    // ==================== Registration ====================
+
+    public static Counter counter(String name, String help, String... labels) {
+        return register(name, help, "counter", new Counter(labels(labels)));
+    }
+
+    public static Gauge gauge(String name, String help, String... labels) {
+        return register(name, help, "gauge", new Gauge(labels(labels)));
+    }
+
+    public static Histogram histogram(String name, String help, double[] bounds, String... labels) {
+        return register(name, help, "histogram", new Histogram(labels(labels), bounds));
+    }
+
+    private static synchronized <M extends Metric> M register(String name, String help, String type, M metric) {
+        Family family = FAMILIES.computeIfAbsent(PREFIX + name,
+                key -> new Family(key, help, type, new ArrayList<>()));
+        if (!family.type().equals(type)) {
+            throw new IllegalArgumentException("Metric " + family.name() + " is already a " + family.type());
+        }
+        family.metrics().add(metric);
+        return metric;
+    }
+
+    // ==================== Rendering ====================
+
+    /**
+     * Every registered metric in the Prometheus text format (version 0.0.4)
+     */
+    public static synchronized String render() {
+        StringBuilder out = new StringBuilder(8192);
+        for (Family family : FAMILIES.values()) {
+            out.append("# HELP ").append(family.name()).append(' ').append(family.help()).append('\n');
+            out.append("# TYPE ").append(family.name()).append(' ').append(family.type()).append('\n');
+            for (Metric metric : family.metrics()) {
+                metric.render(family.name(), out);
+            }
+        }
+        return out.toString();
+    }
+
+    private static String labels(String... pairs) {
+        if (pairs.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels must be name/value pairs");
+        }
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < pairs.length; i += 2) {
+            if (i > 0) {
+                text.append(',');
+            }
+            text.append(pairs[i]).append("=\"").append(escape(pairs[i + 1])).append('"');
+        }
+        return text.toString();
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, double value) {
+        out.append(name);
+        if (!labels.isEmpty()) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ').append(format(value)).append('\n');
+    }
+
+    private static String format(double value) {
+        if (value == Math.rint(value) && !Double.isInfinite(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+}
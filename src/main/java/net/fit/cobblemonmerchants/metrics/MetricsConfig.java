@@ -0,0 +1,102 @@
+package net.fit.cobblemonmerchants.metrics;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import net.fit.cobblemonmerchants.CobblemonMerchants;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Configuration for the metrics endpoint.
+ * Values are loaded from config/cobblemoncustommerchants-metrics.json when the server starts;
+ * missing keys keep their defaults, and the file is created with defaults if it does not exist.
+ * This class provides static access to the loaded configuration.
+ */
+public class MetricsConfig {
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    public static final String FILE_NAME = "cobblemoncustommerchants-metrics.json";
+
+    // ===== ENDPOINT SETTINGS =====
+    /**
+     * Whether to serve metrics over HTTP; the endpoint only ever listens on localhost (default: false)
+     */
+    public static boolean ENABLED = false;
+
+    /**
+     * Local port the endpoint listens on (default: 9464)
+     */
+    public static int PORT = 9464;
+
+    /**
+     * Path metrics are served under (default: /metrics)
+     */
+    public static String PATH = "/metrics";
+
+    /**
+     * How often queue depths and other gauges are sampled on the server thread, in ticks (default: 20)
+     */
+    public static int SAMPLE_INTERVAL_TICKS = 20;
+
+    /**
+     * Loads configuration from a JSON file, writing a default file if none exists
+     * @param file Path to the JSON config file
+     */
+    public static void load(Path file) {
+        if (!Files.exists(file)) {
+            save(file);
+            return;
+        }
+
+        try {
+            JsonObject json = JsonParser.parseString(Files.readString(file)).getAsJsonObject();
+            ENABLED = getBoolean(json, "enabled", ENABLED);
+            PORT = Math.max(1, Math.min(65535, getInt(json, "port", PORT)));
+            String path = getString(json, "path", PATH);
+            PATH = path.startsWith("/") ? path : "/" + path;
+            SAMPLE_INTERVAL_TICKS = Math.max(1, getInt(json, "sampleIntervalTicks", SAMPLE_INTERVAL_TICKS));
+            CobblemonMerchants.LOGGER.info("Loaded metrics configuration from {}", file);
+        } catch (Exception e) {
+            CobblemonMerchants.LOGGER.error("Failed to load metrics configuration from {} - using defaults", file, e);
+        }
+    }
+
+    /**
+     * Writes the current values to a JSON file
+     */
+    public static void save(Path file) {
+        JsonObject json = new JsonObject();
+        json.addProperty("enabled", ENABLED);
+        json.addProperty("port", PORT);
+        json.addProperty("path", PATH);
+        json.addProperty("sampleIntervalTicks", SAMPLE_INTERVAL_TICKS);
+
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Files.writeString(file, GSON.toJson(json));
+        } catch (IOException e) {
+            CobblemonMerchants.LOGGER.error("Failed to write metrics configuration to {}", file, e);
+        }
+    }
+
+    private static boolean getBoolean(JsonObject json, String key, boolean fallback) {
+        JsonElement element = json.get(key);
+        return element != null && element.isJsonPrimitive() ? element.getAsBoolean() : fallback;
+    }
+
+    private static String getString(JsonObject json, String key, String fallback) {
+        JsonElement element = json.get(key);
+        return element != null && element.isJsonPrimitive() ? element.getAsString() : fallback;
+    }
+
+    private static int getInt(JsonObject json, String key, int fallback) {
+        JsonElement element = json.get(key);
+        return element != null && element.isJsonPrimitive() ? element.getAsInt() : fallback;
+    }
+}
@@ -0,0 +1,96 @@
+package net.fit.cobblemonmerchants.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import net.fit.cobblemonmerchants.CobblemonMerchants;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Embedded HTTP endpoint serving {@link Metrics#render()} for a Prometheus scraper.
+ *
+ * Always bound to the loopback address, so it is only reachable from the machine the server runs
+ * on. Requests are answered on a single daemon thread and never touch game state: everything they
+ * read is either a thread-safe counter or a gauge the server thread sampled earlier.
+ */
+public final class MetricsServer {
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static HttpServer server;
+    private static ExecutorService executor;
+
+    private MetricsServer() {
+    }
+
+    /**
+     * Start the endpoint if {@link MetricsConfig#ENABLED}; does nothing if it is already running
+     */
+    public static synchronized void start() {
+        if (!MetricsConfig.ENABLED || server != null) {
+            return;
+        }
+        InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), MetricsConfig.PORT);
+        try {
+            HttpServer http = HttpServer.create(address, 0);
+            http.createContext(MetricsConfig.PATH, MetricsServer::handle);
+            executor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "Merchant-Metrics");
+                thread.setDaemon(true);
+                return thread;
+            });
+            http.setExecutor(executor);
+            http.start();
+            server = http;
+            CobblemonMerchants.LOGGER.info("Serving metrics on http://{}:{}{}",
+                    address.getHostString(), MetricsConfig.PORT, MetricsConfig.PATH);
+        } catch (IOException e) {
+            CobblemonMerchants.LOGGER.error("Failed to start metrics endpoint on port {}: {}",
+                    MetricsConfig.PORT, e.getMessage());
+            if (executor != null) {
+                executor.shutdownNow();
+                executor = null;
+            }
+        }
+    }
+
+    public static synchronized void stop() {
+        if (server == null) {
+            return;
+        }
+        server.stop(0);
+        executor.shutdownNow();
+        server = null;
+        executor = null;
+    }
+
+    public static synchronized boolean isRunning() {
+        return server != null;
+    }
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String method = exchange.getRequestMethod();
+            if (!"GET".equals(method) && !"HEAD".equals(method)) {
+                exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = Metrics.render().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            if ("HEAD".equals(method)) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+}
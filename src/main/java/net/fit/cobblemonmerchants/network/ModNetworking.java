@@ -4,26 +4,40 @@ import net.fit.cobblemonmerchants.CobblemonMerchants;
 import net.neoforged.bus.api.SubscribeEvent;
 import net.neoforged.fml.common.EventBusSubscriber;
 import net.neoforged.neoforge.network.event.RegisterPayloadHandlersEvent;
+import net.neoforged.neoforge.network.registration.HandlerThread;
 import net.neoforged.neoforge.network.registration.PayloadRegistrar;
 
 @EventBusSubscriber(modid = CobblemonMerchants.MODID, bus = EventBusSubscriber.Bus.MOD)
 public class ModNetworking {
+    // Bump whenever a payload's wire format changes, so mismatched clients are refused at login
+    // 2: trade clicks carry a repeat count
+    // 3: offer syncs carry a list version; offer use deltas and full offer requests added
+    private static final String PROTOCOL_VERSION = "3";
 
     @SubscribeEvent
     public static void registerPayloads(RegisterPayloadHandlersEvent event) {
-        PayloadRegistrar registrar = event.registrar("1");
+        PayloadRegistrar registrar = event.registrar(PROTOCOL_VERSION);
+        // Handlers run on the network thread, so packets over the rate limit are dropped there;
+        // accepted ones queue their work for the server thread
+        PayloadRegistrar networkRegistrar = event.registrar(PROTOCOL_VERSION).executesOn(HandlerThread.NETWORK);
 
-        // Client to server packets
-        registrar.playToServer(
+        // Client to server packets (rate limited per player before any work is queued)
+        networkRegistrar.playToServer(
             TradeClickPacket.TYPE,
             TradeClickPacket.STREAM_CODEC,
-            TradeClickPacket::handle
+            PacketRateLimiter.guard(PacketRateLimiter.Kind.TRADE_CLICK, TradeClickPacket::handle)
         );
 
-        registrar.playToServer(
+        networkRegistrar.playToServer(
             ClaimDailyRewardPacket.TYPE,
             ClaimDailyRewardPacket.STREAM_CODEC,
-            ClaimDailyRewardPacket::handle
+            PacketRateLimiter.guard(PacketRateLimiter.Kind.CLAIM_DAILY_REWARD, ClaimDailyRewardPacket::handle)
+        );
+
+        networkRegistrar.playToServer(
+            RequestMerchantOffersPacket.TYPE,
+            RequestMerchantOffersPacket.STREAM_CODEC,
+            PacketRateLimiter.guard(PacketRateLimiter.Kind.REQUEST_MERCHANT_OFFERS, RequestMerchantOffersPacket::handle)
         );
 
         // Server to client packets
@@ -32,5 +46,11 @@ public class ModNetworking {
             SyncMerchantOffersPacket.STREAM_CODEC,
             SyncMerchantOffersPacket::handle
         );
+
+        registrar.playToClient(
+            SyncMerchantOfferUsesPacket.TYPE,
+            SyncMerchantOfferUsesPacket.STREAM_CODEC,
+            SyncMerchantOfferUsesPacket::handle
+        );
     }
 }
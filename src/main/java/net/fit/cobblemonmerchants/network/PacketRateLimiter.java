@@ -0,0 +1,183 @@
+package net.fit.cobblemonmerchants.network;
+
+import net.fit.cobblemonmerchants.CobblemonMerchants;
+import net.fit.cobblemonmerchants.metrics.MerchantMetrics;
+import net.fit.cobblemonmerchants.metrics.Metrics;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.server.level.ServerPlayer;
+import net.neoforged.neoforge.network.handling.IPayloadHandler;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-player token buckets in front of the client-to-server payload handlers.
+ *
+ * Each player has one bucket per {@link Kind} holding up to the configured burst of tokens, refilled
+ * continuously at the configured rate. A packet that finds its bucket empty is dropped on the network
+ * thread before any work is queued for the server thread. Rejections are counted per kind (also
+ * exported as metrics) and per player for {@code /merchantratelimit}.
+ */
+public final class PacketRateLimiter {
+
+    public enum Kind {
+        TRADE_CLICK("trade_click", MerchantMetrics.TRADE_CLICKS_RATE_LIMITED),
+        CLAIM_DAILY_REWARD("claim_daily_reward", MerchantMetrics.DAILY_CLAIMS_RATE_LIMITED),
+        REQUEST_MERCHANT_OFFERS("request_merchant_offers", MerchantMetrics.OFFER_REQUESTS_RATE_LIMITED);
+
+        private final String id;
+        private final Metrics.Counter rejected;
+
+        Kind(String id, Metrics.Counter rejected) {
+            this.id = id;
+            this.rejected = rejected;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        int burst() {
+            return switch (this) {
+                case TRADE_CLICK -> RateLimitConfig.TRADE_CLICK_BURST;
+                case CLAIM_DAILY_REWARD -> RateLimitConfig.DAILY_CLAIM_BURST;
+                case REQUEST_MERCHANT_OFFERS -> RateLimitConfig.OFFER_REQUEST_BURST;
+            };
+        }
+
+        double perSecond() {
+            return switch (this) {
+                case TRADE_CLICK -> RateLimitConfig.TRADE_CLICKS_PER_SECOND;
+                case CLAIM_DAILY_REWARD -> RateLimitConfig.DAILY_CLAIMS_PER_SECOND;
+                case REQUEST_MERCHANT_OFFERS -> RateLimitConfig.OFFER_REQUESTS_PER_SECOND;
+            };
+        }
+    }
+
+    private static final class Bucket {
+        private double tokens;
+        private long lastRefillNanos;
+
+        Bucket(int burst, long now) {
+            this.tokens = burst;
+            this.lastRefillNanos = now;
+        }
+
+        synchronized boolean tryTake(int burst, double perSecond, long now) {
+            tokens = Math.min(burst, tokens + (now - lastRefillNanos) * perSecond / 1_000_000_000.0);
+            lastRefillNanos = now;
+            if (tokens >= 1.0) {
+                tokens -= 1.0;
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Rejection counts for one player, kept after they log out until the stats are reset
+     */
+    public record PlayerRejections(UUID playerUuid, String playerName, AtomicLongArray counts) {
+        public long get(Kind kind) {
+            return counts.get(kind.ordinal());
+        }
+
+        public long total() {
+            long total = 0;
+            for (int i = 0; i < counts.length(); i++) {
+                total += counts.get(i);
+            }
+            return total;
+        }
+    }
+
+    private static final Map<UUID, Bucket[]> BUCKETS = new ConcurrentHashMap<>();
+    private static final Map<UUID, PlayerRejections> REJECTIONS = new ConcurrentHashMap<>();
+
+    private PacketRateLimiter() {
+    }
+
+    /**
+     * Wrap a server-bound payload handler so packets over the player's limit are dropped
+     */
+    public static <T extends CustomPacketPayload> IPayloadHandler<T> guard(Kind kind, IPayloadHandler<T> handler) {
+        return (payload, context) -> {
+            if (context.player() instanceof ServerPlayer player && !tryAcquire(player, kind)) {
+                return;
+            }
+            handler.handle(payload, context);
+        };
+    }
+
+    /**
+     * Take a token for a packet of the given kind, recording a rejection if there is none
+     */
+    public static boolean tryAcquire(ServerPlayer player, Kind kind) {
+        if (!RateLimitConfig.ENABLED) {
+            return true;
+        }
+        long now = System.nanoTime();
+        Bucket[] buckets = BUCKETS.computeIfAbsent(player.getUUID(), uuid -> {
+            Bucket[] created = new Bucket[Kind.values().length];
+            for (Kind each : Kind.values()) {
+                created[each.ordinal()] = new Bucket(each.burst(), now);
+            }
+            return created;
+        });
+        if (buckets[kind.ordinal()].tryTake(kind.burst(), kind.perSecond(), now)) {
+            return true;
+        }
+
+        kind.rejected.inc();
+        PlayerRejections rejections = REJECTIONS.computeIfAbsent(player.getUUID(),
+            uuid -> new PlayerRejections(uuid, player.getName().getString(), new AtomicLongArray(Kind.values().length)));
+        if (rejections.counts().getAndIncrement(kind.ordinal()) == 0) {
+            CobblemonMerchants.LOGGER.warn("Rate limiting {} packets from player {}",
+                kind.getId(), player.getName().getString());
+        }
+        return false;
+    }
+
+    /**
+     * Packets of a kind dropped since the server started
+     */
+    public static long getRejected(Kind kind) {
+        return kind.rejected.get();
+    }
+
+    /**
+     * Players with at least one rejection, most rejected first
+     */
+    public static List<PlayerRejections> getTopOffenders(int limit) {
+        List<PlayerRejections> players = new ArrayList<>(REJECTIONS.values());
+        players.sort(Comparator.comparingLong(PlayerRejections::total).reversed());
+        return players.size() > limit ? players.subList(0, limit) : players;
+    }
+
+    /**
+     * Forget a player's buckets (on logout); their rejection counts are kept
+     */
+    public static void forget(UUID playerUuid) {
+        BUCKETS.remove(playerUuid);
+    }
+
+    /**
+     * Clear per-player rejection counts
+     */
+    public static void resetStats() {
+        REJECTIONS.clear();
+    }
+
+    /**
+     * Drop all buckets and per-player counts (on server start, after the config is loaded)
+     */
+    public static void reset() {
+        BUCKETS.clear();
+        REJECTIONS.clear();
+    }
+}
@@ -0,0 +1,124 @@
+package net.fit.cobblemonmerchants.network;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import net.fit.cobblemonmerchants.CobblemonMerchants;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Configuration for the per-player packet rate limiter.
+ * Values are loaded from config/cobblemoncustommerchants-ratelimit.json when the server starts;
+ * missing keys keep their defaults, and the file is created with defaults if it does not exist.
+ * This class provides static access to the loaded configuration.
+ */
+public class RateLimitConfig {
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    public static final String FILE_NAME = "cobblemoncustommerchants-ratelimit.json";
+
+    /**
+     * Whether merchant packets are rate limited at all (default: true)
+     */
+    public static boolean ENABLED = true;
+
+    // ===== TRADE CLICKS =====
+    /**
+     * Trade clicks a player can send back to back before being throttled (default: 20)
+     */
+    public static int TRADE_CLICK_BURST = 20;
+
+    /**
+     * Sustained trade clicks per second allowed per player (default: 10)
+     */
+    public static double TRADE_CLICKS_PER_SECOND = 10.0;
+
+    // ===== DAILY REWARD CLAIMS =====
+    /**
+     * Daily reward claims a player can send back to back before being throttled (default: 3)
+     */
+    public static int DAILY_CLAIM_BURST = 3;
+
+    /**
+     * Sustained daily reward claims per second allowed per player (default: 1)
+     */
+    public static double DAILY_CLAIMS_PER_SECOND = 1.0;
+
+    // ===== FULL OFFER LIST REQUESTS =====
+    /**
+     * Full offer list requests a player can send back to back before being throttled (default: 5)
+     */
+    public static int OFFER_REQUEST_BURST = 5;
+
+    /**
+     * Sustained full offer list requests per second allowed per player (default: 1)
+     */
+    public static double OFFER_REQUESTS_PER_SECOND = 1.0;
+
+    /**
+     * Loads configuration from a JSON file, writing a default file if none exists
+     * @param file Path to the JSON config file
+     */
+    public static void load(Path file) {
+        if (!Files.exists(file)) {
+            save(file);
+            return;
+        }
+
+        try {
+            JsonObject json = JsonParser.parseString(Files.readString(file)).getAsJsonObject();
+            ENABLED = getBoolean(json, "enabled", ENABLED);
+            TRADE_CLICK_BURST = Math.max(1, getInt(json, "tradeClickBurst", TRADE_CLICK_BURST));
+            TRADE_CLICKS_PER_SECOND = Math.max(0.01, getDouble(json, "tradeClicksPerSecond", TRADE_CLICKS_PER_SECOND));
+            DAILY_CLAIM_BURST = Math.max(1, getInt(json, "dailyClaimBurst", DAILY_CLAIM_BURST));
+            DAILY_CLAIMS_PER_SECOND = Math.max(0.01, getDouble(json, "dailyClaimsPerSecond", DAILY_CLAIMS_PER_SECOND));
+            OFFER_REQUEST_BURST = Math.max(1, getInt(json, "offerRequestBurst", OFFER_REQUEST_BURST));
+            OFFER_REQUESTS_PER_SECOND = Math.max(0.01, getDouble(json, "offerRequestsPerSecond", OFFER_REQUESTS_PER_SECOND));
+            CobblemonMerchants.LOGGER.info("Loaded rate limit configuration from {}", file);
+        } catch (Exception e) {
+            CobblemonMerchants.LOGGER.error("Failed to load rate limit configuration from {} - using defaults", file, e);
+        }
+    }
+
+    /**
+     * Writes the current values to a JSON file
+     */
+    public static void save(Path file) {
+        JsonObject json = new JsonObject();
+        json.addProperty("enabled", ENABLED);
+        json.addProperty("tradeClickBurst", TRADE_CLICK_BURST);
+        json.addProperty("tradeClicksPerSecond", TRADE_CLICKS_PER_SECOND);
+        json.addProperty("dailyClaimBurst", DAILY_CLAIM_BURST);
+        json.addProperty("dailyClaimsPerSecond", DAILY_CLAIMS_PER_SECOND);
+        json.addProperty("offerRequestBurst", OFFER_REQUEST_BURST);
+        json.addProperty("offerRequestsPerSecond", OFFER_REQUESTS_PER_SECOND);
+
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Files.writeString(file, GSON.toJson(json));
+        } catch (IOException e) {
+            CobblemonMerchants.LOGGER.error("Failed to write rate limit configuration to {}", file, e);
+        }
+    }
+
+    private static boolean getBoolean(JsonObject json, String key, boolean fallback) {
+        JsonElement element = json.get(key);
+        return element != null && element.isJsonPrimitive() ? element.getAsBoolean() : fallback;
+    }
+
+    private static int getInt(JsonObject json, String key, int fallback) {
+        JsonElement element = json.get(key);
+        return element != null && element.isJsonPrimitive() ? element.getAsInt() : fallback;
+    }
+
+    private static double getDouble(JsonObject json, String key, double fallback) {
+        JsonElement element = json.get(key);
+        return element != null && element.isJsonPrimitive() ? element.getAsDouble() : fallback;
+    }
+}
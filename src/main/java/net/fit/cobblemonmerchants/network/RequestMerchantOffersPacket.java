@@ -0,0 +1,53 @@
+package net.fit.cobblemonmerchants.network;
+
+import io.netty.buffer.ByteBuf;
+import net.fit.cobblemonmerchants.merchant.menu.MerchantTradeMenu;
+import net.minecraft.network.codec.ByteBufCodecs;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerPlayer;
+import net.neoforged.neoforge.network.PacketDistributor;
+import net.neoforged.neoforge.network.handling.IPayloadContext;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Packet sent from client to server when an offer delta did not match the client's offer list,
+ * asking for a full {@link SyncMerchantOffersPacket}
+ */
+public record RequestMerchantOffersPacket(int containerId) implements CustomPacketPayload {
+    public static final Type<RequestMerchantOffersPacket> TYPE = new Type<>(
+        ResourceLocation.fromNamespaceAndPath("cobblemoncustommerchants", "request_merchant_offers")
+    );
+
+    public static final StreamCodec<ByteBuf, RequestMerchantOffersPacket> STREAM_CODEC = StreamCodec.composite(
+        ByteBufCodecs.INT,
+        RequestMerchantOffersPacket::containerId,
+        RequestMerchantOffersPacket::new
+    );
+
+    @Override
+    public @NotNull Type<? extends CustomPacketPayload> type() {
+        return TYPE;
+    }
+
+    /**
+     * Sends this packet to the server
+     */
+    public static void send(int containerId) {
+        PacketDistributor.sendToServer(new RequestMerchantOffersPacket(containerId));
+    }
+
+    /**
+     * Handles the packet on the server side; the full sync goes out with the menu's next broadcast
+     */
+    public static void handle(RequestMerchantOffersPacket packet, IPayloadContext context) {
+        context.enqueueWork(() -> {
+            if (context.player() instanceof ServerPlayer serverPlayer
+                && serverPlayer.containerMenu instanceof MerchantTradeMenu menu
+                && menu.containerId == packet.containerId) {
+                menu.requestFullSync();
+            }
+        });
+    }
+}
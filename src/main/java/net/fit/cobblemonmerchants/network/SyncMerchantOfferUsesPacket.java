@@ -0,0 +1,75 @@
+package net.fit.cobblemonmerchants.network;
+
+import net.fit.cobblemonmerchants.merchant.menu.MerchantTradeMenu;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+import net.neoforged.neoforge.network.handling.IPayloadContext;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Packet sent from server to client after trades with the new uses/maxUses of the offers that changed.
+ * It applies on top of offer list version {@code baseVersion}; a client holding any other version asks
+ * for a full {@link SyncMerchantOffersPacket} instead.
+ */
+public record SyncMerchantOfferUsesPacket(int containerId, int baseVersion, int[] indices, int[] uses, int[] maxUses)
+    implements CustomPacketPayload {
+    public static final Type<SyncMerchantOfferUsesPacket> TYPE = new Type<>(
+        ResourceLocation.fromNamespaceAndPath("cobblemoncustommerchants", "sync_merchant_offer_uses")
+    );
+
+    public static final StreamCodec<FriendlyByteBuf, SyncMerchantOfferUsesPacket> STREAM_CODEC = new StreamCodec<>() {
+        @Override
+        public void encode(FriendlyByteBuf buf, SyncMerchantOfferUsesPacket packet) {
+            buf.writeInt(packet.containerId);
+            buf.writeVarInt(packet.baseVersion);
+            buf.writeVarInt(packet.indices.length);
+            for (int i = 0; i < packet.indices.length; i++) {
+                buf.writeVarInt(packet.indices[i]);
+                buf.writeVarInt(packet.uses[i]);
+                buf.writeVarInt(packet.maxUses[i]);
+            }
+        }
+
+        @Override
+        public SyncMerchantOfferUsesPacket decode(FriendlyByteBuf buf) {
+            int containerId = buf.readInt();
+            int baseVersion = buf.readVarInt();
+            int count = buf.readVarInt();
+            if (count < 0 || count > buf.readableBytes()) {
+                throw new IllegalArgumentException("Invalid offer delta size: " + count);
+            }
+            int[] indices = new int[count];
+            int[] uses = new int[count];
+            int[] maxUses = new int[count];
+            for (int i = 0; i < count; i++) {
+                indices[i] = buf.readVarInt();
+                uses[i] = buf.readVarInt();
+                maxUses[i] = buf.readVarInt();
+            }
+            return new SyncMerchantOfferUsesPacket(containerId, baseVersion, indices, uses, maxUses);
+        }
+    };
+
+    @Override
+    public @NotNull Type<? extends CustomPacketPayload> type() {
+        return TYPE;
+    }
+
+    /**
+     * Handles the packet on the client side
+     */
+    public static void handle(SyncMerchantOfferUsesPacket packet, IPayloadContext context) {
+        context.enqueueWork(() -> {
+            if (context.player().containerMenu instanceof MerchantTradeMenu menu) {
+                if (menu.containerId == packet.containerId
+                    && !menu.applyOfferUses(packet.baseVersion, packet.indices, packet.uses, packet.maxUses)) {
+                    net.fit.cobblemonmerchants.CobblemonMerchants.LOGGER.info(
+                        "CLIENT: Offer delta for version {} does not apply, requesting full offer sync", packet.baseVersion);
+                    RequestMerchantOffersPacket.send(packet.containerId);
+                }
+            }
+        });
+    }
+}
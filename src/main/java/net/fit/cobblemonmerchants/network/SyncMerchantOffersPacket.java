@@ -17,9 +17,11 @@ import org.jetbrains.annotations.NotNull;
 import java.util.Optional;
 
 /**
- * Packet sent from server to client to synchronize merchant offers
+ * Packet sent from server to client to synchronize merchant offers.
+ * Carries the whole offer list and is sent when a menu opens or the client asks for it;
+ * usage changes after trades go out as {@link SyncMerchantOfferUsesPacket} deltas on top of {@code version}.
  */
-public record SyncMerchantOffersPacket(int containerId, MerchantOffers offers) implements CustomPacketPayload {
+public record SyncMerchantOffersPacket(int containerId, int version, MerchantOffers offers) implements CustomPacketPayload {
     public static final Type<SyncMerchantOffersPacket> TYPE = new Type<>(
         ResourceLocation.fromNamespaceAndPath("cobblemoncustommerchants", "sync_merchant_offers")
     );
@@ -28,6 +30,7 @@ public record SyncMerchantOffersPacket(int containerId, MerchantOffers offers) i
         @Override
         public void encode(RegistryFriendlyByteBuf buf, SyncMerchantOffersPacket packet) {
             buf.writeInt(packet.containerId);
+            buf.writeVarInt(packet.version);
             buf.writeInt(packet.offers.size());
 
             int offerIdx = 0;
@@ -59,6 +62,7 @@ public record SyncMerchantOffersPacket(int containerId, MerchantOffers offers) i
         @Override
         public SyncMerchantOffersPacket decode(RegistryFriendlyByteBuf buf) {
             int containerId = buf.readInt();
+            int version = buf.readVarInt();
             int size = buf.readInt();
             MerchantOffers offers = new MerchantOffers();
 
@@ -91,7 +95,7 @@ public record SyncMerchantOffersPacket(int containerId, MerchantOffers offers) i
                 offers.add(offer);
             }
 
-            return new SyncMerchantOffersPacket(containerId, offers);
+            return new SyncMerchantOffersPacket(containerId, version, offers);
         }
     };
 
@@ -107,7 +111,7 @@ public record SyncMerchantOffersPacket(int containerId, MerchantOffers offers) i
         context.enqueueWork(() -> {
             if (context.player().containerMenu instanceof MerchantTradeMenu menu) {
                 if (menu.containerId == packet.containerId) {
-                    menu.setOffers(packet.offers);
+                    menu.setOffers(packet.offers, packet.version);
                     net.fit.cobblemonmerchants.CobblemonMerchants.LOGGER.info("CLIENT: Received {} offers from server", packet.offers.size());
                 }
             }
@@ -15,9 +15,11 @@ import net.neoforged.neoforge.network.handling.IPayloadContext;
 import org.jetbrains.annotations.NotNull;
 
 /**
- * Packet sent from client to server when a player clicks on a trade in the merchant GUI
+ * Packet sent from client to server when a player clicks on a trade in the merchant GUI.
+ * {@code times} asks for the trade to be repeated (bulk trading); {@link MerchantTradeMenu#ALL_AFFORDABLE}
+ * means as many times as the player can afford.
  */
-public record TradeClickPacket(int tradeIndex) implements CustomPacketPayload {
+public record TradeClickPacket(int tradeIndex, int times) implements CustomPacketPayload {
     public static final Type<TradeClickPacket> TYPE = new Type<>(
         ResourceLocation.fromNamespaceAndPath("cobblemoncustommerchants", "trade_click")
     );
@@ -25,6 +27,8 @@ public record TradeClickPacket(int tradeIndex) implements CustomPacketPayload {
     public static final StreamCodec<ByteBuf, TradeClickPacket> STREAM_CODEC = StreamCodec.composite(
         ByteBufCodecs.INT,
         TradeClickPacket::tradeIndex,
+        ByteBufCodecs.VAR_INT,
+        TradeClickPacket::times,
         TradeClickPacket::new
     );
 
@@ -37,7 +41,14 @@ public record TradeClickPacket(int tradeIndex) implements CustomPacketPayload {
      * Sends this packet to the server
      */
     public static void send(int tradeIndex) {
-        PacketDistributor.sendToServer(new TradeClickPacket(tradeIndex));
+        send(tradeIndex, 1);
+    }
+
+    /**
+     * Sends a bulk trade request to the server
+     */
+    public static void send(int tradeIndex, int times) {
+        PacketDistributor.sendToServer(new TradeClickPacket(tradeIndex, times));
     }
 
     /**
@@ -47,7 +58,7 @@ public record TradeClickPacket(int tradeIndex) implements CustomPacketPayload {
         context.enqueueWork(() -> {
             if (context.player() instanceof ServerPlayer serverPlayer) {
                 if (serverPlayer.containerMenu instanceof MerchantTradeMenu menu) {
-                    boolean success = menu.executeTrade(packet.tradeIndex, serverPlayer);
+                    boolean success = menu.executeTrade(packet.tradeIndex, packet.times, serverPlayer) > 0;
 
                     if (success) {
                         // Play success sound at merchant location (80% volume)